@@ -0,0 +1,116 @@
+/**
+ * Copyright (c) 2017-present, UtilsVerifier Contributors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+package com.github.karczews.utilsverifier;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures each check in isolation against generated utility classes with a
+ * growing number of static members.
+ * <p>
+ * A check is isolated by suppressing all the other ones. Constructor
+ * invocation can't be suppressed, so {@code PRIVATE_CONSTRUCTOR} is the
+ * baseline included in every other result. Member snapshots are cached after
+ * the first verification, {@link SnapshotBenchmark} measures the uncached cost.
+ * {@code reflectionAllViolations} evaluates the same checks in the single
+ * fused member pass used by {@link UtilsVerifier#verifyAll()}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CheckBenchmark {
+
+    public enum Check {
+        FINAL_CLASS,
+        ONLY_ONE_CONSTRUCTOR,
+        PRIVATE_CONSTRUCTOR,
+        INSTANCE_FIELDS,
+        INSTANCE_METHODS,
+        MUTABLE_STATIC_FIELDS,
+        ALL
+    }
+
+    @Param({"1000", "10000", "50000"})
+    public int members;
+
+    @Param({"FINAL_CLASS", "ONLY_ONE_CONSTRUCTOR", "PRIVATE_CONSTRUCTOR", "INSTANCE_FIELDS", "INSTANCE_METHODS",
+            "MUTABLE_STATIC_FIELDS", "ALL"})
+    public Check check;
+
+    private Class<?> type;
+    private byte[] classBytes;
+
+    @Setup
+    public void setUp() {
+        final String className = "com.github.karczews.utilsverifier.generated.Static" + members;
+        classBytes = GeneratedClasses.generate(className, members);
+        type = GeneratedClasses.define(className, members);
+    }
+
+    @Benchmark
+    public Object reflection() {
+        final UtilsVerifier<?> verifier = UtilsVerifier.forClass(type)
+                .suppressFinalClassCheck(!isEnabled(Check.FINAL_CLASS))
+                .suppressOnlyOneConstructorCheck(!isEnabled(Check.ONLY_ONE_CONSTRUCTOR))
+                .suppressPrivateConstructorCheck(!isEnabled(Check.PRIVATE_CONSTRUCTOR))
+                .suppressInstanceFieldCheck(!isEnabled(Check.INSTANCE_FIELDS))
+                .suppressInstanceMethodCheck(!isEnabled(Check.INSTANCE_METHODS))
+                .suppressMutableStaticFieldsCheck(!isEnabled(Check.MUTABLE_STATIC_FIELDS));
+        verifier.verify();
+        return verifier;
+    }
+
+    @Benchmark
+    public Object reflectionAllViolations() {
+        return UtilsVerifier.forClass(type)
+                .suppressFinalClassCheck(!isEnabled(Check.FINAL_CLASS))
+                .suppressOnlyOneConstructorCheck(!isEnabled(Check.ONLY_ONE_CONSTRUCTOR))
+                .suppressPrivateConstructorCheck(!isEnabled(Check.PRIVATE_CONSTRUCTOR))
+                .suppressInstanceFieldCheck(!isEnabled(Check.INSTANCE_FIELDS))
+                .suppressInstanceMethodCheck(!isEnabled(Check.INSTANCE_METHODS))
+                .suppressMutableStaticFieldsCheck(!isEnabled(Check.MUTABLE_STATIC_FIELDS))
+                .verifyAll();
+    }
+
+    @Benchmark
+    public Object classFile() {
+        final ClassFileVerifier verifier = ClassFileVerifier.forBytes(classBytes)
+                .suppressFinalClassCheck(!isEnabled(Check.FINAL_CLASS))
+                .suppressOnlyOneConstructorCheck(!isEnabled(Check.ONLY_ONE_CONSTRUCTOR))
+                .suppressPrivateConstructorCheck(!isEnabled(Check.PRIVATE_CONSTRUCTOR))
+                .suppressInstanceFieldCheck(!isEnabled(Check.INSTANCE_FIELDS))
+                .suppressInstanceMethodCheck(!isEnabled(Check.INSTANCE_METHODS))
+                .suppressMutableStaticFieldsCheck(!isEnabled(Check.MUTABLE_STATIC_FIELDS));
+        verifier.verify();
+        return verifier;
+    }
+
+    private boolean isEnabled(final Check candidate) {
+        return check == Check.ALL || check == candidate;
+    }
+}
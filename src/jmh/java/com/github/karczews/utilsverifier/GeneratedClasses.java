@@ -0,0 +1,154 @@
+/**
+ * Copyright (c) 2017-present, UtilsVerifier Contributors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+package com.github.karczews.utilsverifier;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * Generates well formed utility classes with a configurable number of static
+ * members, used to measure how verification scales with class size.
+ * <p>
+ * Generated class is final, has a single private constructor and declares
+ * {@code members} {@code static final int} fields and the same number of
+ * empty static methods. Fields and methods share names, so the constant pool
+ * stays within its limits for 50k members.
+ */
+final class GeneratedClasses {
+
+    private static final int ACC_PUBLIC = 0x0001;
+    private static final int ACC_PRIVATE = 0x0002;
+    private static final int ACC_STATIC = 0x0008;
+    private static final int ACC_FINAL = 0x0010;
+    private static final int ACC_SUPER = 0x0020;
+
+    // fixed constant pool layout, member names start at FIRST_MEMBER_NAME
+    private static final int THIS_CLASS = 2;
+    private static final int SUPER_CLASS = 4;
+    private static final int OBJECT_INIT = 5;
+    private static final int INIT_NAME = 7;
+    private static final int VOID_DESCRIPTOR = 8;
+    private static final int CODE = 9;
+    private static final int INT_DESCRIPTOR = 10;
+    private static final int FIRST_MEMBER_NAME = 11;
+
+    private GeneratedClasses() {
+    }
+
+    /**
+     * Generates class file bytes of an utility class.
+     *
+     * @param className binary name of the generated class
+     * @param members   number of static fields and static methods
+     * @return class file bytes
+     */
+    static byte[] generate(final String className, final int members) {
+        try {
+            final ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 + members * 48);
+            final DataOutputStream out = new DataOutputStream(bytes);
+            out.writeInt(0xCAFEBABE);
+            out.writeShort(0);
+            out.writeShort(50);
+
+            out.writeShort(FIRST_MEMBER_NAME + members);
+            out.writeByte(1); // #1
+            out.writeUTF(className.replace('.', '/'));
+            out.writeByte(7); // #2
+            out.writeShort(1);
+            out.writeByte(1); // #3
+            out.writeUTF("java/lang/Object");
+            out.writeByte(7); // #4
+            out.writeShort(3);
+            out.writeByte(10); // #5
+            out.writeShort(SUPER_CLASS);
+            out.writeShort(6);
+            out.writeByte(12); // #6
+            out.writeShort(INIT_NAME);
+            out.writeShort(VOID_DESCRIPTOR);
+            out.writeByte(1); // #7
+            out.writeUTF("<init>");
+            out.writeByte(1); // #8
+            out.writeUTF("()V");
+            out.writeByte(1); // #9
+            out.writeUTF("Code");
+            out.writeByte(1); // #10
+            out.writeUTF("I");
+            for (int index = 0; index < members; index++) {
+                out.writeByte(1);
+                out.writeUTF("m" + index);
+            }
+
+            out.writeShort(ACC_PUBLIC | ACC_FINAL | ACC_SUPER);
+            out.writeShort(THIS_CLASS);
+            out.writeShort(SUPER_CLASS);
+            out.writeShort(0);
+
+            out.writeShort(members);
+            for (int index = 0; index < members; index++) {
+                out.writeShort(ACC_PUBLIC | ACC_STATIC | ACC_FINAL);
+                out.writeShort(FIRST_MEMBER_NAME + index);
+                out.writeShort(INT_DESCRIPTOR);
+                out.writeShort(0);
+            }
+
+            out.writeShort(members + 1);
+            out.writeShort(ACC_PRIVATE);
+            out.writeShort(INIT_NAME);
+            out.writeShort(VOID_DESCRIPTOR);
+            // aload_0, invokespecial Object.<init>, return
+            writeCode(out, 1, new byte[]{0x2A, (byte) 0xB7, 0, OBJECT_INIT, (byte) 0xB1});
+            for (int index = 0; index < members; index++) {
+                out.writeShort(ACC_PUBLIC | ACC_STATIC);
+                out.writeShort(FIRST_MEMBER_NAME + index);
+                out.writeShort(VOID_DESCRIPTOR);
+                writeCode(out, 0, new byte[]{(byte) 0xB1});
+            }
+
+            out.writeShort(0);
+            out.flush();
+            return bytes.toByteArray();
+        } catch (final IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Generates and defines an utility class in a new class loader.
+     *
+     * @param className binary name of the generated class
+     * @param members   number of static fields and static methods
+     * @return loaded class
+     */
+    static Class<?> define(final String className, final int members) {
+        final byte[] bytes = generate(className, members);
+        return new ClassLoader(GeneratedClasses.class.getClassLoader()) {
+            Class<?> define() {
+                return defineClass(className, bytes, 0, bytes.length);
+            }
+        }.define();
+    }
+
+    private static void writeCode(final DataOutputStream out, final int maxLocals, final byte[] code)
+            throws IOException {
+        out.writeShort(1);
+        out.writeShort(CODE);
+        out.writeInt(12 + code.length);
+        out.writeShort(maxLocals);
+        out.writeShort(maxLocals);
+        out.writeInt(code.length);
+        out.write(code);
+        out.writeShort(0);
+        out.writeShort(0);
+    }
+}
@@ -0,0 +1,76 @@
+/**
+ * Copyright (c) 2017-present, UtilsVerifier Contributors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+package com.github.karczews.utilsverifier;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures full verification of the test subjects with both the reflection
+ * and the class file engine. Subjects that fail verification measure the cost
+ * of reporting the failure.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class VerifyBenchmark {
+
+    private static final String SUBJECTS = "com.github.karczews.utilsverifier.subjects.";
+
+    @Param({"WellFormed", "ImmutableStaticFields", "MutableStaticFields", "InstanceFields", "InstanceMethods",
+            "MultipleConstructors", "NonFinalClass", "NonPrivateConstructor", "DefaultConstructor"})
+    public String subject;
+
+    private Class<?> type;
+    private byte[] classBytes;
+
+    @Setup
+    public void setUp() throws Exception {
+        type = Class.forName(SUBJECTS + subject);
+        classBytes = ClassBytes.read(type);
+    }
+
+    @Benchmark
+    public Object reflection() {
+        try {
+            UtilsVerifier.forClass(type).verify();
+            return type;
+        } catch (final AssertionError failure) {
+            return failure;
+        }
+    }
+
+    @Benchmark
+    public Object classFile() {
+        try {
+            ClassFileVerifier.forBytes(classBytes).verify();
+            return classBytes;
+        } catch (final AssertionError failure) {
+            return failure;
+        }
+    }
+}
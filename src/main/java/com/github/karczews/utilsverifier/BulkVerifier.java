@@ -0,0 +1,835 @@
+/**
+ * Copyright (c) 2017-present, UtilsVerifier Contributors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+package com.github.karczews.utilsverifier;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.ByteBuffer;
+import java.security.CodeSource;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+/**
+ * {@code BulkVerifier} runs {@link UtilsVerifier} checks for every class
+ * discovered in a package or classpath root.
+ * <p>
+ * Classes are verified in parallel on a thread pool sized to the number of
+ * available processors. Failures do not stop verification, instead all of them
+ * are collected in a single {@link VerificationResult}.
+ * <p>
+ * In discovery mode, created with {@link #discoverIn(File...)}, classes are
+ * not listed up front. Directories and jars are scanned in parallel and only
+ * utility-shaped classes are verified: the ones with static members only or
+ * matching configured name pattern or annotation.
+ * <p>
+ * Large class sets can be verified in several forked JVMs with
+ * {@link #withForkedWorkers(int, String...)}, results of all workers are
+ * merged into a single {@link VerificationResult}.
+ * <p>
+ * Basic usage:
+ * <pre>
+ * {@code UtilsVerifier.forPackage("com.acme.util").verify().assertSuccessful();}
+ * </pre>
+ *
+ * @see UtilsVerifier
+ */
+public final class BulkVerifier {
+
+    private final String packageName;
+    private final File[] roots;
+    private final boolean discovery;
+
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private int isolationBatchSize;
+    private int forkedWorkers;
+    private List<String> workerJvmArgs = Collections.emptyList();
+    private Pattern namePattern;
+    private final List<String> annotations = new ArrayList<String>();
+
+    private VerificationPolicy.Builder policy = VerificationPolicy.builder();
+    private ResultCache resultCache;
+    private VerificationListener listener;
+    private final List<ReportSink> reportSinks = new ArrayList<ReportSink>();
+
+    private BulkVerifier(final String packageName, final File[] roots, final boolean discovery) {
+        this.packageName = packageName;
+        this.roots = roots;
+        this.discovery = discovery;
+    }
+
+    /**
+     * Creates BulkVerifier for all classes in the provided package and its
+     * sub-packages visible to the context class loader. Interfaces, enums and
+     * annotation types are skipped.
+     *
+     * @param packageName name of the package to verify
+     * @return BulkVerifier instance
+     */
+    public static BulkVerifier forPackage(final String packageName) {
+        if (packageName == null) throw new NullPointerException("packageName");
+        return new BulkVerifier(packageName, new File[0], false);
+    }
+
+    /**
+     * Creates BulkVerifier for all classes under the provided classpath root.
+     * Interfaces, enums and annotation types are skipped.
+     *
+     * @param root directory or jar file containing classes to verify
+     * @return BulkVerifier instance
+     */
+    public static BulkVerifier forClasspathRoot(final File root) {
+        if (root == null) throw new NullPointerException("root");
+        return new BulkVerifier(null, new File[]{root}, false);
+    }
+
+    /**
+     * Creates BulkVerifier discovering utility-shaped classes under the
+     * provided classpath roots. By default classes that declare only static
+     * members are verified, additional classes can be included with
+     * {@link #includeClassesMatching(String)} and
+     * {@link #includeClassesAnnotatedWith(String)}.
+     *
+     * @param roots directories or jar files to scan
+     * @return BulkVerifier instance
+     */
+    public static BulkVerifier discoverIn(final File... roots) {
+        for (final File root : roots) {
+            if (root == null) throw new NullPointerException("root");
+        }
+        return new BulkVerifier(null, roots.clone(), true);
+    }
+
+    /**
+     * Sets number of threads used for verification. Defaults to number of
+     * available processors.
+     *
+     * @param threads number of verification threads
+     * @return BulkVerifier instance
+     */
+    public BulkVerifier withThreads(final int threads) {
+        if (threads < 1) throw new IllegalArgumentException("threads must be positive: " + threads);
+        this.threads = threads;
+        return this;
+    }
+
+    /**
+     * Loads verified classes in disposable class loaders, each used for at
+     * most {@code batchSize} classes. Verified classes, their static state and
+     * classes loaded by their static initializers from the verified package
+     * or roots can be then garbage collected, so memory use stays bounded
+     * regardless of the number of verified classes. Classes from outside of
+     * the verified package or roots are shared through the parent loader.
+     * Classes of the default package can't be isolated.
+     *
+     * @param batchSize number of classes loaded by a single class loader
+     * @return BulkVerifier instance
+     */
+    public BulkVerifier withIsolation(final int batchSize) {
+        if (batchSize < 1) throw new IllegalArgumentException("batchSize must be positive: " + batchSize);
+        isolationBatchSize = batchSize;
+        return this;
+    }
+
+    /**
+     * Verifies classes in the provided number of forked worker JVMs instead
+     * of the current one. Each worker has its own metaspace and static state,
+     * so side effects of static initializers don't leak between workers or
+     * into the current JVM. Workers steal classes from each other, so a slow
+     * worker does not delay the whole run, and crash of a worker JVM fails
+     * only the class it was verifying.
+     * <p>
+     * Workers use class path of the current JVM extended with verified
+     * roots. {@link VerificationListener} is not notified about classes
+     * verified by workers.
+     *
+     * @param workers number of worker JVMs, 0 to verify in the current JVM
+     * @param jvmArgs additional arguments of the worker JVMs, e.g. heap size
+     * @return BulkVerifier instance
+     */
+    public BulkVerifier withForkedWorkers(final int workers, final String... jvmArgs) {
+        if (workers < 0) throw new IllegalArgumentException("workers must not be negative: " + workers);
+        forkedWorkers = workers;
+        workerJvmArgs = Arrays.asList(jvmArgs.clone());
+        return this;
+    }
+
+    /**
+     * Includes classes which binary name matches the provided regular
+     * expression. Used only in discovery mode.
+     *
+     * @param regex regular expression matching whole binary class name
+     * @return BulkVerifier instance
+     */
+    public BulkVerifier includeClassesMatching(final String regex) {
+        namePattern = Pattern.compile(regex);
+        return this;
+    }
+
+    /**
+     * Includes classes annotated with the specified annotation. Annotations
+     * with {@code CLASS} retention are supported since class files are read
+     * directly. Used only in discovery mode.
+     *
+     * @param annotationName binary name of the annotation type
+     * @return BulkVerifier instance
+     */
+    public BulkVerifier includeClassesAnnotatedWith(final String annotationName) {
+        if (annotationName == null) throw new NullPointerException("annotationName");
+        annotations.add(annotationName);
+        return this;
+    }
+
+    /**
+     * Sets listener notified about progress of the verification. Listener
+     * is called concurrently from all verification threads and has to be
+     * thread safe. Classes that passed based on the {@link ResultCache} are
+     * not reported.
+     *
+     * @param listener verification listener
+     * @return BulkVerifier instance
+     */
+    public BulkVerifier withListener(final VerificationListener listener) {
+        this.listener = listener;
+        return this;
+    }
+
+    /**
+     * Adds sink receiving result of every verified class as soon as it is
+     * verified. Can be called multiple times to write several reports. When
+     * a sink is set classes are verified with
+     * {@link VerificationPolicy#verifyAll(Class)}, so the reports list every
+     * violation. Sinks are not closed by the verifier.
+     *
+     * @param sink sink receiving verification results
+     * @return BulkVerifier instance
+     */
+    public BulkVerifier withReportSink(final ReportSink sink) {
+        if (sink == null) throw new NullPointerException("sink");
+        reportSinks.add(sink);
+        return this;
+    }
+
+    /**
+     * Replaces all verification settings with the ones of the provided
+     * policy. Settings can be still adjusted with other builder methods.
+     *
+     * @param policy policy applied to every verified class
+     * @return BulkVerifier instance
+     */
+    public BulkVerifier withPolicy(final VerificationPolicy policy) {
+        this.policy = policy.toBuilder();
+        return this;
+    }
+
+    /**
+     * Sets cache of successful verifications. Classes that have already
+     * passed verification with the same settings are neither loaded nor
+     * verified again. Cache is flushed when verification completes.
+     *
+     * @param cache cache of the verification results
+     * @return BulkVerifier instance
+     */
+    public BulkVerifier withResultCache(final ResultCache cache) {
+        resultCache = cache;
+        return this;
+    }
+
+    /**
+     * Fails verification if the static initializer of the class runs longer
+     * than the specified time. Class is initialized before its constructor is
+     * invoked, only the first initialization can be measured.
+     *
+     * @param time maximum time of the static initializer
+     * @param unit unit of the time
+     * @return BulkVerifier instance
+     */
+    public BulkVerifier withMaxStaticInitTime(final long time, final TimeUnit unit) {
+        policy.withMaxStaticInitTime(time, unit);
+        return this;
+    }
+
+    /**
+     * Fails verification if the static initializer of the class allocates
+     * more than the specified number of bytes.
+     *
+     * @param bytes maximum number of bytes allocated by the static
+     *              initializer
+     * @return BulkVerifier instance
+     * @see VerificationPolicy.Builder#withMaxStaticInitAllocation(long)
+     */
+    public BulkVerifier withMaxStaticInitAllocation(final long bytes) {
+        policy.withMaxStaticInitAllocation(bytes);
+        return this;
+    }
+
+    /**
+     * Fails verification if objects reachable from static fields of the
+     * class retain more than the specified number of bytes together.
+     *
+     * @param bytes maximum number of bytes retained by static fields
+     * @return BulkVerifier instance
+     * @see VerificationPolicy.Builder#withMaxStaticRetainedBytes(long)
+     */
+    public BulkVerifier withMaxStaticRetainedBytes(final long bytes) {
+        policy.withMaxStaticRetainedBytes(bytes);
+        return this;
+    }
+
+    /**
+     * Fails verification if objects reachable from any static field of the
+     * class retain more than the specified number of bytes.
+     *
+     * @param bytes maximum number of bytes retained by a single static field
+     * @return BulkVerifier instance
+     * @see VerificationPolicy.Builder#withMaxStaticFieldRetainedBytes(long)
+     */
+    public BulkVerifier withMaxStaticFieldRetainedBytes(final long bytes) {
+        policy.withMaxStaticFieldRetainedBytes(bytes);
+        return this;
+    }
+
+    /**
+     * Fails verification if bytecode of any static method is longer than the
+     * specified threshold.
+     *
+     * @param bytes maximum bytecode length of a static method
+     * @return BulkVerifier instance
+     * @see VerificationPolicy.Builder#withMaxMethodBytecodeSize(int)
+     */
+    public BulkVerifier withMaxMethodBytecodeSize(final int bytes) {
+        policy.withMaxMethodBytecodeSize(bytes);
+        return this;
+    }
+
+    /**
+     * Fails verification if class declares static synchronized methods.
+     *
+     * @param check true if check should be performed, false otherwise
+     * @return BulkVerifier instance
+     * @see VerificationPolicy.Builder#checkClassMonitorLocking(boolean)
+     */
+    public BulkVerifier checkClassMonitorLocking(final boolean check) {
+        policy.checkClassMonitorLocking(check);
+        return this;
+    }
+
+    /**
+     * Fails verification if static state of the class can change after it's
+     * initialized.
+     *
+     * @param check true if check should be performed, false otherwise
+     * @return BulkVerifier instance
+     * @see VerificationPolicy.Builder#checkDeepImmutability(boolean)
+     */
+    public BulkVerifier checkDeepImmutability(final boolean check) {
+        policy.checkDeepImmutability(check);
+        return this;
+    }
+
+    /**
+     * Fails verification if superclasses or interfaces of the class declare
+     * members the class is not allowed to declare itself. Classes sharing a
+     * base class reuse its analysis.
+     *
+     * @param check true if check should be performed, false otherwise
+     * @return BulkVerifier instance
+     * @see VerificationPolicy.Builder#checkInheritedMembers(boolean)
+     */
+    public BulkVerifier checkInheritedMembers(final boolean check) {
+        policy.checkInheritedMembers(check);
+        return this;
+    }
+
+    /**
+     * Sets exception type that will be expected during construction attempt
+     * of every verified class.
+     *
+     * @param type expected exception type
+     * @return BulkVerifier instance
+     * @see UtilsVerifier#withConstructorThrowing(Class)
+     */
+    public BulkVerifier withConstructorThrowing(final Class<? extends Throwable> type) {
+        policy.withConstructorThrowing(type);
+        return this;
+    }
+
+    /**
+     * @param suppressCheck true if check should be suppressed, false otherwise
+     * @return BulkVerifier instance
+     * @see UtilsVerifier#suppressFinalClassCheck(boolean)
+     */
+    public BulkVerifier suppressFinalClassCheck(final boolean suppressCheck) {
+        policy.suppressFinalClassCheck(suppressCheck);
+        return this;
+    }
+
+    /**
+     * @param suppressCheck true if check should be suppressed, false otherwise
+     * @return BulkVerifier instance
+     * @see UtilsVerifier#suppressOnlyOneConstructorCheck(boolean)
+     */
+    public BulkVerifier suppressOnlyOneConstructorCheck(final boolean suppressCheck) {
+        policy.suppressOnlyOneConstructorCheck(suppressCheck);
+        return this;
+    }
+
+    /**
+     * @param suppressCheck true if check should be suppressed, false otherwise
+     * @return BulkVerifier instance
+     * @see UtilsVerifier#suppressPrivateConstructorCheck(boolean)
+     */
+    public BulkVerifier suppressPrivateConstructorCheck(final boolean suppressCheck) {
+        policy.suppressPrivateConstructorCheck(suppressCheck);
+        return this;
+    }
+
+    /**
+     * @param suppressCheck true if check should be suppressed, false otherwise
+     * @return BulkVerifier instance
+     * @see UtilsVerifier#suppressInstanceFieldCheck(boolean)
+     */
+    public BulkVerifier suppressInstanceFieldCheck(final boolean suppressCheck) {
+        policy.suppressInstanceFieldCheck(suppressCheck);
+        return this;
+    }
+
+    /**
+     * @param suppressCheck true if check should be suppressed, false otherwise
+     * @return BulkVerifier instance
+     * @see UtilsVerifier#suppressInstanceMethodCheck(boolean)
+     */
+    public BulkVerifier suppressInstanceMethodCheck(final boolean suppressCheck) {
+        policy.suppressInstanceMethodCheck(suppressCheck);
+        return this;
+    }
+
+    /**
+     * @param suppressCheck true if check should be suppressed, false otherwise
+     * @return BulkVerifier instance
+     * @see UtilsVerifier#suppressMutableStaticFieldsCheck(boolean)
+     */
+    public BulkVerifier suppressMutableStaticFieldsCheck(final boolean suppressCheck) {
+        policy.suppressMutableStaticFieldsCheck(suppressCheck);
+        return this;
+    }
+
+    /**
+     * @param name name of the field
+     * @return BulkVerifier instance
+     * @see UtilsVerifier#allowMutableStaticField(String)
+     */
+    public BulkVerifier allowMutableStaticField(final String name) {
+        policy.allowMutableStaticField(name);
+        return this;
+    }
+
+    /**
+     * @param prefix prefix of the field names
+     * @return BulkVerifier instance
+     * @see UtilsVerifier#allowMutableStaticFieldPrefix(String)
+     */
+    public BulkVerifier allowMutableStaticFieldPrefix(final String prefix) {
+        policy.allowMutableStaticFieldPrefix(prefix);
+        return this;
+    }
+
+    /**
+     * @param glob glob matching field names
+     * @return BulkVerifier instance
+     * @see UtilsVerifier#allowMutableStaticFieldGlob(String)
+     */
+    public BulkVerifier allowMutableStaticFieldGlob(final String glob) {
+        policy.allowMutableStaticFieldGlob(glob);
+        return this;
+    }
+
+    /**
+     * @param pattern regular expression matching field names
+     * @return BulkVerifier instance
+     * @see UtilsVerifier#allowMutableStaticFieldPattern(Pattern)
+     */
+    public BulkVerifier allowMutableStaticFieldPattern(final Pattern pattern) {
+        policy.allowMutableStaticFieldPattern(pattern);
+        return this;
+    }
+
+    /**
+     * Discovers and verifies all candidate classes.
+     *
+     * @return aggregated result of the verification
+     * @throws IllegalStateException if classes could not be discovered,
+     *                               verification was interrupted or classes
+     *                               of the default package should be
+     *                               isolated
+     */
+    public VerificationResult verify() {
+        final VerificationPolicy policy = this.policy.build();
+        if (forkedWorkers > 0) {
+            return verifyForked(policy);
+        }
+        return verify(policy, null);
+    }
+
+    /**
+     * Discovers and verifies all candidate classes without throwing or
+     * creating {@link AssertionError} for the violations. Violations are
+     * collected as compact {@link ViolationRecord}s listed by
+     * {@link VerificationResult#getViolations()}, their messages are
+     * rendered only when reported. Failures of the result hold only errors
+     * other than violations, e.g. classes that could not be loaded.
+     * <p>
+     * {@link VerificationListener} is not notified in this mode.
+     *
+     * @return aggregated result of the verification
+     * @throws IllegalStateException if classes could not be discovered,
+     *                               verification was interrupted, forked
+     *                               workers are used or classes of the
+     *                               default package should be isolated
+     */
+    public VerificationResult collectViolations() {
+        if (forkedWorkers > 0) {
+            throw new IllegalStateException("violations can't be collected from forked workers");
+        }
+        return verify(this.policy.build(), new ConcurrentHashMap<String, List<ViolationRecord>>());
+    }
+
+    private VerificationResult verify(final VerificationPolicy policy,
+                                      final Map<String, List<ViolationRecord>> violations) {
+        final ClassLoader loader = createClassLoader();
+        final Class<? extends Throwable> expectedException = policy.getExpectedConstructorException();
+        final IsolatingClassLoader.Batches loaders = new IsolatingClassLoader.Batches(loader,
+                roots.length == 0 ? null : (URLClassLoader) loader, packageName,
+                expectedException == null ? null : expectedException.getName(), isolationBatchSize);
+        if (discovery) {
+            return verifyDiscovered(policy, loaders, violations);
+        }
+        final List<String> classNames = discoverClasses(loader);
+        final Map<String, Throwable> failures = new HashMap<String, Throwable>();
+        final AtomicInteger cached = new AtomicInteger();
+        final ExecutorService executor = Executors2.newWorkerPool(Math.max(1, Math.min(threads, classNames.size())));
+        try {
+            final List<Future<Throwable>> results = new ArrayList<Future<Throwable>>(classNames.size());
+            for (final String className : classNames) {
+                results.add(executor.submit(new Callable<Throwable>() {
+                    @Override
+                    public Throwable call() {
+                        return verifyClass(policy, loaders, className, cached, violations);
+                    }
+                }));
+            }
+            for (int index = 0; index < results.size(); index++) {
+                final Throwable failure = results.get(index).get();
+                if (failure != null) {
+                    failures.put(classNames.get(index), failure);
+                }
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        } catch (final ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+        flushResultCache();
+        return new VerificationResult(classNames.size(), cached.get(), failures, violations);
+    }
+
+    /**
+     * Lists binary names of the classes that would be verified, without
+     * loading or verifying them. Allows the classes to be verified one by
+     * one, e.g. as separate test cases.
+     *
+     * @return sorted names of the candidate classes
+     * @throws IllegalStateException if classes could not be discovered or
+     *                               discovery was interrupted
+     */
+    public List<String> findClasses() {
+        if (!discovery) {
+            final List<String> classNames = new ArrayList<String>(discoverClasses(createClassLoader()));
+            Collections.sort(classNames);
+            return classNames;
+        }
+        final List<String> classNames = Collections.synchronizedList(new ArrayList<String>());
+        final ExecutorService executor = Executors2.newWorkerPool(threads);
+        try {
+            final UtilityClassScanner scanner = new UtilityClassScanner(executor, 4 * threads, namePattern, annotations);
+            final UtilityClassScanner.Visitor visitor = new UtilityClassScanner.Visitor() {
+                @Override
+                public void visit(final String className, final ByteBuffer classBytes) {
+                    classNames.add(className);
+                }
+            };
+            for (final File root : roots) {
+                scanner.scan(root, visitor);
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        } catch (final IOException e) {
+            throw new IllegalStateException(e);
+        } finally {
+            executor.shutdownNow();
+        }
+        Collections.sort(classNames);
+        return classNames;
+    }
+
+    private VerificationResult verifyDiscovered(final VerificationPolicy policy,
+                                                final IsolatingClassLoader.Batches loaders,
+                                                final Map<String, List<ViolationRecord>> violations) {
+        final Map<String, Throwable> failures = new ConcurrentHashMap<String, Throwable>();
+        final AtomicInteger verified = new AtomicInteger();
+        final AtomicInteger cached = new AtomicInteger();
+        final ExecutorService executor = Executors2.newWorkerPool(threads);
+        try {
+            final UtilityClassScanner scanner = new UtilityClassScanner(executor, 4 * threads, namePattern, annotations);
+            final UtilityClassScanner.Visitor visitor = new UtilityClassScanner.Visitor() {
+                @Override
+                public void visit(final String className, final ByteBuffer classBytes) {
+                    verified.incrementAndGet();
+                    final Throwable failure = verifyClass(policy, loaders, className, classBytes, cached,
+                            violations);
+                    if (failure != null) {
+                        failures.put(className, failure);
+                    }
+                }
+            };
+            for (final File root : roots) {
+                scanner.scan(root, visitor);
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        } catch (final IOException e) {
+            throw new IllegalStateException(e);
+        } finally {
+            executor.shutdownNow();
+        }
+        flushResultCache();
+        return new VerificationResult(verified.get(), cached.get(), failures, violations);
+    }
+
+    private VerificationResult verifyForked(final VerificationPolicy policy) {
+        final ClassLoader loader = createClassLoader();
+        final List<String> classNames = findClasses();
+        final List<String> pending = new ArrayList<String>(classNames.size());
+        final Map<String, ByteBuffer> classBytes = new HashMap<String, ByteBuffer>();
+        final Map<String, Throwable> failures = new ConcurrentHashMap<String, Throwable>();
+        int cached = 0;
+        for (final String className : classNames) {
+            try {
+                final ByteBuffer bytes = readClassBytes(loader, className);
+                if (bytes != null && resultCache.isPassed(bytes, policy, false)) {
+                    cached++;
+                    reportVerified(new VerificationReport(className,
+                            Collections.<VerificationReport.Violation>emptyList()), 0);
+                    continue;
+                }
+                classBytes.put(className, bytes);
+            } catch (final IOException e) {
+                reportFailure(className, e, 0);
+                failures.put(className, e);
+                continue;
+            }
+            pending.add(className);
+        }
+        try {
+            new ForkedVerification(pending, forkedWorkers, workerClassPath(), workerJvmArgs)
+                    .run(policy, new ForkedVerification.Results() {
+                        @Override
+                        public void passed(final String className, final long durationNanos) {
+                            reportVerified(new VerificationReport(className,
+                                    Collections.<VerificationReport.Violation>emptyList()), durationNanos);
+                            final ByteBuffer bytes = classBytes.get(className);
+                            if (bytes != null) {
+                                resultCache.recordPassed(bytes, policy, false);
+                            }
+                        }
+
+                        @Override
+                        public void failed(final String className, final Throwable failure,
+                                           final long durationNanos) {
+                            reportFailure(className, failure, durationNanos);
+                            failures.put(className, failure);
+                        }
+                    });
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+        flushResultCache();
+        return new VerificationResult(classNames.size(), cached, failures);
+    }
+
+    private String workerClassPath() {
+        final StringBuilder classPath = new StringBuilder();
+        for (final File root : roots) {
+            classPath.append(root.getAbsolutePath()).append(File.pathSeparatorChar);
+        }
+        final CodeSource source = BulkVerifier.class.getProtectionDomain().getCodeSource();
+        if (source != null) {
+            try {
+                classPath.append(new File(source.getLocation().toURI()).getPath()).append(File.pathSeparatorChar);
+            } catch (final URISyntaxException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+        return classPath.append(System.getProperty("java.class.path")).toString();
+    }
+
+    private Throwable verifyClass(final VerificationPolicy policy, final IsolatingClassLoader.Batches loaders,
+                                  final String className, final AtomicInteger cached,
+                                  final Map<String, List<ViolationRecord>> violations) {
+        final ByteBuffer classBytes;
+        try {
+            classBytes = readClassBytes(loaders.getParent(), className);
+        } catch (final IOException e) {
+            reportFailure(className, e, 0);
+            return e;
+        }
+        return verifyClass(policy, loaders, className, classBytes, cached, violations);
+    }
+
+    /**
+     * @param violations map to collect violations to or null if they should
+     *                   be returned as failures
+     * @return failure of the verification or null if class passed or its
+     * violations were collected
+     */
+    private Throwable verifyClass(final VerificationPolicy policy, final IsolatingClassLoader.Batches loaders,
+                                  final String className, final ByteBuffer classBytes, final AtomicInteger cached,
+                                  final Map<String, List<ViolationRecord>> violations) {
+        final long start = System.nanoTime();
+        try {
+            if (classBytes != null && resultCache != null && resultCache.isPassed(classBytes, policy, false)) {
+                cached.incrementAndGet();
+                reportVerified(new VerificationReport(className,
+                        Collections.<VerificationReport.Violation>emptyList()), 0);
+                return null;
+            }
+            final Class<?> type = Class.forName(className, false, loaders.next());
+            if (violations != null) {
+                final List<ViolationRecord> found = new ArrayList<ViolationRecord>(0);
+                final boolean passed = policy.collectViolations(type, found);
+                if (!reportSinks.isEmpty()) {
+                    reportVerified(toReport(className, found), System.nanoTime() - start);
+                }
+                if (!passed) {
+                    violations.put(className, found);
+                    return null;
+                }
+            } else if (!reportSinks.isEmpty()) {
+                final VerificationReport report = listener == null
+                        ? policy.verifyAll(type)
+                        : policy.verifyAll(type, listener);
+                reportVerified(report, System.nanoTime() - start);
+                if (!report.isSuccessful()) {
+                    return new AssertionError(report.toString());
+                }
+            } else if (listener == null) {
+                policy.verify(type);
+            } else {
+                policy.verify(type, listener);
+            }
+            if (classBytes != null && resultCache != null) {
+                resultCache.recordPassed(classBytes, policy, false);
+            }
+            return null;
+        } catch (final Throwable failure) {
+            reportFailure(className, failure, System.nanoTime() - start);
+            return failure;
+        }
+    }
+
+    private void reportVerified(final VerificationReport report, final long durationNanos) {
+        for (int index = 0; index < reportSinks.size(); index++) {
+            reportSinks.get(index).classVerified(report, durationNanos);
+        }
+    }
+
+    private static VerificationReport toReport(final String className, final List<ViolationRecord> records) {
+        final List<VerificationReport.Violation> violations =
+                new ArrayList<VerificationReport.Violation>(records.size());
+        for (int index = 0; index < records.size(); index++) {
+            violations.add(records.get(index).toViolation());
+        }
+        return new VerificationReport(className, violations);
+    }
+
+    private void reportFailure(final String className, final Throwable failure, final long durationNanos) {
+        for (int index = 0; index < reportSinks.size(); index++) {
+            reportSinks.get(index).classFailed(className, failure, durationNanos);
+        }
+    }
+
+    private ByteBuffer readClassBytes(final ClassLoader loader, final String className) throws IOException {
+        if (resultCache == null) return null;
+        final byte[] bytes = ClassBytes.read(loader, className);
+        return bytes == null ? null : ByteBuffer.wrap(bytes);
+    }
+
+    private void flushResultCache() {
+        if (resultCache == null) return;
+        try {
+            resultCache.flush();
+        } catch (final IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private List<String> discoverClasses(final ClassLoader loader) {
+        try {
+            return packageName != null
+                    ? ClassFinder.findInPackage(loader, packageName)
+                    : ClassFinder.findInRoot(roots[0]);
+        } catch (final IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private ClassLoader createClassLoader() {
+        ClassLoader parent = Thread.currentThread().getContextClassLoader();
+        if (parent == null) {
+            parent = BulkVerifier.class.getClassLoader();
+        }
+        if (roots.length == 0) {
+            return parent;
+        }
+        try {
+            final URL[] urls = new URL[roots.length];
+            for (int index = 0; index < roots.length; index++) {
+                urls[index] = roots[index].toURI().toURL();
+            }
+            return new URLClassLoader(urls, parent);
+        } catch (final MalformedURLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
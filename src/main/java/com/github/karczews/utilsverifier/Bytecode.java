@@ -0,0 +1,146 @@
+/**
+ * Copyright (c) 2017-present, UtilsVerifier Contributors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+package com.github.karczews.utilsverifier;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Internal tool for walking bytecode of a method read from a
+ * {@link ClassFile}.
+ * <p>
+ * Only lengths of the instructions and opcodes needed by the checks are
+ * known, instructions are not verified.
+ */
+final class Bytecode {
+
+    static final int ACONST_NULL = 0x01;
+    static final int LDC = 0x12;
+    static final int LDC_W = 0x13;
+    static final int ALOAD_3 = 0x2D;
+    static final int ASTORE = 0x3A;
+    static final int ASTORE_0 = 0x4B;
+    static final int ASTORE_3 = 0x4E;
+    static final int POP = 0x57;
+    static final int DUP = 0x59;
+    static final int GETSTATIC = 0xB2;
+    static final int PUTSTATIC = 0xB3;
+    static final int GETFIELD = 0xB4;
+    static final int INVOKEVIRTUAL = 0xB6;
+    static final int INVOKESPECIAL = 0xB7;
+    static final int INVOKESTATIC = 0xB8;
+    static final int INVOKEINTERFACE = 0xB9;
+    static final int NEW = 0xBB;
+    static final int CHECKCAST = 0xC0;
+    static final int MONITORENTER = 0xC2;
+
+    private static final int IINC = 0x84;
+    private static final int TABLESWITCH = 0xAA;
+    private static final int LOOKUPSWITCH = 0xAB;
+    private static final int WIDE = 0xC4;
+
+    // lengths of instructions indexed by opcode, 0 for variable length ones
+    private static final byte[] LENGTHS = new byte[256];
+
+    static {
+        fill(0x00, 0x0F, 1); // nop, constants
+        fill(0x10, 0x10, 2); // bipush
+        fill(0x11, 0x11, 3); // sipush
+        fill(0x12, 0x12, 2); // ldc
+        fill(0x13, 0x14, 3); // ldc_w, ldc2_w
+        fill(0x15, 0x19, 2); // loads with index
+        fill(0x1A, 0x35, 1); // loads without index, array loads
+        fill(0x36, 0x3A, 2); // stores with index
+        fill(0x3B, 0x83, 1); // stores without index, array stores, stack, arithmetic
+        fill(0x84, 0x84, 3); // iinc
+        fill(0x85, 0x98, 1); // conversions, comparisons
+        fill(0x99, 0xA8, 3); // branches, jsr
+        fill(0xA9, 0xA9, 2); // ret
+        fill(0xAC, 0xB1, 1); // returns
+        fill(0xB2, 0xB8, 3); // field access, invocations
+        fill(0xB9, 0xBA, 5); // invokeinterface, invokedynamic
+        fill(0xBB, 0xBB, 3); // new
+        fill(0xBC, 0xBC, 2); // newarray
+        fill(0xBD, 0xBD, 3); // anewarray
+        fill(0xBE, 0xBF, 1); // arraylength, athrow
+        fill(0xC0, 0xC1, 3); // checkcast, instanceof
+        fill(0xC2, 0xC3, 1); // monitorenter, monitorexit
+        fill(0xC5, 0xC5, 4); // multianewarray
+        fill(0xC6, 0xC7, 3); // ifnull, ifnonnull
+        fill(0xC8, 0xC9, 5); // goto_w, jsr_w
+    }
+
+    private Bytecode() {
+    }
+
+    private static void fill(final int from, final int to, final int length) {
+        for (int opcode = from; opcode <= to; opcode++) {
+            LENGTHS[opcode] = (byte) length;
+        }
+    }
+
+    static int opcode(final ByteBuffer code, final int pc) {
+        return code.get(pc) & 0xFF;
+    }
+
+    /**
+     * @param code bytecode of the method
+     * @param pc   offset of the instruction
+     * @return unsigned two byte operand following the opcode
+     */
+    static int u2Operand(final ByteBuffer code, final int pc) {
+        return code.getShort(pc + 1) & 0xFFFF;
+    }
+
+    /**
+     * @param methodDescriptor descriptor of the invoked method
+     * @return number of arguments taken by the method, not counting the
+     * receiver, with long and double arguments counted as one
+     */
+    static int argumentCount(final String methodDescriptor) {
+        int count = 0;
+        int index = 1;
+        while (methodDescriptor.charAt(index) != ')') {
+            while (methodDescriptor.charAt(index) == '[') {
+                index++;
+            }
+            index = methodDescriptor.charAt(index) == 'L' ? methodDescriptor.indexOf(';', index) + 1 : index + 1;
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * @param code bytecode of the method
+     * @param pc   offset of the instruction
+     * @return length of the instruction including its operands
+     * @throws IllegalArgumentException if opcode is not valid
+     */
+    static int length(final ByteBuffer code, final int pc) {
+        final int opcode = opcode(code, pc);
+        final int length = LENGTHS[opcode];
+        if (length != 0) return length;
+
+        // switch operands are aligned to 4 bytes from the start of the code
+        final int operands = (pc + 4) & ~3;
+        switch (opcode) {
+            case TABLESWITCH:
+                return operands - pc + 12 + 4 * (code.getInt(operands + 8) - code.getInt(operands + 4) + 1);
+            case LOOKUPSWITCH:
+                return operands - pc + 8 + 8 * code.getInt(operands + 4);
+            case WIDE:
+                return opcode(code, pc + 1) == IINC ? 6 : 4;
+            default:
+                throw new IllegalArgumentException("invalid opcode " + opcode + " at " + pc);
+        }
+    }
+}
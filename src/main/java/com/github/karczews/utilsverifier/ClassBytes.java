@@ -0,0 +1,117 @@
+/**
+ * Copyright (c) 2017-present, UtilsVerifier Contributors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+package com.github.karczews.utilsverifier;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.net.URLConnection;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Internal tool that reads class file bytes of classes visible to a class
+ * loader without loading them.
+ */
+final class ClassBytes {
+
+    private ClassBytes() {
+    }
+
+    /**
+     * Reads class file of the specified class.
+     *
+     * @param loader    class loader used to look up the class file
+     * @param className binary name of the class
+     * @return class file bytes or null if class file is not available
+     * @throws IOException if class file can't be read
+     */
+    static byte[] read(final ClassLoader loader, final String className) throws IOException {
+        final String path = className.replace('.', '/') + ".class";
+        final InputStream input = loader == null
+                ? ClassLoader.getSystemResourceAsStream(path)
+                : loader.getResourceAsStream(path);
+        return input == null ? null : read(input);
+    }
+
+    /**
+     * Reads class file of the specified class.
+     *
+     * @param type class to read
+     * @return class file bytes or null if class file is not available
+     * @throws IOException if class file can't be read
+     */
+    static byte[] read(final Class<?> type) throws IOException {
+        final InputStream input = type.getResourceAsStream('/' + type.getName().replace('.', '/') + ".class");
+        return input == null ? null : read(input);
+    }
+
+    /**
+     * Reads class file from the resource URL. Caches of jar connections are
+     * not used, so no jar file stays open after reading.
+     *
+     * @param resource URL of the class file
+     * @return class file bytes
+     * @throws IOException if class file can't be read
+     */
+    static byte[] read(final URL resource) throws IOException {
+        final URLConnection connection = resource.openConnection();
+        connection.setUseCaches(false);
+        return read(connection.getInputStream());
+    }
+
+    /**
+     * Reads class file stored in a zip or jar archive. Safe to call from
+     * multiple threads for the same archive.
+     *
+     * @param zip   archive containing the class file
+     * @param entry entry of the class file
+     * @return class file bytes
+     * @throws IOException if class file can't be read
+     */
+    static byte[] read(final ZipFile zip, final ZipEntry entry) throws IOException {
+        final InputStream input = zip.getInputStream(entry);
+        final long size = entry.getSize();
+        if (size < 0 || size > Integer.MAX_VALUE) {
+            return read(input);
+        }
+        try {
+            // size is known from the central directory, read straight into the result
+            final byte[] bytes = new byte[(int) size];
+            int offset = 0;
+            while (offset < bytes.length) {
+                final int read = input.read(bytes, offset, bytes.length - offset);
+                if (read == -1) throw new IOException("unexpected end of " + entry.getName());
+                offset += read;
+            }
+            return bytes;
+        } finally {
+            input.close();
+        }
+    }
+
+    private static byte[] read(final InputStream input) throws IOException {
+        try {
+            final ByteArrayOutputStream output = new ByteArrayOutputStream(4096);
+            final byte[] buffer = new byte[4096];
+            int read;
+            while ((read = input.read(buffer)) != -1) {
+                output.write(buffer, 0, read);
+            }
+            return output.toByteArray();
+        } finally {
+            input.close();
+        }
+    }
+}
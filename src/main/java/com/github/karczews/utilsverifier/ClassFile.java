@@ -0,0 +1,452 @@
+/**
+ * Copyright (c) 2017-present, UtilsVerifier Contributors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+package com.github.karczews.utilsverifier;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Internal, read-only view of a class file.
+ * <p>
+ * Parsing only records offsets of the constant pool entries and members, all
+ * names are decoded lazily straight from the underlying buffer. That keeps
+ * memory usage flat and allows to inspect classes without loading them.
+ * <p>
+ * Access flags use the same bit values as {@link java.lang.reflect.Modifier}
+ * so they can be checked with its methods.
+ */
+final class ClassFile {
+
+    static final String CONSTRUCTOR_NAME = "<init>";
+    static final String STATIC_INITIALIZER_NAME = "<clinit>";
+    static final String DEFAULT_CONSTRUCTOR_DESCRIPTOR = "()V";
+
+    static final int NO_CODE = -1;
+
+    static final int ACC_SYNTHETIC = 0x1000;
+    static final int ACC_ANNOTATION = 0x2000;
+    static final int ACC_ENUM = 0x4000;
+    static final int ACC_MODULE = 0x8000;
+
+    private static final int MAGIC = 0xCAFEBABE;
+
+    private static final int CONSTANT_UTF8 = 1;
+    private static final int CONSTANT_INTEGER = 3;
+    private static final int CONSTANT_FLOAT = 4;
+    private static final int CONSTANT_LONG = 5;
+    private static final int CONSTANT_DOUBLE = 6;
+    private static final int CONSTANT_CLASS = 7;
+    private static final int CONSTANT_STRING = 8;
+    private static final int CONSTANT_FIELDREF = 9;
+    private static final int CONSTANT_METHODREF = 10;
+    private static final int CONSTANT_INTERFACE_METHODREF = 11;
+    private static final int CONSTANT_NAME_AND_TYPE = 12;
+    private static final int CONSTANT_METHOD_HANDLE = 15;
+    private static final int CONSTANT_METHOD_TYPE = 16;
+    private static final int CONSTANT_DYNAMIC = 17;
+    private static final int CONSTANT_INVOKE_DYNAMIC = 18;
+    private static final int CONSTANT_MODULE = 19;
+    private static final int CONSTANT_PACKAGE = 20;
+
+    private static final String CODE = "Code";
+    private static final String RUNTIME_VISIBLE_ANNOTATIONS = "RuntimeVisibleAnnotations";
+    private static final String RUNTIME_INVISIBLE_ANNOTATIONS = "RuntimeInvisibleAnnotations";
+
+    private final ByteBuffer buffer;
+    private final int[] constantOffsets;
+    private final int accessFlags;
+    private final int thisClassIndex;
+    private final int[] fieldOffsets;
+    private final int[] methodOffsets;
+    private final int attributesOffset;
+
+    private ClassFile(final ByteBuffer buffer, final int[] constantOffsets, final int accessFlags,
+                      final int thisClassIndex, final int[] fieldOffsets, final int[] methodOffsets,
+                      final int attributesOffset) {
+        this.buffer = buffer;
+        this.constantOffsets = constantOffsets;
+        this.accessFlags = accessFlags;
+        this.thisClassIndex = thisClassIndex;
+        this.fieldOffsets = fieldOffsets;
+        this.methodOffsets = methodOffsets;
+        this.attributesOffset = attributesOffset;
+    }
+
+    /**
+     * Reads class file by mapping it into memory.
+     *
+     * @param file class file to read
+     * @return parsed class file
+     * @throws IOException              if file can't be read
+     * @throws IllegalArgumentException if file is not a valid class file
+     */
+    static ClassFile read(final File file) throws IOException {
+        return parse(map(file));
+    }
+
+    /**
+     * Maps class file into memory.
+     *
+     * @param file class file to map
+     * @return read-only buffer with the file content
+     * @throws IOException if file can't be read
+     */
+    static ByteBuffer map(final File file) throws IOException {
+        final FileInputStream input = new FileInputStream(file);
+        try {
+            final FileChannel channel = input.getChannel();
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        } finally {
+            input.close();
+        }
+    }
+
+    /**
+     * Parses class file structure from the buffer starting at its current
+     * position. Buffer content must not change while returned instance is in
+     * use.
+     *
+     * @param source buffer containing class file bytes
+     * @return parsed class file
+     * @throws IllegalArgumentException if buffer does not contain a valid
+     *                                  class file
+     */
+    static ClassFile parse(final ByteBuffer source) {
+        final ByteBuffer buffer = source.slice();
+        try {
+            if (buffer.getInt(0) != MAGIC) {
+                throw new IllegalArgumentException("not a class file");
+            }
+            final int constantCount = u2(buffer, 8);
+            final int[] constantOffsets = new int[constantCount];
+            int offset = 10;
+            for (int index = 1; index < constantCount; index++) {
+                constantOffsets[index] = offset;
+                final int tag = buffer.get(offset) & 0xFF;
+                offset += constantSize(buffer, offset, tag);
+                if (tag == CONSTANT_LONG || tag == CONSTANT_DOUBLE) {
+                    index++;
+                }
+            }
+            final int accessFlags = u2(buffer, offset);
+            final int thisClassIndex = u2(buffer, offset + 2);
+            final int interfaceCount = u2(buffer, offset + 6);
+            offset += 8 + 2 * interfaceCount;
+
+            final int[] fieldOffsets = new int[u2(buffer, offset)];
+            offset = readMembers(buffer, offset + 2, fieldOffsets);
+            final int[] methodOffsets = new int[u2(buffer, offset)];
+            offset = readMembers(buffer, offset + 2, methodOffsets);
+            // touch attribute count so truncation is detected while parsing
+            u2(buffer, offset);
+
+            return new ClassFile(buffer, constantOffsets, accessFlags, thisClassIndex, fieldOffsets, methodOffsets,
+                    offset);
+        } catch (final IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("truncated class file", e);
+        }
+    }
+
+    /**
+     * @return class access flags
+     */
+    int getAccessFlags() {
+        return accessFlags;
+    }
+
+    /**
+     * @return binary name of the class
+     */
+    String getClassName() {
+        return utf8(u2(buffer, constantOffsets[thisClassIndex] + 1)).replace('/', '.');
+    }
+
+    /**
+     * @return simple name of the class
+     */
+    String getSimpleName() {
+        final String name = getClassName();
+        return name.substring(name.lastIndexOf('.') + 1);
+    }
+
+    int getFieldCount() {
+        return fieldOffsets.length;
+    }
+
+    int getFieldAccessFlags(final int index) {
+        return u2(buffer, fieldOffsets[index]);
+    }
+
+    String getFieldName(final int index) {
+        return utf8(u2(buffer, fieldOffsets[index] + 2));
+    }
+
+    String getFieldDescriptor(final int index) {
+        return utf8(u2(buffer, fieldOffsets[index] + 4));
+    }
+
+    int getMethodCount() {
+        return methodOffsets.length;
+    }
+
+    int getMethodAccessFlags(final int index) {
+        return u2(buffer, methodOffsets[index]);
+    }
+
+    String getMethodName(final int index) {
+        return utf8(u2(buffer, methodOffsets[index] + 2));
+    }
+
+    String getMethodDescriptor(final int index) {
+        return utf8(u2(buffer, methodOffsets[index] + 4));
+    }
+
+    /**
+     * Reads length of the bytecode of the method from its {@code Code}
+     * attribute.
+     *
+     * @param index method index
+     * @return number of bytes of the bytecode or {@link #NO_CODE} if method
+     * is abstract or native
+     */
+    int getMethodCodeLength(final int index) {
+        final int offset = codeAttributeOffset(index);
+        // skips attribute name, length, max stack and max locals
+        return offset == NO_CODE ? NO_CODE : buffer.getInt(offset + 10);
+    }
+
+    /**
+     * @param index method index
+     * @return read-only view of the bytecode of the method or null if method
+     * is abstract or native
+     * @see Bytecode
+     */
+    ByteBuffer getMethodCode(final int index) {
+        final int offset = codeAttributeOffset(index);
+        if (offset == NO_CODE) return null;
+        final ByteBuffer code = buffer.duplicate();
+        code.position(offset + 14);
+        code.limit(offset + 14 + buffer.getInt(offset + 10));
+        return code.slice().asReadOnlyBuffer();
+    }
+
+    /**
+     * Resolves class referenced from the bytecode, for example by
+     * {@code ldc} instruction.
+     *
+     * @param index index of the constant
+     * @return binary name of the class or null if constant is not a class
+     */
+    String getClassConstant(final int index) {
+        final int offset = constantOffsets[index];
+        if ((buffer.get(offset) & 0xFF) != CONSTANT_CLASS) return null;
+        return utf8(u2(buffer, offset + 1)).replace('/', '.');
+    }
+
+    /**
+     * Checks if method at the specified index is a constructor or static
+     * initializer, which are not reported as methods by reflection.
+     *
+     * @param index method index
+     * @return true if method is an initializer, false otherwise
+     */
+    boolean isInitializer(final int index) {
+        // initializer names are the only method names starting with '<'
+        final int nameOffset = constantOffsets[u2(buffer, methodOffsets[index] + 2)];
+        return u2(buffer, nameOffset + 1) > 0 && buffer.get(nameOffset + 3) == '<';
+    }
+
+    /**
+     * Checks if the class is annotated with the specified annotation. Both
+     * runtime visible and invisible annotations are considered, so
+     * annotations with {@code CLASS} retention are found as well.
+     *
+     * @param descriptor type descriptor of the annotation, for example
+     *                   {@code Lcom/acme/Utility;}
+     * @return true if class is annotated, false otherwise
+     */
+    boolean hasAnnotation(final String descriptor) {
+        final int attributeCount = u2(buffer, attributesOffset);
+        int offset = attributesOffset + 2;
+        for (int attribute = 0; attribute < attributeCount; attribute++) {
+            final String name = utf8(u2(buffer, offset));
+            if (RUNTIME_VISIBLE_ANNOTATIONS.equals(name) || RUNTIME_INVISIBLE_ANNOTATIONS.equals(name)) {
+                final int annotationCount = u2(buffer, offset + 6);
+                int position = offset + 8;
+                for (int annotation = 0; annotation < annotationCount; annotation++) {
+                    if (descriptor.equals(utf8(u2(buffer, position)))) {
+                        return true;
+                    }
+                    position = skipAnnotation(buffer, position);
+                }
+            }
+            offset += 6 + buffer.getInt(offset + 2);
+        }
+        return false;
+    }
+
+    /**
+     * Resolves class declaring field or method referenced from the bytecode,
+     * for example by {@code putstatic} or {@code invokeinterface}
+     * instruction.
+     *
+     * @param index index of the field or method reference constant
+     * @return binary name of the class
+     */
+    String getMemberRefOwner(final int index) {
+        return getClassConstant(u2(buffer, memberRefOffset(index) + 1));
+    }
+
+    /**
+     * @param index index of the field or method reference constant
+     * @return name of the referenced field or method
+     * @see #getMemberRefOwner(int)
+     */
+    String getMemberRefName(final int index) {
+        return utf8(u2(buffer, constantOffsets[u2(buffer, memberRefOffset(index) + 3)] + 1));
+    }
+
+    /**
+     * @param index index of the field or method reference constant
+     * @return descriptor of the referenced field or method
+     * @see #getMemberRefOwner(int)
+     */
+    String getMemberRefDescriptor(final int index) {
+        return utf8(u2(buffer, constantOffsets[u2(buffer, memberRefOffset(index) + 3)] + 3));
+    }
+
+    private int memberRefOffset(final int index) {
+        final int offset = constantOffsets[index];
+        final int tag = buffer.get(offset) & 0xFF;
+        if (tag != CONSTANT_FIELDREF && tag != CONSTANT_METHODREF && tag != CONSTANT_INTERFACE_METHODREF) {
+            throw new IllegalArgumentException("constant " + index + " is not a member reference");
+        }
+        return offset;
+    }
+
+    private int codeAttributeOffset(final int index) {
+        final int attributeCount = u2(buffer, methodOffsets[index] + 6);
+        int offset = methodOffsets[index] + 8;
+        for (int attribute = 0; attribute < attributeCount; attribute++) {
+            if (CODE.equals(utf8(u2(buffer, offset)))) {
+                return offset;
+            }
+            offset += 6 + buffer.getInt(offset + 2);
+        }
+        return NO_CODE;
+    }
+
+    private String utf8(final int index) {
+        final int offset = constantOffsets[index];
+        if ((buffer.get(offset) & 0xFF) != CONSTANT_UTF8) {
+            throw new IllegalArgumentException("constant " + index + " is not an utf8 entry");
+        }
+        return decodeModifiedUtf8(buffer, offset + 3, u2(buffer, offset + 1));
+    }
+
+    private static int readMembers(final ByteBuffer buffer, final int start, final int[] offsets) {
+        int offset = start;
+        for (int index = 0; index < offsets.length; index++) {
+            offsets[index] = offset;
+            final int attributeCount = u2(buffer, offset + 6);
+            offset += 8;
+            for (int attribute = 0; attribute < attributeCount; attribute++) {
+                offset += 6 + buffer.getInt(offset + 2);
+            }
+        }
+        return offset;
+    }
+
+    private static int skipAnnotation(final ByteBuffer buffer, final int start) {
+        final int pairCount = u2(buffer, start + 2);
+        int offset = start + 4;
+        for (int pair = 0; pair < pairCount; pair++) {
+            offset = skipElementValue(buffer, offset + 2);
+        }
+        return offset;
+    }
+
+    private static int skipElementValue(final ByteBuffer buffer, final int start) {
+        switch (buffer.get(start)) {
+            case 'e':
+                return start + 5;
+            case '@':
+                return skipAnnotation(buffer, start + 1);
+            case '[':
+                final int valueCount = u2(buffer, start + 1);
+                int offset = start + 3;
+                for (int value = 0; value < valueCount; value++) {
+                    offset = skipElementValue(buffer, offset);
+                }
+                return offset;
+            default:
+                return start + 3;
+        }
+    }
+
+    private static int constantSize(final ByteBuffer buffer, final int offset, final int tag) {
+        switch (tag) {
+            case CONSTANT_UTF8:
+                return 3 + u2(buffer, offset + 1);
+            case CONSTANT_CLASS:
+            case CONSTANT_STRING:
+            case CONSTANT_METHOD_TYPE:
+            case CONSTANT_MODULE:
+            case CONSTANT_PACKAGE:
+                return 3;
+            case CONSTANT_METHOD_HANDLE:
+                return 4;
+            case CONSTANT_INTEGER:
+            case CONSTANT_FLOAT:
+            case CONSTANT_FIELDREF:
+            case CONSTANT_METHODREF:
+            case CONSTANT_INTERFACE_METHODREF:
+            case CONSTANT_NAME_AND_TYPE:
+            case CONSTANT_DYNAMIC:
+            case CONSTANT_INVOKE_DYNAMIC:
+                return 5;
+            case CONSTANT_LONG:
+            case CONSTANT_DOUBLE:
+                return 9;
+            default:
+                throw new IllegalArgumentException("unknown constant pool tag " + tag + " at " + offset);
+        }
+    }
+
+    private static int u2(final ByteBuffer buffer, final int offset) {
+        return buffer.getShort(offset) & 0xFFFF;
+    }
+
+    private static String decodeModifiedUtf8(final ByteBuffer buffer, final int start, final int length) {
+        final char[] chars = new char[length];
+        final int end = start + length;
+        int count = 0;
+        int offset = start;
+        while (offset < end) {
+            final int first = buffer.get(offset++) & 0xFF;
+            if (first < 0x80) {
+                chars[count++] = (char) first;
+            } else if ((first & 0xE0) == 0xC0) {
+                chars[count++] = (char) (((first & 0x1F) << 6) | (buffer.get(offset++) & 0x3F));
+            } else {
+                chars[count++] = (char) (((first & 0x0F) << 12)
+                        | ((buffer.get(offset++) & 0x3F) << 6)
+                        | (buffer.get(offset++) & 0x3F));
+            }
+        }
+        return new String(chars, 0, count);
+    }
+}
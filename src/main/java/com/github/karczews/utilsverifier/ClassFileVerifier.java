@@ -0,0 +1,296 @@
+/**
+ * Copyright (c) 2017-present, UtilsVerifier Contributors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+package com.github.karczews.utilsverifier;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.regex.Pattern;
+
+/**
+ * {@code ClassFileVerifier} performs the same checks as {@link UtilsVerifier}
+ * by reading class file bytes directly, without loading or initializing the
+ * class under test.
+ * <p>
+ * Since the class is never instantiated the constructor is only verified to
+ * exist and to be private, it's not possible to expect an exception thrown by
+ * it.
+ * <p>
+ * Basic usage:
+ * <pre>
+ * {@code ClassFileVerifier.forFile(new File("build/classes/TestedClass.class")).verify();}
+ * </pre>
+ *
+ * @see UtilsVerifier
+ */
+public final class ClassFileVerifier {
+
+    private final File file;
+    private final byte[] bytes;
+
+    private VerificationPolicy.Builder policy = VerificationPolicy.builder();
+    private ResultCache resultCache;
+    private VerificationListener listener;
+
+    private ClassFileVerifier(final File file, final byte[] bytes) {
+        this.file = file;
+        this.bytes = bytes;
+    }
+
+    /**
+     * Creates ClassFileVerifier for the provided class file. File is memory
+     * mapped during verification.
+     *
+     * @param classFile class file to verify
+     * @return ClassFileVerifier instance
+     */
+    public static ClassFileVerifier forFile(final File classFile) {
+        if (classFile == null) throw new NullPointerException("classFile");
+        return new ClassFileVerifier(classFile, null);
+    }
+
+    /**
+     * Creates ClassFileVerifier for the provided class file content.
+     *
+     * @param classBytes class file bytes to verify
+     * @return ClassFileVerifier instance
+     */
+    public static ClassFileVerifier forBytes(final byte[] classBytes) {
+        if (classBytes == null) throw new NullPointerException("classBytes");
+        return new ClassFileVerifier(null, classBytes);
+    }
+
+    /**
+     * Performs verification of the class file.
+     * <p>
+     * {@link AssertionError} will be thrown if provided class file does not
+     * describe a well formed util class.
+     *
+     * @throws IllegalArgumentException if content is not a valid class file
+     * @throws IllegalStateException    if class file can't be read
+     */
+    public void verify() {
+        final VerificationPolicy policy = this.policy.build();
+        final ByteBuffer classBytes = readClassBytes();
+        if (resultCache != null && resultCache.isPassed(classBytes, policy, true)) {
+            return;
+        }
+        policy.verify(ClassFile.parse(classBytes), listener);
+        if (resultCache != null) {
+            resultCache.recordPassed(classBytes, policy, true);
+        }
+    }
+
+    /**
+     * Performs verification of the class file collecting all violations
+     * instead of failing on the first one.
+     *
+     * @return report listing all violations
+     * @throws IllegalArgumentException if content is not a valid class file
+     * @throws IllegalStateException    if class file can't be read
+     */
+    public VerificationReport verifyAll() {
+        final VerificationPolicy policy = this.policy.build();
+        final ByteBuffer classBytes = readClassBytes();
+        final ClassFile classFile = ClassFile.parse(classBytes);
+        if (resultCache != null && resultCache.isPassed(classBytes, policy, true)) {
+            return new VerificationReport(classFile.getClassName(), Collections.<VerificationReport.Violation>emptyList());
+        }
+        final VerificationReport report = policy.verifyAll(classFile);
+        if (resultCache != null && report.isSuccessful()) {
+            resultCache.recordPassed(classBytes, policy, true);
+        }
+        return report;
+    }
+
+    /**
+     * Sets cache of successful verifications. Class files that have already
+     * passed verification with the same settings are not parsed again.
+     *
+     * @param cache cache of the verification results
+     * @return ClassFileVerifier instance
+     */
+    public ClassFileVerifier withResultCache(final ResultCache cache) {
+        resultCache = cache;
+        return this;
+    }
+
+    /**
+     * Sets listener notified about progress of the verification.
+     *
+     * @param listener verification listener
+     * @return ClassFileVerifier instance
+     */
+    public ClassFileVerifier withListener(final VerificationListener listener) {
+        this.listener = listener;
+        return this;
+    }
+
+    /**
+     * Replaces all verification settings with the ones of the provided
+     * policy. Expected constructor exception of the policy is ignored since
+     * the constructor is never invoked.
+     *
+     * @param policy policy to verify the class file with
+     * @return ClassFileVerifier instance
+     */
+    public ClassFileVerifier withPolicy(final VerificationPolicy policy) {
+        this.policy = policy.toBuilder();
+        return this;
+    }
+
+    /**
+     * @param suppressCheck true if check should be suppressed, false otherwise
+     * @return ClassFileVerifier instance
+     * @see UtilsVerifier#suppressFinalClassCheck(boolean)
+     */
+    public ClassFileVerifier suppressFinalClassCheck(final boolean suppressCheck) {
+        policy.suppressFinalClassCheck(suppressCheck);
+        return this;
+    }
+
+    /**
+     * @param suppressCheck true if check should be suppressed, false otherwise
+     * @return ClassFileVerifier instance
+     * @see UtilsVerifier#suppressOnlyOneConstructorCheck(boolean)
+     */
+    public ClassFileVerifier suppressOnlyOneConstructorCheck(final boolean suppressCheck) {
+        policy.suppressOnlyOneConstructorCheck(suppressCheck);
+        return this;
+    }
+
+    /**
+     * @param suppressCheck true if check should be suppressed, false otherwise
+     * @return ClassFileVerifier instance
+     * @see UtilsVerifier#suppressPrivateConstructorCheck(boolean)
+     */
+    public ClassFileVerifier suppressPrivateConstructorCheck(final boolean suppressCheck) {
+        policy.suppressPrivateConstructorCheck(suppressCheck);
+        return this;
+    }
+
+    /**
+     * @param suppressCheck true if check should be suppressed, false otherwise
+     * @return ClassFileVerifier instance
+     * @see UtilsVerifier#suppressInstanceFieldCheck(boolean)
+     */
+    public ClassFileVerifier suppressInstanceFieldCheck(final boolean suppressCheck) {
+        policy.suppressInstanceFieldCheck(suppressCheck);
+        return this;
+    }
+
+    /**
+     * @param suppressCheck true if check should be suppressed, false otherwise
+     * @return ClassFileVerifier instance
+     * @see UtilsVerifier#suppressInstanceMethodCheck(boolean)
+     */
+    public ClassFileVerifier suppressInstanceMethodCheck(final boolean suppressCheck) {
+        policy.suppressInstanceMethodCheck(suppressCheck);
+        return this;
+    }
+
+    /**
+     * @param suppressCheck true if check should be suppressed, false otherwise
+     * @return ClassFileVerifier instance
+     * @see UtilsVerifier#suppressMutableStaticFieldsCheck(boolean)
+     */
+    public ClassFileVerifier suppressMutableStaticFieldsCheck(final boolean suppressCheck) {
+        policy.suppressMutableStaticFieldsCheck(suppressCheck);
+        return this;
+    }
+
+    /**
+     * @param name name of the field
+     * @return ClassFileVerifier instance
+     * @see UtilsVerifier#allowMutableStaticField(String)
+     */
+    public ClassFileVerifier allowMutableStaticField(final String name) {
+        policy.allowMutableStaticField(name);
+        return this;
+    }
+
+    /**
+     * @param prefix prefix of the field names
+     * @return ClassFileVerifier instance
+     * @see UtilsVerifier#allowMutableStaticFieldPrefix(String)
+     */
+    public ClassFileVerifier allowMutableStaticFieldPrefix(final String prefix) {
+        policy.allowMutableStaticFieldPrefix(prefix);
+        return this;
+    }
+
+    /**
+     * @param glob glob matching field names
+     * @return ClassFileVerifier instance
+     * @see UtilsVerifier#allowMutableStaticFieldGlob(String)
+     */
+    public ClassFileVerifier allowMutableStaticFieldGlob(final String glob) {
+        policy.allowMutableStaticFieldGlob(glob);
+        return this;
+    }
+
+    /**
+     * @param pattern regular expression matching field names
+     * @return ClassFileVerifier instance
+     * @see UtilsVerifier#allowMutableStaticFieldPattern(Pattern)
+     */
+    public ClassFileVerifier allowMutableStaticFieldPattern(final Pattern pattern) {
+        policy.allowMutableStaticFieldPattern(pattern);
+        return this;
+    }
+
+    /**
+     * @param bytes maximum bytecode length of a static method
+     * @return ClassFileVerifier instance
+     * @see UtilsVerifier#withMaxMethodBytecodeSize(int)
+     */
+    public ClassFileVerifier withMaxMethodBytecodeSize(final int bytes) {
+        policy.withMaxMethodBytecodeSize(bytes);
+        return this;
+    }
+
+    /**
+     * @param check true if check should be performed, false otherwise
+     * @return ClassFileVerifier instance
+     * @see UtilsVerifier#checkClassMonitorLocking(boolean)
+     */
+    public ClassFileVerifier checkClassMonitorLocking(final boolean check) {
+        policy.checkClassMonitorLocking(check);
+        return this;
+    }
+
+    /**
+     * Only well known immutable JDK types of fields are recognized since
+     * field types are not loaded.
+     *
+     * @param check true if check should be performed, false otherwise
+     * @return ClassFileVerifier instance
+     * @see UtilsVerifier#checkDeepImmutability(boolean)
+     */
+    public ClassFileVerifier checkDeepImmutability(final boolean check) {
+        policy.checkDeepImmutability(check);
+        return this;
+    }
+
+    private ByteBuffer readClassBytes() {
+        if (bytes != null) {
+            return ByteBuffer.wrap(bytes);
+        }
+        try {
+            return ClassFile.map(file);
+        } catch (final IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
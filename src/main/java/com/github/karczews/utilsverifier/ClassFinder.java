@@ -0,0 +1,174 @@
+/**
+ * Copyright (c) 2017-present, UtilsVerifier Contributors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+package com.github.karczews.utilsverifier;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Modifier;
+import java.net.JarURLConnection;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+
+/**
+ * Internal tool that discovers names of candidate classes in packages and
+ * classpath roots.
+ * <p>
+ * Only top level classes are reported, nested and anonymous classes as well
+ * as {@code package-info} and {@code module-info} are skipped. Interfaces,
+ * enums, annotation types and synthetic classes can't be util classes, they
+ * are recognized by access flags of their class files and skipped too.
+ */
+final class ClassFinder {
+
+    private static final String CLASS_SUFFIX = ".class";
+
+    static final int EXCLUDED_FLAGS = Modifier.INTERFACE | ClassFile.ACC_SYNTHETIC
+            | ClassFile.ACC_ANNOTATION | ClassFile.ACC_ENUM | ClassFile.ACC_MODULE;
+
+    private ClassFinder() {
+    }
+
+    /**
+     * Finds classes in the specified package and all of its sub-packages
+     * visible to the provided class loader.
+     *
+     * @param loader      class loader used to look up package resources
+     * @param packageName name of the package, empty for the default package
+     * @return sorted list of binary class names
+     * @throws IOException if package resources or class files can't be read
+     */
+    static List<String> findInPackage(final ClassLoader loader, final String packageName) throws IOException {
+        final String path = packageName.replace('.', '/');
+        final Set<String> names = new TreeSet<String>();
+        final Enumeration<URL> resources = loader.getResources(path);
+        while (resources.hasMoreElements()) {
+            final URL resource = resources.nextElement();
+            if ("file".equals(resource.getProtocol())) {
+                scanDirectory(toFile(resource), path.length() == 0 ? "" : path + '/', names);
+            } else if ("jar".equals(resource.getProtocol())) {
+                final JarURLConnection connection = (JarURLConnection) resource.openConnection();
+                connection.setUseCaches(false);
+                final JarFile jar = connection.getJarFile();
+                try {
+                    scanJar(jar, path.length() == 0 ? "" : path + '/', names);
+                } finally {
+                    jar.close();
+                }
+            }
+        }
+        return new ArrayList<String>(names);
+    }
+
+    /**
+     * Finds all classes under the specified classpath root which can be either
+     * a directory or a jar file.
+     *
+     * @param root classpath root directory or jar
+     * @return sorted list of binary class names
+     * @throws IOException if the root or class files can't be read
+     */
+    static List<String> findInRoot(final File root) throws IOException {
+        final Set<String> names = new TreeSet<String>();
+        if (root.isDirectory()) {
+            scanDirectory(root, "", names);
+        } else {
+            final JarFile jar = new JarFile(root);
+            try {
+                scanJar(jar, "", names);
+            } finally {
+                jar.close();
+            }
+        }
+        return new ArrayList<String>(names);
+    }
+
+    /**
+     * Checks if the resource path denotes a class that should be verified.
+     *
+     * @param path resource path relative to the classpath root
+     * @return true if path points to a top level class, false otherwise
+     */
+    static boolean isCandidate(final String path) {
+        if (!path.endsWith(CLASS_SUFFIX) || path.indexOf('$') >= 0) {
+            return false;
+        }
+        final String fileName = path.substring(path.lastIndexOf('/') + 1);
+        return !"package-info.class".equals(fileName) && !"module-info.class".equals(fileName);
+    }
+
+    /**
+     * Checks if the class file describes a class that can be an util class.
+     *
+     * @param classBytes class file bytes
+     * @return true if class is not an interface, enum, annotation type or
+     * synthetic class
+     * @throws IllegalArgumentException if content is not a valid class file
+     */
+    static boolean isClass(final ByteBuffer classBytes) {
+        return (ClassFile.parse(classBytes).getAccessFlags() & EXCLUDED_FLAGS) == 0;
+    }
+
+    /**
+     * Converts resource path of a class file into a binary class name.
+     *
+     * @param path resource path relative to the classpath root
+     * @return binary class name
+     */
+    static String toClassName(final String path) {
+        return path.substring(0, path.length() - CLASS_SUFFIX.length()).replace('/', '.');
+    }
+
+    private static void scanDirectory(final File directory, final String prefix, final Set<String> names)
+            throws IOException {
+        final File[] files = directory.listFiles();
+        if (files == null) return;
+        for (int index = 0; index < files.length; index++) {
+            final File file = files[index];
+            final String path = prefix + file.getName();
+            if (file.isDirectory()) {
+                scanDirectory(file, path + '/', names);
+            } else if (isCandidate(path) && isClass(ClassFile.map(file))) {
+                names.add(toClassName(path));
+            }
+        }
+    }
+
+    private static void scanJar(final JarFile jar, final String prefix, final Set<String> names)
+            throws IOException {
+        final Enumeration<JarEntry> entries = jar.entries();
+        while (entries.hasMoreElements()) {
+            final JarEntry entry = entries.nextElement();
+            final String path = entry.getName();
+            if (!entry.isDirectory() && path.startsWith(prefix) && isCandidate(path)
+                    && isClass(ByteBuffer.wrap(ClassBytes.read(jar, entry)))) {
+                names.add(toClassName(path));
+            }
+        }
+    }
+
+    private static File toFile(final URL resource) {
+        try {
+            return new File(resource.toURI());
+        } catch (final URISyntaxException e) {
+            return new File(resource.getPath());
+        }
+    }
+}
@@ -0,0 +1,45 @@
+/**
+ * Copyright (c) 2017-present, UtilsVerifier Contributors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+package com.github.karczews.utilsverifier;
+
+import java.lang.reflect.Constructor;
+
+/**
+ * Internal tool invoking no-argument constructors regardless of their
+ * access modifiers.
+ * <p>
+ * This version uses core reflection. Multi-release jar provides version
+ * using method handles in {@code META-INF/versions/9}.
+ */
+final class ConstructorInvoker {
+
+    private ConstructorInvoker() {
+    }
+
+    /**
+     * Creates new instance of the class with its no-argument constructor.
+     *
+     * @param type class to instantiate
+     * @throws java.lang.reflect.InvocationTargetException if constructor
+     *                                                     has thrown an
+     *                                                     exception
+     * @throws Exception                                   if constructor
+     *                                                     could not be
+     *                                                     invoked
+     */
+    static void newInstance(final Class<?> type) throws Exception {
+        final Constructor<?> constructor = type.getDeclaredConstructor();
+        constructor.setAccessible(true);
+        constructor.newInstance();
+    }
+}
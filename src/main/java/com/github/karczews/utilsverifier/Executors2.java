@@ -0,0 +1,39 @@
+/**
+ * Copyright (c) 2017-present, UtilsVerifier Contributors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+package com.github.karczews.utilsverifier;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Internal tool that contains convenience methods to create executors.
+ * <p>
+ * This version creates thread pools with a single shared queue.
+ * Multi-release jar provides version creating work-stealing pools in
+ * {@code META-INF/versions/9}.
+ */
+final class Executors2 {
+    private Executors2() {
+    }
+
+    /**
+     * Creates pool running independent verification and scanning tasks.
+     * Pool has to be shut down by the caller.
+     *
+     * @param threads number of threads
+     * @return new executor
+     */
+    static ExecutorService newWorkerPool(final int threads) {
+        return Executors.newFixedThreadPool(threads);
+    }
+}
@@ -0,0 +1,167 @@
+/**
+ * Copyright (c) 2017-present, UtilsVerifier Contributors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+package com.github.karczews.utilsverifier;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Internal, immutable matcher of field names compiled from exact names,
+ * prefixes, globs and regular expressions.
+ * <p>
+ * Exact names are kept in a hash set and prefixes in a trie, so matching cost
+ * does not grow with the number of such entries. Globs are compiled to exact
+ * names or prefixes whenever possible, remaining ones become regular
+ * expressions which are evaluated one by one.
+ */
+final class FieldNameMatcher {
+
+    private final Set<String> names;
+    private final TrieNode prefixes;
+    private final Pattern[] patterns;
+
+    private FieldNameMatcher(final Set<String> names, final TrieNode prefixes, final Pattern[] patterns) {
+        this.names = names;
+        this.prefixes = prefixes;
+        this.patterns = patterns;
+    }
+
+    /**
+     * Compiles the matcher.
+     *
+     * @param names    exact field names
+     * @param prefixes field name prefixes
+     * @param globs    field name globs, {@code *} matches any sequence and
+     *                 {@code ?} any single character
+     * @param patterns regular expressions that have to match whole name
+     * @return compiled matcher
+     */
+    static FieldNameMatcher compile(final Collection<String> names, final Collection<String> prefixes,
+                                    final Collection<String> globs, final Collection<Pattern> patterns) {
+        final Set<String> exact = new HashSet<String>(names);
+        final TrieNode trie = new TrieNode();
+        for (final String prefix : prefixes) {
+            trie.insert(prefix);
+        }
+        final List<Pattern> regexes = new ArrayList<Pattern>(patterns);
+        for (final String glob : globs) {
+            final int wildcard = firstWildcard(glob);
+            if (wildcard < 0) {
+                exact.add(glob);
+            } else if (wildcard == glob.length() - 1 && glob.charAt(wildcard) == '*') {
+                trie.insert(glob.substring(0, wildcard));
+            } else {
+                regexes.add(globToPattern(glob));
+            }
+        }
+        return new FieldNameMatcher(exact, trie, regexes.toArray(new Pattern[regexes.size()]));
+    }
+
+    /**
+     * @param name field name
+     * @return true if name is matched by any of the entries, false otherwise
+     */
+    boolean matches(final String name) {
+        if (names.contains(name) || prefixes.matchesPrefixOf(name)) {
+            return true;
+        }
+        for (int index = 0; index < patterns.length; index++) {
+            if (patterns[index].matcher(name).matches()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int firstWildcard(final String glob) {
+        for (int index = 0; index < glob.length(); index++) {
+            final char character = glob.charAt(index);
+            if (character == '*' || character == '?') {
+                return index;
+            }
+        }
+        return -1;
+    }
+
+    private static Pattern globToPattern(final String glob) {
+        final StringBuilder regex = new StringBuilder();
+        int literalStart = 0;
+        for (int index = 0; index < glob.length(); index++) {
+            final char character = glob.charAt(index);
+            if (character == '*' || character == '?') {
+                if (literalStart < index) {
+                    regex.append(Pattern.quote(glob.substring(literalStart, index)));
+                }
+                regex.append(character == '*' ? ".*" : ".");
+                literalStart = index + 1;
+            }
+        }
+        if (literalStart < glob.length()) {
+            regex.append(Pattern.quote(glob.substring(literalStart)));
+        }
+        return Pattern.compile(regex.toString(), Pattern.DOTALL);
+    }
+
+    /**
+     * Trie node with children kept in a sorted array, so lookups do not
+     * allocate.
+     */
+    private static final class TrieNode {
+        private char[] labels = new char[0];
+        private TrieNode[] children = new TrieNode[0];
+        private boolean terminal;
+
+        void insert(final String prefix) {
+            TrieNode node = this;
+            for (int index = 0; index < prefix.length(); index++) {
+                node = node.childFor(prefix.charAt(index));
+            }
+            node.terminal = true;
+        }
+
+        boolean matchesPrefixOf(final String name) {
+            TrieNode node = this;
+            for (int index = 0; !node.terminal; index++) {
+                if (index == name.length()) return false;
+                final int position = Arrays.binarySearch(node.labels, name.charAt(index));
+                if (position < 0) return false;
+                node = node.children[position];
+            }
+            return true;
+        }
+
+        private TrieNode childFor(final char label) {
+            final int position = Arrays.binarySearch(labels, label);
+            if (position >= 0) {
+                return children[position];
+            }
+            final int insertion = -position - 1;
+            final char[] newLabels = new char[labels.length + 1];
+            final TrieNode[] newChildren = new TrieNode[children.length + 1];
+            System.arraycopy(labels, 0, newLabels, 0, insertion);
+            System.arraycopy(children, 0, newChildren, 0, insertion);
+            System.arraycopy(labels, insertion, newLabels, insertion + 1, labels.length - insertion);
+            System.arraycopy(children, insertion, newChildren, insertion + 1, children.length - insertion);
+            newLabels[insertion] = label;
+            newChildren[insertion] = new TrieNode();
+            labels = newLabels;
+            children = newChildren;
+            return newChildren[insertion];
+        }
+    }
+}
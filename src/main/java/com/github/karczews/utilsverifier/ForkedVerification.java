@@ -0,0 +1,230 @@
+/**
+ * Copyright (c) 2017-present, UtilsVerifier Contributors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+package com.github.karczews.utilsverifier;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Internal coordinator verifying classes in forked worker JVMs.
+ * <p>
+ * Classes are split into contiguous shards, one per worker, so classes of a
+ * package share the JVM that already loaded their dependencies. Each worker
+ * is sent one class at a time over its standard input. Worker that runs out
+ * of its own shard steals classes from the tail of the longest remaining
+ * shard, so a shard with slow static initializers does not delay the whole
+ * run.
+ * <p>
+ * When a worker JVM dies only the class it was verifying fails. A new worker
+ * is started in its place and continues with the rest of the shard.
+ */
+final class ForkedVerification {
+
+    /**
+     * Receives outcome of each verification. Called concurrently from the
+     * coordinating threads.
+     */
+    interface Results {
+
+        void passed(String className, long durationNanos);
+
+        void failed(String className, Throwable failure, long durationNanos);
+    }
+
+    private final Shards shards;
+    private final List<String> command;
+
+    /**
+     * @param classNames names of the classes to verify
+     * @param workers    number of worker JVMs
+     * @param classPath  class path of the worker JVMs
+     * @param jvmArgs    additional arguments of the worker JVMs
+     */
+    ForkedVerification(final List<String> classNames, final int workers, final String classPath,
+                       final List<String> jvmArgs) {
+        shards = new Shards(classNames, Math.max(1, Math.min(workers, classNames.size())));
+        command = new ArrayList<String>();
+        command.add(new File(new File(System.getProperty("java.home"), "bin"), "java").getPath());
+        command.addAll(jvmArgs);
+        command.add("-cp");
+        command.add(classPath);
+        command.add(ForkedWorker.class.getName());
+    }
+
+    /**
+     * Verifies all classes, returns once every class has been verified.
+     *
+     * @param policy  policy to verify classes with
+     * @param results receiver of the outcomes
+     * @throws InterruptedException if verification was interrupted
+     * @throws IllegalStateException if worker JVM could not be started
+     */
+    void run(final VerificationPolicy policy, final Results results) throws InterruptedException {
+        final byte[] settings = serialize(policy);
+        final ExecutorService executor = Executors.newFixedThreadPool(shards.getCount());
+        try {
+            final List<Future<Void>> workers = new ArrayList<Future<Void>>(shards.getCount());
+            for (int index = 0; index < shards.getCount(); index++) {
+                final int shard = index;
+                workers.add(executor.submit(new Callable<Void>() {
+                    @Override
+                    public Void call() throws Exception {
+                        while (!shards.isEmpty() && !runWorker(shard, settings, results)) {
+                            // worker crashed, start a new one for the rest of the shard
+                        }
+                        return null;
+                    }
+                }));
+            }
+            for (final Future<Void> worker : workers) {
+                worker.get();
+            }
+        } catch (final ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * @return true if worker verified all classes it was sent and exited,
+     * false if it crashed
+     */
+    private boolean runWorker(final int shard, final byte[] settings, final Results results)
+            throws IOException, InterruptedException {
+        final Process process = new ProcessBuilder(command).start();
+        drain(process.getErrorStream());
+        final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(process.getOutputStream()));
+        final DataInputStream in = new DataInputStream(new BufferedInputStream(process.getInputStream()));
+        String className = null;
+        try {
+            out.write(settings);
+            while ((className = shards.next(shard)) != null) {
+                out.writeByte(ForkedWorker.CLASS);
+                out.writeUTF(className);
+                out.flush();
+                final long durationNanos = in.readLong();
+                final int status = in.readByte();
+                if (status == ForkedWorker.PASSED) {
+                    results.passed(className, durationNanos);
+                } else if (status == ForkedWorker.FAILED) {
+                    results.failed(className, new AssertionError(in.readUTF()), durationNanos);
+                } else {
+                    results.failed(className, new IllegalStateException(in.readUTF()), durationNanos);
+                }
+            }
+            out.writeByte(ForkedWorker.END);
+            out.flush();
+            process.waitFor();
+            return true;
+        } catch (final IOException e) {
+            final int exitCode = process.waitFor();
+            if (className == null) throw e;
+            results.failed(className, new IllegalStateException("worker JVM exited with code " + exitCode
+                    + " while verifying " + className), 0);
+            return false;
+        } finally {
+            process.destroy();
+        }
+    }
+
+    private static byte[] serialize(final VerificationPolicy policy) {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try {
+            final DataOutputStream out = new DataOutputStream(bytes);
+            policy.writeTo(out);
+            out.flush();
+        } catch (final IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static void drain(final InputStream stream) {
+        final Thread thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                final byte[] buffer = new byte[4096];
+                try {
+                    for (int read; (read = stream.read(buffer)) != -1; ) {
+                        System.err.write(buffer, 0, read);
+                    }
+                } catch (final IOException ignored) {
+                    // worker exited
+                }
+            }
+        }, "utilsverifier-worker-stderr");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Work queues of the workers. Worker takes classes from the head of its
+     * own shard and steals from the tail of the longest one.
+     */
+    static final class Shards {
+
+        private final List<ArrayDeque<String>> queues;
+
+        Shards(final List<String> classNames, final int count) {
+            queues = new ArrayList<ArrayDeque<String>>(count);
+            for (int index = 0; index < count; index++) {
+                queues.add(new ArrayDeque<String>(classNames.subList(
+                        (int) ((long) classNames.size() * index / count),
+                        (int) ((long) classNames.size() * (index + 1) / count))));
+            }
+        }
+
+        int getCount() {
+            return queues.size();
+        }
+
+        /**
+         * @param shard index of the worker's shard
+         * @return name of the next class to verify or null if all shards are
+         * empty
+         */
+        synchronized String next(final int shard) {
+            final String className = queues.get(shard).pollFirst();
+            if (className != null) return className;
+            ArrayDeque<String> longest = queues.get(shard);
+            for (final ArrayDeque<String> queue : queues) {
+                if (queue.size() > longest.size()) {
+                    longest = queue;
+                }
+            }
+            return longest.pollLast();
+        }
+
+        synchronized boolean isEmpty() {
+            for (final ArrayDeque<String> queue : queues) {
+                if (!queue.isEmpty()) return false;
+            }
+            return true;
+        }
+    }
+}
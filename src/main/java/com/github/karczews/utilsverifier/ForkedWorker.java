@@ -0,0 +1,84 @@
+/**
+ * Copyright (c) 2017-present, UtilsVerifier Contributors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+package com.github.karczews.utilsverifier;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+
+/**
+ * Internal entry point of a worker JVM forked by {@link ForkedVerification}.
+ * <p>
+ * Worker reads the policy followed by names of classes to verify from the
+ * standard input and writes outcome of each verification to the standard
+ * output, one class at a time. Output of the verified classes is redirected
+ * to the standard error, so it can't corrupt the protocol.
+ */
+final class ForkedWorker {
+
+    static final int END = 0;
+    static final int CLASS = 1;
+
+    static final int PASSED = 0;
+    static final int FAILED = 1;
+    static final int ERROR = 2;
+
+    // writeUTF is limited to 65535 bytes of modified UTF-8
+    private static final int MAX_MESSAGE_LENGTH = 16 * 1024;
+
+    private ForkedWorker() {
+        throw new AssertionError();
+    }
+
+    public static void main(final String[] args) throws IOException {
+        final PrintStream protocol = System.out;
+        System.setOut(System.err);
+        final DataInputStream in = new DataInputStream(new BufferedInputStream(System.in));
+        final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(protocol));
+        final ClassLoader loader = ForkedWorker.class.getClassLoader();
+        final VerificationPolicy policy;
+        try {
+            policy = VerificationPolicy.readFrom(in, loader);
+        } catch (final ClassNotFoundException e) {
+            throw new IllegalStateException(e);
+        }
+        while (in.readByte() == CLASS) {
+            final String className = in.readUTF();
+            final long start = System.nanoTime();
+            Throwable failure = null;
+            try {
+                policy.verify(Class.forName(className, false, loader));
+            } catch (final Throwable e) {
+                failure = e;
+            }
+            out.writeLong(System.nanoTime() - start);
+            if (failure == null) {
+                out.writeByte(PASSED);
+            } else if (failure instanceof AssertionError) {
+                out.writeByte(FAILED);
+                out.writeUTF(truncate(String.valueOf(failure.getMessage())));
+            } else {
+                out.writeByte(ERROR);
+                out.writeUTF(truncate(failure.toString()));
+            }
+            out.flush();
+        }
+    }
+
+    private static String truncate(final String message) {
+        return message.length() > MAX_MESSAGE_LENGTH ? message.substring(0, MAX_MESSAGE_LENGTH) : message;
+    }
+}
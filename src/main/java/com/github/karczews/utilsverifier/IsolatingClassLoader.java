@@ -0,0 +1,161 @@
+/**
+ * Copyright (c) 2017-present, UtilsVerifier Contributors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+package com.github.karczews.utilsverifier;
+
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+
+/**
+ * Internal, disposable class loader that defines verified classes itself
+ * instead of delegating to its parent.
+ * <p>
+ * Verified classes, their static state and everything their static
+ * initializers load from the verified package or roots become unreachable
+ * together with the loader, so metaspace and heap can be reclaimed after a
+ * batch is verified. Other classes are loaded by the parent as usual, so are
+ * classes of the verifier itself and the expected constructor exception,
+ * which have to be the same ones the verification policy refers to.
+ */
+final class IsolatingClassLoader extends ClassLoader {
+
+    private static final String VERIFIER_PACKAGE_PREFIX = IsolatingClassLoader.class.getName()
+            .substring(0, IsolatingClassLoader.class.getName().lastIndexOf('.') + 1);
+
+    private final URLClassLoader roots;
+    private final String packagePrefix;
+    private final String sharedClassName;
+
+    /**
+     * @param parent        loader of the non-isolated classes and, in package
+     *                      mode, source of the isolated class files
+     * @param roots         loader of the verified classpath roots, null in
+     *                      package mode
+     * @param packagePrefix prefix of names of isolated classes in package
+     *                      mode, ignored if roots are provided
+     * @param sharedClass   name of the class always loaded by the parent,
+     *                      like the expected constructor exception, may be
+     *                      null
+     */
+    IsolatingClassLoader(final ClassLoader parent, final URLClassLoader roots, final String packagePrefix,
+                         final String sharedClass) {
+        super(parent);
+        this.roots = roots;
+        this.packagePrefix = packagePrefix;
+        this.sharedClassName = sharedClass;
+    }
+
+    @Override
+    protected synchronized Class<?> loadClass(final String name, final boolean resolve)
+            throws ClassNotFoundException {
+        Class<?> type = findLoadedClass(name);
+        if (type == null) {
+            final URL resource = isolatedResource(name);
+            if (resource == null) {
+                return super.loadClass(name, resolve);
+            }
+            try {
+                final byte[] bytes = ClassBytes.read(resource);
+                definePackageOf(name);
+                type = defineClass(name, bytes, 0, bytes.length);
+            } catch (final IOException e) {
+                throw new ClassNotFoundException(name, e);
+            }
+        }
+        if (resolve) {
+            resolveClass(type);
+        }
+        return type;
+    }
+
+    private void definePackageOf(final String className) {
+        final int separator = className.lastIndexOf('.');
+        if (separator < 0) return;
+        try {
+            definePackage(className.substring(0, separator), null, null, null, null, null, null, null);
+        } catch (final IllegalArgumentException e) {
+            // package is already defined, on older JVMs also when parent defined it
+        }
+    }
+
+    private URL isolatedResource(final String name) {
+        // platform classes can't be defined by application loaders
+        if (name.startsWith("java.") || name.equals(sharedClassName)) return null;
+        if (name.startsWith(VERIFIER_PACKAGE_PREFIX) && name.indexOf('.', VERIFIER_PACKAGE_PREFIX.length()) < 0) {
+            return null;
+        }
+        final String path = name.replace('.', '/') + ".class";
+        if (roots != null) {
+            return roots.findResource(path);
+        }
+        return name.startsWith(packagePrefix) ? getParent().getResource(path) : null;
+    }
+
+    /**
+     * Hands out isolating loaders, each used for at most the configured
+     * number of classes. Previous loaders are not referenced, so they can be
+     * collected once classes loaded by them are no longer used. Safe to use
+     * from multiple threads.
+     */
+    static final class Batches {
+        private final ClassLoader parent;
+        private final URLClassLoader roots;
+        private final String packagePrefix;
+        private final String sharedClass;
+        private final int batchSize;
+
+        private ClassLoader current;
+        private int used;
+
+        /**
+         * @param sharedClass name of the class always loaded by the parent,
+         *                    may be null
+         * @param batchSize   number of classes per loader, 0 disables
+         *                    isolation
+         * @throws IllegalStateException if classes of the default package
+         *                               should be isolated
+         */
+        Batches(final ClassLoader parent, final URLClassLoader roots, final String packageName,
+                final String sharedClass, final int batchSize) {
+            if (batchSize > 0 && roots == null && (packageName == null || packageName.length() == 0)) {
+                // every class on the classpath, including the verifier, would be defined again
+                throw new IllegalStateException("classes of the default package can't be verified in isolation");
+            }
+            this.parent = parent;
+            this.roots = roots;
+            this.packagePrefix = packageName == null || packageName.length() == 0 ? "" : packageName + '.';
+            this.sharedClass = sharedClass;
+            this.batchSize = batchSize;
+        }
+
+        /**
+         * @return loader that is not isolated, used to look up class files
+         */
+        ClassLoader getParent() {
+            return parent;
+        }
+
+        /**
+         * @return loader to load the next verified class with
+         */
+        synchronized ClassLoader next() {
+            if (batchSize == 0) return parent;
+            if (current == null || used == batchSize) {
+                current = new IsolatingClassLoader(parent, roots, packagePrefix, sharedClass);
+                used = 0;
+            }
+            used++;
+            return current;
+        }
+    }
+}
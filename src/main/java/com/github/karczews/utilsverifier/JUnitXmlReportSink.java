@@ -0,0 +1,190 @@
+/**
+ * Copyright (c) 2017-present, UtilsVerifier Contributors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+package com.github.karczews.utilsverifier;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.Writer;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link ReportSink} writing results in JUnit XML format understood by CI
+ * servers. Every verified class is reported as a test case with a failure
+ * listing its violations, or with an error if the class couldn't be
+ * verified.
+ * <p>
+ * Test cases are streamed to the file as classes finish. Counters of the test
+ * suite are written as fixed width placeholders and filled in when the sink
+ * is closed, so the report is complete only after {@link #close()}.
+ * <p>
+ * Basic usage:
+ * <pre>
+ * {@code
+ * JUnitXmlReportSink sink = JUnitXmlReportSink.open(new File("build/test-results/TEST-utils.xml"));
+ * try {
+ *     UtilsVerifier.forPackage("com.acme.util").withReportSink(sink).verify();
+ * } finally {
+ *     sink.close();
+ * }
+ * }
+ * </pre>
+ */
+public final class JUnitXmlReportSink extends StreamingReportSink {
+
+    private static final String SUITE_NAME = "UtilsVerifier";
+    private static final String TEST_NAME = "verify";
+    private static final int COUNTER_WIDTH = 10;
+
+    private final File file;
+    private final int testsOffset;
+    private final int failuresOffset;
+    private final int errorsOffset;
+
+    private long tests;
+    private long failures;
+    private long errors;
+
+    private JUnitXmlReportSink(final File file) throws IOException {
+        super(file);
+        this.file = file;
+        final String placeholder = counter(0);
+        final StringBuilder header = new StringBuilder("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n")
+                .append("<testsuite name=\"").append(SUITE_NAME).append("\" tests=\"");
+        testsOffset = header.length();
+        header.append(placeholder).append("\" failures=\"");
+        failuresOffset = header.length();
+        header.append(placeholder).append("\" errors=\"");
+        errorsOffset = header.length();
+        header.append(placeholder).append("\">\n");
+        start(header.toString());
+    }
+
+    /**
+     * Creates sink writing to the file, existing file is overwritten.
+     *
+     * @param file report file
+     * @return JUnitXmlReportSink instance
+     * @throws IOException if file can't be created
+     */
+    public static JUnitXmlReportSink open(final File file) throws IOException {
+        if (file == null) throw new NullPointerException("file");
+        return new JUnitXmlReportSink(file);
+    }
+
+    @Override
+    void writeReport(final Writer writer, final VerificationReport report, final long durationNanos)
+            throws IOException {
+        tests++;
+        writeTestCaseStart(writer, report.getClassName(), durationNanos);
+        if (report.isSuccessful()) {
+            writer.write("/>\n");
+            return;
+        }
+        failures++;
+        final VerificationReport.Violation first = report.getViolations().get(0);
+        writer.write(">\n    <failure type=\"");
+        writer.write(first.getCheck().name());
+        writer.write("\" message=\"");
+        escape(writer, first.getMessage());
+        writer.write("\">");
+        escape(writer, report.toString());
+        writer.write("</failure>\n  </testcase>\n");
+    }
+
+    @Override
+    void writeFailure(final Writer writer, final String className, final Throwable failure,
+                      final long durationNanos) throws IOException {
+        tests++;
+        errors++;
+        writeTestCaseStart(writer, className, durationNanos);
+        writer.write(">\n    <error type=\"");
+        escape(writer, failure.getClass().getName());
+        writer.write("\" message=\"");
+        escape(writer, String.valueOf(failure.getMessage()));
+        writer.write("\">");
+        escape(writer, stackTrace(failure));
+        writer.write("</error>\n  </testcase>\n");
+    }
+
+    @Override
+    void writeFooter(final Writer writer) throws IOException {
+        writer.write("</testsuite>\n");
+    }
+
+    @Override
+    void completed() throws IOException {
+        final RandomAccessFile output = new RandomAccessFile(file, "rw");
+        try {
+            writeCounter(output, testsOffset, tests);
+            writeCounter(output, failuresOffset, failures);
+            writeCounter(output, errorsOffset, errors);
+        } finally {
+            output.close();
+        }
+    }
+
+    private static void writeTestCaseStart(final Writer writer, final String className, final long durationNanos)
+            throws IOException {
+        writer.write("  <testcase classname=\"");
+        escape(writer, className);
+        writer.write("\" name=\"" + TEST_NAME + "\" time=\"");
+        writer.write(String.format(Locale.ROOT, "%.6f", durationNanos / (double) TimeUnit.SECONDS.toNanos(1)));
+        writer.write('"');
+    }
+
+    private static void writeCounter(final RandomAccessFile output, final int offset, final long value)
+            throws IOException {
+        // header is ASCII, so character offsets are byte offsets
+        output.seek(offset);
+        output.writeBytes(counter(value));
+    }
+
+    private static String counter(final long value) {
+        final String digits = Long.toString(value);
+        final StringBuilder counter = new StringBuilder(COUNTER_WIDTH);
+        for (int index = digits.length(); index < COUNTER_WIDTH; index++) {
+            counter.append('0');
+        }
+        return counter.append(digits).toString();
+    }
+
+    private static void escape(final Writer writer, final String text) throws IOException {
+        for (int index = 0; index < text.length(); index++) {
+            final char c = text.charAt(index);
+            switch (c) {
+                case '<':
+                    writer.write("&lt;");
+                    break;
+                case '>':
+                    writer.write("&gt;");
+                    break;
+                case '&':
+                    writer.write("&amp;");
+                    break;
+                case '"':
+                    writer.write("&quot;");
+                    break;
+                case '\n':
+                case '\r':
+                case '\t':
+                    writer.write(c);
+                    break;
+                default:
+                    // other control characters are not allowed in XML 1.0
+                    writer.write(c < 0x20 ? '?' : c);
+            }
+        }
+    }
+}
@@ -0,0 +1,54 @@
+/**
+ * Copyright (c) 2017-present, UtilsVerifier Contributors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+package com.github.karczews.utilsverifier;
+
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Internal cache of {@link MemberSnapshot}s shared by all verifier instances.
+ * <p>
+ * This version keeps snapshots in a weak map guarded by a single lock.
+ * Multi-release jar provides version attaching snapshots to their classes in
+ * {@code META-INF/versions/9}.
+ */
+final class MemberCache {
+
+    private static final Map<Class<?>, MemberSnapshot> CACHE = new WeakHashMap<Class<?>, MemberSnapshot>();
+
+    private MemberCache() {
+    }
+
+    /**
+     * Returns snapshot of the specified class, computing it on the first
+     * request. Safe to call from multiple threads.
+     *
+     * @param type class to take snapshot of
+     * @return member snapshot of the class
+     */
+    static MemberSnapshot get(final Class<?> type) {
+        synchronized (CACHE) {
+            final MemberSnapshot cached = CACHE.get(type);
+            if (cached != null) return cached;
+        }
+        // reflection is done outside of the lock, concurrent callers may compute
+        // the same snapshot but only the first one is published
+        final MemberSnapshot snapshot = MemberSnapshot.create(type);
+        synchronized (CACHE) {
+            final MemberSnapshot cached = CACHE.get(type);
+            if (cached != null) return cached;
+            CACHE.put(type, snapshot);
+            return snapshot;
+        }
+    }
+}
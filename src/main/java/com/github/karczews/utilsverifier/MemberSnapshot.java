@@ -0,0 +1,231 @@
+/**
+ * Copyright (c) 2017-present, UtilsVerifier Contributors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+package com.github.karczews.utilsverifier;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+
+/**
+ * Internal, immutable snapshot of the declared members of a class.
+ * <p>
+ * Snapshot holds only names and modifiers, so reflection arrays are copied
+ * once per class and can be garbage collected right away. Snapshots are cached
+ * by {@link MemberCache} shared by all verifier instances. The snapshot never
+ * references the class itself, which allows the class and its class loader to
+ * be unloaded.
+ * <p>
+ * Snapshot can be also taken from a {@link ClassFile}, in which case it
+ * matches the one taken with reflection after the class is loaded and
+ * additionally holds bytecode length of the methods and the class file
+ * itself, for checks reading bytecode.
+ */
+final class MemberSnapshot {
+
+    static final int NO_CONSTRUCTOR = -1;
+
+    private final String className;
+    private final String simpleName;
+    private final int modifiers;
+    private final int constructorCount;
+    private final int defaultConstructorModifiers;
+    private final String[] fieldNames;
+    private final int[] fieldModifiers;
+    private final String[] methodNames;
+    private final int[] methodModifiers;
+    // null if snapshot was taken with reflection
+    private final int[] methodCodeLengths;
+    private final ClassFile classFile;
+
+    private MemberSnapshot(final Class<?> type) {
+        className = type.getName();
+        simpleName = type.getSimpleName();
+        modifiers = type.getModifiers();
+
+        final Constructor<?>[] constructors = type.getDeclaredConstructors();
+        constructorCount = constructors.length;
+        int defaultModifiers = NO_CONSTRUCTOR;
+        for (int index = 0; index < constructors.length; index++) {
+            if (constructors[index].getParameterTypes().length == 0) {
+                defaultModifiers = constructors[index].getModifiers();
+                break;
+            }
+        }
+        defaultConstructorModifiers = defaultModifiers;
+
+        final Field[] fields = type.getDeclaredFields();
+        fieldNames = new String[fields.length];
+        fieldModifiers = new int[fields.length];
+        for (int index = 0; index < fields.length; index++) {
+            fieldNames[index] = fields[index].getName();
+            fieldModifiers[index] = fields[index].getModifiers();
+        }
+
+        final Method[] methods = type.getDeclaredMethods();
+        methodNames = new String[methods.length];
+        methodModifiers = new int[methods.length];
+        for (int index = 0; index < methods.length; index++) {
+            methodNames[index] = methods[index].getName();
+            methodModifiers[index] = methods[index].getModifiers();
+        }
+        methodCodeLengths = null;
+        classFile = null;
+    }
+
+    private MemberSnapshot(final ClassFile classFile) {
+        this.classFile = classFile;
+        className = classFile.getClassName();
+        simpleName = classFile.getSimpleName();
+        modifiers = classFile.getAccessFlags();
+
+        fieldNames = new String[classFile.getFieldCount()];
+        fieldModifiers = new int[fieldNames.length];
+        for (int index = 0; index < fieldNames.length; index++) {
+            fieldNames[index] = classFile.getFieldName(index).intern();
+            fieldModifiers[index] = classFile.getFieldAccessFlags(index);
+        }
+
+        int constructors = 0;
+        int defaultModifiers = NO_CONSTRUCTOR;
+        int methods = 0;
+        final String[] names = new String[classFile.getMethodCount()];
+        final int[] flags = new int[names.length];
+        final int[] codeLengths = new int[names.length];
+        for (int index = 0; index < names.length; index++) {
+            if (!classFile.isInitializer(index)) {
+                names[methods] = classFile.getMethodName(index).intern();
+                codeLengths[methods] = classFile.getMethodCodeLength(index);
+                flags[methods++] = classFile.getMethodAccessFlags(index);
+            } else if (ClassFile.CONSTRUCTOR_NAME.equals(classFile.getMethodName(index))) {
+                constructors++;
+                if (ClassFile.DEFAULT_CONSTRUCTOR_DESCRIPTOR.equals(classFile.getMethodDescriptor(index))) {
+                    defaultModifiers = classFile.getMethodAccessFlags(index);
+                }
+            }
+        }
+        constructorCount = constructors;
+        defaultConstructorModifiers = defaultModifiers;
+        methodNames = new String[methods];
+        methodModifiers = new int[methods];
+        System.arraycopy(names, 0, methodNames, 0, methods);
+        System.arraycopy(flags, 0, methodModifiers, 0, methods);
+        methodCodeLengths = new int[methods];
+        System.arraycopy(codeLengths, 0, methodCodeLengths, 0, methods);
+    }
+
+    /**
+     * Returns snapshot of the specified class, computing it on the first
+     * request. Safe to call from multiple threads.
+     *
+     * @param type class to take snapshot of
+     * @return member snapshot of the class
+     */
+    static MemberSnapshot of(final Class<?> type) {
+        return MemberCache.get(type);
+    }
+
+    /**
+     * Takes a fresh snapshot of the specified class bypassing the cache.
+     *
+     * @param type class to take snapshot of
+     * @return member snapshot of the class
+     */
+    static MemberSnapshot create(final Class<?> type) {
+        return new MemberSnapshot(type);
+    }
+
+    /**
+     * Takes a snapshot of the class file. Class file snapshots are not cached.
+     *
+     * @param classFile class file to take snapshot of
+     * @return member snapshot of the class file
+     */
+    static MemberSnapshot of(final ClassFile classFile) {
+        return new MemberSnapshot(classFile);
+    }
+
+    String getClassName() {
+        return className;
+    }
+
+    String getSimpleName() {
+        return simpleName;
+    }
+
+    int getModifiers() {
+        return modifiers;
+    }
+
+    int getConstructorCount() {
+        return constructorCount;
+    }
+
+    /**
+     * @return modifiers of the no-argument constructor or
+     * {@link #NO_CONSTRUCTOR} if class does not declare it
+     */
+    int getDefaultConstructorModifiers() {
+        return defaultConstructorModifiers;
+    }
+
+    int getFieldCount() {
+        return fieldNames.length;
+    }
+
+    String getFieldName(final int index) {
+        return fieldNames[index];
+    }
+
+    int getFieldModifiers(final int index) {
+        return fieldModifiers[index];
+    }
+
+    int getMethodCount() {
+        return methodNames.length;
+    }
+
+    String getMethodName(final int index) {
+        return methodNames[index];
+    }
+
+    int getMethodModifiers(final int index) {
+        return methodModifiers[index];
+    }
+
+    /**
+     * @return true if snapshot was taken from a class file and holds
+     * bytecode length of the methods
+     */
+    boolean hasMethodCodeLengths() {
+        return methodCodeLengths != null;
+    }
+
+    /**
+     * @return class file the snapshot was taken from or null if it was taken
+     * with reflection
+     */
+    ClassFile getClassFile() {
+        return classFile;
+    }
+
+    /**
+     * @param index method index
+     * @return bytecode length of the method or {@link ClassFile#NO_CODE} if
+     * method is abstract or native
+     * @throws IllegalStateException if snapshot was taken with reflection
+     */
+    int getMethodCodeLength(final int index) {
+        if (methodCodeLengths == null) throw new IllegalStateException("bytecode length is not available");
+        return methodCodeLengths[index];
+    }
+}
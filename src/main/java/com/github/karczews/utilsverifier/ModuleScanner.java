@@ -0,0 +1,45 @@
+/**
+ * Copyright (c) 2017-present, UtilsVerifier Contributors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+package com.github.karczews.utilsverifier;
+
+import java.io.File;
+import java.util.Set;
+
+/**
+ * Internal scanner of Java modules used by {@link ModuleVerifier}.
+ * <p>
+ * This version is used on runtimes older than Java 9, which have no module
+ * system. It only reports the lack of support, {@link ModuleVerifier} checks
+ * {@link #isSupported()} before creating a scanner, so it is never
+ * instantiated. Multi-release jar provides the working implementation in
+ * {@code META-INF/versions/9}.
+ */
+final class ModuleScanner {
+
+    ModuleScanner(final int threads, final boolean exportedOnly, final Set<String> moduleNames,
+                  final UtilityClassScanner filter) {
+        throw new AssertionError("module scanning is not supported by current runtime");
+    }
+
+    static boolean isSupported() {
+        return false;
+    }
+
+    VerificationResult scanModulePath(final File[] entries, final VerificationPolicy policy) {
+        throw new AssertionError();
+    }
+
+    VerificationResult scanRuntimeImage(final File javaHome, final VerificationPolicy policy) {
+        throw new AssertionError();
+    }
+}
@@ -0,0 +1,201 @@
+/**
+ * Copyright (c) 2017-present, UtilsVerifier Contributors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+package com.github.karczews.utilsverifier;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * {@code ModuleVerifier} verifies utility-shaped classes of Java modules:
+ * modular jars and exploded modules of a module path or all modules of a
+ * runtime image, e.g. one created by jlink.
+ * <p>
+ * Modules are scanned in parallel. Classes are selected like in
+ * {@link BulkVerifier#discoverIn(File...)}, from all packages of the module or
+ * only the exported ones. Module path is resolved into a new module layer and
+ * classes are loaded by their module's class loader, with their packages
+ * opened to the verifier, so classes of non-exported packages are verified as
+ * well. Modules of a runtime image are read through its {@code jrt:/} file
+ * system and verified straight from their class files, the same way as with
+ * {@link ClassFileVerifier}.
+ * <p>
+ * Module scanning requires Java 9 or newer, on older runtimes all factory
+ * methods throw {@link IllegalStateException}.
+ * <p>
+ * Basic usage:
+ * <pre>
+ * {@code ModuleVerifier.forRuntimeImage(new File("build/image")).verify().assertSuccessful();}
+ * </pre>
+ *
+ * @see BulkVerifier
+ */
+public final class ModuleVerifier {
+
+    private final File[] modulePath;
+    private final File javaHome;
+
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private boolean exportedPackagesOnly;
+    private final Set<String> moduleNames = new LinkedHashSet<String>();
+    private Pattern namePattern;
+    private final List<String> annotations = new ArrayList<String>();
+    private VerificationPolicy policy = VerificationPolicy.defaultPolicy();
+
+    private ModuleVerifier(final File[] modulePath, final File javaHome) {
+        if (!ModuleScanner.isSupported()) {
+            throw new IllegalStateException("module scanning requires Java 9 or newer, current runtime is Java "
+                    + System.getProperty("java.specification.version"));
+        }
+        this.modulePath = modulePath;
+        this.javaHome = javaHome;
+    }
+
+    /**
+     * Creates ModuleVerifier for all modules found on the provided module
+     * path. Modules are resolved against the boot layer of the current
+     * runtime.
+     *
+     * @param entries modular jars, exploded modules or directories of them
+     * @return ModuleVerifier instance
+     * @throws IllegalStateException if current runtime is older than Java 9
+     */
+    public static ModuleVerifier forModulePath(final File... entries) {
+        for (final File entry : entries) {
+            if (entry == null) throw new NullPointerException("entry");
+        }
+        return new ModuleVerifier(entries.clone(), null);
+    }
+
+    /**
+     * Creates ModuleVerifier for all modules of the runtime image installed
+     * in the provided directory.
+     *
+     * @param javaHome home directory of the runtime image
+     * @return ModuleVerifier instance
+     * @throws IllegalStateException if current runtime is older than Java 9
+     */
+    public static ModuleVerifier forRuntimeImage(final File javaHome) {
+        if (javaHome == null) throw new NullPointerException("javaHome");
+        return new ModuleVerifier(null, javaHome);
+    }
+
+    /**
+     * Creates ModuleVerifier for all modules of the current runtime image.
+     *
+     * @return ModuleVerifier instance
+     * @throws IllegalStateException if current runtime is older than Java 9
+     */
+    public static ModuleVerifier forCurrentRuntime() {
+        return forRuntimeImage(new File(System.getProperty("java.home")));
+    }
+
+    /**
+     * @return true if current runtime supports module scanning, false
+     * otherwise
+     */
+    public static boolean isSupported() {
+        return ModuleScanner.isSupported();
+    }
+
+    /**
+     * Sets number of modules scanned in parallel. Defaults to number of
+     * available processors.
+     *
+     * @param threads number of scanning threads
+     * @return ModuleVerifier instance
+     */
+    public ModuleVerifier withThreads(final int threads) {
+        if (threads < 1) throw new IllegalArgumentException("threads must be positive: " + threads);
+        this.threads = threads;
+        return this;
+    }
+
+    /**
+     * Limits verification to the specified modules. All found modules are
+     * verified by default.
+     *
+     * @param names names of the modules to verify
+     * @return ModuleVerifier instance
+     */
+    public ModuleVerifier includeModules(final String... names) {
+        moduleNames.addAll(Arrays.asList(names));
+        return this;
+    }
+
+    /**
+     * Limits verification to packages exported by the modules without
+     * qualification. All packages are verified by default.
+     *
+     * @param exportedOnly true if only exported packages should be verified,
+     *                     false otherwise
+     * @return ModuleVerifier instance
+     */
+    public ModuleVerifier exportedPackagesOnly(final boolean exportedOnly) {
+        exportedPackagesOnly = exportedOnly;
+        return this;
+    }
+
+    /**
+     * @param regex regular expression matching whole binary class name
+     * @return ModuleVerifier instance
+     * @see BulkVerifier#includeClassesMatching(String)
+     */
+    public ModuleVerifier includeClassesMatching(final String regex) {
+        namePattern = Pattern.compile(regex);
+        return this;
+    }
+
+    /**
+     * @param annotationName binary name of the annotation type
+     * @return ModuleVerifier instance
+     * @see BulkVerifier#includeClassesAnnotatedWith(String)
+     */
+    public ModuleVerifier includeClassesAnnotatedWith(final String annotationName) {
+        if (annotationName == null) throw new NullPointerException("annotationName");
+        annotations.add(annotationName);
+        return this;
+    }
+
+    /**
+     * Sets policy classes are verified with. Expected constructor exception
+     * is ignored for runtime images, since their classes are not loaded.
+     *
+     * @param policy policy to verify classes with
+     * @return ModuleVerifier instance
+     */
+    public ModuleVerifier withPolicy(final VerificationPolicy policy) {
+        if (policy == null) throw new NullPointerException("policy");
+        this.policy = policy;
+        return this;
+    }
+
+    /**
+     * Scans the modules and verifies all candidate classes.
+     *
+     * @return aggregated result of the verification
+     * @throws IllegalStateException if modules could not be read or resolved,
+     *                               or scanning was interrupted
+     */
+    public VerificationResult verify() {
+        final ModuleScanner scanner = new ModuleScanner(threads, exportedPackagesOnly, moduleNames,
+                new UtilityClassScanner(null, 0, namePattern, annotations));
+        return modulePath != null
+                ? scanner.scanModulePath(modulePath, policy)
+                : scanner.scanRuntimeImage(javaHome, policy);
+    }
+}
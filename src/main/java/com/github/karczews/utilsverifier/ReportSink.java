@@ -0,0 +1,48 @@
+/**
+ * Copyright (c) 2017-present, UtilsVerifier Contributors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+package com.github.karczews.utilsverifier;
+
+import java.io.Closeable;
+
+/**
+ * Destination of verification results written incrementally while classes
+ * are being verified, for example to a report file.
+ * <p>
+ * Sinks used with {@link BulkVerifier} are called concurrently from multiple
+ * verification threads and have to be thread safe. Sinks are not closed by
+ * the verifier. Writing methods do not throw {@link java.io.IOException},
+ * implementations report the first failure when closed.
+ *
+ * @see JUnitXmlReportSink
+ * @see SarifReportSink
+ */
+public interface ReportSink extends Closeable {
+
+    /**
+     * Called when class was verified, also when it has violations.
+     *
+     * @param report        report of the class
+     * @param durationNanos time spent verifying the class
+     */
+    void classVerified(VerificationReport report, long durationNanos);
+
+    /**
+     * Called when class could not be verified, for example because it could
+     * not be loaded.
+     *
+     * @param className     binary name of the class
+     * @param failure       cause of the failure
+     * @param durationNanos time spent before the failure
+     */
+    void classFailed(String className, Throwable failure, long durationNanos);
+}
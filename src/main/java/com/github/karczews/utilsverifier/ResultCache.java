@@ -0,0 +1,287 @@
+/**
+ * Copyright (c) 2017-present, UtilsVerifier Contributors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+package com.github.karczews.utilsverifier;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Persistent cache of successful verifications that allows to skip classes
+ * which have not changed since they were last verified.
+ * <p>
+ * Entries are keyed by a hash of the class file bytes combined with a hash of
+ * the {@link VerificationPolicy} settings, so any change of the class or of
+ * the policy causes the class to be verified again. Only passes are stored.
+ * <p>
+ * Policies enabling checks whose results don't follow from the class file
+ * alone, like the static initializer budget or deep immutability and
+ * inherited members checks analysing other classes, are never cached,
+ * classes verified with them are always verified again.
+ * <p>
+ * Index file is a compact, append-only sequence of 16 byte keys. It's memory
+ * mapped when the cache is opened, new entries are buffered and appended under
+ * an exclusive file lock when the cache is flushed. That makes the index safe
+ * to share between concurrent processes, like parallel test forks. Instances
+ * are safe to use from multiple threads.
+ * <p>
+ * Basic usage:
+ * <pre>
+ * {@code
+ * ResultCache cache = ResultCache.open(new File("build/utilsverifier.idx"));
+ * try {
+ *     UtilsVerifier.forPackage("com.acme.util").withResultCache(cache).verify().assertSuccessful();
+ * } finally {
+ *     cache.close();
+ * }
+ * }
+ * </pre>
+ */
+public final class ResultCache implements Closeable {
+
+    private static final int MAGIC = 0x55564943; // "UVIC"
+    // bumped whenever rule semantics change, so old passes are not trusted, checks depending
+    // on other classes are excluded by VerificationPolicy#isCacheable() instead
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_SIZE = 8;
+    private static final int RECORD_SIZE = 16;
+
+    private final RandomAccessFile file;
+    private final FileChannel channel;
+
+    private long[] table = new long[64];
+    private int size;
+    private long[] pending = new long[32];
+    private int pendingSize;
+
+    private ResultCache(final RandomAccessFile file) {
+        this.file = file;
+        this.channel = file.getChannel();
+    }
+
+    /**
+     * Opens cache backed by the index file, file is created if it does not
+     * exist.
+     *
+     * @param indexFile cache index file
+     * @return opened cache
+     * @throws IOException if index file can't be opened or read
+     */
+    public static ResultCache open(final File indexFile) throws IOException {
+        final RandomAccessFile file = new RandomAccessFile(indexFile, "rw");
+        final ResultCache cache = new ResultCache(file);
+        try {
+            cache.load();
+        } catch (final IOException e) {
+            file.close();
+            throw e;
+        }
+        return cache;
+    }
+
+    /**
+     * @return number of passes known to the cache
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Appends passes recorded since the last flush to the index file.
+     *
+     * @throws IOException if index file can't be written
+     */
+    public synchronized void flush() throws IOException {
+        if (pendingSize == 0) return;
+        final FileLock lock = channel.lock();
+        try {
+            long position = channel.size();
+            if (position < HEADER_SIZE || !hasValidHeader()) {
+                channel.truncate(0);
+                writeFully(header(), 0);
+                position = HEADER_SIZE;
+            }
+            // skip partial record possibly left by a crashed writer
+            position -= (position - HEADER_SIZE) % RECORD_SIZE;
+            final ByteBuffer records = ByteBuffer.allocate(pendingSize * 8);
+            for (int index = 0; index < pendingSize; index++) {
+                records.putLong(pending[index]);
+            }
+            records.flip();
+            writeFully(records, position);
+            pendingSize = 0;
+        } finally {
+            lock.release();
+        }
+    }
+
+    /**
+     * Flushes recorded passes and closes the index file.
+     *
+     * @throws IOException if index file can't be written
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            file.close();
+        }
+    }
+
+    /**
+     * Checks if the class file has already passed verification with the
+     * policy.
+     *
+     * @param classBytes class file bytes
+     * @param policy     policy the class is verified with
+     * @param classFile  true if class is verified without being loaded
+     * @return true if class passed verification before, false otherwise or
+     * if policy is not cacheable
+     */
+    boolean isPassed(final ByteBuffer classBytes, final VerificationPolicy policy, final boolean classFile) {
+        if (!policy.isCacheable()) return false;
+        final long[] key = key(classBytes, policy, classFile);
+        synchronized (this) {
+            return contains(key[0], key[1]);
+        }
+    }
+
+    /**
+     * Records that the class file passed verification with the policy.
+     * Passes with policies that are not cacheable are ignored.
+     *
+     * @param classBytes class file bytes
+     * @param policy     policy the class was verified with
+     * @param classFile  true if class was verified without being loaded
+     */
+    void recordPassed(final ByteBuffer classBytes, final VerificationPolicy policy, final boolean classFile) {
+        if (!policy.isCacheable()) return;
+        final long[] key = key(classBytes, policy, classFile);
+        synchronized (this) {
+            if (!add(key[0], key[1])) return;
+            if (pendingSize + 2 > pending.length) {
+                final long[] grown = new long[pending.length * 2];
+                System.arraycopy(pending, 0, grown, 0, pendingSize);
+                pending = grown;
+            }
+            pending[pendingSize++] = key[0];
+            pending[pendingSize++] = key[1];
+        }
+    }
+
+    private static long[] key(final ByteBuffer classBytes, final VerificationPolicy policy, final boolean classFile) {
+        final MessageDigest digest = sha1();
+        digest.update(policy.getFingerprint());
+        digest.update((byte) (classFile ? 1 : 0));
+        digest.update(classBytes.duplicate());
+        final ByteBuffer hash = ByteBuffer.wrap(digest.digest());
+        return new long[]{hash.getLong(), hash.getLong()};
+    }
+
+    private static MessageDigest sha1() {
+        try {
+            return MessageDigest.getInstance("SHA-1");
+        } catch (final NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void load() throws IOException {
+        final long length = channel.size();
+        if (length < HEADER_SIZE) return;
+        final ByteBuffer index = channel.map(FileChannel.MapMode.READ_ONLY, 0, length);
+        if (index.getInt() != MAGIC || index.getInt() != FORMAT_VERSION) return;
+        while (index.remaining() >= RECORD_SIZE) {
+            add(index.getLong(), index.getLong());
+        }
+    }
+
+    private boolean hasValidHeader() throws IOException {
+        final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        while (header.hasRemaining() && channel.read(header, header.position()) > 0) {
+            // read until header is complete
+        }
+        header.flip();
+        return header.remaining() == HEADER_SIZE && header.getInt() == MAGIC && header.getInt() == FORMAT_VERSION;
+    }
+
+    private static ByteBuffer header() {
+        final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(MAGIC).putInt(FORMAT_VERSION).flip();
+        return header;
+    }
+
+    private void writeFully(final ByteBuffer buffer, final long position) throws IOException {
+        long offset = position;
+        while (buffer.hasRemaining()) {
+            offset += channel.write(buffer, offset);
+        }
+    }
+
+    // open addressing hash set of 128 bit keys stored as pairs of longs
+
+    private boolean contains(final long high, final long low) {
+        final int mask = table.length / 2 - 1;
+        for (int slot = slot(high, low, mask); ; slot = (slot + 1) & mask) {
+            final long storedHigh = table[slot * 2];
+            final long storedLow = table[slot * 2 + 1];
+            if (storedHigh == 0 && storedLow == 0) return false;
+            if (storedHigh == high && storedLow == low) return true;
+        }
+    }
+
+    private boolean add(final long high, final long low) {
+        if (high == 0 && low == 0) {
+            // empty slot marker, can't be stored and is practically impossible to get
+            return false;
+        }
+        if ((size + 1) * 4 > table.length) {
+            rehash(table.length * 2);
+        }
+        final int mask = table.length / 2 - 1;
+        for (int slot = slot(high, low, mask); ; slot = (slot + 1) & mask) {
+            final long storedHigh = table[slot * 2];
+            final long storedLow = table[slot * 2 + 1];
+            if (storedHigh == high && storedLow == low) return false;
+            if (storedHigh == 0 && storedLow == 0) {
+                table[slot * 2] = high;
+                table[slot * 2 + 1] = low;
+                size++;
+                return true;
+            }
+        }
+    }
+
+    private void rehash(final int capacity) {
+        final long[] old = table;
+        table = new long[capacity];
+        size = 0;
+        for (int index = 0; index < old.length; index += 2) {
+            if (old[index] != 0 || old[index + 1] != 0) {
+                add(old[index], old[index + 1]);
+            }
+        }
+    }
+
+    private static int slot(final long high, final long low, final int mask) {
+        // keys are cryptographic hashes, so their bits are already well distributed
+        return (int) (high ^ low) & mask;
+    }
+}
@@ -0,0 +1,221 @@
+/**
+ * Copyright (c) 2017-present, UtilsVerifier Contributors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+package com.github.karczews.utilsverifier;
+
+import java.lang.ref.Reference;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Internal tool estimating heap retained by objects reachable from a root.
+ * <p>
+ * Object graph is walked iteratively with an identity based visited set, so
+ * deep and cyclic graphs are handled without overflowing the stack and each
+ * object is counted once, also across subsequent roots measured by the same
+ * instance. Sizes are estimates assuming 64-bit JVM with compressed
+ * references, actual layout depends on the JVM and its flags.
+ * <p>
+ * Fields of classes that can't be made accessible, like JDK internals on
+ * Java 9+, are not followed. Content of such maps and collections is reached
+ * through their public API instead, with estimated per entry overhead.
+ * Classes, class loaders, threads and references are counted but not
+ * followed since they are not owned by the field holding them.
+ * <p>
+ * Instances are not thread safe.
+ */
+final class RetainedHeap {
+
+    static final int OBJECT_HEADER = 12;
+    static final int ARRAY_HEADER = 16;
+    static final int REFERENCE = 4;
+    static final int ALIGNMENT = 8;
+    // hash map node with hash, key, value and next plus its table slot
+    static final long MAP_ENTRY = align(OBJECT_HEADER + 4 * REFERENCE) + REFERENCE;
+    // strings holding only Latin-1 characters use one byte per character on Java 9+
+    static final boolean COMPACT_STRINGS = !System.getProperty("java.specification.version", "").startsWith("1.");
+
+    private final Map<Object, Boolean> visited = new IdentityHashMap<Object, Boolean>();
+    private final ArrayDeque<Object> pending = new ArrayDeque<Object>();
+    private final Map<Class<?>, Layout> layouts = new HashMap<Class<?>, Layout>();
+
+    /**
+     * Estimates size of objects reachable from the root which were not
+     * reached by previous measurements of this instance.
+     *
+     * @param root  object to start from, may be null
+     * @param limit number of bytes after which the walk is stopped
+     * @return estimated number of bytes, greater than limit if walk was
+     * stopped
+     */
+    long measure(final Object root, final long limit) {
+        long bytes = 0;
+        push(root);
+        while (!pending.isEmpty()) {
+            final Object object = pending.poll();
+            bytes += visit(object);
+            if (bytes > limit) {
+                // objects not walked yet were not counted, later roots have to count them
+                for (final Object skipped : pending) {
+                    visited.remove(skipped);
+                }
+                pending.clear();
+                break;
+            }
+        }
+        return bytes;
+    }
+
+    private void push(final Object object) {
+        if (object != null && visited.put(object, Boolean.TRUE) == null) {
+            pending.add(object);
+        }
+    }
+
+    private long visit(final Object object) {
+        final Class<?> type = object.getClass();
+        if (type.isArray()) {
+            return visitArray(object, type.getComponentType());
+        }
+        final Layout layout = layout(type);
+        if (!layout.followed) {
+            return layout.size;
+        }
+        if (layout.references == null) {
+            return layout.size + visitOpaque(object);
+        }
+        for (final Field field : layout.references) {
+            try {
+                push(field.get(object));
+            } catch (final IllegalAccessException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+        return layout.size;
+    }
+
+    private long visitArray(final Object array, final Class<?> componentType) {
+        final int length = Array.getLength(array);
+        if (componentType.isPrimitive()) {
+            return align(ARRAY_HEADER + (long) length * primitiveSize(componentType));
+        }
+        final Object[] elements = (Object[]) array;
+        for (int index = 0; index < length; index++) {
+            push(elements[index]);
+        }
+        return align(ARRAY_HEADER + (long) length * REFERENCE);
+    }
+
+    private long visitOpaque(final Object object) {
+        if (object instanceof String) {
+            return stringValueSize((String) object);
+        }
+        if (object instanceof Map) {
+            final Map<?, ?> map = (Map<?, ?>) object;
+            for (final Map.Entry<?, ?> entry : map.entrySet()) {
+                push(entry.getKey());
+                push(entry.getValue());
+            }
+            return (long) map.size() * MAP_ENTRY;
+        }
+        if (object instanceof Collection) {
+            final Collection<?> collection = (Collection<?>) object;
+            for (final Object element : collection) {
+                push(element);
+            }
+            return align(ARRAY_HEADER + (long) collection.size() * REFERENCE);
+        }
+        return 0;
+    }
+
+    /**
+     * @param string string which fields can't be accessed
+     * @return estimated size of the array backing the string
+     */
+    static long stringValueSize(final String string) {
+        if (COMPACT_STRINGS) {
+            boolean latin1 = true;
+            for (int index = 0; index < string.length() && latin1; index++) {
+                latin1 = string.charAt(index) <= 0xFF;
+            }
+            if (latin1) return align(ARRAY_HEADER + (long) string.length());
+        }
+        return align(ARRAY_HEADER + 2L * string.length());
+    }
+
+    private Layout layout(final Class<?> type) {
+        Layout layout = layouts.get(type);
+        if (layout == null) {
+            layout = new Layout(type);
+            layouts.put(type, layout);
+        }
+        return layout;
+    }
+
+    static long align(final long size) {
+        return (size + ALIGNMENT - 1) / ALIGNMENT * ALIGNMENT;
+    }
+
+    static int primitiveSize(final Class<?> type) {
+        if (type == long.class || type == double.class) return 8;
+        if (type == int.class || type == float.class) return 4;
+        if (type == short.class || type == char.class) return 2;
+        return 1;
+    }
+
+    /**
+     * Shallow size and reference fields of a class.
+     */
+    private static final class Layout {
+        final long size;
+        final boolean followed;
+        // null if fields of the class can't be accessed
+        final Field[] references;
+
+        Layout(final Class<?> type) {
+            long fieldsSize = 0;
+            final List<Field> fields = new ArrayList<Field>();
+            boolean accessible = true;
+            for (Class<?> current = type; current != null; current = current.getSuperclass()) {
+                for (final Field field : current.getDeclaredFields()) {
+                    if (Modifier.isStatic(field.getModifiers())) continue;
+                    if (field.getType().isPrimitive()) {
+                        fieldsSize += primitiveSize(field.getType());
+                        continue;
+                    }
+                    fieldsSize += REFERENCE;
+                    if (accessible) {
+                        try {
+                            field.setAccessible(true);
+                            fields.add(field);
+                        } catch (final RuntimeException e) {
+                            // SecurityException or module encapsulation on Java 9+
+                            accessible = false;
+                        }
+                    }
+                }
+            }
+            size = align(OBJECT_HEADER + fieldsSize);
+            followed = !(Class.class == type || ClassLoader.class.isAssignableFrom(type)
+                    || Thread.class.isAssignableFrom(type) || Reference.class.isAssignableFrom(type));
+            references = accessible ? fields.toArray(new Field[fields.size()]) : null;
+        }
+    }
+}
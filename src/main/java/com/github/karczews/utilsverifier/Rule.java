@@ -0,0 +1,162 @@
+/**
+ * Copyright (c) 2017-present, UtilsVerifier Contributors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+package com.github.karczews.utilsverifier;
+
+/**
+ * Internal, immutable implementation of a single {@link VerificationCheck}
+ * compiled from a {@link VerificationPolicy}. Rules are stateless and can be
+ * used from multiple threads.
+ * <p>
+ * Rule is split into class level part and optional per field and per method
+ * parts, so that {@link VerificationPolicy} can evaluate all rules together in
+ * a single pass over the members. Each part returns message of the violation
+ * or null if there is none. All parts can also be evaluated without building
+ * the message, which is then rendered only when it's needed.
+ */
+abstract class Rule {
+
+    /**
+     * Arguments of a class level violation described by the class alone.
+     */
+    static final Object[] NO_ARGUMENTS = new Object[0];
+
+    private final VerificationCheck check;
+
+    Rule(final VerificationCheck check) {
+        this.check = check;
+    }
+
+    final VerificationCheck getCheck() {
+        return check;
+    }
+
+    /**
+     * Verifies the class and throws {@link AssertionError} on the first
+     * violation of the rule.
+     *
+     * @param snapshot members of the verified class
+     * @param type     verified class or null if class is verified without
+     *                 being loaded
+     * @param listener listener to notify or null if there is none
+     */
+    final void verify(final MemberSnapshot snapshot, final Class<?> type, final VerificationListener listener) {
+        String violation = verifyClass(snapshot, type, listener);
+        if (violation == null && checksFields()) {
+            for (int index = 0; violation == null && index < snapshot.getFieldCount(); index++) {
+                violation = verifyField(snapshot, index);
+            }
+        }
+        if (violation == null && checksMethods()) {
+            for (int index = 0; violation == null && index < snapshot.getMethodCount(); index++) {
+                violation = verifyMethod(snapshot, index);
+            }
+        }
+        if (violation != null) {
+            throw new AssertionError(violation);
+        }
+    }
+
+    /**
+     * Verifies class level properties.
+     *
+     * @param snapshot members of the verified class
+     * @param type     verified class or null if class is verified without
+     *                 being loaded
+     * @param listener listener to notify or null if there is none
+     * @return violation message or null if there is no violation
+     */
+    final String verifyClass(final MemberSnapshot snapshot, final Class<?> type, final VerificationListener listener) {
+        final Object[] arguments = findClassViolation(snapshot, type, listener);
+        return arguments == null ? null : formatClassViolation(snapshot, arguments);
+    }
+
+    /**
+     * Verifies class level properties without building the message.
+     *
+     * @param snapshot members of the verified class
+     * @param type     verified class or null if class is verified without
+     *                 being loaded
+     * @param listener listener to notify or null if there is none
+     * @return arguments of the violation, which message can be then obtained
+     * with {@link #formatClassViolation(MemberSnapshot, Object[])}, or null if
+     * there is no violation
+     */
+    Object[] findClassViolation(final MemberSnapshot snapshot, final Class<?> type,
+                                final VerificationListener listener) {
+        return null;
+    }
+
+    /**
+     * @param snapshot  members of the verified class
+     * @param arguments arguments returned by
+     *                  {@link #findClassViolation(MemberSnapshot, Class, VerificationListener)}
+     * @return violation message
+     */
+    String formatClassViolation(final MemberSnapshot snapshot, final Object[] arguments) {
+        throw new IllegalStateException(getCheck() + " has no class level violations");
+    }
+
+    /**
+     * @return true if {@link #verifyField(MemberSnapshot, int)} has to be
+     * called for every field
+     */
+    boolean checksFields() {
+        return false;
+    }
+
+    /**
+     * @param snapshot members of the verified class
+     * @param index    index of the field in the snapshot
+     * @return violation message or null if there is no violation
+     */
+    String verifyField(final MemberSnapshot snapshot, final int index) {
+        return null;
+    }
+
+    /**
+     * @param snapshot members of the verified class
+     * @param index    index of the field in the snapshot
+     * @return true if field violates the rule, message can be then obtained
+     * with {@link #verifyField(MemberSnapshot, int)}
+     */
+    boolean violatesField(final MemberSnapshot snapshot, final int index) {
+        return verifyField(snapshot, index) != null;
+    }
+
+    /**
+     * @return true if {@link #verifyMethod(MemberSnapshot, int)} has to be
+     * called for every method
+     */
+    boolean checksMethods() {
+        return false;
+    }
+
+    /**
+     * @param snapshot members of the verified class
+     * @param index    index of the method in the snapshot
+     * @return violation message or null if there is no violation
+     */
+    String verifyMethod(final MemberSnapshot snapshot, final int index) {
+        return null;
+    }
+
+    /**
+     * @param snapshot members of the verified class
+     * @param index    index of the method in the snapshot
+     * @return true if method violates the rule, message can be then obtained
+     * with {@link #verifyMethod(MemberSnapshot, int)}
+     */
+    boolean violatesMethod(final MemberSnapshot snapshot, final int index) {
+        return verifyMethod(snapshot, index) != null;
+    }
+}
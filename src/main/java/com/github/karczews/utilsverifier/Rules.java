@@ -0,0 +1,829 @@
+/**
+ * Copyright (c) 2017-present, UtilsVerifier Contributors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+package com.github.karczews.utilsverifier;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Modifier;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Internal tool that contains implementations of the {@link Rule}s.
+ */
+final class Rules {
+
+    private Rules() {
+    }
+
+    /**
+     * Provides class file of the verified class for checks reading the
+     * bytecode.
+     *
+     * @param snapshot members of the verified class
+     * @param type     verified class or null if class is verified without
+     *                 being loaded
+     * @return class file or null if class was defined without one
+     */
+    static ClassFile classFile(final MemberSnapshot snapshot, final Class<?> type) {
+        if (snapshot.getClassFile() != null || type == null) return snapshot.getClassFile();
+        try {
+            final byte[] classBytes = ClassBytes.read(type);
+            return classBytes == null ? null : ClassFile.parse(ByteBuffer.wrap(classBytes));
+        } catch (final IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Reads value of the static field, initializing its class if needed.
+     *
+     * @param field static field
+     * @return value of the field
+     */
+    static Object staticValue(final Field field) {
+        try {
+            field.setAccessible(true);
+            return field.get(null);
+        } catch (final IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static final class FinalClass extends Rule {
+        FinalClass() {
+            super(VerificationCheck.FINAL_CLASS);
+        }
+
+        @Override
+        Object[] findClassViolation(final MemberSnapshot snapshot, final Class<?> type,
+                                    final VerificationListener listener) {
+            return Modifier.isFinal(snapshot.getModifiers()) ? null : NO_ARGUMENTS;
+        }
+
+        @Override
+        String formatClassViolation(final MemberSnapshot snapshot, final Object[] arguments) {
+            return snapshot.getClassName() + " is not final";
+        }
+    }
+
+    static final class OnlyOneConstructor extends Rule {
+        OnlyOneConstructor() {
+            super(VerificationCheck.ONLY_ONE_CONSTRUCTOR);
+        }
+
+        @Override
+        Object[] findClassViolation(final MemberSnapshot snapshot, final Class<?> type,
+                                    final VerificationListener listener) {
+            return snapshot.getConstructorCount() == 1 ? null : NO_ARGUMENTS;
+        }
+
+        @Override
+        String formatClassViolation(final MemberSnapshot snapshot, final Object[] arguments) {
+            return snapshot.getClassName() + " has too many constructors";
+        }
+    }
+
+    /**
+     * Verifies that no-argument constructor exists, optionally that it's
+     * private, and invokes it when the class is loaded.
+     */
+    static final class PrivateConstructor extends Rule {
+        private static final Integer MISSING = 0;
+        private static final Integer NOT_PRIVATE = 1;
+        private static final Integer INSTANTIATED = 2;
+        private static final Integer UNEXPECTED_EXCEPTION = 3;
+
+        private final boolean requirePrivate;
+        private final Class<? extends Throwable> expectedException;
+
+        PrivateConstructor(final boolean requirePrivate, final Class<? extends Throwable> expectedException) {
+            super(VerificationCheck.PRIVATE_CONSTRUCTOR);
+            this.requirePrivate = requirePrivate;
+            this.expectedException = expectedException;
+        }
+
+        @Override
+        Object[] findClassViolation(final MemberSnapshot snapshot, final Class<?> type,
+                                    final VerificationListener listener) {
+            final int constructorModifiers = snapshot.getDefaultConstructorModifiers();
+            if (constructorModifiers == MemberSnapshot.NO_CONSTRUCTOR) {
+                return new Object[]{MISSING};
+            }
+            if (requirePrivate && !Modifier.isPrivate(constructorModifiers)) {
+                return new Object[]{NOT_PRIVATE};
+            }
+            if (type == null) return null;
+
+            try {
+                newInstance(type, snapshot, listener);
+                if (expectedException != null) {
+                    return new Object[]{INSTANTIATED};
+                }
+            } catch (final InvocationTargetException e) {
+                if (!expectedException.isInstance(e.getTargetException())) {
+                    return new Object[]{UNEXPECTED_EXCEPTION, e.getTargetException().getClass()};
+                }
+            } catch (final Exception e) {
+                throw new IllegalStateException(e);
+            }
+            return null;
+        }
+
+        @Override
+        String formatClassViolation(final MemberSnapshot snapshot, final Object[] arguments) {
+            if (MISSING.equals(arguments[0])) {
+                return snapshot.getSimpleName() + " has no constructor";
+            }
+            if (NOT_PRIVATE.equals(arguments[0])) {
+                return "Constructor should be private";
+            }
+            if (INSTANTIATED.equals(arguments[0])) {
+                return "should not be able to instantiate " + snapshot.getSimpleName();
+            }
+            return "expected exception: " + expectedException.getName() +
+                    " got: " + ((Class<?>) arguments[1]).getName();
+        }
+
+        private static void newInstance(final Class<?> type, final MemberSnapshot snapshot,
+                                        final VerificationListener listener) throws Exception {
+            if (listener == null) {
+                ConstructorInvoker.newInstance(type);
+                return;
+            }
+            final long start = System.nanoTime();
+            try {
+                ConstructorInvoker.newInstance(type);
+            } finally {
+                listener.constructorInvoked(snapshot.getClassName(), System.nanoTime() - start);
+            }
+        }
+    }
+
+    /**
+     * Initializes the loaded class and verifies time and memory allocated by
+     * its static initializer. Only the first initialization can be measured,
+     * class that was initialized before always passes.
+     */
+    static final class StaticInitializerBudget extends Rule {
+        static final long NO_LIMIT = -1;
+
+        private final long maxNanos;
+        private final long maxBytes;
+
+        StaticInitializerBudget(final long maxNanos, final long maxBytes) {
+            super(VerificationCheck.STATIC_INITIALIZER_BUDGET);
+            if (maxBytes != NO_LIMIT && !ThreadAllocation.isSupported()) {
+                throw new IllegalStateException("thread allocation measurement is not supported by this JVM");
+            }
+            this.maxNanos = maxNanos;
+            this.maxBytes = maxBytes;
+        }
+
+        @Override
+        Object[] findClassViolation(final MemberSnapshot snapshot, final Class<?> type,
+                                    final VerificationListener listener) {
+            if (type == null) return null;
+
+            final boolean measureAllocation = ThreadAllocation.isSupported();
+            final long allocatedBefore = measureAllocation ? ThreadAllocation.currentThreadAllocatedBytes() : 0;
+            final long start = System.nanoTime();
+            try {
+                Class.forName(type.getName(), true, type.getClassLoader());
+            } catch (final ClassNotFoundException e) {
+                throw new IllegalStateException(e);
+            }
+            final long duration = System.nanoTime() - start;
+            final long allocated = measureAllocation
+                    ? ThreadAllocation.currentThreadAllocatedBytes() - allocatedBefore
+                    : NO_LIMIT;
+            if (listener != null) {
+                listener.staticInitializerMeasured(snapshot.getClassName(), duration, allocated);
+            }
+
+            if (maxNanos != NO_LIMIT && duration > maxNanos) {
+                return new Object[]{Boolean.TRUE, duration};
+            }
+            if (maxBytes != NO_LIMIT && allocated > maxBytes) {
+                return new Object[]{Boolean.FALSE, allocated};
+            }
+            return null;
+        }
+
+        /**
+         * @param arguments true and duration if time budget was exceeded,
+         *                  false and allocated bytes otherwise
+         */
+        @Override
+        String formatClassViolation(final MemberSnapshot snapshot, final Object[] arguments) {
+            if (Boolean.TRUE.equals(arguments[0])) {
+                return snapshot.getClassName() + " static initializer took " + millis((Long) arguments[1])
+                        + " ms, budget is " + millis(maxNanos) + " ms";
+            }
+            return snapshot.getClassName() + " static initializer allocated " + arguments[1]
+                    + " bytes, budget is " + maxBytes + " bytes";
+        }
+
+        private static String millis(final long nanos) {
+            return String.format(Locale.ROOT, "%.3f", nanos / 1e6);
+        }
+    }
+
+    /**
+     * Verifies estimated heap retained by the objects reachable from static
+     * fields of the loaded class. Objects reachable from multiple fields are
+     * attributed to the first declared one. Walk stops as soon as a budget is
+     * exceeded.
+     */
+    static final class StaticRetainedHeap extends Rule {
+        static final long NO_LIMIT = -1;
+
+        private final long maxClassBytes;
+        private final long maxFieldBytes;
+
+        StaticRetainedHeap(final long maxClassBytes, final long maxFieldBytes) {
+            super(VerificationCheck.STATIC_RETAINED_HEAP);
+            this.maxClassBytes = maxClassBytes;
+            this.maxFieldBytes = maxFieldBytes;
+        }
+
+        @Override
+        Object[] findClassViolation(final MemberSnapshot snapshot, final Class<?> type,
+                                    final VerificationListener listener) {
+            if (type == null) return null;
+
+            final RetainedHeap heap = new RetainedHeap();
+            long total = 0;
+            for (final Field field : type.getDeclaredFields()) {
+                if (!Modifier.isStatic(field.getModifiers()) || field.isSynthetic()
+                        || field.getType().isPrimitive()) continue;
+
+                final long classLimit = maxClassBytes == NO_LIMIT ? Long.MAX_VALUE : maxClassBytes - total;
+                final long limit = maxFieldBytes == NO_LIMIT ? classLimit : Math.min(maxFieldBytes, classLimit);
+                final long retained = heap.measure(staticValue(field), limit);
+                if (maxFieldBytes != NO_LIMIT && retained > maxFieldBytes) {
+                    return new Object[]{retained, field.getName()};
+                }
+                total += retained;
+                if (maxClassBytes != NO_LIMIT && total > maxClassBytes) {
+                    return new Object[]{total};
+                }
+            }
+            return null;
+        }
+
+        /**
+         * @param arguments retained bytes followed by name of the field if
+         *                  field budget was exceeded
+         */
+        @Override
+        String formatClassViolation(final MemberSnapshot snapshot, final Object[] arguments) {
+            if (arguments.length > 1) {
+                return snapshot.getClassName() + " static field " + arguments[1] + " retains at least "
+                        + arguments[0] + " bytes, budget is " + maxFieldBytes + " bytes";
+            }
+            return snapshot.getClassName() + " static fields retain at least " + arguments[0]
+                    + " bytes, budget is " + maxClassBytes + " bytes";
+        }
+    }
+
+    static final class InstanceFields extends Rule {
+        InstanceFields() {
+            super(VerificationCheck.INSTANCE_FIELDS);
+        }
+
+        @Override
+        boolean checksFields() {
+            return true;
+        }
+
+        @Override
+        String verifyField(final MemberSnapshot snapshot, final int index) {
+            return violatesField(snapshot, index)
+                    ? snapshot.getClassName() + " contains instance field " + snapshot.getFieldName(index)
+                    : null;
+        }
+
+        @Override
+        boolean violatesField(final MemberSnapshot snapshot, final int index) {
+            return !Modifier.isStatic(snapshot.getFieldModifiers(index));
+        }
+    }
+
+    static final class InstanceMethods extends Rule {
+        InstanceMethods() {
+            super(VerificationCheck.INSTANCE_METHODS);
+        }
+
+        @Override
+        boolean checksMethods() {
+            return true;
+        }
+
+        @Override
+        String verifyMethod(final MemberSnapshot snapshot, final int index) {
+            return violatesMethod(snapshot, index)
+                    ? snapshot.getClassName() + " contains instance method " + snapshot.getMethodName(index)
+                    : null;
+        }
+
+        @Override
+        boolean violatesMethod(final MemberSnapshot snapshot, final int index) {
+            return !Modifier.isStatic(snapshot.getMethodModifiers(index));
+        }
+    }
+
+    /**
+     * Verifies bytecode length of static methods against JIT inlining
+     * threshold. Bytecode length is read from the class file, for loaded
+     * classes class file is looked up with their class loader. Violating
+     * methods are reported from the largest one.
+     */
+    static final class MethodBytecodeSize extends Rule {
+        static final int NO_LIMIT = -1;
+
+        private final int maxSize;
+        private final Set<String> allowedMethods;
+
+        MethodBytecodeSize(final int maxSize, final Collection<String> allowedMethods) {
+            super(VerificationCheck.METHOD_BYTECODE_SIZE);
+            this.maxSize = maxSize;
+            this.allowedMethods = new HashSet<String>(allowedMethods);
+        }
+
+        @Override
+        Object[] findClassViolation(final MemberSnapshot snapshot, final Class<?> type,
+                                    final VerificationListener listener) {
+            final MemberSnapshot code = withCodeLengths(snapshot, type);
+            if (code == null) return null;
+
+            int count = 0;
+            final Integer[] violating = new Integer[code.getMethodCount()];
+            for (int index = 0; index < violating.length; index++) {
+                if (Modifier.isStatic(code.getMethodModifiers(index)) && code.getMethodCodeLength(index) > maxSize
+                        && !allowedMethods.contains(code.getMethodName(index))) {
+                    violating[count++] = index;
+                }
+            }
+            if (count == 0) return null;
+
+            Arrays.sort(violating, 0, count, new Comparator<Integer>() {
+                @Override
+                public int compare(final Integer first, final Integer second) {
+                    final int firstLength = code.getMethodCodeLength(first);
+                    final int secondLength = code.getMethodCodeLength(second);
+                    return firstLength > secondLength ? -1 : (firstLength == secondLength ? 0 : 1);
+                }
+            });
+            return new Object[]{code, Arrays.copyOf(violating, count)};
+        }
+
+        /**
+         * @param arguments snapshot with bytecode lengths followed by indexes
+         *                  of the violating methods, from the largest one
+         */
+        @Override
+        String formatClassViolation(final MemberSnapshot snapshot, final Object[] arguments) {
+            final MemberSnapshot code = (MemberSnapshot) arguments[0];
+            final Integer[] violating = (Integer[]) arguments[1];
+            final StringBuilder message = new StringBuilder()
+                    .append(snapshot.getClassName()).append(" has ").append(violating.length)
+                    .append(" static methods over ").append(maxSize).append(" bytes of bytecode:");
+            for (final Integer index : violating) {
+                message.append("\n    ").append(code.getMethodName(index)).append(' ')
+                        .append(code.getMethodCodeLength(index)).append(" bytes");
+            }
+            return message.toString();
+        }
+
+        private static MemberSnapshot withCodeLengths(final MemberSnapshot snapshot, final Class<?> type) {
+            if (snapshot.hasMethodCodeLengths()) return snapshot;
+            final ClassFile classFile = classFile(snapshot, type);
+            // classes defined at runtime have no class file to lint
+            return classFile == null ? null : MemberSnapshot.of(classFile);
+        }
+    }
+
+    /**
+     * Verifies that class does not take JVM wide class monitors. Static
+     * synchronized methods are found from modifiers, synchronized blocks on
+     * class literals only by optional scan of the bytecode. Violations can
+     * be reported to the listener as warnings instead of failing.
+     */
+    static final class ClassMonitorLocking extends Rule {
+        private final boolean scanBytecode;
+        private final boolean warnOnly;
+
+        ClassMonitorLocking(final boolean scanBytecode, final boolean warnOnly) {
+            super(VerificationCheck.CLASS_MONITOR_LOCKING);
+            this.scanBytecode = scanBytecode;
+            this.warnOnly = warnOnly;
+        }
+
+        @Override
+        Object[] findClassViolation(final MemberSnapshot snapshot, final Class<?> type,
+                                    final VerificationListener listener) {
+            final List<String> synchronizedMethods = new ArrayList<String>();
+            for (int index = 0; index < snapshot.getMethodCount(); index++) {
+                final int modifiers = snapshot.getMethodModifiers(index);
+                if (Modifier.isStatic(modifiers) && Modifier.isSynchronized(modifiers)) {
+                    synchronizedMethods.add(snapshot.getMethodName(index));
+                }
+            }
+            final List<String> lockingMethods = new ArrayList<String>();
+            final ClassFile classFile = scanBytecode ? classFile(snapshot, type) : null;
+            if (classFile != null) {
+                for (int index = 0; index < classFile.getMethodCount(); index++) {
+                    final String locked = findClassMonitor(classFile, index);
+                    if (locked != null) {
+                        lockingMethods.add(classFile.getMethodName(index));
+                        lockingMethods.add(locked);
+                    }
+                }
+            }
+            if (synchronizedMethods.isEmpty() && lockingMethods.isEmpty()) return null;
+
+            final Object[] arguments = {synchronizedMethods, lockingMethods};
+            if (!warnOnly) return arguments;
+            if (listener != null) {
+                listener.warningFound(snapshot.getClassName(), getCheck(), formatClassViolation(snapshot, arguments));
+            }
+            return null;
+        }
+
+        /**
+         * @param arguments names of static synchronized methods followed by
+         *                  names of methods synchronizing on class literals,
+         *                  each followed by name of the locked class
+         */
+        @SuppressWarnings("unchecked")
+        @Override
+        String formatClassViolation(final MemberSnapshot snapshot, final Object[] arguments) {
+            final String className = snapshot.getClassName();
+            final StringBuilder message = new StringBuilder(className).append(" locks class monitors:");
+            for (final String method : (List<String>) arguments[0]) {
+                message.append("\n    static synchronized ").append(method)
+                        .append(" locks ").append(className).append(".class");
+            }
+            final List<String> lockingMethods = (List<String>) arguments[1];
+            for (int index = 0; index < lockingMethods.size(); index += 2) {
+                message.append("\n    ").append(lockingMethods.get(index))
+                        .append(" synchronizes on ").append(lockingMethods.get(index + 1)).append(".class");
+            }
+            return message.toString();
+        }
+
+        /**
+         * Finds monitorenter on a class loaded by ldc, as compiled by javac
+         * from synchronized block on a class literal.
+         *
+         * @return binary name of the locked class or null if there is none
+         */
+        private static String findClassMonitor(final ClassFile classFile, final int method) {
+            final ByteBuffer code = classFile.getMethodCode(method);
+            if (code == null) return null;
+
+            String loaded = null;
+            for (int pc = 0; pc < code.limit(); pc += Bytecode.length(code, pc)) {
+                final int opcode = Bytecode.opcode(code, pc);
+                if (opcode == Bytecode.LDC) {
+                    loaded = classFile.getClassConstant(code.get(pc + 1) & 0xFF);
+                } else if (opcode == Bytecode.LDC_W) {
+                    loaded = classFile.getClassConstant(Bytecode.u2Operand(code, pc));
+                } else if (opcode == Bytecode.MONITORENTER && loaded != null) {
+                    return loaded;
+                } else if (opcode != Bytecode.DUP && opcode != Bytecode.ASTORE
+                        && (opcode < Bytecode.ASTORE_0 || opcode > Bytecode.ASTORE_3)) {
+                    // javac stores the monitor in a local before entering it
+                    loaded = null;
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Verifies that static state of the class can't change after it's
+     * initialized. Types of static final fields are analysed with
+     * {@link TypeImmutability}, for loaded classes also their values. Bytecode
+     * of methods other than the static initializer is scanned for writes to
+     * static fields and for mutator calls on static final collections. Calls
+     * are matched to the collection field with a simplified stack model, so
+     * receivers computed by other collection calls may be missed.
+     */
+    static final class DeepImmutability extends Rule {
+        private static final Set<String> MUTATORS = new HashSet<String>(Arrays.asList(
+                "add", "addAll", "addFirst", "addLast", "clear", "compute", "computeIfAbsent", "computeIfPresent",
+                "merge", "offer", "offerFirst", "offerLast", "poll", "pollFirst", "pollLast", "pop", "push", "put",
+                "putAll", "putIfAbsent", "remove", "removeAll", "removeFirst", "removeIf", "removeLast", "replace",
+                "replaceAll", "retainAll", "set", "sort"));
+        private static final String COLLECTION_PACKAGE = "java.util.";
+        private static final String COLLECTION_DESCRIPTOR_PREFIX = "Ljava/util/";
+
+        private final FieldNameMatcher allowedFields;
+
+        DeepImmutability(final FieldNameMatcher allowedFields) {
+            super(VerificationCheck.DEEP_IMMUTABILITY);
+            this.allowedFields = allowedFields;
+        }
+
+        @Override
+        Object[] findClassViolation(final MemberSnapshot snapshot, final Class<?> type,
+                                    final VerificationListener listener) {
+            // entries are kept as message fragments joined only when the message is rendered
+            final List<String[]> entries = new ArrayList<String[]>();
+            final ClassFile classFile = classFile(snapshot, type);
+            if (type != null) {
+                for (final Field field : type.getDeclaredFields()) {
+                    if (!field.isSynthetic() && isVerifiedStaticFinal(field.getModifiers(), field.getName())
+                            && !TypeImmutability.isImmutableType(field.getType())
+                            && !TypeImmutability.isImmutableValue(staticValue(field))) {
+                        entries.add(new String[]{"static final field ", field.getName(),
+                                " of mutable type ", field.getType().getName()});
+                    }
+                }
+            } else if (classFile != null) {
+                for (int index = 0; index < classFile.getFieldCount(); index++) {
+                    final String descriptor = classFile.getFieldDescriptor(index);
+                    if (isVerifiedStaticFinal(classFile.getFieldAccessFlags(index), classFile.getFieldName(index))
+                            && !TypeImmutability.isImmutableDescriptor(descriptor)) {
+                        entries.add(new String[]{"static final field ", classFile.getFieldName(index),
+                                " of mutable type ", descriptor});
+                    }
+                }
+            }
+            if (classFile != null) {
+                scanMethods(classFile, entries);
+            }
+            return entries.isEmpty() ? null : new Object[]{entries};
+        }
+
+        /**
+         * @param arguments list of entries, each one being fragments of a
+         *                  single line of the message
+         */
+        @SuppressWarnings("unchecked")
+        @Override
+        String formatClassViolation(final MemberSnapshot snapshot, final Object[] arguments) {
+            final StringBuilder message = new StringBuilder(snapshot.getClassName())
+                    .append(" has mutable static state:");
+            for (final String[] entry : (List<String[]>) arguments[0]) {
+                message.append("\n    ");
+                for (final String fragment : entry) {
+                    message.append(fragment);
+                }
+            }
+            return message.toString();
+        }
+
+        private boolean isVerifiedStaticFinal(final int modifiers, final String name) {
+            return Modifier.isStatic(modifiers) && Modifier.isFinal(modifiers)
+                    && (modifiers & ClassFile.ACC_SYNTHETIC) == 0 && !allowedFields.matches(name);
+        }
+
+        private void scanMethods(final ClassFile classFile, final List<String[]> entries) {
+            final String className = classFile.getClassName();
+            final Set<String> collectionFields = new HashSet<String>();
+            for (int index = 0; index < classFile.getFieldCount(); index++) {
+                if (isVerifiedStaticFinal(classFile.getFieldAccessFlags(index), classFile.getFieldName(index))
+                        && classFile.getFieldDescriptor(index).startsWith(COLLECTION_DESCRIPTOR_PREFIX)) {
+                    collectionFields.add(classFile.getFieldName(index));
+                }
+            }
+
+            final StackedFields stack = new StackedFields();
+            for (int method = 0; method < classFile.getMethodCount(); method++) {
+                final String methodName = classFile.getMethodName(method);
+                final ByteBuffer code = classFile.getMethodCode(method);
+                if (code == null || ClassFile.STATIC_INITIALIZER_NAME.equals(methodName)) continue;
+
+                stack.reset();
+                for (int pc = 0; pc < code.limit(); pc += Bytecode.length(code, pc)) {
+                    final int opcode = Bytecode.opcode(code, pc);
+                    if (opcode == Bytecode.PUTSTATIC) {
+                        final int field = Bytecode.u2Operand(code, pc);
+                        final String owner = classFile.getMemberRefOwner(field);
+                        final String name = classFile.getMemberRefName(field);
+                        if (!owner.equals(className) || !allowedFields.matches(name)) {
+                            entries.add(new String[]{"method ", methodName, " writes static field ", owner, ".",
+                                    name});
+                        }
+                        stack.pop(1);
+                    } else if (opcode == Bytecode.GETSTATIC) {
+                        final int field = Bytecode.u2Operand(code, pc);
+                        final String name = classFile.getMemberRefName(field);
+                        stack.push(classFile.getMemberRefOwner(field).equals(className)
+                                && collectionFields.contains(name) ? name : null);
+                    } else if (opcode >= Bytecode.INVOKEVIRTUAL && opcode <= Bytecode.INVOKEINTERFACE) {
+                        final int invoked = Bytecode.u2Operand(code, pc);
+                        final String descriptor = classFile.getMemberRefDescriptor(invoked);
+                        stack.pop(Bytecode.argumentCount(descriptor));
+                        if (opcode != Bytecode.INVOKESTATIC) {
+                            final String receiver = stack.pop(1);
+                            final String name = classFile.getMemberRefName(invoked);
+                            if (receiver != null && opcode != Bytecode.INVOKESPECIAL && MUTATORS.contains(name)
+                                    && classFile.getMemberRefOwner(invoked).startsWith(COLLECTION_PACKAGE)) {
+                                entries.add(new String[]{"method ", methodName, " calls ", name,
+                                        " on static field ", receiver});
+                            }
+                        }
+                        if (!descriptor.endsWith(")V")) {
+                            stack.push(null);
+                        }
+                    } else if (opcode >= Bytecode.ACONST_NULL && opcode <= Bytecode.ALOAD_3
+                            || opcode == Bytecode.NEW) {
+                        stack.push(null);
+                    } else if (opcode == Bytecode.GETFIELD) {
+                        stack.pop(1);
+                        stack.push(null);
+                    } else if (opcode == Bytecode.POP) {
+                        stack.pop(1);
+                    } else if (opcode != Bytecode.CHECKCAST) {
+                        stack.reset();
+                    }
+                }
+            }
+        }
+
+        /**
+         * Follows values of static collection fields on the operand stack, so
+         * a call is blamed on a field only when the field is its receiver and
+         * not one of its arguments. Only constants, loads, field reads and
+         * invocations are followed, any other instruction forgets the tracked
+         * values, which may miss a mutation but never blames a wrong call.
+         */
+        private static final class StackedFields {
+            private final List<String> names = new ArrayList<String>();
+            private final List<Integer> positions = new ArrayList<Integer>();
+            // depth relative to the stack when tracking started
+            private int depth;
+
+            void reset() {
+                names.clear();
+                positions.clear();
+                depth = 0;
+            }
+
+            /**
+             * @param name name of the pushed field, null for other values
+             */
+            void push(final String name) {
+                if (name != null) {
+                    names.add(name);
+                    positions.add(depth);
+                }
+                depth++;
+            }
+
+            /**
+             * @param count number of popped values
+             * @return name of the field that was the deepest popped value,
+             * null if it was not a tracked field
+             */
+            String pop(final int count) {
+                depth -= count;
+                String deepest = null;
+                for (int last = names.size() - 1; last >= 0 && positions.get(last) >= depth; last--) {
+                    if (positions.get(last) == depth) {
+                        deepest = names.get(last);
+                    }
+                    names.remove(last);
+                    positions.remove(last);
+                }
+                if (names.isEmpty()) {
+                    depth = 0;
+                }
+                return deepest;
+            }
+        }
+    }
+
+    static final class MutableStaticFields extends Rule {
+        private final FieldNameMatcher allowedFields;
+
+        MutableStaticFields(final FieldNameMatcher allowedFields) {
+            super(VerificationCheck.MUTABLE_STATIC_FIELDS);
+            this.allowedFields = allowedFields;
+        }
+
+        @Override
+        boolean checksFields() {
+            return true;
+        }
+
+        @Override
+        String verifyField(final MemberSnapshot snapshot, final int index) {
+            return violatesField(snapshot, index)
+                    ? snapshot.getClassName() + " contains static mutable field " + snapshot.getFieldName(index)
+                    : null;
+        }
+
+        @Override
+        boolean violatesField(final MemberSnapshot snapshot, final int index) {
+            final int modifiers = snapshot.getFieldModifiers(index);
+            return Modifier.isStatic(modifiers) && !Modifier.isFinal(modifiers)
+                    && !allowedFields.matches(snapshot.getFieldName(index));
+        }
+    }
+
+    /**
+     * Verifies members the class inherits from its superclasses and
+     * interfaces against the instance field, instance method and mutable
+     * static field checks. Supertypes are summarized by
+     * {@link SupertypeMembers}, so common base classes are analysed once for
+     * all verified classes. Classes verified without being loaded are skipped,
+     * their supertypes are not available.
+     */
+    static final class InheritedMembers extends Rule {
+        private final boolean instanceFields;
+        private final boolean instanceMethods;
+        private final boolean mutableStaticFields;
+        private final FieldNameMatcher allowedFields;
+
+        InheritedMembers(final boolean instanceFields, final boolean instanceMethods,
+                         final boolean mutableStaticFields, final FieldNameMatcher allowedFields) {
+            super(VerificationCheck.INHERITED_MEMBERS);
+            this.instanceFields = instanceFields;
+            this.instanceMethods = instanceMethods;
+            this.mutableStaticFields = mutableStaticFields;
+            this.allowedFields = allowedFields;
+        }
+
+        @Override
+        Object[] findClassViolation(final MemberSnapshot snapshot, final Class<?> type,
+                                    final VerificationListener listener) {
+            if (type == null) return null;
+            // supertypes reachable through several paths are reported once
+            final Set<String> fields = new LinkedHashSet<String>();
+            final Set<String> methods = new LinkedHashSet<String>();
+            final Set<String> staticFields = new LinkedHashSet<String>();
+            collect(SupertypeMembers.of(type.getSuperclass()), fields, methods, staticFields);
+            for (final Class<?> supertype : type.getInterfaces()) {
+                collect(SupertypeMembers.of(supertype), fields, methods, staticFields);
+            }
+            if (fields.isEmpty() && methods.isEmpty() && staticFields.isEmpty()) return null;
+            return new Object[]{fields, methods, staticFields};
+        }
+
+        /**
+         * @param arguments qualified names of inherited instance fields,
+         *                  instance methods and mutable static fields
+         */
+        @SuppressWarnings("unchecked")
+        @Override
+        String formatClassViolation(final MemberSnapshot snapshot, final Object[] arguments) {
+            final StringBuilder message = new StringBuilder(snapshot.getClassName())
+                    .append(" inherits members of its supertypes:");
+            for (final String field : (Set<String>) arguments[0]) {
+                message.append("\n    instance field ").append(field);
+            }
+            for (final String method : (Set<String>) arguments[1]) {
+                message.append("\n    instance method ").append(method);
+            }
+            for (final String field : (Set<String>) arguments[2]) {
+                message.append("\n    mutable static field ").append(field);
+            }
+            return message.toString();
+        }
+
+        private void collect(final SupertypeMembers members, final Set<String> fields, final Set<String> methods,
+                             final Set<String> staticFields) {
+            if (instanceFields) {
+                for (int index = 0; index < members.getInstanceFieldCount(); index++) {
+                    fields.add(members.getInstanceField(index));
+                }
+            }
+            if (instanceMethods) {
+                for (int index = 0; index < members.getInstanceMethodCount(); index++) {
+                    methods.add(members.getInstanceMethod(index));
+                }
+            }
+            if (mutableStaticFields) {
+                for (int index = 0; index < members.getStaticFieldCount(); index++) {
+                    if (!allowedFields.matches(members.getStaticFieldName(index))) {
+                        staticFields.add(members.getStaticField(index));
+                    }
+                }
+            }
+        }
+    }
+}
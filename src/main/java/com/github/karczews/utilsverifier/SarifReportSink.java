@@ -0,0 +1,135 @@
+/**
+ * Copyright (c) 2017-present, UtilsVerifier Contributors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+package com.github.karczews.utilsverifier;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * {@link ReportSink} writing results in SARIF 2.1.0 format understood by code
+ * scanning tools. Every violation is reported as a result of the rule named
+ * after its {@link VerificationCheck}, classes that couldn't be verified are
+ * reported as results of the {@code VERIFICATION_ERROR} rule. Passing classes
+ * produce no output.
+ * <p>
+ * Results are streamed to the file as classes finish, the document is
+ * complete only after {@link #close()}. Locations point to the source file
+ * derived from the class name, relative to the {@code SRCROOT} base.
+ */
+public final class SarifReportSink extends StreamingReportSink {
+
+    static final String ERROR_RULE = "VERIFICATION_ERROR";
+
+    private boolean firstResult = true;
+
+    private SarifReportSink(final File file) throws IOException {
+        super(file);
+        final StringBuilder header = new StringBuilder()
+                .append("{\"version\":\"2.1.0\",")
+                .append("\"$schema\":\"https://json.schemastore.org/sarif-2.1.0.json\",")
+                .append("\"runs\":[{\"tool\":{\"driver\":{\"name\":\"UtilsVerifier\",")
+                .append("\"informationUri\":\"https://github.com/karczews/UtilsVerifier\",\"rules\":[");
+        for (final VerificationCheck check : VerificationCheck.values()) {
+            header.append("{\"id\":\"").append(check.name()).append("\"},");
+        }
+        header.append("{\"id\":\"").append(ERROR_RULE).append("\"}]}},\"results\":[");
+        start(header.toString());
+    }
+
+    /**
+     * Creates sink writing to the file, existing file is overwritten.
+     *
+     * @param file report file
+     * @return SarifReportSink instance
+     * @throws IOException if file can't be created
+     */
+    public static SarifReportSink open(final File file) throws IOException {
+        if (file == null) throw new NullPointerException("file");
+        return new SarifReportSink(file);
+    }
+
+    @Override
+    void writeReport(final Writer writer, final VerificationReport report, final long durationNanos)
+            throws IOException {
+        for (final VerificationReport.Violation violation : report.getViolations()) {
+            writeResult(writer, violation.getCheck().name(), "error", violation.getMessage(),
+                    report.getClassName(), violation.getMemberName());
+        }
+    }
+
+    @Override
+    void writeFailure(final Writer writer, final String className, final Throwable failure,
+                      final long durationNanos) throws IOException {
+        writeResult(writer, ERROR_RULE, "error", String.valueOf(failure), className, null);
+    }
+
+    @Override
+    void writeFooter(final Writer writer) throws IOException {
+        writer.write("\n]}]}\n");
+    }
+
+    private void writeResult(final Writer writer, final String ruleId, final String level, final String message,
+                             final String className, final String memberName) throws IOException {
+        writer.write(firstResult ? "\n" : ",\n");
+        firstResult = false;
+        writer.write("{\"ruleId\":\"");
+        writer.write(ruleId);
+        writer.write("\",\"level\":\"");
+        writer.write(level);
+        writer.write("\",\"message\":{\"text\":\"");
+        escape(writer, message);
+        writer.write("\"},\"locations\":[{\"physicalLocation\":{\"artifactLocation\":{\"uri\":\"");
+        escape(writer, sourcePath(className));
+        writer.write("\",\"uriBaseId\":\"SRCROOT\"}},\"logicalLocations\":[{\"fullyQualifiedName\":\"");
+        escape(writer, memberName == null ? className : className + '.' + memberName);
+        writer.write("\",\"kind\":\"");
+        writer.write(memberName == null ? "type" : "member");
+        writer.write("\"}]}]}");
+    }
+
+    private static String sourcePath(final String className) {
+        final int nested = className.indexOf('$');
+        final String topLevel = nested < 0 ? className : className.substring(0, nested);
+        return topLevel.replace('.', '/') + ".java";
+    }
+
+    private static void escape(final Writer writer, final String text) throws IOException {
+        for (int index = 0; index < text.length(); index++) {
+            final char c = text.charAt(index);
+            switch (c) {
+                case '"':
+                    writer.write("\\\"");
+                    break;
+                case '\\':
+                    writer.write("\\\\");
+                    break;
+                case '\n':
+                    writer.write("\\n");
+                    break;
+                case '\r':
+                    writer.write("\\r");
+                    break;
+                case '\t':
+                    writer.write("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        writer.write(String.format("\\u%04x", (int) c));
+                    } else {
+                        writer.write(c);
+                    }
+            }
+        }
+    }
+}
@@ -0,0 +1,113 @@
+/**
+ * Copyright (c) 2017-present, UtilsVerifier Contributors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+package com.github.karczews.utilsverifier;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+
+/**
+ * Internal base of the {@link ReportSink}s writing a text report to a file.
+ * <p>
+ * Output goes through a fixed size buffer, so memory used by the sink does
+ * not depend on the number of reported classes. All writing methods are
+ * synchronized. The first {@link IOException} is kept and thrown from
+ * {@link #close()}, later writes are ignored.
+ */
+abstract class StreamingReportSink implements ReportSink {
+
+    static final int BUFFER_SIZE = 8192;
+
+    private final Writer writer;
+    private IOException failure;
+    private boolean closed;
+
+    StreamingReportSink(final File file) throws IOException {
+        writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), "UTF-8"), BUFFER_SIZE);
+    }
+
+    @Override
+    public final synchronized void classVerified(final VerificationReport report, final long durationNanos) {
+        checkOpen();
+        if (failure != null) return;
+        try {
+            writeReport(writer, report, durationNanos);
+        } catch (final IOException e) {
+            failure = e;
+        }
+    }
+
+    @Override
+    public final synchronized void classFailed(final String className, final Throwable failure,
+                                               final long durationNanos) {
+        checkOpen();
+        if (this.failure != null) return;
+        try {
+            writeFailure(writer, className, failure, durationNanos);
+        } catch (final IOException e) {
+            this.failure = e;
+        }
+    }
+
+    @Override
+    public final synchronized void close() throws IOException {
+        if (closed) return;
+        closed = true;
+        try {
+            if (failure == null) {
+                writeFooter(writer);
+            }
+        } finally {
+            writer.close();
+        }
+        if (failure != null) {
+            throw failure;
+        }
+        completed();
+    }
+
+    /**
+     * Writes start of the document. Called once by subclass constructor.
+     */
+    final void start(final String header) throws IOException {
+        writer.write(header);
+    }
+
+    abstract void writeReport(Writer writer, VerificationReport report, long durationNanos) throws IOException;
+
+    abstract void writeFailure(Writer writer, String className, Throwable failure, long durationNanos)
+            throws IOException;
+
+    abstract void writeFooter(Writer writer) throws IOException;
+
+    /**
+     * Called after the file was successfully written and closed.
+     */
+    void completed() throws IOException {
+    }
+
+    static String stackTrace(final Throwable failure) {
+        final StringWriter trace = new StringWriter();
+        failure.printStackTrace(new PrintWriter(trace));
+        return trace.toString();
+    }
+
+    private void checkOpen() {
+        if (closed) throw new IllegalStateException("report sink is closed");
+    }
+}
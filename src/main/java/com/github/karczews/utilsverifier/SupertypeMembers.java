@@ -0,0 +1,171 @@
+/**
+ * Copyright (c) 2017-present, UtilsVerifier Contributors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+package com.github.karczews.utilsverifier;
+
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+/**
+ * Internal, immutable summary of the members declared by a supertype and all
+ * of its own supertypes, except {@link Object}.
+ * <p>
+ * Summary of a supertype is built from its {@link MemberSnapshot} and the
+ * summaries of its direct supertypes, so each type in a hierarchy is analysed
+ * once no matter how many classes extend it. Summaries are memoized in a weak
+ * map shared by all verifications and hold only member names, which allows
+ * analysed classes to be unloaded.
+ */
+final class SupertypeMembers {
+
+    private static final String[] NONE = new String[0];
+    private static final SupertypeMembers EMPTY = new SupertypeMembers(NONE, NONE, NONE, NONE);
+
+    private static final Map<Class<?>, SupertypeMembers> CACHE = new WeakHashMap<Class<?>, SupertypeMembers>();
+
+    // qualified names, like com.acme.Base.count
+    private final String[] instanceFields;
+    private final String[] instanceMethods;
+    // parallel arrays, simple names are matched against allowed mutable fields
+    private final String[] staticFields;
+    private final String[] staticFieldNames;
+
+    private SupertypeMembers(final String[] instanceFields, final String[] instanceMethods,
+                             final String[] staticFields, final String[] staticFieldNames) {
+        this.instanceFields = instanceFields;
+        this.instanceMethods = instanceMethods;
+        this.staticFields = staticFields;
+        this.staticFieldNames = staticFieldNames;
+    }
+
+    /**
+     * Returns summary of the supertype, analysing it and its supertypes on
+     * the first request. Safe to call from multiple threads.
+     *
+     * @param supertype superclass or interface, may be null
+     * @return summary of the supertype, empty for null and {@link Object}
+     */
+    static SupertypeMembers of(final Class<?> supertype) {
+        if (supertype == null || supertype == Object.class) return EMPTY;
+        synchronized (CACHE) {
+            final SupertypeMembers cached = CACHE.get(supertype);
+            if (cached != null) return cached;
+        }
+        // analysis is done outside of the lock, it recursively requests summaries
+        // of the supertypes and concurrent callers may compute the same summary
+        final SupertypeMembers members = analyse(supertype);
+        synchronized (CACHE) {
+            final SupertypeMembers cached = CACHE.get(supertype);
+            if (cached != null) return cached;
+            CACHE.put(supertype, members);
+            return members;
+        }
+    }
+
+    private static SupertypeMembers analyse(final Class<?> supertype) {
+        final Set<String> instanceFields = new LinkedHashSet<String>();
+        final Set<String> instanceMethods = new LinkedHashSet<String>();
+        final Set<String> staticFields = new LinkedHashSet<String>();
+
+        final MemberSnapshot snapshot = MemberSnapshot.of(supertype);
+        final String owner = snapshot.getClassName();
+        for (int index = 0; index < snapshot.getFieldCount(); index++) {
+            final int modifiers = snapshot.getFieldModifiers(index);
+            if (!Modifier.isStatic(modifiers)) {
+                instanceFields.add(owner + '.' + snapshot.getFieldName(index));
+            } else if (!Modifier.isFinal(modifiers)) {
+                staticFields.add(owner + '.' + snapshot.getFieldName(index));
+            }
+        }
+        for (int index = 0; index < snapshot.getMethodCount(); index++) {
+            final int modifiers = snapshot.getMethodModifiers(index);
+            // abstract methods have to be implemented by the verified class itself
+            if (!Modifier.isStatic(modifiers) && !Modifier.isAbstract(modifiers)) {
+                instanceMethods.add(owner + '.' + snapshot.getMethodName(index));
+            }
+        }
+
+        merge(of(supertype.getSuperclass()), instanceFields, instanceMethods, staticFields);
+        for (final Class<?> type : supertype.getInterfaces()) {
+            merge(of(type), instanceFields, instanceMethods, staticFields);
+        }
+
+        final String[] staticFieldNames = new String[staticFields.size()];
+        int index = 0;
+        for (final String field : staticFields) {
+            staticFieldNames[index++] = field.substring(field.lastIndexOf('.') + 1);
+        }
+        return new SupertypeMembers(instanceFields.toArray(NONE), instanceMethods.toArray(NONE),
+                staticFields.toArray(NONE), staticFieldNames);
+    }
+
+    private static void merge(final SupertypeMembers members, final Set<String> instanceFields,
+                              final Set<String> instanceMethods, final Set<String> staticFields) {
+        instanceFields.addAll(Arrays.asList(members.instanceFields));
+        instanceMethods.addAll(Arrays.asList(members.instanceMethods));
+        staticFields.addAll(Arrays.asList(members.staticFields));
+    }
+
+    int getInstanceFieldCount() {
+        return instanceFields.length;
+    }
+
+    /**
+     * @param index instance field index
+     * @return qualified name of the field
+     */
+    String getInstanceField(final int index) {
+        return instanceFields[index];
+    }
+
+    /**
+     * @return number of instance methods that are not abstract
+     */
+    int getInstanceMethodCount() {
+        return instanceMethods.length;
+    }
+
+    /**
+     * @param index instance method index
+     * @return qualified name of the method
+     */
+    String getInstanceMethod(final int index) {
+        return instanceMethods[index];
+    }
+
+    /**
+     * @return number of static fields that are not final
+     */
+    int getStaticFieldCount() {
+        return staticFieldNames.length;
+    }
+
+    /**
+     * @param index static field index
+     * @return qualified name of the field
+     */
+    String getStaticField(final int index) {
+        return staticFields[index];
+    }
+
+    /**
+     * @param index static field index
+     * @return simple name of the field
+     */
+    String getStaticFieldName(final int index) {
+        return staticFieldNames[index];
+    }
+}
@@ -0,0 +1,73 @@
+/**
+ * Copyright (c) 2017-present, UtilsVerifier Contributors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+package com.github.karczews.utilsverifier;
+
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Method;
+
+/**
+ * Internal tool measuring bytes allocated by the current thread.
+ * <p>
+ * Uses {@code com.sun.management.ThreadMXBean} which is available on HotSpot
+ * based JVMs. It's accessed reflectively, so the library still works on JVMs
+ * without it, only allocation can't be measured there.
+ */
+final class ThreadAllocation {
+
+    private static final Object THREAD_BEAN;
+    private static final Method GET_ALLOCATED_BYTES;
+
+    static {
+        Object bean = null;
+        Method method = null;
+        try {
+            final Class<?> beanType = Class.forName("com.sun.management.ThreadMXBean");
+            final Object candidate = ManagementFactory.getThreadMXBean();
+            if (beanType.isInstance(candidate)
+                    && (Boolean) beanType.getMethod("isThreadAllocatedMemorySupported").invoke(candidate)
+                    && (Boolean) beanType.getMethod("isThreadAllocatedMemoryEnabled").invoke(candidate)) {
+                bean = candidate;
+                method = beanType.getMethod("getThreadAllocatedBytes", long.class);
+            }
+        } catch (final Exception e) {
+            // measurement not available on this JVM
+        }
+        THREAD_BEAN = bean;
+        GET_ALLOCATED_BYTES = method;
+    }
+
+    private ThreadAllocation() {
+    }
+
+    /**
+     * @return true if allocation of threads can be measured on this JVM
+     */
+    static boolean isSupported() {
+        return GET_ALLOCATED_BYTES != null;
+    }
+
+    /**
+     * @return total number of bytes allocated by the current thread so far
+     * @throws IllegalStateException if measurement is not supported
+     */
+    static long currentThreadAllocatedBytes() {
+        if (GET_ALLOCATED_BYTES == null) {
+            throw new IllegalStateException("thread allocation measurement is not supported by this JVM");
+        }
+        try {
+            return (Long) GET_ALLOCATED_BYTES.invoke(THREAD_BEAN, Thread.currentThread().getId());
+        } catch (final Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
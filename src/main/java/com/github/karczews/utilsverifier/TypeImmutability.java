@@ -0,0 +1,203 @@
+/**
+ * Copyright (c) 2017-present, UtilsVerifier Contributors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+package com.github.karczews.utilsverifier;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+/**
+ * Internal tool deciding whether objects can change state after they are
+ * created.
+ * <p>
+ * Instances of a class are immutable if all instance fields of the class and
+ * its superclasses are final and of immutable types. Declared type is
+ * immutable if it's primitive, well known immutable JDK type, or final class
+ * with immutable instances. Arrays, interfaces and classes that can be
+ * extended are considered mutable. Results are memoized in a weak map shared
+ * by all verifications, so each type is analysed once per run.
+ * <p>
+ * Types referencing each other are assumed immutable while their analysis is
+ * in progress. Results depending on such an assumption are memoized only
+ * after the outermost analysis confirms it.
+ * <p>
+ * Values of fields can be analysed too, in which case empty arrays and
+ * unmodifiable JDK collections holding immutable elements are also immutable.
+ */
+final class TypeImmutability {
+
+    private static final Set<String> IMMUTABLE_TYPES = new HashSet<String>(Arrays.asList(
+            "java.lang.String", "java.lang.Boolean", "java.lang.Byte", "java.lang.Short", "java.lang.Character",
+            "java.lang.Integer", "java.lang.Long", "java.lang.Float", "java.lang.Double", "java.lang.Void",
+            "java.lang.Class", "java.math.BigInteger", "java.math.BigDecimal", "java.util.UUID",
+            "java.util.Locale", "java.util.regex.Pattern", "java.net.URI", "java.io.File"));
+
+    private static final String[] UNMODIFIABLE_CONTAINER_PREFIXES = {
+            "java.util.Collections$Unmodifiable", "java.util.Collections$Empty", "java.util.Collections$Singleton",
+            "java.util.ImmutableCollections$"};
+
+    private static final Map<Class<?>, Boolean> CACHE = new WeakHashMap<Class<?>, Boolean>();
+
+    private TypeImmutability() {
+    }
+
+    /**
+     * @param type declared type of a field
+     * @return true if every value of the type is immutable
+     */
+    static boolean isImmutableType(final Class<?> type) {
+        if (type.isPrimitive() || IMMUTABLE_TYPES.contains(type.getName())) return true;
+        if (type.isArray() || type.isInterface()) return false;
+        return (Modifier.isFinal(type.getModifiers()) || type.isEnum()) && isImmutableClass(type);
+    }
+
+    /**
+     * Analyses declared type known only from the class file, without
+     * loading it.
+     *
+     * @param descriptor field descriptor
+     * @return true if type is primitive or well known immutable JDK type
+     */
+    static boolean isImmutableDescriptor(final String descriptor) {
+        if (descriptor.charAt(0) == 'L') {
+            return IMMUTABLE_TYPES.contains(descriptor.substring(1, descriptor.length() - 1).replace('/', '.'));
+        }
+        return descriptor.charAt(0) != '[';
+    }
+
+    /**
+     * @param value field value, may be null
+     * @return true if the value can't change state
+     */
+    static boolean isImmutableValue(final Object value) {
+        return isImmutableValue(value, new IdentityHashMap<Object, Boolean>());
+    }
+
+    /**
+     * @param type exact class of the instances
+     * @return true if instances of exactly this class are immutable
+     */
+    static boolean isImmutableClass(final Class<?> type) {
+        synchronized (CACHE) {
+            final Boolean cached = CACHE.get(type);
+            if (cached != null) return cached;
+        }
+        final Analysis analysis = new Analysis();
+        final boolean immutable = analysis.analyse(type);
+        synchronized (CACHE) {
+            if (immutable) {
+                // outermost analysis passed, all assumptions made on the way hold
+                for (final Class<?> provisional : analysis.provisional) {
+                    CACHE.put(provisional, Boolean.TRUE);
+                }
+            }
+            CACHE.put(type, immutable);
+        }
+        return immutable;
+    }
+
+    private static boolean isImmutableValue(final Object value, final Map<Object, Boolean> visited) {
+        if (value == null || visited.put(value, Boolean.TRUE) != null) return true;
+        final Class<?> type = value.getClass();
+        if (type.isArray()) return Array.getLength(value) == 0;
+        if (!isUnmodifiableContainer(type)) return isImmutableClass(type);
+
+        if (value instanceof Map) {
+            for (final Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                if (!isImmutableValue(entry.getKey(), visited) || !isImmutableValue(entry.getValue(), visited)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        if (value instanceof Collection) {
+            for (final Object element : (Collection<?>) value) {
+                if (!isImmutableValue(element, visited)) return false;
+            }
+            return true;
+        }
+        return false;
+    }
+
+    private static boolean isUnmodifiableContainer(final Class<?> type) {
+        final String name = type.getName();
+        for (final String prefix : UNMODIFIABLE_CONTAINER_PREFIXES) {
+            // iterators and entry views of the containers are not included
+            if (name.startsWith(prefix) && !name.contains("Iterator")) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Single analysis of a class and types reachable from its fields.
+     */
+    private static final class Analysis {
+        private final Set<Class<?>> inProgress = new HashSet<Class<?>>();
+        // classes found immutable assuming classes in progress are immutable
+        private final List<Class<?>> provisional = new ArrayList<Class<?>>();
+        private boolean assumed;
+
+        boolean analyse(final Class<?> type) {
+            synchronized (CACHE) {
+                final Boolean cached = CACHE.get(type);
+                if (cached != null) return cached;
+            }
+            if (!inProgress.add(type)) {
+                assumed = true;
+                return true;
+            }
+            final boolean assumedBefore = assumed;
+            assumed = false;
+            final boolean immutable = analyseFields(type);
+            inProgress.remove(type);
+
+            if (!immutable || !assumed) {
+                synchronized (CACHE) {
+                    CACHE.put(type, immutable);
+                }
+            } else {
+                provisional.add(type);
+            }
+            assumed |= assumedBefore;
+            return immutable;
+        }
+
+        private boolean analyseFields(final Class<?> type) {
+            for (Class<?> current = type; current != null && current != Object.class
+                    && current != Enum.class; current = current.getSuperclass()) {
+                if (IMMUTABLE_TYPES.contains(current.getName())) return true;
+                for (final Field field : current.getDeclaredFields()) {
+                    final int modifiers = field.getModifiers();
+                    if (Modifier.isStatic(modifiers)) continue;
+                    if (!Modifier.isFinal(modifiers) || !isImmutableDeclared(field.getType())) return false;
+                }
+            }
+            return true;
+        }
+
+        private boolean isImmutableDeclared(final Class<?> type) {
+            if (type.isPrimitive() || IMMUTABLE_TYPES.contains(type.getName())) return true;
+            if (type.isArray() || type.isInterface()) return false;
+            return (Modifier.isFinal(type.getModifiers()) || type.isEnum()) && analyse(type);
+        }
+    }
+}
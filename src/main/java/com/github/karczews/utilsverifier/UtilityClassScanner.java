@@ -0,0 +1,227 @@
+/**
+ * Copyright (c) 2017-present, UtilsVerifier Contributors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+package com.github.karczews.utilsverifier;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Modifier;
+import java.nio.ByteBuffer;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.regex.Pattern;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Internal scanner that discovers utility-shaped classes in directories and
+ * jar files.
+ * <p>
+ * A class is a candidate if all of its declared members are static, its name
+ * matches the configured pattern or it is annotated with one of the
+ * configured annotations. Interfaces, annotations, enums, synthetic classes
+ * and module descriptors are rejected based on access flags before anything
+ * else is decoded.
+ * <p>
+ * Class files are read and filtered on the provided executor while entries
+ * are still being enumerated. Number of class files in flight is bounded, so
+ * memory usage does not depend on the size of the scanned jar. Candidates are
+ * passed to the {@link Visitor} on the executor threads as soon as they are
+ * found.
+ */
+final class UtilityClassScanner {
+
+    /**
+     * Receives discovered candidates. Called concurrently from executor
+     * threads.
+     */
+    interface Visitor {
+        void visit(String className, ByteBuffer classBytes);
+    }
+
+    private final ExecutorService executor;
+    private final int maxPending;
+    private final Semaphore pending;
+    private final Pattern namePattern;
+    private final String[] annotationDescriptors;
+    private final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+
+    /**
+     * @param executor    executor reading and filtering class files
+     * @param maxPending  maximum number of class files in flight
+     * @param namePattern pattern of binary names of classes that are always
+     *                    candidates, null if none
+     * @param annotations binary names of annotations marking candidates
+     */
+    UtilityClassScanner(final ExecutorService executor, final int maxPending, final Pattern namePattern,
+                        final List<String> annotations) {
+        this.executor = executor;
+        this.maxPending = maxPending;
+        this.pending = new Semaphore(maxPending);
+        this.namePattern = namePattern;
+        this.annotationDescriptors = new String[annotations.size()];
+        for (int index = 0; index < annotationDescriptors.length; index++) {
+            annotationDescriptors[index] = 'L' + annotations.get(index).replace('.', '/') + ';';
+        }
+    }
+
+    /**
+     * Scans the directory or jar file and waits until all of its candidates
+     * have been visited.
+     *
+     * @param root    classpath root directory or jar
+     * @param visitor visitor receiving candidates
+     * @throws IOException          if root or any of its class files can't
+     *                              be read
+     * @throws InterruptedException if interrupted while waiting
+     */
+    void scan(final File root, final Visitor visitor) throws IOException, InterruptedException {
+        if (root.isDirectory()) {
+            try {
+                scanDirectory(root, "", visitor);
+            } finally {
+                awaitPending();
+            }
+        } else {
+            final ZipFile zip = new ZipFile(root);
+            try {
+                scanZip(zip, visitor);
+            } finally {
+                // entries are read by the executor, archive can't be closed earlier
+                awaitPending();
+                zip.close();
+            }
+        }
+        final Throwable cause = failure.getAndSet(null);
+        if (cause instanceof IOException) throw (IOException) cause;
+        if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+        if (cause instanceof Error) throw (Error) cause;
+    }
+
+    /**
+     * Checks if the class file describes a utility-shaped class.
+     *
+     * @param classFile class file to check
+     * @return true if class should be verified, false otherwise
+     */
+    boolean isCandidate(final ClassFile classFile) {
+        if ((classFile.getAccessFlags() & ClassFinder.EXCLUDED_FLAGS) != 0) {
+            return false;
+        }
+        if (namePattern != null && namePattern.matcher(classFile.getClassName()).matches()) {
+            return true;
+        }
+        for (int index = 0; index < annotationDescriptors.length; index++) {
+            if (classFile.hasAnnotation(annotationDescriptors[index])) {
+                return true;
+            }
+        }
+        return hasOnlyStaticMembers(classFile);
+    }
+
+    private static boolean hasOnlyStaticMembers(final ClassFile classFile) {
+        int members = classFile.getFieldCount();
+        for (int index = 0; index < classFile.getFieldCount(); index++) {
+            if (!Modifier.isStatic(classFile.getFieldAccessFlags(index))) {
+                return false;
+            }
+        }
+        for (int index = 0; index < classFile.getMethodCount(); index++) {
+            if (classFile.isInitializer(index)) continue;
+            if (!Modifier.isStatic(classFile.getMethodAccessFlags(index))) {
+                return false;
+            }
+            members++;
+        }
+        return members > 0;
+    }
+
+    private void scanDirectory(final File directory, final String prefix, final Visitor visitor)
+            throws InterruptedException {
+        final File[] files = directory.listFiles();
+        if (files == null) return;
+        for (int index = 0; index < files.length; index++) {
+            final File file = files[index];
+            final String path = prefix + file.getName();
+            if (file.isDirectory()) {
+                scanDirectory(file, path + '/', visitor);
+            } else if (ClassFinder.isCandidate(path)) {
+                submit(new Runnable() {
+                    @Override
+                    public void run() {
+                        try {
+                            visitIfCandidate(ClassFile.map(file), visitor);
+                        } catch (final IOException e) {
+                            failure.compareAndSet(null, e);
+                        }
+                    }
+                });
+            }
+        }
+    }
+
+    private void scanZip(final ZipFile zip, final Visitor visitor) throws InterruptedException {
+        final Enumeration<? extends ZipEntry> entries = zip.entries();
+        while (entries.hasMoreElements() && failure.get() == null) {
+            final ZipEntry entry = entries.nextElement();
+            final String path = entry.getName();
+            // multi-release and other metadata entries are not regular classes
+            if (entry.isDirectory() || path.startsWith("META-INF/") || !ClassFinder.isCandidate(path)) continue;
+            submit(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        visitIfCandidate(ByteBuffer.wrap(ClassBytes.read(zip, entry)), visitor);
+                    } catch (final IOException e) {
+                        failure.compareAndSet(null, e);
+                    }
+                }
+            });
+        }
+    }
+
+    private void visitIfCandidate(final ByteBuffer classBytes, final Visitor visitor) {
+        final ClassFile classFile = ClassFile.parse(classBytes);
+        if (isCandidate(classFile)) {
+            visitor.visit(classFile.getClassName(), classBytes);
+        }
+    }
+
+    private void submit(final Runnable task) throws InterruptedException {
+        pending.acquire();
+        try {
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        task.run();
+                    } catch (final Throwable e) {
+                        failure.compareAndSet(null, e);
+                    } finally {
+                        pending.release();
+                    }
+                }
+            });
+        } catch (final RuntimeException e) {
+            pending.release();
+            throw e;
+        }
+    }
+
+    private void awaitPending() throws InterruptedException {
+        pending.acquire(maxPending);
+        pending.release(maxPending);
+    }
+}
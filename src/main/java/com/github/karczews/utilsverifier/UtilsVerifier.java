@@ -12,11 +12,12 @@
  */
 package com.github.karczews.utilsverifier;
 
-import java.lang.reflect.Constructor;
-import java.lang.reflect.Field;
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
-import java.lang.reflect.Modifier;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
 
 /**
  * {@code UtilsVerifier} tool can be used in unit tests to verify if certain
@@ -44,6 +45,15 @@ import java.lang.reflect.Modifier;
  * <pre>
  * {@code UtilsVerifier.forClass(TestClass.class).suppressFinalClassCheck(true).verify();}
  * </pre>
+ * <p>
+ * Settings shared by many classes can be defined once as an immutable
+ * {@link VerificationPolicy}.
+ * <p>
+ * Whole packages or classpath roots can be verified in parallel with
+ * {@link BulkVerifier}:
+ * <pre>
+ * {@code UtilsVerifier.forPackage("com.acme.util").verify().assertSuccessful();}
+ * </pre>
  *
  * @param <T> class under test
  * @see AssertionError
@@ -52,17 +62,9 @@ public final class UtilsVerifier<T> {
 
     private final Class<T> classUnderTest;
 
-    private Class<? extends Throwable> expectedConstructorException;
-
-    private boolean suppressFinalClassCheck = false;
-    private boolean suppressOnlyOneConstructorCheck = false;
-    private boolean suppressPrivateConstructorCheck = false;
-    private boolean suppressInstanceFieldCheck = false;
-    private boolean suppressInstanceMethodCheck = false;
-    private boolean suppressMutableStaticFieldsCheck = false;
-
-    // list of mutable static fields often added by outside tools like JaCoCo
-    private final String[] allowedMutableStaticFields = {"$jacocoData"};
+    private VerificationPolicy.Builder policy = VerificationPolicy.builder();
+    private ResultCache resultCache;
+    private VerificationListener listener;
 
     private UtilsVerifier(final Class<T> type) {
         classUnderTest = type;
@@ -79,6 +81,41 @@ public final class UtilsVerifier<T> {
         return new UtilsVerifier<T>(type);
     }
 
+    /**
+     * Creates BulkVerifier for all classes in the provided package and its
+     * sub-packages.
+     *
+     * @param packageName name of the package to verify
+     * @return BulkVerifier instance
+     * @see BulkVerifier#forPackage(String)
+     */
+    public static BulkVerifier forPackage(final String packageName) {
+        return BulkVerifier.forPackage(packageName);
+    }
+
+    /**
+     * Creates BulkVerifier for all classes under the provided classpath root.
+     *
+     * @param root directory or jar file containing classes to verify
+     * @return BulkVerifier instance
+     * @see BulkVerifier#forClasspathRoot(File)
+     */
+    public static BulkVerifier forClasspathRoot(final File root) {
+        return BulkVerifier.forClasspathRoot(root);
+    }
+
+    /**
+     * Creates BulkVerifier discovering utility-shaped classes under the
+     * provided classpath roots.
+     *
+     * @param roots directories or jar files to scan
+     * @return BulkVerifier instance
+     * @see BulkVerifier#discoverIn(File...)
+     */
+    public static BulkVerifier discoverIn(final File... roots) {
+        return BulkVerifier.discoverIn(roots);
+    }
+
     /**
      * Performs verification for the type that the {@link UtilsVerifier} was
      * created with.
@@ -87,12 +124,180 @@ public final class UtilsVerifier<T> {
      * formed util class.
      */
     public void verify() {
-        checkIfClassIsFinal();
-        hasOnlyOneConstructor();
-        verifyPrivateConstructor();
-        hasNoInstanceFields();
-        hasNoInstanceMethods();
-        hasNoMutableStaticFields();
+        final VerificationPolicy policy = this.policy.build();
+        final ByteBuffer classBytes = resultCache == null ? null : readClassBytes();
+        if (classBytes != null && resultCache.isPassed(classBytes, policy, false)) {
+            return;
+        }
+        if (listener == null) {
+            policy.verify(classUnderTest);
+        } else {
+            policy.verify(classUnderTest, listener);
+        }
+        if (classBytes != null) {
+            resultCache.recordPassed(classBytes, policy, false);
+        }
+    }
+
+    /**
+     * Performs verification for the type that the {@link UtilsVerifier} was
+     * created with, collecting all violations instead of failing on the
+     * first one. Members are traversed once for all enabled checks.
+     *
+     * @return report listing all violations
+     */
+    public VerificationReport verifyAll() {
+        final VerificationPolicy policy = this.policy.build();
+        final ByteBuffer classBytes = resultCache == null ? null : readClassBytes();
+        if (classBytes != null && resultCache.isPassed(classBytes, policy, false)) {
+            return new VerificationReport(classUnderTest.getName(), Collections.<VerificationReport.Violation>emptyList());
+        }
+        final VerificationReport report = policy.verifyAll(classUnderTest);
+        if (classBytes != null && report.isSuccessful()) {
+            resultCache.recordPassed(classBytes, policy, false);
+        }
+        return report;
+    }
+
+    /**
+     * Sets cache of successful verifications. If class file of the type is
+     * available and it has already passed verification with the same settings
+     * then it's not verified again.
+     *
+     * @param cache cache of the verification results
+     * @return UtilsVerifier instance
+     */
+    public UtilsVerifier<T> withResultCache(final ResultCache cache) {
+        resultCache = cache;
+        return this;
+    }
+
+    /**
+     * Sets listener notified about progress of the verification.
+     *
+     * @param listener verification listener
+     * @return UtilsVerifier instance
+     */
+    public UtilsVerifier<T> withListener(final VerificationListener listener) {
+        this.listener = listener;
+        return this;
+    }
+
+    /**
+     * Replaces all verification settings with the ones of the provided
+     * policy. Settings can be still adjusted with other builder methods.
+     *
+     * @param policy policy to verify the class with
+     * @return UtilsVerifier instance
+     */
+    public UtilsVerifier<T> withPolicy(final VerificationPolicy policy) {
+        this.policy = policy.toBuilder();
+        return this;
+    }
+
+    /**
+     * Fails verification if the static initializer of the class runs longer
+     * than the specified time. Class is initialized before its constructor is
+     * invoked, only the first initialization can be measured.
+     *
+     * @param time maximum time of the static initializer
+     * @param unit unit of the time
+     * @return UtilsVerifier instance
+     */
+    public UtilsVerifier<T> withMaxStaticInitTime(final long time, final TimeUnit unit) {
+        policy.withMaxStaticInitTime(time, unit);
+        return this;
+    }
+
+    /**
+     * Fails verification if the static initializer of the class allocates
+     * more than the specified number of bytes.
+     *
+     * @param bytes maximum number of bytes allocated by the static
+     *              initializer
+     * @return UtilsVerifier instance
+     * @see VerificationPolicy.Builder#withMaxStaticInitAllocation(long)
+     */
+    public UtilsVerifier<T> withMaxStaticInitAllocation(final long bytes) {
+        policy.withMaxStaticInitAllocation(bytes);
+        return this;
+    }
+
+    /**
+     * Fails verification if objects reachable from static fields of the
+     * class retain more than the specified number of bytes together.
+     *
+     * @param bytes maximum number of bytes retained by static fields
+     * @return UtilsVerifier instance
+     * @see VerificationPolicy.Builder#withMaxStaticRetainedBytes(long)
+     */
+    public UtilsVerifier<T> withMaxStaticRetainedBytes(final long bytes) {
+        policy.withMaxStaticRetainedBytes(bytes);
+        return this;
+    }
+
+    /**
+     * Fails verification if objects reachable from any static field of the
+     * class retain more than the specified number of bytes.
+     *
+     * @param bytes maximum number of bytes retained by a single static field
+     * @return UtilsVerifier instance
+     * @see VerificationPolicy.Builder#withMaxStaticFieldRetainedBytes(long)
+     */
+    public UtilsVerifier<T> withMaxStaticFieldRetainedBytes(final long bytes) {
+        policy.withMaxStaticFieldRetainedBytes(bytes);
+        return this;
+    }
+
+    /**
+     * Fails verification if bytecode of any static method is longer than the
+     * specified threshold.
+     *
+     * @param bytes maximum bytecode length of a static method
+     * @return UtilsVerifier instance
+     * @see VerificationPolicy.Builder#withMaxMethodBytecodeSize(int)
+     */
+    public UtilsVerifier<T> withMaxMethodBytecodeSize(final int bytes) {
+        policy.withMaxMethodBytecodeSize(bytes);
+        return this;
+    }
+
+    /**
+     * Fails verification if class declares static synchronized methods.
+     *
+     * @param check true if check should be performed, false otherwise
+     * @return UtilsVerifier instance
+     * @see VerificationPolicy.Builder#checkClassMonitorLocking(boolean)
+     */
+    public UtilsVerifier<T> checkClassMonitorLocking(final boolean check) {
+        policy.checkClassMonitorLocking(check);
+        return this;
+    }
+
+    /**
+     * Fails verification if static state of the class can change after it's
+     * initialized.
+     *
+     * @param check true if check should be performed, false otherwise
+     * @return UtilsVerifier instance
+     * @see VerificationPolicy.Builder#checkDeepImmutability(boolean)
+     */
+    public UtilsVerifier<T> checkDeepImmutability(final boolean check) {
+        policy.checkDeepImmutability(check);
+        return this;
+    }
+
+    /**
+     * Fails verification if superclasses or interfaces of the class declare
+     * members the class is not allowed to declare itself.
+     *
+     * @param check true if check should be performed, false otherwise
+     * @return UtilsVerifier instance
+     * @see VerificationPolicy.Builder#checkInheritedMembers(boolean)
+     */
+    public UtilsVerifier<T> checkInheritedMembers(final boolean check) {
+        policy.checkInheritedMembers(check);
+        return this;
     }
 
     /**
@@ -102,7 +307,7 @@ public final class UtilsVerifier<T> {
      * @return UtilsVerifier instance
      */
     public UtilsVerifier<T> withConstructorThrowing(final Class<? extends Throwable> type) {
-        expectedConstructorException = type;
+        policy.withConstructorThrowing(type);
         return this;
     }
 
@@ -113,7 +318,7 @@ public final class UtilsVerifier<T> {
      * @return UtilsVerifier instance
      */
     public UtilsVerifier<T> suppressFinalClassCheck(final boolean suppressCheck) {
-        suppressFinalClassCheck = suppressCheck;
+        policy.suppressFinalClassCheck(suppressCheck);
         return this;
     }
 
@@ -125,7 +330,7 @@ public final class UtilsVerifier<T> {
      * @return UtilsVerifier instance
      */
     public UtilsVerifier<T> suppressOnlyOneConstructorCheck(final boolean suppressCheck) {
-        suppressOnlyOneConstructorCheck = suppressCheck;
+        policy.suppressOnlyOneConstructorCheck(suppressCheck);
         return this;
     }
 
@@ -137,7 +342,7 @@ public final class UtilsVerifier<T> {
      * @return UtilsVerifier instance
      */
     public UtilsVerifier<T> suppressPrivateConstructorCheck(final boolean suppressCheck) {
-        suppressPrivateConstructorCheck = suppressCheck;
+        policy.suppressPrivateConstructorCheck(suppressCheck);
         return this;
     }
 
@@ -149,7 +354,7 @@ public final class UtilsVerifier<T> {
      * @return UtilsVerifier instance
      */
     public UtilsVerifier<T> suppressInstanceFieldCheck(final boolean suppressCheck) {
-        suppressInstanceFieldCheck = suppressCheck;
+        policy.suppressInstanceFieldCheck(suppressCheck);
         return this;
     }
 
@@ -161,7 +366,7 @@ public final class UtilsVerifier<T> {
      * @return UtilsVerifier instance
      */
     public UtilsVerifier<T> suppressInstanceMethodCheck(final boolean suppressCheck) {
-        suppressInstanceMethodCheck = suppressCheck;
+        policy.suppressInstanceMethodCheck(suppressCheck);
         return this;
     }
 
@@ -173,89 +378,69 @@ public final class UtilsVerifier<T> {
      * @return UtilsVerifier instance
      */
     public UtilsVerifier<T> suppressMutableStaticFieldsCheck(final boolean suppressCheck) {
-        suppressMutableStaticFieldsCheck = suppressCheck;
+        policy.suppressMutableStaticFieldsCheck(suppressCheck);
         return this;
     }
 
-    private void checkIfClassIsFinal() {
-        if (suppressFinalClassCheck) return;
-        if (!Modifier.isFinal(classUnderTest.getModifiers())) {
-            throw new AssertionError(classUnderTest.getName() + " is not final");
-        }
-    }
-
-    private void hasOnlyOneConstructor() {
-        if (suppressOnlyOneConstructorCheck) return;
-        if (classUnderTest.getDeclaredConstructors().length != 1) {
-            throw new AssertionError(classUnderTest.getName() + " has too many constructors");
-        }
+    /**
+     * Allows mutable static field with the exact name, e.g. a lazily
+     * initialized cache. Field {@code $jacocoData} added by JaCoCo is
+     * allowed by default.
+     *
+     * @param name name of the field
+     * @return UtilsVerifier instance
+     * @see VerificationPolicy.Builder#allowMutableStaticField(String)
+     */
+    public UtilsVerifier<T> allowMutableStaticField(final String name) {
+        policy.allowMutableStaticField(name);
+        return this;
     }
 
-    private void verifyPrivateConstructor() {
-        final Constructor<?> constructor;
-        try {
-            constructor = classUnderTest.getDeclaredConstructor();
-            if (!suppressPrivateConstructorCheck && !Modifier.isPrivate(constructor.getModifiers())) {
-                throw new AssertionError("Constructor should be private");
-            }
-        } catch (final NoSuchMethodException ignore) {
-            throw new AssertionError(classUnderTest.getSimpleName() + " has no constructor");
-        }
-
-        try {
-            constructor.setAccessible(true);
-            constructor.newInstance();
-            if (expectedConstructorException != null) {
-                throw new AssertionError("should not be able to instantiate " + classUnderTest.getSimpleName());
-            }
-        } catch (final InvocationTargetException e) {
-            if (!expectedConstructorException.isInstance(e.getTargetException())) {
-                throw new AssertionError("expected exception: " + expectedConstructorException.getName() +
-                        " got: " + e.getTargetException().getClass().getName());
-            }
-        } catch (final Exception e) {
-            throw new IllegalStateException(e);
-        }
+    /**
+     * Allows mutable static fields with names starting with the prefix.
+     *
+     * @param prefix prefix of the field names
+     * @return UtilsVerifier instance
+     * @see VerificationPolicy.Builder#allowMutableStaticFieldPrefix(String)
+     */
+    public UtilsVerifier<T> allowMutableStaticFieldPrefix(final String prefix) {
+        policy.allowMutableStaticFieldPrefix(prefix);
+        return this;
     }
 
-    private void hasNoInstanceFields() {
-        if (suppressInstanceFieldCheck) return;
-        final Field[] fields = classUnderTest.getDeclaredFields();
-        for (int index = 0; index < fields.length; index++) {
-            final Field field = fields[index];
-            if (!Modifier.isStatic(field.getModifiers())) {
-                throw new AssertionError(classUnderTest.getName()
-                        + " contains instance field " + field.getName());
-            }
-        }
+    /**
+     * Allows mutable static fields with names matching the glob, where
+     * {@code *} matches any sequence of characters and {@code ?} matches
+     * any single character.
+     *
+     * @param glob glob matching field names
+     * @return UtilsVerifier instance
+     * @see VerificationPolicy.Builder#allowMutableStaticFieldGlob(String)
+     */
+    public UtilsVerifier<T> allowMutableStaticFieldGlob(final String glob) {
+        policy.allowMutableStaticFieldGlob(glob);
+        return this;
     }
 
-    private void hasNoInstanceMethods() {
-        if (suppressInstanceMethodCheck) return;
-        final Method[] methods = classUnderTest.getDeclaredMethods();
-        for (int index = 0; index < methods.length; index++) {
-            final Method method = methods[index];
-            if (!Modifier.isStatic(method.getModifiers())) {
-                throw new AssertionError(classUnderTest.getName()
-                        + " contains instance method " + method.getName());
-            }
-        }
+    /**
+     * Allows mutable static fields with names entirely matching the regular
+     * expression.
+     *
+     * @param pattern regular expression matching field names
+     * @return UtilsVerifier instance
+     * @see VerificationPolicy.Builder#allowMutableStaticFieldPattern(Pattern)
+     */
+    public UtilsVerifier<T> allowMutableStaticFieldPattern(final Pattern pattern) {
+        policy.allowMutableStaticFieldPattern(pattern);
+        return this;
     }
 
-    private void hasNoMutableStaticFields() {
-        if (suppressMutableStaticFieldsCheck) return;
-        final Field[] fields = classUnderTest.getDeclaredFields();
-
-        for (int index = 0; index < fields.length; index++) {
-            final Field field = fields[index];
-            final int modifiers = field.getModifiers();
-            if (Arrays2.contains(field.getName(), allowedMutableStaticFields)) {
-                continue;
-            }
-            if (Modifier.isStatic(modifiers) && !Modifier.isFinal(modifiers)) {
-                throw new AssertionError(classUnderTest.getName()
-                        + " contains static mutable field " + field.getName());
-            }
+    private ByteBuffer readClassBytes() {
+        try {
+            final byte[] bytes = ClassBytes.read(classUnderTest);
+            return bytes == null ? null : ByteBuffer.wrap(bytes);
+        } catch (final IOException e) {
+            throw new IllegalStateException(e);
         }
     }
 }
@@ -0,0 +1,97 @@
+/**
+ * Copyright (c) 2017-present, UtilsVerifier Contributors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+package com.github.karczews.utilsverifier;
+
+/**
+ * Checks that can be performed while verifying an util class.
+ *
+ * @see VerificationPolicy
+ */
+public enum VerificationCheck {
+    /**
+     * Class is final.
+     */
+    FINAL_CLASS,
+    /**
+     * Class declares exactly one constructor.
+     */
+    ONLY_ONE_CONSTRUCTOR,
+    /**
+     * Class declares a private no-argument constructor that behaves as
+     * expected when invoked.
+     */
+    PRIVATE_CONSTRUCTOR,
+    /**
+     * Class declares no instance fields.
+     */
+    INSTANCE_FIELDS,
+    /**
+     * Class declares no instance methods.
+     */
+    INSTANCE_METHODS,
+    /**
+     * Class declares no static fields that are not final.
+     */
+    MUTABLE_STATIC_FIELDS,
+    /**
+     * Static initializer of the class fits in the configured time and
+     * allocation budget. Enabled only when a budget is set.
+     */
+    STATIC_INITIALIZER_BUDGET(false),
+    /**
+     * Objects reachable from static fields of the class fit in the configured
+     * heap budget. Enabled only when a budget is set.
+     */
+    STATIC_RETAINED_HEAP(false),
+    /**
+     * Bytecode of static methods fits in the configured JIT inlining
+     * threshold. Enabled only when a threshold is set.
+     */
+    METHOD_BYTECODE_SIZE(false),
+    /**
+     * Class does not lock on class monitors, with static synchronized methods
+     * or synchronized blocks on class literals. Enabled only explicitly.
+     */
+    CLASS_MONITOR_LOCKING(false),
+    /**
+     * Static state of the class can't change after initialization: static
+     * final fields hold immutable values and methods don't write static
+     * fields or mutate static collections. Enabled only explicitly.
+     */
+    DEEP_IMMUTABILITY(false),
+    /**
+     * Superclasses and interfaces of the class declare no instance fields,
+     * no concrete instance methods and no static fields that are not final,
+     * following the member checks that are not suppressed. Enabled only
+     * explicitly.
+     */
+    INHERITED_MEMBERS(false);
+
+    private final boolean enabledByDefault;
+
+    VerificationCheck() {
+        this(true);
+    }
+
+    VerificationCheck(final boolean enabledByDefault) {
+        this.enabledByDefault = enabledByDefault;
+    }
+
+    /**
+     * @return true if check is performed unless suppressed, false if it has
+     * to be enabled explicitly
+     */
+    public boolean isEnabledByDefault() {
+        return enabledByDefault;
+    }
+}
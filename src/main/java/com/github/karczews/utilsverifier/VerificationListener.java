@@ -0,0 +1,127 @@
+/**
+ * Copyright (c) 2017-present, UtilsVerifier Contributors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+package com.github.karczews.utilsverifier;
+
+/**
+ * Receives notifications about progress of the verification. All methods do
+ * nothing by default, subclasses override the ones they are interested in.
+ * <p>
+ * Listeners used with {@link BulkVerifier} are called concurrently from
+ * multiple verification threads and have to be thread safe. Durations are
+ * measured with {@link System#nanoTime()}.
+ *
+ * @see VerificationStatistics
+ */
+public abstract class VerificationListener {
+
+    /**
+     * Called before class is verified.
+     *
+     * @param className binary name of the class
+     */
+    public void classStarted(final String className) {
+    }
+
+    /**
+     * Called after class is verified, also when verification failed.
+     *
+     * @param className     binary name of the class
+     * @param durationNanos time spent verifying the class
+     * @param passed        true if class passed verification, false otherwise
+     */
+    public void classFinished(final String className, final long durationNanos, final boolean passed) {
+    }
+
+    /**
+     * Called after declared members of the class were read, either with
+     * reflection or from the class file.
+     *
+     * @param className     binary name of the class
+     * @param durationNanos time spent reading members
+     */
+    public void membersRead(final String className, final long durationNanos) {
+    }
+
+    /**
+     * Called before the check is performed.
+     *
+     * @param className binary name of the class
+     * @param check     check being performed
+     */
+    public void checkStarted(final String className, final VerificationCheck check) {
+    }
+
+    /**
+     * Called after the check is performed, also when violation was found.
+     *
+     * @param className     binary name of the class
+     * @param check         performed check
+     * @param durationNanos time spent performing the check
+     */
+    public void checkFinished(final String className, final VerificationCheck check, final long durationNanos) {
+    }
+
+    /**
+     * Called for every check that is suppressed by the policy.
+     *
+     * @param className binary name of the class
+     * @param check     suppressed check
+     */
+    public void checkSkipped(final String className, final VerificationCheck check) {
+    }
+
+    /**
+     * Called when check finds a violation, before the violation is thrown.
+     *
+     * @param className binary name of the class
+     * @param check     violated check
+     * @param violation error describing the violation
+     */
+    public void violationFound(final String className, final VerificationCheck check, final Throwable violation) {
+    }
+
+    /**
+     * Called when check configured to warn finds a violation. Class still
+     * passes verification.
+     *
+     * @param className binary name of the class
+     * @param check     violated check
+     * @param message   description of the violation
+     */
+    public void warningFound(final String className, final VerificationCheck check, final String message) {
+    }
+
+    /**
+     * Called after the class was initialized by
+     * {@link VerificationCheck#STATIC_INITIALIZER_BUDGET} check.
+     *
+     * @param className      binary name of the class
+     * @param durationNanos  time spent in the static initializer
+     * @param allocatedBytes bytes allocated by the static initializer, -1 if
+     *                       not supported by the JVM
+     */
+    public void staticInitializerMeasured(final String className, final long durationNanos,
+                                          final long allocatedBytes) {
+    }
+
+    /**
+     * Called after the constructor of the class was invoked. Duration
+     * includes static initialization if the class was not initialized
+     * before.
+     *
+     * @param className     binary name of the class
+     * @param durationNanos time spent invoking the constructor
+     */
+    public void constructorInvoked(final String className, final long durationNanos) {
+    }
+}
@@ -0,0 +1,948 @@
+/**
+ * Copyright (c) 2017-present, UtilsVerifier Contributors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+package com.github.karczews.utilsverifier;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Immutable set of verification settings that can be built once and applied
+ * to any number of classes, also concurrently from multiple threads.
+ * <p>
+ * When built, the policy is compiled into an ordered list of enabled checks,
+ * so verifying a class allocates no configuration. Also the allowlist of
+ * mutable static fields, often added by instrumentation tools, is compiled
+ * into an efficient matcher.
+ * <p>
+ * Basic usage:
+ * <pre>
+ * {@code
+ * VerificationPolicy policy = VerificationPolicy.builder()
+ *         .suppressFinalClassCheck(true)
+ *         .build();
+ * policy.verify(TestedClass.class);
+ * }
+ * </pre>
+ *
+ * @see UtilsVerifier
+ */
+public final class VerificationPolicy {
+
+    /**
+     * Default HotSpot {@code MaxInlineSize}, methods with bytecode up to this
+     * size are always inlined.
+     */
+    public static final int MAX_INLINE_SIZE = 35;
+
+    /**
+     * Default HotSpot {@code FreqInlineSize}, frequently called methods with
+     * bytecode up to this size are inlined.
+     */
+    public static final int FREQ_INLINE_SIZE = 325;
+
+    // mutable static field often added by outside tools like JaCoCo
+    private static final String JACOCO_DATA_FIELD = "$jacocoData";
+
+    // results depend on the JVM and on other classes, not only on the class file
+    private static final Set<VerificationCheck> UNCACHEABLE_CHECKS = EnumSet.of(
+            VerificationCheck.STATIC_INITIALIZER_BUDGET, VerificationCheck.STATIC_RETAINED_HEAP,
+            VerificationCheck.DEEP_IMMUTABILITY, VerificationCheck.INHERITED_MEMBERS);
+
+    private static final VerificationPolicy DEFAULT = builder().build();
+
+    private final Class<? extends Throwable> expectedConstructorException;
+
+    private final boolean suppressFinalClassCheck;
+    private final boolean suppressOnlyOneConstructorCheck;
+    private final boolean suppressPrivateConstructorCheck;
+    private final boolean suppressInstanceFieldCheck;
+    private final boolean suppressInstanceMethodCheck;
+    private final boolean suppressMutableStaticFieldsCheck;
+
+    private final long maxStaticInitNanos;
+    private final long maxStaticInitAllocation;
+    private final long maxStaticRetainedBytes;
+    private final long maxStaticFieldRetainedBytes;
+    private final int maxMethodBytecodeSize;
+    private final List<String> allowedLargeMethods;
+    private final boolean classMonitorCheck;
+    private final boolean scanClassMonitorBytecode;
+    private final boolean warnOnClassMonitorLocking;
+    private final boolean deepImmutabilityCheck;
+    private final boolean inheritedMembersCheck;
+
+    private final List<String> allowedMutableStaticFields;
+    private final List<String> allowedMutableStaticFieldPrefixes;
+    private final List<String> allowedMutableStaticFieldGlobs;
+    private final List<Pattern> allowedMutableStaticFieldPatterns;
+
+    private final Rule[] rules;
+    private final Rule[] fieldRules;
+    private final Rule[] methodRules;
+    private final VerificationCheck[] suppressedChecks;
+    private final List<VerificationCheck> checks;
+    private final byte[] fingerprint;
+    private final boolean cacheable;
+
+    private VerificationPolicy(final Builder builder) {
+        expectedConstructorException = builder.expectedConstructorException;
+        suppressFinalClassCheck = builder.suppressFinalClassCheck;
+        suppressOnlyOneConstructorCheck = builder.suppressOnlyOneConstructorCheck;
+        suppressPrivateConstructorCheck = builder.suppressPrivateConstructorCheck;
+        suppressInstanceFieldCheck = builder.suppressInstanceFieldCheck;
+        suppressInstanceMethodCheck = builder.suppressInstanceMethodCheck;
+        suppressMutableStaticFieldsCheck = builder.suppressMutableStaticFieldsCheck;
+        maxStaticInitNanos = builder.maxStaticInitNanos;
+        maxStaticInitAllocation = builder.maxStaticInitAllocation;
+        maxStaticRetainedBytes = builder.maxStaticRetainedBytes;
+        maxStaticFieldRetainedBytes = builder.maxStaticFieldRetainedBytes;
+        maxMethodBytecodeSize = builder.maxMethodBytecodeSize;
+        allowedLargeMethods = copyOf(builder.allowedLargeMethods);
+        classMonitorCheck = builder.classMonitorCheck;
+        scanClassMonitorBytecode = builder.scanClassMonitorBytecode;
+        warnOnClassMonitorLocking = builder.warnOnClassMonitorLocking;
+        deepImmutabilityCheck = builder.deepImmutabilityCheck;
+        inheritedMembersCheck = builder.inheritedMembersCheck;
+        allowedMutableStaticFields = copyOf(builder.allowedMutableStaticFields);
+        allowedMutableStaticFieldPrefixes = copyOf(builder.allowedMutableStaticFieldPrefixes);
+        allowedMutableStaticFieldGlobs = copyOf(builder.allowedMutableStaticFieldGlobs);
+        allowedMutableStaticFieldPatterns = copyOf(builder.allowedMutableStaticFieldPatterns);
+
+        final List<Rule> enabled = new ArrayList<Rule>();
+        if (!suppressFinalClassCheck) {
+            enabled.add(new Rules.FinalClass());
+        }
+        if (!suppressOnlyOneConstructorCheck) {
+            enabled.add(new Rules.OnlyOneConstructor());
+        }
+        // has to run before the constructor is invoked, which initializes the class
+        if (maxStaticInitNanos != Rules.StaticInitializerBudget.NO_LIMIT
+                || maxStaticInitAllocation != Rules.StaticInitializerBudget.NO_LIMIT) {
+            enabled.add(new Rules.StaticInitializerBudget(maxStaticInitNanos, maxStaticInitAllocation));
+        }
+        // constructor is always required and invoked, suppression only allows it to be non private
+        enabled.add(new Rules.PrivateConstructor(!suppressPrivateConstructorCheck, expectedConstructorException));
+        if (!suppressInstanceFieldCheck) {
+            enabled.add(new Rules.InstanceFields());
+        }
+        if (!suppressInstanceMethodCheck) {
+            enabled.add(new Rules.InstanceMethods());
+        }
+        final FieldNameMatcher allowedFields = FieldNameMatcher.compile(allowedMutableStaticFields,
+                allowedMutableStaticFieldPrefixes, allowedMutableStaticFieldGlobs, allowedMutableStaticFieldPatterns);
+        if (!suppressMutableStaticFieldsCheck) {
+            enabled.add(new Rules.MutableStaticFields(allowedFields));
+        }
+        if (maxStaticRetainedBytes != Rules.StaticRetainedHeap.NO_LIMIT
+                || maxStaticFieldRetainedBytes != Rules.StaticRetainedHeap.NO_LIMIT) {
+            enabled.add(new Rules.StaticRetainedHeap(maxStaticRetainedBytes, maxStaticFieldRetainedBytes));
+        }
+        if (maxMethodBytecodeSize != Rules.MethodBytecodeSize.NO_LIMIT) {
+            enabled.add(new Rules.MethodBytecodeSize(maxMethodBytecodeSize, allowedLargeMethods));
+        }
+        if (classMonitorCheck) {
+            enabled.add(new Rules.ClassMonitorLocking(scanClassMonitorBytecode, warnOnClassMonitorLocking));
+        }
+        if (deepImmutabilityCheck) {
+            enabled.add(new Rules.DeepImmutability(allowedFields));
+        }
+        if (inheritedMembersCheck) {
+            enabled.add(new Rules.InheritedMembers(!suppressInstanceFieldCheck, !suppressInstanceMethodCheck,
+                    !suppressMutableStaticFieldsCheck, allowedFields));
+        }
+        rules = enabled.toArray(new Rule[enabled.size()]);
+
+        final List<Rule> enabledFieldRules = new ArrayList<Rule>();
+        final List<Rule> enabledMethodRules = new ArrayList<Rule>();
+        for (final Rule rule : rules) {
+            if (rule.checksFields()) {
+                enabledFieldRules.add(rule);
+            }
+            if (rule.checksMethods()) {
+                enabledMethodRules.add(rule);
+            }
+        }
+        fieldRules = enabledFieldRules.toArray(new Rule[enabledFieldRules.size()]);
+        methodRules = enabledMethodRules.toArray(new Rule[enabledMethodRules.size()]);
+
+        final List<VerificationCheck> enabledChecks = new ArrayList<VerificationCheck>(rules.length);
+        for (int index = 0; index < rules.length; index++) {
+            enabledChecks.add(rules[index].getCheck());
+        }
+        checks = Collections.unmodifiableList(enabledChecks);
+        final List<VerificationCheck> suppressed = new ArrayList<VerificationCheck>();
+        for (final VerificationCheck check : VerificationCheck.values()) {
+            if (check.isEnabledByDefault() && !enabledChecks.contains(check)) {
+                suppressed.add(check);
+            }
+        }
+        suppressedChecks = suppressed.toArray(new VerificationCheck[suppressed.size()]);
+        fingerprint = fingerprint();
+        cacheable = Collections.disjoint(checks, UNCACHEABLE_CHECKS);
+    }
+
+    /**
+     * @return new builder with all checks enabled
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * @return shared policy with all checks enabled
+     */
+    public static VerificationPolicy defaultPolicy() {
+        return DEFAULT;
+    }
+
+    /**
+     * @return new builder initialized with settings of this policy
+     */
+    public Builder toBuilder() {
+        final Builder builder = new Builder();
+        builder.allowedMutableStaticFields.clear();
+        builder.allowedMutableStaticFields.addAll(allowedMutableStaticFields);
+        builder.allowedMutableStaticFieldPrefixes.addAll(allowedMutableStaticFieldPrefixes);
+        builder.allowedMutableStaticFieldGlobs.addAll(allowedMutableStaticFieldGlobs);
+        builder.allowedMutableStaticFieldPatterns.addAll(allowedMutableStaticFieldPatterns);
+        builder.maxStaticInitNanos = maxStaticInitNanos;
+        builder.maxStaticInitAllocation = maxStaticInitAllocation;
+        builder.maxStaticRetainedBytes = maxStaticRetainedBytes;
+        builder.maxStaticFieldRetainedBytes = maxStaticFieldRetainedBytes;
+        builder.maxMethodBytecodeSize = maxMethodBytecodeSize;
+        builder.allowedLargeMethods.addAll(allowedLargeMethods);
+        builder.classMonitorCheck = classMonitorCheck;
+        builder.scanClassMonitorBytecode = scanClassMonitorBytecode;
+        builder.warnOnClassMonitorLocking = warnOnClassMonitorLocking;
+        builder.deepImmutabilityCheck = deepImmutabilityCheck;
+        builder.inheritedMembersCheck = inheritedMembersCheck;
+        return builder
+                .withConstructorThrowing(expectedConstructorException)
+                .suppressFinalClassCheck(suppressFinalClassCheck)
+                .suppressOnlyOneConstructorCheck(suppressOnlyOneConstructorCheck)
+                .suppressPrivateConstructorCheck(suppressPrivateConstructorCheck)
+                .suppressInstanceFieldCheck(suppressInstanceFieldCheck)
+                .suppressInstanceMethodCheck(suppressInstanceMethodCheck)
+                .suppressMutableStaticFieldsCheck(suppressMutableStaticFieldsCheck);
+    }
+
+    /**
+     * @return exception type expected to be thrown by the constructor or
+     * null if constructor should not throw
+     */
+    Class<? extends Throwable> getExpectedConstructorException() {
+        return expectedConstructorException;
+    }
+
+    /**
+     * @return checks performed by this policy in the order of execution
+     */
+    public List<VerificationCheck> getChecks() {
+        return checks;
+    }
+
+    /**
+     * @return bytes uniquely describing settings of this policy, shall not be
+     * modified
+     */
+    byte[] getFingerprint() {
+        return fingerprint;
+    }
+
+    /**
+     * @return true if a pass with this policy depends only on the class file
+     * and can be stored in {@link ResultCache}, false if enabled checks
+     * measure the class at runtime
+     */
+    boolean isCacheable() {
+        return cacheable;
+    }
+
+    /**
+     * Verifies that the provided type is a well formed util class.
+     * <p>
+     * {@link AssertionError} will be thrown if provided type is not a well
+     * formed util class.
+     *
+     * @param type class to verify
+     */
+    public void verify(final Class<?> type) {
+        final MemberSnapshot snapshot = MemberSnapshot.of(type);
+        for (int index = 0; index < rules.length; index++) {
+            rules[index].verify(snapshot, type, null);
+        }
+    }
+
+    /**
+     * Verifies that the provided type is a well formed util class notifying
+     * the listener about progress of the verification.
+     * <p>
+     * {@link AssertionError} will be thrown if provided type is not a well
+     * formed util class.
+     *
+     * @param type     class to verify
+     * @param listener listener to notify
+     */
+    public void verify(final Class<?> type, final VerificationListener listener) {
+        if (listener == null) throw new NullPointerException("listener");
+        final String className = type.getName();
+        listener.classStarted(className);
+        final long start = System.nanoTime();
+        boolean passed = false;
+        try {
+            final MemberSnapshot snapshot = MemberSnapshot.of(type);
+            listener.membersRead(className, System.nanoTime() - start);
+            verify(snapshot, type, listener);
+            passed = true;
+        } finally {
+            listener.classFinished(className, System.nanoTime() - start, passed);
+        }
+    }
+
+    /**
+     * Verifies the provided type collecting all violations instead of
+     * failing on the first one. All enabled checks are evaluated together in
+     * a single pass over the declared members.
+     *
+     * @param type class to verify
+     * @return report listing all violations
+     */
+    public VerificationReport verifyAll(final Class<?> type) {
+        return verifyAll(MemberSnapshot.of(type), type, null);
+    }
+
+    /**
+     * Verifies the provided type collecting all violations and notifying the
+     * listener. Since checks are evaluated together, listener is not
+     * notified when individual checks start and finish.
+     *
+     * @param type     class to verify
+     * @param listener listener to notify
+     * @return report listing all violations
+     */
+    public VerificationReport verifyAll(final Class<?> type, final VerificationListener listener) {
+        if (listener == null) throw new NullPointerException("listener");
+        final String className = type.getName();
+        listener.classStarted(className);
+        final long start = System.nanoTime();
+        boolean passed = false;
+        try {
+            final MemberSnapshot snapshot = MemberSnapshot.of(type);
+            listener.membersRead(className, System.nanoTime() - start);
+            for (int index = 0; index < suppressedChecks.length; index++) {
+                listener.checkSkipped(className, suppressedChecks[index]);
+            }
+            final VerificationReport report = verifyAll(snapshot, type, listener);
+            passed = report.isSuccessful();
+            return report;
+        } finally {
+            listener.classFinished(className, System.nanoTime() - start, passed);
+        }
+    }
+
+    /**
+     * Verifies the provided type adding compact records of all violations to
+     * the provided list. Unlike {@link #verifyAll(Class)} no
+     * {@link AssertionError} is created and messages of member violations
+     * are not rendered, which keeps sweeps with many violations cheap.
+     *
+     * @param type       class to verify
+     * @param violations list to add found violations to
+     * @return true if no violation was found, false otherwise
+     */
+    public boolean collectViolations(final Class<?> type, final List<? super ViolationRecord> violations) {
+        final int found = violations.size();
+        collectViolations(MemberSnapshot.of(type), type, null, violations);
+        return violations.size() == found;
+    }
+
+    /**
+     * Verifies class file collecting all violations, without loading the
+     * class.
+     *
+     * @param classFile class file to verify
+     * @return report listing all violations
+     */
+    VerificationReport verifyAll(final ClassFile classFile) {
+        return verifyAll(MemberSnapshot.of(classFile), null, null);
+    }
+
+    /**
+     * Verifies class file without loading the class, so the constructor is
+     * not invoked.
+     *
+     * @param classFile class file to verify
+     * @param listener  listener to notify or null if there is none
+     */
+    void verify(final ClassFile classFile, final VerificationListener listener) {
+        if (listener == null) {
+            final MemberSnapshot snapshot = MemberSnapshot.of(classFile);
+            for (int index = 0; index < rules.length; index++) {
+                rules[index].verify(snapshot, null, null);
+            }
+            return;
+        }
+        final String className = classFile.getClassName();
+        listener.classStarted(className);
+        final long start = System.nanoTime();
+        boolean passed = false;
+        try {
+            final MemberSnapshot snapshot = MemberSnapshot.of(classFile);
+            listener.membersRead(className, System.nanoTime() - start);
+            verify(snapshot, null, listener);
+            passed = true;
+        } finally {
+            listener.classFinished(className, System.nanoTime() - start, passed);
+        }
+    }
+
+    private VerificationReport verifyAll(final MemberSnapshot snapshot, final Class<?> type,
+                                         final VerificationListener listener) {
+        final List<ViolationRecord> records = new ArrayList<ViolationRecord>();
+        collectViolations(snapshot, type, listener, records);
+        final List<VerificationReport.Violation> violations =
+                new ArrayList<VerificationReport.Violation>(records.size());
+        for (int index = 0; index < records.size(); index++) {
+            violations.add(records.get(index).toViolation());
+        }
+        if (listener != null) {
+            for (final VerificationReport.Violation violation : violations) {
+                listener.violationFound(snapshot.getClassName(), violation.getCheck(),
+                        new AssertionError(violation.getMessage()));
+            }
+        }
+        return new VerificationReport(snapshot.getClassName(), violations);
+    }
+
+    private void collectViolations(final MemberSnapshot snapshot, final Class<?> type,
+                                   final VerificationListener listener, final List<? super ViolationRecord> out) {
+        for (int index = 0; index < rules.length; index++) {
+            final Object[] arguments = rules[index].findClassViolation(snapshot, type, listener);
+            if (arguments != null) {
+                out.add(new ViolationRecord(snapshot, type, rules[index], arguments));
+            }
+        }
+        if (fieldRules.length > 0) {
+            for (int field = 0; field < snapshot.getFieldCount(); field++) {
+                for (int index = 0; index < fieldRules.length; index++) {
+                    if (fieldRules[index].violatesField(snapshot, field)) {
+                        out.add(new ViolationRecord(snapshot, type, fieldRules[index],
+                                ViolationRecord.Target.FIELD, field));
+                    }
+                }
+            }
+        }
+        if (methodRules.length > 0) {
+            for (int method = 0; method < snapshot.getMethodCount(); method++) {
+                for (int index = 0; index < methodRules.length; index++) {
+                    if (methodRules[index].violatesMethod(snapshot, method)) {
+                        out.add(new ViolationRecord(snapshot, type, methodRules[index],
+                                ViolationRecord.Target.METHOD, method));
+                    }
+                }
+            }
+        }
+    }
+
+    private void verify(final MemberSnapshot snapshot, final Class<?> type, final VerificationListener listener) {
+        final String className = snapshot.getClassName();
+        for (int index = 0; index < suppressedChecks.length; index++) {
+            listener.checkSkipped(className, suppressedChecks[index]);
+        }
+        for (int index = 0; index < rules.length; index++) {
+            final Rule rule = rules[index];
+            listener.checkStarted(className, rule.getCheck());
+            final long start = System.nanoTime();
+            try {
+                rule.verify(snapshot, type, listener);
+            } catch (final AssertionError violation) {
+                listener.violationFound(className, rule.getCheck(), violation);
+                throw violation;
+            } finally {
+                listener.checkFinished(className, rule.getCheck(), System.nanoTime() - start);
+            }
+        }
+    }
+
+    /**
+     * Writes settings of this policy, so it can be recreated in another JVM
+     * with {@link #readFrom(DataInput, ClassLoader)}.
+     *
+     * @param out output to write settings to
+     * @throws IOException if settings could not be written
+     */
+    void writeTo(final DataOutput out) throws IOException {
+        out.writeUTF(expectedConstructorException == null ? "" : expectedConstructorException.getName());
+        out.writeBoolean(suppressFinalClassCheck);
+        out.writeBoolean(suppressOnlyOneConstructorCheck);
+        out.writeBoolean(suppressPrivateConstructorCheck);
+        out.writeBoolean(suppressInstanceFieldCheck);
+        out.writeBoolean(suppressInstanceMethodCheck);
+        out.writeBoolean(suppressMutableStaticFieldsCheck);
+        out.writeLong(maxStaticInitNanos);
+        out.writeLong(maxStaticInitAllocation);
+        out.writeLong(maxStaticRetainedBytes);
+        out.writeLong(maxStaticFieldRetainedBytes);
+        out.writeInt(maxMethodBytecodeSize);
+        writeStrings(out, allowedLargeMethods);
+        out.writeBoolean(classMonitorCheck);
+        out.writeBoolean(scanClassMonitorBytecode);
+        out.writeBoolean(warnOnClassMonitorLocking);
+        out.writeBoolean(deepImmutabilityCheck);
+        out.writeBoolean(inheritedMembersCheck);
+        writeStrings(out, allowedMutableStaticFields);
+        writeStrings(out, allowedMutableStaticFieldPrefixes);
+        writeStrings(out, allowedMutableStaticFieldGlobs);
+        out.writeInt(allowedMutableStaticFieldPatterns.size());
+        for (final Pattern pattern : allowedMutableStaticFieldPatterns) {
+            out.writeUTF(pattern.pattern());
+            out.writeInt(pattern.flags());
+        }
+    }
+
+    /**
+     * Reads policy written with {@link #writeTo(DataOutput)}.
+     *
+     * @param in     input to read settings from
+     * @param loader class loader of the expected constructor exception
+     * @return policy with the read settings
+     * @throws IOException            if settings could not be read
+     * @throws ClassNotFoundException if expected constructor exception
+     *                                could not be loaded
+     */
+    static VerificationPolicy readFrom(final DataInput in, final ClassLoader loader)
+            throws IOException, ClassNotFoundException {
+        final Builder builder = new Builder();
+        final String exception = in.readUTF();
+        if (exception.length() != 0) {
+            builder.expectedConstructorException = Class.forName(exception, false, loader)
+                    .asSubclass(Throwable.class);
+        }
+        builder.suppressFinalClassCheck = in.readBoolean();
+        builder.suppressOnlyOneConstructorCheck = in.readBoolean();
+        builder.suppressPrivateConstructorCheck = in.readBoolean();
+        builder.suppressInstanceFieldCheck = in.readBoolean();
+        builder.suppressInstanceMethodCheck = in.readBoolean();
+        builder.suppressMutableStaticFieldsCheck = in.readBoolean();
+        builder.maxStaticInitNanos = in.readLong();
+        builder.maxStaticInitAllocation = in.readLong();
+        builder.maxStaticRetainedBytes = in.readLong();
+        builder.maxStaticFieldRetainedBytes = in.readLong();
+        builder.maxMethodBytecodeSize = in.readInt();
+        readStrings(in, builder.allowedLargeMethods);
+        builder.classMonitorCheck = in.readBoolean();
+        builder.scanClassMonitorBytecode = in.readBoolean();
+        builder.warnOnClassMonitorLocking = in.readBoolean();
+        builder.deepImmutabilityCheck = in.readBoolean();
+        builder.inheritedMembersCheck = in.readBoolean();
+        builder.allowedMutableStaticFields.clear();
+        readStrings(in, builder.allowedMutableStaticFields);
+        readStrings(in, builder.allowedMutableStaticFieldPrefixes);
+        readStrings(in, builder.allowedMutableStaticFieldGlobs);
+        for (int count = in.readInt(); count > 0; count--) {
+            builder.allowedMutableStaticFieldPatterns.add(Pattern.compile(in.readUTF(), in.readInt()));
+        }
+        return builder.build();
+    }
+
+    private static void writeStrings(final DataOutput out, final List<String> strings) throws IOException {
+        out.writeInt(strings.size());
+        for (final String string : strings) {
+            out.writeUTF(string);
+        }
+    }
+
+    private static void readStrings(final DataInput in, final List<String> strings) throws IOException {
+        for (int count = in.readInt(); count > 0; count--) {
+            strings.add(in.readUTF());
+        }
+    }
+
+    private byte[] fingerprint() {
+        final StringBuilder description = new StringBuilder()
+                .append("checks=").append(checks)
+                .append(";privateConstructor=").append(!suppressPrivateConstructorCheck)
+                .append(";constructorThrowing=")
+                .append(expectedConstructorException == null ? "" : expectedConstructorException.getName())
+                .append(";maxStaticInitNanos=").append(maxStaticInitNanos)
+                .append(";maxStaticInitAllocation=").append(maxStaticInitAllocation)
+                .append(";maxStaticRetainedBytes=").append(maxStaticRetainedBytes)
+                .append(";maxStaticFieldRetainedBytes=").append(maxStaticFieldRetainedBytes)
+                .append(";maxMethodBytecodeSize=").append(maxMethodBytecodeSize)
+                .append(";allowedLargeMethods=").append(allowedLargeMethods)
+                .append(";scanClassMonitorBytecode=").append(scanClassMonitorBytecode)
+                .append(";warnOnClassMonitorLocking=").append(warnOnClassMonitorLocking)
+                .append(";allowed=").append(allowedMutableStaticFields)
+                .append(";prefixes=").append(allowedMutableStaticFieldPrefixes)
+                .append(";globs=").append(allowedMutableStaticFieldGlobs)
+                .append(";patterns=[");
+        for (final Pattern pattern : allowedMutableStaticFieldPatterns) {
+            description.append(pattern.pattern()).append('/').append(pattern.flags()).append(',');
+        }
+        try {
+            return description.append(']').toString().getBytes("UTF-8");
+        } catch (final UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static <E> List<E> copyOf(final List<E> list) {
+        return Collections.unmodifiableList(new ArrayList<E>(list));
+    }
+
+    /**
+     * Builder of the {@link VerificationPolicy}. By default all checks are
+     * enabled.
+     */
+    public static final class Builder {
+
+        private Class<? extends Throwable> expectedConstructorException;
+
+        private boolean suppressFinalClassCheck = false;
+        private boolean suppressOnlyOneConstructorCheck = false;
+        private boolean suppressPrivateConstructorCheck = false;
+        private boolean suppressInstanceFieldCheck = false;
+        private boolean suppressInstanceMethodCheck = false;
+        private boolean suppressMutableStaticFieldsCheck = false;
+
+        private long maxStaticInitNanos = Rules.StaticInitializerBudget.NO_LIMIT;
+        private long maxStaticInitAllocation = Rules.StaticInitializerBudget.NO_LIMIT;
+        private long maxStaticRetainedBytes = Rules.StaticRetainedHeap.NO_LIMIT;
+        private long maxStaticFieldRetainedBytes = Rules.StaticRetainedHeap.NO_LIMIT;
+        private int maxMethodBytecodeSize = Rules.MethodBytecodeSize.NO_LIMIT;
+        private final List<String> allowedLargeMethods = new ArrayList<String>();
+        private boolean classMonitorCheck = false;
+        private boolean scanClassMonitorBytecode = false;
+        private boolean warnOnClassMonitorLocking = false;
+        private boolean deepImmutabilityCheck = false;
+        private boolean inheritedMembersCheck = false;
+
+        private final List<String> allowedMutableStaticFields = new ArrayList<String>();
+        private final List<String> allowedMutableStaticFieldPrefixes = new ArrayList<String>();
+        private final List<String> allowedMutableStaticFieldGlobs = new ArrayList<String>();
+        private final List<Pattern> allowedMutableStaticFieldPatterns = new ArrayList<Pattern>();
+
+        private Builder() {
+            allowedMutableStaticFields.add(JACOCO_DATA_FIELD);
+        }
+
+        /**
+         * @return new immutable policy with settings of this builder
+         */
+        public VerificationPolicy build() {
+            return new VerificationPolicy(this);
+        }
+
+        /**
+         * @param type expected exception type
+         * @return Builder instance
+         * @see UtilsVerifier#withConstructorThrowing(Class)
+         */
+        public Builder withConstructorThrowing(final Class<? extends Throwable> type) {
+            expectedConstructorException = type;
+            return this;
+        }
+
+        /**
+         * @param suppressCheck true if check should be suppressed, false otherwise
+         * @return Builder instance
+         * @see UtilsVerifier#suppressFinalClassCheck(boolean)
+         */
+        public Builder suppressFinalClassCheck(final boolean suppressCheck) {
+            suppressFinalClassCheck = suppressCheck;
+            return this;
+        }
+
+        /**
+         * @param suppressCheck true if check should be suppressed, false otherwise
+         * @return Builder instance
+         * @see UtilsVerifier#suppressOnlyOneConstructorCheck(boolean)
+         */
+        public Builder suppressOnlyOneConstructorCheck(final boolean suppressCheck) {
+            suppressOnlyOneConstructorCheck = suppressCheck;
+            return this;
+        }
+
+        /**
+         * @param suppressCheck true if check should be suppressed, false otherwise
+         * @return Builder instance
+         * @see UtilsVerifier#suppressPrivateConstructorCheck(boolean)
+         */
+        public Builder suppressPrivateConstructorCheck(final boolean suppressCheck) {
+            suppressPrivateConstructorCheck = suppressCheck;
+            return this;
+        }
+
+        /**
+         * @param suppressCheck true if check should be suppressed, false otherwise
+         * @return Builder instance
+         * @see UtilsVerifier#suppressInstanceFieldCheck(boolean)
+         */
+        public Builder suppressInstanceFieldCheck(final boolean suppressCheck) {
+            suppressInstanceFieldCheck = suppressCheck;
+            return this;
+        }
+
+        /**
+         * @param suppressCheck true if check should be suppressed, false otherwise
+         * @return Builder instance
+         * @see UtilsVerifier#suppressInstanceMethodCheck(boolean)
+         */
+        public Builder suppressInstanceMethodCheck(final boolean suppressCheck) {
+            suppressInstanceMethodCheck = suppressCheck;
+            return this;
+        }
+
+        /**
+         * @param suppressCheck true if check should be suppressed, false otherwise
+         * @return Builder instance
+         * @see UtilsVerifier#suppressMutableStaticFieldsCheck(boolean)
+         */
+        public Builder suppressMutableStaticFieldsCheck(final boolean suppressCheck) {
+            suppressMutableStaticFieldsCheck = suppressCheck;
+            return this;
+        }
+
+        /**
+         * Enables {@link VerificationCheck#STATIC_INITIALIZER_BUDGET} limiting
+         * wall time of the static initializer. Class is initialized before
+         * its constructor is invoked and only the first initialization is
+         * measured. Passes are not stored in {@link ResultCache}, since the
+         * measurement depends on the JVM and on classes loaded before.
+         *
+         * @param time maximum time of the static initializer
+         * @param unit unit of the time
+         * @return Builder instance
+         */
+        public Builder withMaxStaticInitTime(final long time, final TimeUnit unit) {
+            if (time < 0) throw new IllegalArgumentException("time must not be negative: " + time);
+            maxStaticInitNanos = unit.toNanos(time);
+            return this;
+        }
+
+        /**
+         * Enables {@link VerificationCheck#STATIC_INITIALIZER_BUDGET} limiting
+         * number of bytes allocated by the static initializer. Requires JVM
+         * supporting measurement of thread allocation, like HotSpot. Passes
+         * are not stored in {@link ResultCache}.
+         *
+         * @param bytes maximum number of bytes allocated by the static
+         *              initializer
+         * @return Builder instance
+         */
+        public Builder withMaxStaticInitAllocation(final long bytes) {
+            if (bytes < 0) throw new IllegalArgumentException("bytes must not be negative: " + bytes);
+            maxStaticInitAllocation = bytes;
+            return this;
+        }
+
+        /**
+         * Enables {@link VerificationCheck#STATIC_RETAINED_HEAP} limiting
+         * estimated heap retained by all static fields of the class together.
+         * Objects reachable from static fields are walked after the class is
+         * initialized, so unbounded static caches can be found. Sizes are
+         * estimated and depend on the JVM and on the state of other classes,
+         * so passes are not stored in {@link ResultCache}.
+         *
+         * @param bytes maximum number of bytes retained by static fields
+         * @return Builder instance
+         */
+        public Builder withMaxStaticRetainedBytes(final long bytes) {
+            if (bytes < 0) throw new IllegalArgumentException("bytes must not be negative: " + bytes);
+            maxStaticRetainedBytes = bytes;
+            return this;
+        }
+
+        /**
+         * Enables {@link VerificationCheck#STATIC_RETAINED_HEAP} limiting
+         * estimated heap retained by each static field of the class.
+         *
+         * @param bytes maximum number of bytes retained by a single static
+         *              field
+         * @return Builder instance
+         * @see #withMaxStaticRetainedBytes(long)
+         */
+        public Builder withMaxStaticFieldRetainedBytes(final long bytes) {
+            if (bytes < 0) throw new IllegalArgumentException("bytes must not be negative: " + bytes);
+            maxStaticFieldRetainedBytes = bytes;
+            return this;
+        }
+
+        /**
+         * Enables {@link VerificationCheck#METHOD_BYTECODE_SIZE} failing for
+         * static methods with bytecode longer than the threshold, so they
+         * stay below JIT inlining limits. Methods are read from the class
+         * file and listed from the largest one.
+         *
+         * @param bytes maximum bytecode length of a static method, usually
+         *              {@link #MAX_INLINE_SIZE} or {@link #FREQ_INLINE_SIZE}
+         * @return Builder instance
+         */
+        public Builder withMaxMethodBytecodeSize(final int bytes) {
+            if (bytes < 0) throw new IllegalArgumentException("bytes must not be negative: " + bytes);
+            maxMethodBytecodeSize = bytes;
+            return this;
+        }
+
+        /**
+         * Excludes all methods with the name from
+         * {@link VerificationCheck#METHOD_BYTECODE_SIZE}.
+         *
+         * @param name name of the method
+         * @return Builder instance
+         */
+        public Builder allowLargeMethod(final String name) {
+            if (name == null) throw new NullPointerException("name");
+            allowedLargeMethods.add(name);
+            return this;
+        }
+
+        /**
+         * Enables {@link VerificationCheck#CLASS_MONITOR_LOCKING} failing for
+         * static synchronized methods, which all contend on the single
+         * monitor of the class.
+         *
+         * @param check true if check should be performed, false otherwise
+         * @return Builder instance
+         */
+        public Builder checkClassMonitorLocking(final boolean check) {
+            classMonitorCheck = check;
+            return this;
+        }
+
+        /**
+         * Makes {@link VerificationCheck#CLASS_MONITOR_LOCKING} scan the
+         * bytecode of all methods for synchronized blocks on class literals,
+         * like {@code synchronized (StringUtils.class)}. Has effect only when
+         * the check is enabled.
+         *
+         * @param scan true if bytecode should be scanned, false otherwise
+         * @return Builder instance
+         */
+        public Builder scanClassMonitorBytecode(final boolean scan) {
+            scanClassMonitorBytecode = scan;
+            return this;
+        }
+
+        /**
+         * Makes {@link VerificationCheck#CLASS_MONITOR_LOCKING} report found
+         * locking with {@link VerificationListener#warningFound} instead of
+         * failing verification.
+         *
+         * @param warn true if locking should be only reported, false otherwise
+         * @return Builder instance
+         */
+        public Builder warnOnClassMonitorLocking(final boolean warn) {
+            warnOnClassMonitorLocking = warn;
+            return this;
+        }
+
+        /**
+         * Enables {@link VerificationCheck#DEEP_IMMUTABILITY} failing when
+         * static final fields hold mutable objects, like arrays or
+         * collections, and when methods other than the static initializer
+         * write static fields or call mutators on static final collections.
+         * Fields allowed to be mutable are skipped. Result depends on field
+         * types and static values, not only on the class file, so passes are
+         * not stored in {@link ResultCache}.
+         *
+         * @param check true if check should be performed, false otherwise
+         * @return Builder instance
+         */
+        public Builder checkDeepImmutability(final boolean check) {
+            deepImmutabilityCheck = check;
+            return this;
+        }
+
+        /**
+         * Enables {@link VerificationCheck#INHERITED_MEMBERS} failing when
+         * superclasses or interfaces of the class declare instance fields,
+         * concrete instance methods or mutable static fields, which matters
+         * mostly for classes that suppress the final class check. Only
+         * members covered by the checks that are not suppressed are
+         * reported and fields allowed to be mutable are skipped. Each
+         * supertype is analysed once and its summary is shared by all
+         * verifications. Classes verified from class files are not checked.
+         * Result depends on the supertypes, not only on the class file, so
+         * passes are not stored in {@link ResultCache}.
+         *
+         * @param check true if check should be performed, false otherwise
+         * @return Builder instance
+         */
+        public Builder checkInheritedMembers(final boolean check) {
+            inheritedMembersCheck = check;
+            return this;
+        }
+
+        /**
+         * Allows mutable static field with the exact name. Field
+         * {@code $jacocoData} added by JaCoCo is allowed by default.
+         *
+         * @param name name of the field
+         * @return Builder instance
+         */
+        public Builder allowMutableStaticField(final String name) {
+            if (name == null) throw new NullPointerException("name");
+            allowedMutableStaticFields.add(name);
+            return this;
+        }
+
+        /**
+         * Allows mutable static fields with names starting with the prefix.
+         *
+         * @param prefix prefix of the field names
+         * @return Builder instance
+         */
+        public Builder allowMutableStaticFieldPrefix(final String prefix) {
+            if (prefix == null) throw new NullPointerException("prefix");
+            allowedMutableStaticFieldPrefixes.add(prefix);
+            return this;
+        }
+
+        /**
+         * Allows mutable static fields with names matching the glob, where
+         * {@code *} matches any sequence of characters and {@code ?} matches
+         * any single character.
+         *
+         * @param glob glob matching field names
+         * @return Builder instance
+         */
+        public Builder allowMutableStaticFieldGlob(final String glob) {
+            if (glob == null) throw new NullPointerException("glob");
+            allowedMutableStaticFieldGlobs.add(glob);
+            return this;
+        }
+
+        /**
+         * Allows mutable static fields with names entirely matching the
+         * regular expression.
+         *
+         * @param pattern regular expression matching field names
+         * @return Builder instance
+         */
+        public Builder allowMutableStaticFieldPattern(final Pattern pattern) {
+            if (pattern == null) throw new NullPointerException("pattern");
+            allowedMutableStaticFieldPatterns.add(pattern);
+            return this;
+        }
+    }
+}
@@ -0,0 +1,121 @@
+/**
+ * Copyright (c) 2017-present, UtilsVerifier Contributors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+package com.github.karczews.utilsverifier;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Outcome of verifying a single class listing every violation found, instead
+ * of failing on the first one.
+ * <p>
+ * Violations are ordered by the position of the offending element: class
+ * level violations first, followed by violations of fields and methods in
+ * declaration order.
+ *
+ * @see UtilsVerifier#verifyAll()
+ */
+public final class VerificationReport {
+
+    private final String className;
+    private final List<Violation> violations;
+
+    VerificationReport(final String className, final List<Violation> violations) {
+        this.className = className;
+        this.violations = Collections.unmodifiableList(new ArrayList<Violation>(violations));
+    }
+
+    /**
+     * @return binary name of the verified class
+     */
+    public String getClassName() {
+        return className;
+    }
+
+    /**
+     * @return all violations found in the class
+     */
+    public List<Violation> getViolations() {
+        return violations;
+    }
+
+    /**
+     * @return true if verified class is a well formed util class, false
+     * otherwise
+     */
+    public boolean isSuccessful() {
+        return violations.isEmpty();
+    }
+
+    /**
+     * Throws {@link AssertionError} listing all violations if verification
+     * was not successful.
+     */
+    public void assertSuccessful() {
+        if (isSuccessful()) return;
+        throw new AssertionError(toString());
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder report = new StringBuilder(className)
+                .append(" has ").append(violations.size()).append(" violations");
+        for (final Violation violation : violations) {
+            report.append("\n  ").append(violation);
+        }
+        return report.toString();
+    }
+
+    /**
+     * Single violation of a {@link VerificationCheck}.
+     */
+    public static final class Violation {
+        private final VerificationCheck check;
+        private final String memberName;
+        private final String message;
+
+        Violation(final VerificationCheck check, final String memberName, final String message) {
+            this.check = check;
+            this.memberName = memberName;
+            this.message = message;
+        }
+
+        /**
+         * @return violated check
+         */
+        public VerificationCheck getCheck() {
+            return check;
+        }
+
+        /**
+         * @return name of the offending field or method, null if violation
+         * concerns the class itself
+         */
+        public String getMemberName() {
+            return memberName;
+        }
+
+        /**
+         * @return message describing the violation
+         */
+        public String getMessage() {
+            return message;
+        }
+
+        @Override
+        public String toString() {
+            return check + ": " + message;
+        }
+    }
+}
@@ -0,0 +1,133 @@
+/**
+ * Copyright (c) 2017-present, UtilsVerifier Contributors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+package com.github.karczews.utilsverifier;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Aggregated outcome of verifying multiple classes with {@link BulkVerifier}.
+ * <p>
+ * Result holds number of verified classes and failure cause for each class
+ * that did not pass verification. Result of
+ * {@link BulkVerifier#collectViolations()} additionally lists violations as
+ * {@link ViolationRecord}s instead of failures.
+ */
+public final class VerificationResult {
+
+    private final int verifiedCount;
+    private final int cachedCount;
+    private final SortedMap<String, Throwable> failures;
+    private final List<ViolationRecord> violations;
+    private final int violatingCount;
+
+    VerificationResult(final int verifiedCount, final int cachedCount, final Map<String, Throwable> failures) {
+        this(verifiedCount, cachedCount, failures, null);
+    }
+
+    /**
+     * @param violations collected violations keyed by name of the violating
+     *                   class or null if they were not collected
+     */
+    VerificationResult(final int verifiedCount, final int cachedCount, final Map<String, Throwable> failures,
+                       final Map<String, List<ViolationRecord>> violations) {
+        this.verifiedCount = verifiedCount;
+        this.cachedCount = cachedCount;
+        this.failures = Collections.unmodifiableSortedMap(new TreeMap<String, Throwable>(failures));
+        if (violations == null || violations.isEmpty()) {
+            this.violations = Collections.emptyList();
+            violatingCount = 0;
+            return;
+        }
+        final List<ViolationRecord> sorted = new ArrayList<ViolationRecord>();
+        for (final List<ViolationRecord> classViolations
+                : new TreeMap<String, List<ViolationRecord>>(violations).values()) {
+            sorted.addAll(classViolations);
+        }
+        this.violations = Collections.unmodifiableList(sorted);
+        violatingCount = violations.size();
+    }
+
+    /**
+     * @return number of classes that were verified
+     */
+    public int getVerifiedCount() {
+        return verifiedCount;
+    }
+
+    /**
+     * @return number of classes that passed based on the {@link ResultCache}
+     * without being verified again
+     */
+    public int getCachedCount() {
+        return cachedCount;
+    }
+
+    /**
+     * @return failure causes keyed by name of the failing class, sorted by
+     * class name
+     */
+    public SortedMap<String, Throwable> getFailures() {
+        return failures;
+    }
+
+    /**
+     * @return violations collected by {@link BulkVerifier#collectViolations()}
+     * sorted by class name, empty if violations were not collected
+     */
+    public List<ViolationRecord> getViolations() {
+        return violations;
+    }
+
+    /**
+     * @return true if all verified classes are well formed util classes,
+     * false otherwise
+     */
+    public boolean isSuccessful() {
+        return failures.isEmpty() && violations.isEmpty();
+    }
+
+    /**
+     * Throws {@link AssertionError} listing all failing classes if
+     * verification was not successful.
+     */
+    public void assertSuccessful() {
+        if (isSuccessful()) return;
+        final StringBuilder message = new StringBuilder()
+                .append(failures.size() + violatingCount).append(" of ").append(verifiedCount)
+                .append(" classes failed verification:");
+        for (final Map.Entry<String, Throwable> failure : failures.entrySet()) {
+            message.append("\n  ").append(failure.getKey())
+                    .append(": ").append(failure.getValue());
+        }
+        for (final ViolationRecord violation : violations) {
+            message.append("\n  ").append(violation.getClassName())
+                    .append(": ").append(violation);
+        }
+        final AssertionError error = new AssertionError(message.toString());
+        if (!failures.isEmpty()) {
+            error.initCause(failures.values().iterator().next());
+        }
+        throw error;
+    }
+
+    @Override
+    public String toString() {
+        return "VerificationResult{verified=" + verifiedCount + ", cached=" + cachedCount
+                + ", failed=" + (failures.size() + violatingCount) + '}';
+    }
+}
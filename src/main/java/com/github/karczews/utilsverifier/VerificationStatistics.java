@@ -0,0 +1,356 @@
+/**
+ * Copyright (c) 2017-present, UtilsVerifier Contributors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+package com.github.karczews.utilsverifier;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Thread safe {@link VerificationListener} aggregating timings and counters
+ * of the verification.
+ * <p>
+ * For every check it records number of runs, total time, violations,
+ * suppressions and a histogram of durations with power of two nanosecond
+ * buckets. It also tracks throughput in classes per second, time spent
+ * invoking constructors compared with time spent reading members, the
+ * slowest verified classes and the classes with the slowest static
+ * initializers, measured when
+ * {@link VerificationCheck#STATIC_INITIALIZER_BUDGET} is enabled.
+ * <p>
+ * Basic usage:
+ * <pre>
+ * {@code
+ * VerificationStatistics statistics = new VerificationStatistics();
+ * UtilsVerifier.forPackage("com.acme.util").withListener(statistics).verify();
+ * System.out.println(statistics);
+ * }
+ * </pre>
+ */
+public final class VerificationStatistics extends VerificationListener {
+
+    /**
+     * Number of histogram buckets, bucket {@code i} counts durations in range
+     * {@code [2^i, 2^(i+1))} nanoseconds, first bucket also counts zero.
+     */
+    public static final int HISTOGRAM_BUCKETS = 64;
+
+    private static final int DEFAULT_SLOWEST_CLASSES = 10;
+    private static final int CHECKS = VerificationCheck.values().length;
+
+    private final AtomicLong classCount = new AtomicLong();
+    private final AtomicLong failedCount = new AtomicLong();
+    private final AtomicLong firstStart = new AtomicLong(Long.MAX_VALUE);
+    private final AtomicLong lastFinish = new AtomicLong(Long.MIN_VALUE);
+    private final AtomicLong reflectionNanos = new AtomicLong();
+    private final AtomicLong constructorNanos = new AtomicLong();
+    private final AtomicLong staticInitNanos = new AtomicLong();
+
+    private final AtomicLongArray checkCounts = new AtomicLongArray(CHECKS);
+    private final AtomicLongArray checkNanos = new AtomicLongArray(CHECKS);
+    private final AtomicLongArray skippedCounts = new AtomicLongArray(CHECKS);
+    private final AtomicLongArray violationCounts = new AtomicLongArray(CHECKS);
+    private final AtomicLongArray warningCounts = new AtomicLongArray(CHECKS);
+    private final AtomicLongArray histograms = new AtomicLongArray(CHECKS * HISTOGRAM_BUCKETS);
+
+    private final SlowestClasses slowest;
+    private final SlowestClasses slowestStaticInits;
+
+    /**
+     * Creates statistics tracking 10 slowest classes.
+     */
+    public VerificationStatistics() {
+        this(DEFAULT_SLOWEST_CLASSES);
+    }
+
+    /**
+     * @param slowestClasses number of slowest classes to track
+     */
+    public VerificationStatistics(final int slowestClasses) {
+        if (slowestClasses < 0) throw new IllegalArgumentException("slowestClasses must not be negative");
+        slowest = new SlowestClasses(slowestClasses);
+        slowestStaticInits = new SlowestClasses(slowestClasses);
+    }
+
+    @Override
+    public void classStarted(final String className) {
+        final long now = System.nanoTime();
+        long current;
+        do {
+            current = firstStart.get();
+        } while (now < current && !firstStart.compareAndSet(current, now));
+    }
+
+    @Override
+    public void classFinished(final String className, final long durationNanos, final boolean passed) {
+        classCount.incrementAndGet();
+        if (!passed) {
+            failedCount.incrementAndGet();
+        }
+        final long now = System.nanoTime();
+        long current;
+        do {
+            current = lastFinish.get();
+        } while (now > current && !lastFinish.compareAndSet(current, now));
+        slowest.add(className, durationNanos);
+    }
+
+    @Override
+    public void membersRead(final String className, final long durationNanos) {
+        reflectionNanos.addAndGet(durationNanos);
+    }
+
+    @Override
+    public void checkFinished(final String className, final VerificationCheck check, final long durationNanos) {
+        final int index = check.ordinal();
+        checkCounts.incrementAndGet(index);
+        checkNanos.addAndGet(index, durationNanos);
+        histograms.incrementAndGet(index * HISTOGRAM_BUCKETS + bucket(durationNanos));
+    }
+
+    @Override
+    public void checkSkipped(final String className, final VerificationCheck check) {
+        skippedCounts.incrementAndGet(check.ordinal());
+    }
+
+    @Override
+    public void violationFound(final String className, final VerificationCheck check, final Throwable violation) {
+        violationCounts.incrementAndGet(check.ordinal());
+    }
+
+    @Override
+    public void warningFound(final String className, final VerificationCheck check, final String message) {
+        warningCounts.incrementAndGet(check.ordinal());
+    }
+
+    @Override
+    public void staticInitializerMeasured(final String className, final long durationNanos,
+                                          final long allocatedBytes) {
+        staticInitNanos.addAndGet(durationNanos);
+        slowestStaticInits.add(className, durationNanos);
+    }
+
+    @Override
+    public void constructorInvoked(final String className, final long durationNanos) {
+        constructorNanos.addAndGet(durationNanos);
+    }
+
+    /**
+     * @return number of verified classes
+     */
+    public long getClassCount() {
+        return classCount.get();
+    }
+
+    /**
+     * @return number of classes that failed verification
+     */
+    public long getFailedCount() {
+        return failedCount.get();
+    }
+
+    /**
+     * @return number of classes verified per second between start of the
+     * first and end of the last verified class, 0 if nothing was verified
+     */
+    public double getClassesPerSecond() {
+        final long elapsed = lastFinish.get() - firstStart.get();
+        if (classCount.get() == 0 || elapsed <= 0) return 0;
+        return classCount.get() * (double) TimeUnit.SECONDS.toNanos(1) / elapsed;
+    }
+
+    /**
+     * @return total time spent reading members of verified classes
+     */
+    public long getReflectionNanos() {
+        return reflectionNanos.get();
+    }
+
+    /**
+     * @return total time spent invoking constructors of verified classes,
+     * including their static initializers
+     */
+    public long getConstructorNanos() {
+        return constructorNanos.get();
+    }
+
+    /**
+     * @return total time spent in measured static initializers
+     */
+    public long getStaticInitNanos() {
+        return staticInitNanos.get();
+    }
+
+    /**
+     * @param check verification check
+     * @return number of times the check was performed
+     */
+    public long getCheckCount(final VerificationCheck check) {
+        return checkCounts.get(check.ordinal());
+    }
+
+    /**
+     * @param check verification check
+     * @return total time spent performing the check
+     */
+    public long getCheckNanos(final VerificationCheck check) {
+        return checkNanos.get(check.ordinal());
+    }
+
+    /**
+     * @param check verification check
+     * @return number of times the check was skipped because suppressed
+     */
+    public long getSkippedCount(final VerificationCheck check) {
+        return skippedCounts.get(check.ordinal());
+    }
+
+    /**
+     * @param check verification check
+     * @return number of violations of the check
+     */
+    public long getViolationCount(final VerificationCheck check) {
+        return violationCounts.get(check.ordinal());
+    }
+
+    /**
+     * @param check verification check
+     * @return number of warnings reported by the check
+     */
+    public long getWarningCount(final VerificationCheck check) {
+        return warningCounts.get(check.ordinal());
+    }
+
+    /**
+     * @param check verification check
+     * @return copy of the duration histogram with {@link #HISTOGRAM_BUCKETS}
+     * buckets
+     */
+    public long[] getCheckHistogram(final VerificationCheck check) {
+        final long[] histogram = new long[HISTOGRAM_BUCKETS];
+        final int offset = check.ordinal() * HISTOGRAM_BUCKETS;
+        for (int bucket = 0; bucket < HISTOGRAM_BUCKETS; bucket++) {
+            histogram[bucket] = histograms.get(offset + bucket);
+        }
+        return histogram;
+    }
+
+    /**
+     * @return verification time in nanoseconds of the slowest classes keyed
+     * by class name, slowest first
+     */
+    public Map<String, Long> getSlowestClasses() {
+        return slowest.toMap();
+    }
+
+    /**
+     * @return time in nanoseconds of the slowest measured static
+     * initializers keyed by class name, slowest first
+     */
+    public Map<String, Long> getSlowestStaticInitializers() {
+        return slowestStaticInits.toMap();
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder report = new StringBuilder()
+                .append("classes: ").append(getClassCount())
+                .append(", failed: ").append(getFailedCount())
+                .append(", classes/s: ").append(String.format(Locale.ROOT, "%.1f", getClassesPerSecond()))
+                .append("\nreflection: ").append(TimeUnit.NANOSECONDS.toMicros(getReflectionNanos())).append("us")
+                .append(", constructors: ").append(TimeUnit.NANOSECONDS.toMicros(getConstructorNanos())).append("us")
+                .append(", static initializers: ").append(TimeUnit.NANOSECONDS.toMicros(getStaticInitNanos()))
+                .append("us");
+        for (final VerificationCheck check : VerificationCheck.values()) {
+            report.append('\n').append(check)
+                    .append(": runs ").append(getCheckCount(check))
+                    .append(", total ").append(TimeUnit.NANOSECONDS.toMicros(getCheckNanos(check))).append("us")
+                    .append(", violations ").append(getViolationCount(check))
+                    .append(", warnings ").append(getWarningCount(check))
+                    .append(", skipped ").append(getSkippedCount(check));
+        }
+        for (final Map.Entry<String, Long> entry : getSlowestClasses().entrySet()) {
+            report.append("\nslow: ").append(entry.getKey()).append(' ')
+                    .append(TimeUnit.NANOSECONDS.toMicros(entry.getValue())).append("us");
+        }
+        for (final Map.Entry<String, Long> entry : getSlowestStaticInitializers().entrySet()) {
+            report.append("\nslow static initializer: ").append(entry.getKey()).append(' ')
+                    .append(TimeUnit.NANOSECONDS.toMicros(entry.getValue())).append("us");
+        }
+        return report.toString();
+    }
+
+    private static int bucket(final long nanos) {
+        return nanos <= 1 ? 0 : 63 - Long.numberOfLeadingZeros(nanos);
+    }
+
+    /**
+     * Keeps the slowest classes seen so far in a bounded min-heap on duration.
+     */
+    private static final class SlowestClasses {
+        private final int limit;
+        private final PriorityQueue<ClassTiming> heap;
+
+        SlowestClasses(final int limit) {
+            this.limit = limit;
+            heap = new PriorityQueue<ClassTiming>(Math.max(1, limit), ClassTiming.BY_DURATION);
+        }
+
+        synchronized void add(final String className, final long nanos) {
+            if (heap.size() < limit) {
+                heap.add(new ClassTiming(className, nanos));
+            } else if (limit > 0 && heap.peek().nanos < nanos) {
+                heap.poll();
+                heap.add(new ClassTiming(className, nanos));
+            }
+        }
+
+        Map<String, Long> toMap() {
+            final List<ClassTiming> timings;
+            synchronized (this) {
+                timings = new ArrayList<ClassTiming>(heap);
+            }
+            Collections.sort(timings, Collections.reverseOrder(ClassTiming.BY_DURATION));
+            final Map<String, Long> result = new LinkedHashMap<String, Long>();
+            for (final ClassTiming timing : timings) {
+                result.put(timing.className, timing.nanos);
+            }
+            return Collections.unmodifiableMap(result);
+        }
+    }
+
+    private static final class ClassTiming {
+        static final Comparator<ClassTiming> BY_DURATION = new Comparator<ClassTiming>() {
+            @Override
+            public int compare(final ClassTiming first, final ClassTiming second) {
+                return first.nanos < second.nanos ? -1 : (first.nanos == second.nanos ? 0 : 1);
+            }
+        };
+
+        private final String className;
+        private final long nanos;
+
+        ClassTiming(final String className, final long nanos) {
+            this.className = className;
+            this.nanos = nanos;
+        }
+    }
+}
@@ -0,0 +1,348 @@
+/**
+ * Copyright (c) 2017-present, UtilsVerifier Contributors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+package com.github.karczews.utilsverifier;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * {@code VerificationWatcher} stays resident and re-verifies util classes
+ * whenever their class files change, giving feedback right after a
+ * recompile without running the test task.
+ * <p>
+ * Class output directories are polled for changed, added and removed class
+ * files. Changes are debounced, so class files written by one compilation are
+ * verified together once the directories are quiet. Only changed class files
+ * are verified again, results of the others are kept in a warm in-memory
+ * index. Classes are selected like in {@link BulkVerifier#discoverIn(File...)}
+ * and verified straight from their class files, the same way as with
+ * {@link ClassFileVerifier}, so changed classes never have to be reloaded.
+ * <p>
+ * Basic usage:
+ * <pre>
+ * {@code VerificationWatcher.forDirectories(new File("build/classes/java/main"))
+ *          .withReportSink(sink)
+ *          .run();}
+ * </pre>
+ * or from the command line:
+ * <pre>
+ * {@code java -cp utilsverifier.jar com.github.karczews.utilsverifier.VerificationWatcher build/classes/java/main}
+ * </pre>
+ */
+public final class VerificationWatcher {
+
+    private static final String CLASS_SUFFIX = ".class";
+
+    private final File[] directories;
+    private final List<String> annotations = new ArrayList<String>();
+    private final List<ReportSink> reportSinks = new ArrayList<ReportSink>();
+    private VerificationPolicy policy = VerificationPolicy.defaultPolicy();
+    private Pattern namePattern;
+    private long pollIntervalNanos = TimeUnit.MILLISECONDS.toNanos(200);
+    private long debounceNanos = TimeUnit.MILLISECONDS.toNanos(100);
+
+    // warm index of all class files seen so far keyed by path
+    private final Map<String, IndexEntry> index = new HashMap<String, IndexEntry>();
+    // changed class files waiting for the directories to become quiet
+    private final Map<String, Long> pending = new LinkedHashMap<String, Long>();
+    private long lastChangeNanos;
+    private UtilityClassScanner scanner;
+
+    private VerificationWatcher(final File[] directories) {
+        this.directories = directories;
+    }
+
+    /**
+     * Creates watcher of the class output directories.
+     *
+     * @param directories directories containing compiled classes
+     * @return VerificationWatcher instance
+     */
+    public static VerificationWatcher forDirectories(final File... directories) {
+        for (final File directory : directories) {
+            if (directory == null) throw new NullPointerException("directory");
+        }
+        return new VerificationWatcher(directories.clone());
+    }
+
+    /**
+     * Watches directories passed as arguments printing violations of changed
+     * classes until the process is stopped.
+     *
+     * @param args class output directories
+     * @throws InterruptedException if interrupted while watching
+     */
+    public static void main(final String[] args) throws InterruptedException {
+        if (args.length == 0) {
+            System.err.println("usage: VerificationWatcher <class directory>...");
+            System.exit(2);
+        }
+        final File[] directories = new File[args.length];
+        for (int index = 0; index < args.length; index++) {
+            directories[index] = new File(args[index]);
+        }
+        forDirectories(directories)
+                .withReportSink(new ConsoleSink(System.out))
+                .run();
+    }
+
+    /**
+     * Sets policy used to verify changed classes. Expected constructor
+     * exception of the policy is ignored since the constructor is never
+     * invoked.
+     *
+     * @param policy verification policy
+     * @return VerificationWatcher instance
+     */
+    public VerificationWatcher withPolicy(final VerificationPolicy policy) {
+        if (policy == null) throw new NullPointerException("policy");
+        this.policy = policy;
+        return this;
+    }
+
+    /**
+     * @param regex regular expression matching binary names of classes
+     * @return VerificationWatcher instance
+     * @see BulkVerifier#includeClassesMatching(String)
+     */
+    public VerificationWatcher includeClassesMatching(final String regex) {
+        namePattern = Pattern.compile(regex);
+        return this;
+    }
+
+    /**
+     * @param annotationName binary name of the annotation
+     * @return VerificationWatcher instance
+     * @see BulkVerifier#includeClassesAnnotatedWith(String)
+     */
+    public VerificationWatcher includeClassesAnnotatedWith(final String annotationName) {
+        if (annotationName == null) throw new NullPointerException("annotationName");
+        annotations.add(annotationName);
+        return this;
+    }
+
+    /**
+     * Adds sink receiving results of every verified class. Sink is called
+     * from the watching thread only.
+     *
+     * @param sink report sink
+     * @return VerificationWatcher instance
+     */
+    public VerificationWatcher withReportSink(final ReportSink sink) {
+        if (sink == null) throw new NullPointerException("sink");
+        reportSinks.add(sink);
+        return this;
+    }
+
+    /**
+     * Sets how often directories are checked for changes, 200 ms by default.
+     *
+     * @param interval time between checks
+     * @param unit     unit of the interval
+     * @return VerificationWatcher instance
+     */
+    public VerificationWatcher withPollInterval(final long interval, final TimeUnit unit) {
+        if (interval <= 0) throw new IllegalArgumentException("interval must be positive: " + interval);
+        pollIntervalNanos = unit.toNanos(interval);
+        return this;
+    }
+
+    /**
+     * Sets how long directories have to stay unchanged before changed
+     * classes are verified, 100 ms by default.
+     *
+     * @param quietPeriod time without changes
+     * @param unit        unit of the quiet period
+     * @return VerificationWatcher instance
+     */
+    public VerificationWatcher withDebounce(final long quietPeriod, final TimeUnit unit) {
+        if (quietPeriod < 0) throw new IllegalArgumentException("quietPeriod must not be negative: " + quietPeriod);
+        debounceNanos = unit.toNanos(quietPeriod);
+        return this;
+    }
+
+    /**
+     * Watches the directories until the thread is interrupted. All classes
+     * are verified on the first check.
+     *
+     * @throws InterruptedException if interrupted while watching
+     */
+    public void run() throws InterruptedException {
+        while (!Thread.currentThread().isInterrupted()) {
+            poll(System.nanoTime());
+            TimeUnit.NANOSECONDS.sleep(pollIntervalNanos);
+        }
+        throw new InterruptedException();
+    }
+
+    /**
+     * @return current results of all watched util classes keyed by class name
+     */
+    public synchronized SortedMap<String, VerificationReport> getResults() {
+        final SortedMap<String, VerificationReport> results = new TreeMap<String, VerificationReport>();
+        for (final IndexEntry entry : index.values()) {
+            if (entry.report != null) {
+                results.put(entry.report.getClassName(), entry.report);
+            }
+        }
+        return Collections.unmodifiableSortedMap(results);
+    }
+
+    /**
+     * Performs single check of the directories, verifying changed classes if
+     * the directories were quiet for the debounce period.
+     *
+     * @param nowNanos current time
+     * @return number of verified classes
+     */
+    synchronized int poll(final long nowNanos) {
+        final Set<String> seen = new HashSet<String>();
+        for (final File directory : directories) {
+            collectChanges(directory, seen, nowNanos);
+        }
+        for (final Iterator<Map.Entry<String, IndexEntry>> entries = index.entrySet().iterator();
+             entries.hasNext(); ) {
+            if (!seen.contains(entries.next().getKey())) {
+                entries.remove();
+            }
+        }
+        pending.keySet().retainAll(seen);
+        if (pending.isEmpty() || nowNanos - lastChangeNanos < debounceNanos) {
+            return 0;
+        }
+
+        if (scanner == null) {
+            scanner = new UtilityClassScanner(null, 0, namePattern, annotations);
+        }
+        int verified = 0;
+        for (final Map.Entry<String, Long> change : pending.entrySet()) {
+            if (verify(new File(change.getKey()), change.getValue())) {
+                verified++;
+            }
+        }
+        pending.clear();
+        return verified;
+    }
+
+    private void collectChanges(final File directory, final Set<String> seen, final long nowNanos) {
+        final File[] files = directory.listFiles();
+        if (files == null) return;
+        for (final File file : files) {
+            if (file.isDirectory()) {
+                collectChanges(file, seen, nowNanos);
+            } else if (file.getName().endsWith(CLASS_SUFFIX)) {
+                final String path = file.getPath();
+                // modification time alone misses rewrites within its resolution
+                final long stamp = file.lastModified() * 31 + file.length();
+                seen.add(path);
+                final IndexEntry entry = index.get(path);
+                final Long pendingStamp = pending.get(path);
+                if ((entry == null || entry.stamp != stamp) && (pendingStamp == null || pendingStamp != stamp)) {
+                    pending.put(path, stamp);
+                    lastChangeNanos = nowNanos;
+                }
+            }
+        }
+    }
+
+    private boolean verify(final File file, final long stamp) {
+        final long start = System.nanoTime();
+        final ClassFile classFile;
+        try {
+            // read to heap, class file may be rewritten by the compiler at any time
+            classFile = ClassFile.parse(ByteBuffer.wrap(ClassBytes.read(file.toURI().toURL())));
+        } catch (final IOException e) {
+            // file is verified again when it changes or becomes readable
+            index.remove(file.getPath());
+            return false;
+        } catch (final IllegalArgumentException e) {
+            index.remove(file.getPath());
+            return false;
+        }
+        if (!scanner.isCandidate(classFile)) {
+            index.put(file.getPath(), new IndexEntry(stamp, null));
+            return false;
+        }
+        try {
+            final VerificationReport report = policy.verifyAll(classFile);
+            index.put(file.getPath(), new IndexEntry(stamp, report));
+            for (final ReportSink sink : reportSinks) {
+                sink.classVerified(report, System.nanoTime() - start);
+            }
+        } catch (final RuntimeException e) {
+            index.put(file.getPath(), new IndexEntry(stamp, null));
+            for (final ReportSink sink : reportSinks) {
+                sink.classFailed(classFile.getClassName(), e, System.nanoTime() - start);
+            }
+        }
+        return true;
+    }
+
+    private static final class IndexEntry {
+        final long stamp;
+        // null if class is not a util class or could not be verified
+        final VerificationReport report;
+
+        IndexEntry(final long stamp, final VerificationReport report) {
+            this.stamp = stamp;
+            this.report = report;
+        }
+    }
+
+    /**
+     * Prints results of changed classes, used when started from the command
+     * line.
+     */
+    private static final class ConsoleSink implements ReportSink {
+        private final PrintStream out;
+
+        ConsoleSink(final PrintStream out) {
+            this.out = out;
+        }
+
+        @Override
+        public void classVerified(final VerificationReport report, final long durationNanos) {
+            if (report.isSuccessful()) {
+                out.println("OK " + report.getClassName() + " ("
+                        + TimeUnit.NANOSECONDS.toMicros(durationNanos) + "us)");
+            } else {
+                out.println("FAILED " + report);
+            }
+        }
+
+        @Override
+        public void classFailed(final String className, final Throwable failure, final long durationNanos) {
+            out.println("ERROR " + className + ": " + failure);
+        }
+
+        @Override
+        public void close() {
+            out.flush();
+        }
+    }
+}
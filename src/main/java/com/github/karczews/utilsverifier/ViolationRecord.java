@@ -0,0 +1,147 @@
+/**
+ * Copyright (c) 2017-present, UtilsVerifier Contributors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+package com.github.karczews.utilsverifier;
+
+/**
+ * Compact record of a single violation found by
+ * {@link BulkVerifier#collectViolations()}.
+ * <p>
+ * Record references the violating class, the violated check and index of the
+ * offending member or arguments of the class level violation. Messages are
+ * rendered only when {@link #getMessage()} is called, so sweeps finding many
+ * expected violations don't pay for building messages that are never
+ * reported. Records hold reference to the class, which is not unloaded as
+ * long as they are kept.
+ */
+public final class ViolationRecord {
+
+    /**
+     * Element of the class the violation concerns.
+     */
+    public enum Target {
+        CLASS, FIELD, METHOD
+    }
+
+    private final MemberSnapshot snapshot;
+    private final Class<?> type;
+    private final Rule rule;
+    private final Target target;
+    private final int memberIndex;
+    // null for member violations
+    private final Object[] arguments;
+
+    ViolationRecord(final MemberSnapshot snapshot, final Class<?> type, final Rule rule, final Object[] arguments) {
+        this.snapshot = snapshot;
+        this.type = type;
+        this.rule = rule;
+        this.target = Target.CLASS;
+        this.memberIndex = -1;
+        this.arguments = arguments;
+    }
+
+    ViolationRecord(final MemberSnapshot snapshot, final Class<?> type, final Rule rule, final Target target,
+                    final int memberIndex) {
+        this.snapshot = snapshot;
+        this.type = type;
+        this.rule = rule;
+        this.target = target;
+        this.memberIndex = memberIndex;
+        this.arguments = null;
+    }
+
+    /**
+     * @return violating class or null if it was verified from its class file
+     */
+    public Class<?> getType() {
+        return type;
+    }
+
+    /**
+     * @return binary name of the violating class
+     */
+    public String getClassName() {
+        return snapshot.getClassName();
+    }
+
+    /**
+     * @return violated check
+     */
+    public VerificationCheck getCheck() {
+        return rule.getCheck();
+    }
+
+    /**
+     * @return element of the class the violation concerns
+     */
+    public Target getTarget() {
+        return target;
+    }
+
+    /**
+     * Index of the offending member among fields or methods of the class.
+     * For loaded classes it's the index in {@link Class#getDeclaredFields()}
+     * or {@link Class#getDeclaredMethods()}. For classes verified from their
+     * class files it follows the order of the class file, with constructors
+     * and static initializer left out of the methods.
+     *
+     * @return index of the offending field or method, -1 if violation
+     * concerns the class itself
+     */
+    public int getMemberIndex() {
+        return memberIndex;
+    }
+
+    /**
+     * @return name of the offending field or method, null if violation
+     * concerns the class itself
+     */
+    public String getMemberName() {
+        switch (target) {
+            case FIELD:
+                return snapshot.getFieldName(memberIndex);
+            case METHOD:
+                return snapshot.getMethodName(memberIndex);
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Renders message describing the violation. Message is not cached.
+     *
+     * @return message describing the violation
+     */
+    public String getMessage() {
+        switch (target) {
+            case FIELD:
+                return rule.verifyField(snapshot, memberIndex);
+            case METHOD:
+                return rule.verifyMethod(snapshot, memberIndex);
+            default:
+                return rule.formatClassViolation(snapshot, arguments);
+        }
+    }
+
+    /**
+     * @return violation with rendered message, as listed by
+     * {@link VerificationReport}
+     */
+    public VerificationReport.Violation toViolation() {
+        return new VerificationReport.Violation(getCheck(), getMemberName(), getMessage());
+    }
+
+    @Override
+    public String toString() {
+        return getCheck() + ": " + getMessage();
+    }
+}
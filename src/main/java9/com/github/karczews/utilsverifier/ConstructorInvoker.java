@@ -0,0 +1,74 @@
+/**
+ * Copyright (c) 2017-present, UtilsVerifier Contributors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+package com.github.karczews.utilsverifier;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.UndeclaredThrowableException;
+
+/**
+ * Internal tool invoking no-argument constructors regardless of their
+ * access modifiers, Java 9 version of the class.
+ * <p>
+ * Constructor is looked up as a method handle with a private lookup in the
+ * verified class, which neither copies the constructor nor changes its
+ * accessibility and honours packages opened with module layers. Handles are
+ * attached to their classes with a {@link ClassValue}, so the lookup is paid
+ * once per class.
+ */
+final class ConstructorInvoker {
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+    private static final MethodType NO_ARGUMENTS = MethodType.methodType(void.class);
+
+    private static final ClassValue<MethodHandle> CONSTRUCTORS = new ClassValue<MethodHandle>() {
+        @Override
+        protected MethodHandle computeValue(final Class<?> type) {
+            try {
+                return MethodHandles.privateLookupIn(type, LOOKUP)
+                        .findConstructor(type, NO_ARGUMENTS)
+                        .asType(NO_ARGUMENTS);
+            } catch (final ReflectiveOperationException e) {
+                // failed lookups are not cached, get() rethrows them on every call
+                throw new UndeclaredThrowableException(e);
+            }
+        }
+    };
+
+    private ConstructorInvoker() {
+    }
+
+    static void newInstance(final Class<?> type) throws Exception {
+        if (Modifier.isAbstract(type.getModifiers())) {
+            // method handle would throw InstantiationError only when invoked
+            throw new InstantiationException(type.getName());
+        }
+        final MethodHandle constructor;
+        try {
+            constructor = CONSTRUCTORS.get(type);
+        } catch (final UndeclaredThrowableException e) {
+            throw (Exception) e.getUndeclaredThrowable();
+        }
+        // failed initialization of the class itself is propagated unwrapped, the same as
+        // by reflection, errors thrown by the constructor body are always wrapped
+        Class.forName(type.getName(), true, type.getClassLoader());
+        try {
+            constructor.invokeExact();
+        } catch (final Throwable e) {
+            throw new InvocationTargetException(e);
+        }
+    }
+}
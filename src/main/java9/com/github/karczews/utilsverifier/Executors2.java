@@ -0,0 +1,40 @@
+/**
+ * Copyright (c) 2017-present, UtilsVerifier Contributors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+package com.github.karczews.utilsverifier;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+
+/**
+ * Internal tool that contains convenience methods to create executors, Java 9
+ * version of the class.
+ * <p>
+ * Worker pools are {@link ForkJoinPool}s, each thread has its own task queue
+ * and idle threads steal from the busy ones, so submitting many short tasks
+ * does not contend on a single queue.
+ */
+final class Executors2 {
+    private Executors2() {
+    }
+
+    static ExecutorService newWorkerPool(final int threads) {
+        // unlike thread pools, fork join threads would not inherit context class loader
+        final ClassLoader contextLoader = Thread.currentThread().getContextClassLoader();
+        return new ForkJoinPool(threads, pool -> {
+            final ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setContextClassLoader(contextLoader);
+            return thread;
+        }, null, true);
+    }
+}
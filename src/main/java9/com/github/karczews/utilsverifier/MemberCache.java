@@ -0,0 +1,38 @@
+/**
+ * Copyright (c) 2017-present, UtilsVerifier Contributors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+package com.github.karczews.utilsverifier;
+
+/**
+ * Internal cache of {@link MemberSnapshot}s shared by all verifier instances,
+ * Java 9 version of the class.
+ * <p>
+ * Snapshots are attached to their classes with a {@link ClassValue}, so
+ * lookups of already verified classes don't contend on a lock. Snapshot
+ * never references its class, which can still be unloaded.
+ */
+final class MemberCache {
+
+    private static final ClassValue<MemberSnapshot> CACHE = new ClassValue<MemberSnapshot>() {
+        @Override
+        protected MemberSnapshot computeValue(final Class<?> type) {
+            return MemberSnapshot.create(type);
+        }
+    };
+
+    private MemberCache() {
+    }
+
+    static MemberSnapshot get(final Class<?> type) {
+        return CACHE.get(type);
+    }
+}
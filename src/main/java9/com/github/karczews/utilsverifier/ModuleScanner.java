@@ -0,0 +1,212 @@
+/**
+ * Copyright (c) 2017-present, UtilsVerifier Contributors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+package com.github.karczews.utilsverifier;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.module.Configuration;
+import java.lang.module.FindException;
+import java.lang.module.ModuleDescriptor;
+import java.lang.module.ModuleFinder;
+import java.lang.module.ModuleReader;
+import java.lang.module.ModuleReference;
+import java.lang.module.ResolutionException;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Internal scanner of Java modules used by {@link ModuleVerifier}, Java 9
+ * version of the class.
+ * <p>
+ * Modules are found with a {@link ModuleFinder}, each module is read with its
+ * own {@link ModuleReader} on a separate task. Module path is resolved into a
+ * new layer whose packages are opened to the verifier before their classes
+ * are verified, so private constructors of non-exported classes can be
+ * invoked. Runtime image modules can't be defined again in the current
+ * runtime, their classes are verified from class files only.
+ */
+final class ModuleScanner {
+
+    private static final String CLASS_SUFFIX = ".class";
+
+    private final int threads;
+    private final boolean exportedOnly;
+    private final Set<String> moduleNames;
+    private final UtilityClassScanner filter;
+
+    ModuleScanner(final int threads, final boolean exportedOnly, final Set<String> moduleNames,
+                  final UtilityClassScanner filter) {
+        this.threads = threads;
+        this.exportedOnly = exportedOnly;
+        this.moduleNames = moduleNames;
+        this.filter = filter;
+    }
+
+    static boolean isSupported() {
+        return true;
+    }
+
+    VerificationResult scanModulePath(final File[] entries, final VerificationPolicy policy) {
+        final Path[] paths = new Path[entries.length];
+        for (int index = 0; index < entries.length; index++) {
+            paths[index] = entries[index].toPath();
+        }
+        final ModuleFinder finder = ModuleFinder.of(paths);
+        final ModuleLayer.Controller controller;
+        final Set<String> roots;
+        try {
+            roots = selectModules(finder);
+            final Configuration configuration = ModuleLayer.boot().configuration()
+                    .resolve(finder, ModuleFinder.of(), roots);
+            controller = ModuleLayer.defineModulesWithOneLoader(configuration, List.of(ModuleLayer.boot()),
+                    parentLoader());
+        } catch (final FindException | ResolutionException e) {
+            throw new IllegalStateException(e);
+        }
+        final Module verifier = ModuleScanner.class.getModule();
+        return scan(finder, roots, (moduleName, className, classFile) -> {
+            final Module module = controller.layer().findModule(moduleName).get();
+            final String packageName = packageOf(className);
+            if (!module.isOpen(packageName, verifier)) {
+                controller.addOpens(module, packageName, verifier);
+            }
+            policy.verify(Class.forName(className, false, module.getClassLoader()));
+        });
+    }
+
+    VerificationResult scanRuntimeImage(final File javaHome, final VerificationPolicy policy) {
+        try (FileSystem jrt = FileSystems.newFileSystem(URI.create("jrt:/"),
+                Map.of("java.home", javaHome.getPath()))) {
+            final ModuleFinder finder = ModuleFinder.of(jrt.getPath("/modules"));
+            return scan(finder, selectModules(finder), (moduleName, className, classFile) ->
+                    policy.verifyAll(classFile).assertSuccessful());
+        } catch (final IOException | FindException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private Set<String> selectModules(final ModuleFinder finder) {
+        if (moduleNames.isEmpty()) {
+            final Set<String> names = new TreeSet<>();
+            for (final ModuleReference reference : finder.findAll()) {
+                names.add(reference.descriptor().name());
+            }
+            return names;
+        }
+        for (final String name : moduleNames) {
+            if (!finder.find(name).isPresent()) {
+                throw new IllegalStateException("module not found: " + name);
+            }
+        }
+        return moduleNames;
+    }
+
+    private VerificationResult scan(final ModuleFinder finder, final Set<String> roots, final ClassVerifier verifier) {
+        final Map<String, Throwable> failures = new ConcurrentHashMap<>();
+        final AtomicInteger verified = new AtomicInteger();
+        final ExecutorService executor = Executors2.newWorkerPool(Math.max(1, Math.min(threads, roots.size())));
+        try {
+            final List<Future<?>> modules = new ArrayList<>(roots.size());
+            for (final String name : roots) {
+                final ModuleReference reference = finder.find(name).get();
+                modules.add(executor.submit(() -> {
+                    scanModule(reference, verifier, failures, verified);
+                    return null;
+                }));
+            }
+            for (final Future<?> module : modules) {
+                module.get();
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        } catch (final ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+        return new VerificationResult(verified.get(), 0, failures);
+    }
+
+    private void scanModule(final ModuleReference reference, final ClassVerifier verifier,
+                            final Map<String, Throwable> failures, final AtomicInteger verified)
+            throws IOException {
+        final ModuleDescriptor descriptor = reference.descriptor();
+        final Set<String> exported = exportedPackages(descriptor);
+        try (ModuleReader reader = reference.open()) {
+            final Iterator<String> paths = reader.list().iterator();
+            while (paths.hasNext()) {
+                final String path = paths.next();
+                if (path.startsWith("META-INF/") || !ClassFinder.isCandidate(path)) continue;
+                final String className = path.substring(0, path.length() - CLASS_SUFFIX.length()).replace('/', '.');
+                if (exported != null && !exported.contains(packageOf(className))) continue;
+                final ByteBuffer bytes = reader.read(path).get();
+                try {
+                    final ClassFile classFile = ClassFile.parse(bytes);
+                    if (!filter.isCandidate(classFile)) continue;
+                    verified.incrementAndGet();
+                    verifier.verify(descriptor.name(), className, classFile);
+                } catch (final Throwable failure) {
+                    failures.put(className, failure);
+                } finally {
+                    reader.release(bytes);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return packages exported without qualification or null if all
+     * packages should be scanned
+     */
+    private Set<String> exportedPackages(final ModuleDescriptor descriptor) {
+        if (!exportedOnly || descriptor.isAutomatic()) return null;
+        final Set<String> exported = new HashSet<>();
+        for (final ModuleDescriptor.Exports exports : descriptor.exports()) {
+            if (!exports.isQualified()) {
+                exported.add(exports.source());
+            }
+        }
+        return exported;
+    }
+
+    private static String packageOf(final String className) {
+        final int separator = className.lastIndexOf('.');
+        return separator < 0 ? "" : className.substring(0, separator);
+    }
+
+    private static ClassLoader parentLoader() {
+        final ClassLoader loader = Thread.currentThread().getContextClassLoader();
+        return loader != null ? loader : ModuleScanner.class.getClassLoader();
+    }
+
+    private interface ClassVerifier {
+
+        void verify(String moduleName, String className, ClassFile classFile) throws Exception;
+    }
+}
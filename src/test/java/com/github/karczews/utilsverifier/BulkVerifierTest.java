@@ -0,0 +1,177 @@
+/**
+ * Copyright (c) 2017-present, UtilsVerifier Contributors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+package com.github.karczews.utilsverifier;
+
+import com.github.karczews.utilsverifier.subjects.bulk.BrokenUtil;
+import com.github.karczews.utilsverifier.subjects.bulk.FirstUtil;
+import com.github.karczews.utilsverifier.subjects.bulk.SecondUtil;
+import com.github.karczews.utilsverifier.subjects.discovery.AnnotatedHelper;
+import com.github.karczews.utilsverifier.subjects.discovery.Helper;
+import static org.hamcrest.core.AllOf.allOf;
+import static org.hamcrest.core.StringContains.containsString;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.TreeSet;
+
+public class BulkVerifierTest {
+
+    private static final String BULK_PACKAGE = "com.github.karczews.utilsverifier.subjects.bulk";
+
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void shouldVerifyAllClassesInPackage() {
+        final VerificationResult result = UtilsVerifier.forPackage(BULK_PACKAGE).verify();
+
+        Assert.assertEquals(3, result.getVerifiedCount());
+        Assert.assertFalse(result.isSuccessful());
+        Assert.assertEquals(Collections.singleton(BrokenUtil.class.getName()), result.getFailures().keySet());
+        Assert.assertTrue(result.getFailures().get(BrokenUtil.class.getName()) instanceof AssertionError);
+    }
+
+    @Test
+    public void shouldFindClassesInPackageWithoutVerifying() {
+        final List<String> classNames = UtilsVerifier.forPackage(BULK_PACKAGE).findClasses();
+
+        Assert.assertEquals(3, classNames.size());
+        Assert.assertTrue(classNames.contains(BrokenUtil.class.getName()));
+        Assert.assertEquals(new ArrayList<String>(new TreeSet<String>(classNames)), classNames);
+    }
+
+    @Test
+    public void shouldCollectViolationsWithoutFailing() {
+        final VerificationResult result = UtilsVerifier.forPackage(BULK_PACKAGE).collectViolations();
+
+        Assert.assertEquals(3, result.getVerifiedCount());
+        Assert.assertTrue(result.getFailures().isEmpty());
+        Assert.assertFalse(result.isSuccessful());
+        Assert.assertEquals(1, result.getViolations().size());
+        final ViolationRecord violation = result.getViolations().get(0);
+        Assert.assertSame(BrokenUtil.class, violation.getType());
+        Assert.assertEquals(VerificationCheck.INSTANCE_FIELDS, violation.getCheck());
+        Assert.assertEquals(ViolationRecord.Target.FIELD, violation.getTarget());
+        Assert.assertEquals("instanceInt", violation.getMemberName());
+        Assert.assertEquals(BrokenUtil.class.getName() + " contains instance field instanceInt",
+                violation.getMessage());
+    }
+
+    @Test
+    public void shouldRenderCollectedViolationsWhenAsserting() {
+        expectedException.expect(AssertionError.class);
+        expectedException.expectMessage(allOf(
+                containsString("1 of 3"),
+                containsString("INSTANCE_FIELDS: " + BrokenUtil.class.getName() + " contains instance field")));
+
+        UtilsVerifier.forPackage(BULK_PACKAGE).collectViolations().assertSuccessful();
+    }
+
+    @Test
+    public void shouldIncludeSubpackages() {
+        final VerificationResult result = UtilsVerifier.forPackage("com.github.karczews.utilsverifier.subjects")
+                .withThreads(2)
+                .verify();
+
+        Assert.assertTrue(result.getVerifiedCount() > 3);
+        Assert.assertTrue(result.getFailures().containsKey(BrokenUtil.class.getName()));
+    }
+
+    @Test
+    public void shouldApplySuppressionsToAllClasses() {
+        final VerificationResult result = UtilsVerifier.forPackage(BULK_PACKAGE)
+                .suppressInstanceFieldCheck(true)
+                .verify();
+
+        Assert.assertTrue(result.isSuccessful());
+        result.assertSuccessful();
+    }
+
+    @Test
+    public void shouldFailAssertionListingFailingClasses() {
+        expectedException.expect(AssertionError.class);
+        expectedException.expectMessage(allOf(
+                containsString("1 of 3"),
+                containsString(BrokenUtil.class.getName())));
+
+        UtilsVerifier.forPackage(BULK_PACKAGE).verify().assertSuccessful();
+    }
+
+    @Test
+    public void shouldVerifyClasspathRoot() throws IOException {
+        final File root = temporaryFolder.newFolder("root");
+        for (final Class<?> type : Arrays.asList(FirstUtil.class, SecondUtil.class)) {
+            copyClassFile(type, root);
+        }
+
+        final VerificationResult result = UtilsVerifier.forClasspathRoot(root).verify();
+
+        Assert.assertEquals(2, result.getVerifiedCount());
+        Assert.assertTrue(result.isSuccessful());
+    }
+
+    @Test
+    public void shouldVerifyDiscoveredClasses() throws IOException {
+        final VerificationResult result = UtilsVerifier.discoverIn(UtilityClassScannerTest.jarRoot(temporaryFolder))
+                .includeClassesAnnotatedWith(Helper.class.getName())
+                .withThreads(2)
+                .verify();
+
+        Assert.assertEquals(2, result.getVerifiedCount());
+        Assert.assertEquals(Collections.singleton(AnnotatedHelper.class.getName()), result.getFailures().keySet());
+    }
+
+    @Test
+    public void shouldReturnEmptyResultForUnknownPackage() {
+        final VerificationResult result = UtilsVerifier.forPackage("com.github.karczews.nothing").verify();
+
+        Assert.assertEquals(0, result.getVerifiedCount());
+        Assert.assertTrue(result.isSuccessful());
+    }
+
+    @Test
+    public void shouldRejectNonPositiveThreadCount() {
+        expectedException.expect(IllegalArgumentException.class);
+
+        UtilsVerifier.forPackage(BULK_PACKAGE).withThreads(0);
+    }
+
+    static void copyClassFile(final Class<?> type, final File root) throws IOException {
+        final File target = new File(root, type.getName().replace('.', '/') + ".class");
+        target.getParentFile().mkdirs();
+        copy(ClassFileVerifierTest.readClassBytes(type), target);
+    }
+
+    static void copy(final byte[] bytes, final File target) throws IOException {
+        final OutputStream output = new FileOutputStream(target);
+        try {
+            output.write(bytes);
+        } finally {
+            output.close();
+        }
+    }
+}
@@ -0,0 +1,61 @@
+/**
+ * Copyright (c) 2017-present, UtilsVerifier Contributors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+package com.github.karczews.utilsverifier;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+public class BytecodeTest {
+
+    @Test
+    public void shouldWalkAllInstructions() throws IOException {
+        // String and Character have table and lookup switches and wide instructions
+        walk(ClassFile.parse(ByteBuffer.wrap(ClassBytes.read(String.class))));
+        walk(ClassFile.parse(ByteBuffer.wrap(ClassBytes.read(Character.class))));
+    }
+
+    @Test
+    public void shouldReadLengthOfSwitches() {
+        // tableswitch at 1 padded to 4, default, low 0, high 1 and two offsets
+        final ByteBuffer tableSwitch = ByteBuffer.allocate(32);
+        tableSwitch.put(1, (byte) 0xAA).putInt(12, 1);
+        Assert.assertEquals(3 + 12 + 8, Bytecode.length(tableSwitch, 1));
+
+        // lookupswitch at 0 padded to 4, default, one pair
+        final ByteBuffer lookupSwitch = ByteBuffer.allocate(32);
+        lookupSwitch.put(0, (byte) 0xAB).putInt(8, 1);
+        Assert.assertEquals(4 + 8 + 8, Bytecode.length(lookupSwitch, 0));
+    }
+
+    @Test
+    public void shouldCountMethodArguments() {
+        Assert.assertEquals(0, Bytecode.argumentCount("()V"));
+        Assert.assertEquals(1, Bytecode.argumentCount("(Ljava/util/Collection;)Z"));
+        Assert.assertEquals(4, Bytecode.argumentCount("(J[[Ljava/lang/String;[ID)Ljava/lang/Object;"));
+    }
+
+    private static void walk(final ClassFile classFile) {
+        for (int method = 0; method < classFile.getMethodCount(); method++) {
+            final ByteBuffer code = classFile.getMethodCode(method);
+            if (code == null) continue;
+            int pc = 0;
+            while (pc < code.limit()) {
+                pc += Bytecode.length(code, pc);
+            }
+            Assert.assertEquals(classFile.getMethodName(method), code.limit(), pc);
+        }
+    }
+}
@@ -0,0 +1,116 @@
+/**
+ * Copyright (c) 2017-present, UtilsVerifier Contributors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+package com.github.karczews.utilsverifier;
+
+import com.github.karczews.utilsverifier.subjects.InstanceFields;
+import com.github.karczews.utilsverifier.subjects.MultipleConstructors;
+import com.github.karczews.utilsverifier.subjects.discovery.AnnotatedHelper;
+import com.github.karczews.utilsverifier.subjects.discovery.Helper;
+import com.github.karczews.utilsverifier.subjects.discovery.Marker;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.io.IOException;
+import java.lang.reflect.Modifier;
+import java.nio.ByteBuffer;
+
+public class ClassFileTest {
+
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+
+    @Test
+    public void shouldReadClassNameAndFlags() throws IOException {
+        final ClassFile classFile = parse(InstanceFields.class);
+
+        Assert.assertEquals(InstanceFields.class.getName(), classFile.getClassName());
+        Assert.assertEquals("InstanceFields", classFile.getSimpleName());
+        Assert.assertTrue(Modifier.isFinal(classFile.getAccessFlags()));
+        Assert.assertTrue(Modifier.isPublic(classFile.getAccessFlags()));
+    }
+
+    @Test
+    public void shouldReadFields() throws IOException {
+        final ClassFile classFile = parse(InstanceFields.class);
+
+        Assert.assertEquals(1, classFile.getFieldCount());
+        Assert.assertEquals("instanceInt", classFile.getFieldName(0));
+        Assert.assertEquals("I", classFile.getFieldDescriptor(0));
+        Assert.assertTrue(Modifier.isPrivate(classFile.getFieldAccessFlags(0)));
+    }
+
+    @Test
+    public void shouldReadConstructors() throws IOException {
+        final ClassFile classFile = parse(MultipleConstructors.class);
+
+        Assert.assertEquals(2, classFile.getMethodCount());
+        Assert.assertEquals(ClassFile.CONSTRUCTOR_NAME, classFile.getMethodName(0));
+        Assert.assertEquals(ClassFile.DEFAULT_CONSTRUCTOR_DESCRIPTOR, classFile.getMethodDescriptor(0));
+        Assert.assertEquals("(I)V", classFile.getMethodDescriptor(1));
+        Assert.assertTrue(classFile.isInitializer(0));
+    }
+
+    @Test
+    public void shouldMatchReflectionForComplexClass() throws IOException {
+        // String has wide constants, unicode names and many members
+        final ClassFile classFile = parse(String.class);
+
+        Assert.assertEquals(String.class.getName(), classFile.getClassName());
+        Assert.assertEquals(String.class.getDeclaredFields().length, classFile.getFieldCount());
+        int methods = 0;
+        for (int index = 0; index < classFile.getMethodCount(); index++) {
+            if (!classFile.isInitializer(index)) methods++;
+        }
+        Assert.assertEquals(String.class.getDeclaredMethods().length, methods);
+    }
+
+    @Test
+    public void shouldReadMethodCodeLength() throws IOException {
+        // aload_0, invokespecial Object.<init>, return
+        Assert.assertEquals(5, parse(MultipleConstructors.class).getMethodCodeLength(0));
+        Assert.assertEquals(ClassFile.NO_CODE, parse(Runnable.class).getMethodCodeLength(0));
+    }
+
+    @Test
+    public void shouldReadAnnotations() throws IOException {
+        final ClassFile classFile = parse(AnnotatedHelper.class);
+
+        Assert.assertTrue(classFile.hasAnnotation("L" + Helper.class.getName().replace('.', '/') + ";"));
+        Assert.assertTrue(classFile.hasAnnotation("L" + Marker.class.getName().replace('.', '/') + ";"));
+        Assert.assertFalse(classFile.hasAnnotation("Ljava/lang/Deprecated;"));
+        Assert.assertFalse(parse(InstanceFields.class).hasAnnotation("L" + Helper.class.getName().replace('.', '/') + ";"));
+    }
+
+    @Test
+    public void shouldRejectInvalidMagic() {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("not a class file");
+
+        ClassFile.parse(ByteBuffer.wrap(new byte[]{0, 0, 0, 0, 0, 0, 0, 0, 0, 0}));
+    }
+
+    @Test
+    public void shouldRejectTruncatedClassFile() throws IOException {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("truncated");
+
+        final byte[] bytes = ClassFileVerifierTest.readClassBytes(InstanceFields.class);
+        ClassFile.parse(ByteBuffer.wrap(bytes, 0, 20));
+    }
+
+    private static ClassFile parse(final Class<?> type) throws IOException {
+        return ClassFile.parse(ByteBuffer.wrap(ClassFileVerifierTest.readClassBytes(type)));
+    }
+}
@@ -0,0 +1,191 @@
+/**
+ * Copyright (c) 2017-present, UtilsVerifier Contributors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+package com.github.karczews.utilsverifier;
+
+import com.github.karczews.utilsverifier.subjects.AbstractClass;
+import com.github.karczews.utilsverifier.subjects.DefaultConstructor;
+import com.github.karczews.utilsverifier.subjects.FailingStaticInitializer;
+import com.github.karczews.utilsverifier.subjects.ImmutableStaticFields;
+import com.github.karczews.utilsverifier.subjects.InstanceFields;
+import com.github.karczews.utilsverifier.subjects.InstanceMethods;
+import com.github.karczews.utilsverifier.subjects.MultipleConstructors;
+import com.github.karczews.utilsverifier.subjects.MutableStaticFields;
+import com.github.karczews.utilsverifier.subjects.NoConstructor;
+import com.github.karczews.utilsverifier.subjects.NonFinalClass;
+import com.github.karczews.utilsverifier.subjects.NonPrivateConstructor;
+import com.github.karczews.utilsverifier.subjects.WellFormed;
+import static org.hamcrest.core.StringContains.containsString;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+
+public class ClassFileVerifierTest {
+
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void shouldFailOnMutableStaticFields() throws IOException {
+        expectedException.expect(AssertionError.class);
+        expectedException.expectMessage(containsString("staticInt"));
+
+        suppressedVerifier(MutableStaticFields.class)
+                .suppressMutableStaticFieldsCheck(false)
+                .verify();
+    }
+
+    @Test
+    public void shouldPassOnMutableStaticFields() throws IOException {
+        suppressedVerifier(ImmutableStaticFields.class)
+                .suppressMutableStaticFieldsCheck(false)
+                .verify();
+
+        suppressedVerifier(InstanceFields.class)
+                .suppressMutableStaticFieldsCheck(false)
+                .verify();
+    }
+
+    @Test
+    public void shouldFailOnNonFinalClassVerification() throws IOException {
+        expectedException.expect(AssertionError.class);
+        expectedException.expectMessage(containsString("not final"));
+
+        suppressedVerifier(NonFinalClass.class)
+                .suppressFinalClassCheck(false)
+                .verify();
+    }
+
+    @Test
+    public void shouldFailOnInstanceFields() throws IOException {
+        expectedException.expect(AssertionError.class);
+        expectedException.expectMessage(containsString("instanceInt"));
+
+        suppressedVerifier(InstanceFields.class)
+                .suppressInstanceFieldCheck(false)
+                .verify();
+    }
+
+    @Test
+    public void shouldFailOnInstanceMethod() throws IOException {
+        expectedException.expect(AssertionError.class);
+        expectedException.expectMessage(containsString("instanceMethod"));
+
+        suppressedVerifier(InstanceMethods.class)
+                .suppressInstanceMethodCheck(false)
+                .verify();
+    }
+
+    @Test
+    public void shouldFailWhenOnlyADefaultPublicConstructor() throws IOException {
+        expectedException.expect(AssertionError.class);
+        expectedException.expectMessage(containsString("should be private"));
+
+        suppressedVerifier(DefaultConstructor.class)
+                .suppressPrivateConstructorCheck(false)
+                .verify();
+    }
+
+    @Test
+    public void shouldFailWhenNoPrivateConstructor() throws IOException {
+        expectedException.expect(AssertionError.class);
+        expectedException.expectMessage(containsString("should be private"));
+
+        suppressedVerifier(NonPrivateConstructor.class)
+                .suppressPrivateConstructorCheck(false)
+                .verify();
+    }
+
+    @Test
+    public void shouldFailWhenNoConstructor() throws IOException {
+        expectedException.expect(AssertionError.class);
+        expectedException.expectMessage(containsString("has no constructor"));
+
+        suppressedVerifier(NoConstructor.class).verify();
+    }
+
+    @Test
+    public void shouldFailOnMultipleConstructors() throws IOException {
+        expectedException.expect(AssertionError.class);
+        expectedException.expectMessage(containsString("has too many constructors"));
+
+        suppressedVerifier(MultipleConstructors.class)
+                .suppressOnlyOneConstructorCheck(false)
+                .verify();
+    }
+
+    @Test
+    public void shouldPassForWellFormedUtil() throws IOException {
+        ClassFileVerifier.forBytes(readClassBytes(WellFormed.class)).verify();
+    }
+
+    @Test
+    public void shouldPassForAbstractClassWithoutInstantiating() throws IOException {
+        suppressedVerifier(AbstractClass.class).verify();
+    }
+
+    @Test
+    public void shouldNotRunStaticInitializer() throws IOException {
+        final File classFile = temporaryFolder.newFile("FailingStaticInitializer.class");
+        BulkVerifierTest.copy(readClassBytes(FailingStaticInitializer.class), classFile);
+
+        ClassFileVerifier.forFile(classFile).verify();
+    }
+
+    @Test
+    public void shouldFailOnInvalidClassFile() {
+        expectedException.expect(IllegalArgumentException.class);
+
+        ClassFileVerifier.forBytes(new byte[]{1, 2, 3, 4}).verify();
+    }
+
+    @Test
+    public void shouldThrowIllegalStateExceptionForMissingFile() {
+        expectedException.expect(IllegalStateException.class);
+
+        ClassFileVerifier.forFile(new File(temporaryFolder.getRoot(), "Missing.class")).verify();
+    }
+
+    static byte[] readClassBytes(final Class<?> type) throws IOException {
+        final InputStream input = type.getResourceAsStream('/' + type.getName().replace('.', '/') + ".class");
+        try {
+            final ByteArrayOutputStream output = new ByteArrayOutputStream();
+            final byte[] buffer = new byte[4096];
+            int read;
+            while ((read = input.read(buffer)) != -1) {
+                output.write(buffer, 0, read);
+            }
+            return output.toByteArray();
+        } finally {
+            input.close();
+        }
+    }
+
+    private static ClassFileVerifier suppressedVerifier(final Class<?> type) throws IOException {
+        return ClassFileVerifier.forBytes(readClassBytes(type))
+                .suppressFinalClassCheck(true)
+                .suppressOnlyOneConstructorCheck(true)
+                .suppressPrivateConstructorCheck(true)
+                .suppressInstanceFieldCheck(true)
+                .suppressInstanceMethodCheck(true)
+                .suppressMutableStaticFieldsCheck(true);
+    }
+}
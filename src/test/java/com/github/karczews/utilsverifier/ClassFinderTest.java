@@ -0,0 +1,77 @@
+/**
+ * Copyright (c) 2017-present, UtilsVerifier Contributors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+package com.github.karczews.utilsverifier;
+
+import com.github.karczews.utilsverifier.subjects.bulk.BulkContract;
+import com.github.karczews.utilsverifier.subjects.bulk.BulkMarker;
+import com.github.karczews.utilsverifier.subjects.bulk.BulkMode;
+import com.github.karczews.utilsverifier.subjects.bulk.BrokenUtil;
+import com.github.karczews.utilsverifier.subjects.bulk.FirstUtil;
+import com.github.karczews.utilsverifier.subjects.bulk.SecondUtil;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+public class ClassFinderTest {
+
+    @Test
+    public void shouldAcceptTopLevelClass() {
+        Assert.assertTrue(ClassFinder.isCandidate("com/acme/Util.class"));
+    }
+
+    @Test
+    public void shouldRejectNestedClass() {
+        Assert.assertFalse(ClassFinder.isCandidate("com/acme/Util$Nested.class"));
+    }
+
+    @Test
+    public void shouldRejectPackageAndModuleInfo() {
+        Assert.assertFalse(ClassFinder.isCandidate("com/acme/package-info.class"));
+        Assert.assertFalse(ClassFinder.isCandidate("module-info.class"));
+    }
+
+    @Test
+    public void shouldRejectNonClassResource() {
+        Assert.assertFalse(ClassFinder.isCandidate("com/acme/util.properties"));
+    }
+
+    @Test
+    public void shouldConvertPathToClassName() {
+        Assert.assertEquals("com.acme.Util", ClassFinder.toClassName("com/acme/Util.class"));
+    }
+
+    @Test
+    public void shouldFindSortedClassesInPackage() throws IOException {
+        Assert.assertEquals(
+                Arrays.asList(BrokenUtil.class.getName(), FirstUtil.class.getName(), SecondUtil.class.getName()),
+                ClassFinder.findInPackage(getClass().getClassLoader(), "com.github.karczews.utilsverifier.subjects.bulk"));
+    }
+
+    @Test
+    public void shouldSkipInterfacesEnumsAndAnnotations() throws IOException {
+        final List<String> classNames = ClassFinder.findInPackage(getClass().getClassLoader(),
+                "com.github.karczews.utilsverifier.subjects.bulk");
+
+        Assert.assertFalse(classNames.contains(BulkContract.class.getName()));
+        Assert.assertFalse(classNames.contains(BulkMode.class.getName()));
+        Assert.assertFalse(classNames.contains(BulkMarker.class.getName()));
+    }
+
+    @Test
+    public void verifyClassFinderTool() {
+        UtilsVerifier.forClass(ClassFinder.class).verify();
+    }
+}
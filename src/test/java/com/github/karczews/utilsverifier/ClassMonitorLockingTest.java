@@ -0,0 +1,110 @@
+/**
+ * Copyright (c) 2017-present, UtilsVerifier Contributors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+package com.github.karczews.utilsverifier;
+
+import com.github.karczews.utilsverifier.subjects.ClassMonitors;
+import com.github.karczews.utilsverifier.subjects.WellFormed;
+import static org.hamcrest.core.StringContains.containsString;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ClassMonitorLockingTest {
+
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+
+    @Test
+    public void shouldNotBeEnabledByDefault() {
+        Assert.assertFalse(VerificationPolicy.defaultPolicy().getChecks()
+                .contains(VerificationCheck.CLASS_MONITOR_LOCKING));
+        UtilsVerifier.forClass(ClassMonitors.class).verify();
+    }
+
+    @Test
+    public void shouldFailOnStaticSynchronizedMethod() {
+        expectedException.expect(AssertionError.class);
+        expectedException.expectMessage(containsString("static synchronized next locks "
+                + ClassMonitors.class.getName() + ".class"));
+
+        UtilsVerifier.forClass(ClassMonitors.class)
+                .checkClassMonitorLocking(true)
+                .verify();
+    }
+
+    @Test
+    public void shouldFindSynchronizedBlocksOnClassLiterals() {
+        final VerificationPolicy policy = VerificationPolicy.builder()
+                .checkClassMonitorLocking(true)
+                .scanClassMonitorBytecode(true)
+                .build();
+
+        final VerificationReport report = policy.verifyAll(ClassMonitors.class);
+
+        Assert.assertEquals(1, report.getViolations().size());
+        final String message = report.getViolations().get(0).getMessage();
+        Assert.assertThat(message, containsString("reset synchronizes on " + ClassMonitors.class.getName() + ".class"));
+        Assert.assertFalse(message.contains("current"));
+    }
+
+    @Test
+    public void shouldScanClassFile() throws Exception {
+        expectedException.expect(AssertionError.class);
+        expectedException.expectMessage(containsString("reset synchronizes on"));
+
+        ClassFileVerifier.forBytes(ClassBytes.read(ClassMonitors.class))
+                .withPolicy(VerificationPolicy.builder()
+                        .checkClassMonitorLocking(true)
+                        .scanClassMonitorBytecode(true)
+                        .build())
+                .verify();
+    }
+
+    @Test
+    public void shouldOnlyWarnWhenConfigured() {
+        final List<String> warnings = new ArrayList<String>();
+        final VerificationStatistics statistics = new VerificationStatistics();
+        final VerificationPolicy policy = VerificationPolicy.builder()
+                .checkClassMonitorLocking(true)
+                .scanClassMonitorBytecode(true)
+                .warnOnClassMonitorLocking(true)
+                .build();
+
+        policy.verify(ClassMonitors.class, new VerificationListener() {
+            @Override
+            public void warningFound(final String className, final VerificationCheck check, final String message) {
+                warnings.add(check + " " + message);
+                statistics.warningFound(className, check, message);
+            }
+        });
+
+        Assert.assertEquals(1, warnings.size());
+        Assert.assertThat(warnings.get(0), containsString("CLASS_MONITOR_LOCKING " + ClassMonitors.class.getName()
+                + " locks class monitors:"));
+        Assert.assertEquals(1, statistics.getWarningCount(VerificationCheck.CLASS_MONITOR_LOCKING));
+    }
+
+    @Test
+    public void shouldPassWithoutClassMonitors() {
+        UtilsVerifier.forClass(WellFormed.class)
+                .withPolicy(VerificationPolicy.builder()
+                        .checkClassMonitorLocking(true)
+                        .scanClassMonitorBytecode(true)
+                        .build())
+                .verify();
+    }
+}
@@ -0,0 +1,101 @@
+/**
+ * Copyright (c) 2017-present, UtilsVerifier Contributors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+package com.github.karczews.utilsverifier;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Pattern;
+
+public class FieldNameMatcherTest {
+
+    private static final List<String> NONE = Collections.emptyList();
+    private static final List<Pattern> NO_PATTERNS = Collections.emptyList();
+
+    @Test
+    public void shouldMatchExactNames() {
+        final FieldNameMatcher matcher = FieldNameMatcher.compile(Arrays.asList("$jacocoData"), NONE, NONE, NO_PATTERNS);
+
+        Assert.assertTrue(matcher.matches("$jacocoData"));
+        Assert.assertFalse(matcher.matches("$jacocoDataX"));
+        Assert.assertFalse(matcher.matches("$jacoco"));
+    }
+
+    @Test
+    public void shouldMatchPrefixes() {
+        final FieldNameMatcher matcher = FieldNameMatcher.compile(NONE, Arrays.asList("ajc$", "$$"), NONE, NO_PATTERNS);
+
+        Assert.assertTrue(matcher.matches("ajc$perSingletonInstance"));
+        Assert.assertTrue(matcher.matches("$$delegatedProperties"));
+        Assert.assertTrue(matcher.matches("$$"));
+        Assert.assertFalse(matcher.matches("$delegatedProperties"));
+        Assert.assertFalse(matcher.matches("ajc"));
+    }
+
+    @Test
+    public void shouldMatchEverythingWithEmptyPrefix() {
+        final FieldNameMatcher matcher = FieldNameMatcher.compile(NONE, Arrays.asList(""), NONE, NO_PATTERNS);
+
+        Assert.assertTrue(matcher.matches("anything"));
+    }
+
+    @Test
+    public void shouldMatchGlobs() {
+        final FieldNameMatcher matcher = FieldNameMatcher.compile(NONE, NONE,
+                Arrays.asList("$change", "ajc$*", "*$cache", "value?"), NO_PATTERNS);
+
+        Assert.assertTrue(matcher.matches("$change"));
+        Assert.assertTrue(matcher.matches("ajc$tjp_0"));
+        Assert.assertTrue(matcher.matches("lookup$cache"));
+        Assert.assertTrue(matcher.matches("value1"));
+        Assert.assertFalse(matcher.matches("value12"));
+        Assert.assertFalse(matcher.matches("$changes"));
+    }
+
+    @Test
+    public void shouldTreatGlobSpecialCharactersLiterally() {
+        final FieldNameMatcher matcher = FieldNameMatcher.compile(NONE, NONE, Arrays.asList("a.b*c"), NO_PATTERNS);
+
+        Assert.assertTrue(matcher.matches("a.bxc"));
+        Assert.assertFalse(matcher.matches("axbxc"));
+    }
+
+    @Test
+    public void shouldMatchWholeNameWithPatterns() {
+        final FieldNameMatcher matcher = FieldNameMatcher.compile(NONE, NONE, NONE,
+                Arrays.asList(Pattern.compile("field\\d+")));
+
+        Assert.assertTrue(matcher.matches("field42"));
+        Assert.assertFalse(matcher.matches("myfield42"));
+    }
+
+    @Test
+    public void shouldMatchLargeAllowlists() {
+        final List<String> names = new ArrayList<String>();
+        final List<String> prefixes = new ArrayList<String>();
+        for (int index = 0; index < 500; index++) {
+            names.add("name" + index);
+            prefixes.add("prefix" + index + "$");
+        }
+        final FieldNameMatcher matcher = FieldNameMatcher.compile(names, prefixes, NONE, NO_PATTERNS);
+
+        Assert.assertTrue(matcher.matches("name499"));
+        Assert.assertTrue(matcher.matches("prefix250$field"));
+        Assert.assertFalse(matcher.matches("prefix250"));
+        Assert.assertFalse(matcher.matches("name500"));
+    }
+}
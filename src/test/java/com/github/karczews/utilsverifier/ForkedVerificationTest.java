@@ -0,0 +1,77 @@
+/**
+ * Copyright (c) 2017-present, UtilsVerifier Contributors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+package com.github.karczews.utilsverifier;
+
+import com.github.karczews.utilsverifier.subjects.bulk.BrokenUtil;
+import com.github.karczews.utilsverifier.subjects.forked.CrashingUtil;
+import com.github.karczews.utilsverifier.subjects.forked.FirstForkedUtil;
+import com.github.karczews.utilsverifier.subjects.forked.SecondForkedUtil;
+import static org.hamcrest.core.StringContains.containsString;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+public class ForkedVerificationTest {
+
+    @Test
+    public void shouldTakeClassesFromOwnShardFirst() {
+        final ForkedVerification.Shards shards = new ForkedVerification.Shards(
+                Arrays.asList("a", "b", "c", "d"), 2);
+
+        Assert.assertEquals("a", shards.next(0));
+        Assert.assertEquals("c", shards.next(1));
+        Assert.assertEquals("b", shards.next(0));
+    }
+
+    @Test
+    public void shouldStealFromTailOfLongestShard() {
+        final ForkedVerification.Shards shards = new ForkedVerification.Shards(
+                Arrays.asList("a", "b", "c", "d", "e", "f"), 3);
+
+        Assert.assertEquals("a", shards.next(0));
+        Assert.assertEquals("b", shards.next(0));
+        Assert.assertEquals("c", shards.next(1));
+        Assert.assertEquals("f", shards.next(0));
+        Assert.assertEquals("d", shards.next(1));
+        Assert.assertEquals("e", shards.next(1));
+        Assert.assertNull(shards.next(2));
+        Assert.assertTrue(shards.isEmpty());
+    }
+
+    @Test
+    public void shouldMergeResultsOfWorkers() {
+        final VerificationResult result = UtilsVerifier.forPackage("com.github.karczews.utilsverifier.subjects.bulk")
+                .withForkedWorkers(2)
+                .verify();
+
+        Assert.assertEquals(3, result.getVerifiedCount());
+        Assert.assertEquals(Collections.singleton(BrokenUtil.class.getName()), result.getFailures().keySet());
+        Assert.assertTrue(result.getFailures().get(BrokenUtil.class.getName()) instanceof AssertionError);
+    }
+
+    @Test
+    public void shouldFailOnlyClassThatCrashedWorker() {
+        final VerificationResult result = UtilsVerifier.forPackage("com.github.karczews.utilsverifier.subjects.forked")
+                .withForkedWorkers(1, "-Dutilsverifier.test.crash=true")
+                .verify();
+
+        Assert.assertEquals(3, result.getVerifiedCount());
+        Assert.assertEquals(Collections.singleton(CrashingUtil.class.getName()), result.getFailures().keySet());
+        Assert.assertThat(result.getFailures().get(CrashingUtil.class.getName()).getMessage(),
+                containsString("exited with code 3"));
+        Assert.assertFalse(result.getFailures().containsKey(FirstForkedUtil.class.getName()));
+        Assert.assertFalse(result.getFailures().containsKey(SecondForkedUtil.class.getName()));
+    }
+}
@@ -0,0 +1,150 @@
+/**
+ * Copyright (c) 2017-present, UtilsVerifier Contributors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+package com.github.karczews.utilsverifier;
+
+import com.github.karczews.utilsverifier.subjects.WellFormed;
+import com.github.karczews.utilsverifier.subjects.isolation.CountingUtil;
+import com.github.karczews.utilsverifier.subjects.sharedexception.ThrowingUtil;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.net.URL;
+import java.net.URLClassLoader;
+
+public class IsolatingClassLoaderTest {
+
+    private static final String ISOLATION_PACKAGE = "com.github.karczews.utilsverifier.subjects.isolation";
+
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void shouldDefineClassesOfPackage() throws Exception {
+        final ClassLoader parent = getClass().getClassLoader();
+        final IsolatingClassLoader loader = new IsolatingClassLoader(parent, null, ISOLATION_PACKAGE + '.', null);
+
+        final Class<?> isolated = Class.forName(CountingUtil.class.getName(), false, loader);
+
+        Assert.assertNotSame(CountingUtil.class, isolated);
+        Assert.assertSame(loader, isolated.getClassLoader());
+        Assert.assertSame(WellFormed.class, Class.forName(WellFormed.class.getName(), false, loader));
+        Assert.assertSame(String.class, Class.forName(String.class.getName(), false, loader));
+    }
+
+    @Test
+    public void shouldDefinePackagesOfIsolatedClasses() throws Exception {
+        final IsolatingClassLoader loader = new IsolatingClassLoader(getClass().getClassLoader(), null,
+                ISOLATION_PACKAGE + '.', null);
+
+        final Package isolatedPackage = Class.forName(CountingUtil.class.getName(), false, loader).getPackage();
+
+        Assert.assertNotNull(isolatedPackage);
+        Assert.assertEquals(ISOLATION_PACKAGE, isolatedPackage.getName());
+    }
+
+    @Test
+    public void shouldShareVerifierAndExpectedExceptionClasses() throws Exception {
+        final String packageName = VerificationPolicy.class.getPackage().getName();
+        final IsolatingClassLoader loader = new IsolatingClassLoader(getClass().getClassLoader(), null,
+                packageName + '.', ThrowingUtil.Failure.class.getName());
+
+        Assert.assertSame(VerificationPolicy.class, Class.forName(VerificationPolicy.class.getName(), false, loader));
+        Assert.assertSame(ThrowingUtil.Failure.class,
+                Class.forName(ThrowingUtil.Failure.class.getName(), false, loader));
+        Assert.assertNotSame(WellFormed.class, Class.forName(WellFormed.class.getName(), false, loader));
+    }
+
+    @Test
+    public void shouldDefineClassesOfRoots() throws Exception {
+        final File root = temporaryFolder.newFolder("root");
+        BulkVerifierTest.copyClassFile(WellFormed.class, root);
+        final URLClassLoader roots = new URLClassLoader(new URL[]{root.toURI().toURL()}, getClass().getClassLoader());
+        final IsolatingClassLoader loader = new IsolatingClassLoader(roots, roots, null, null);
+
+        Assert.assertNotSame(WellFormed.class, Class.forName(WellFormed.class.getName(), false, loader));
+        Assert.assertSame(CountingUtil.class, Class.forName(CountingUtil.class.getName(), false, loader));
+    }
+
+    @Test
+    public void shouldRotateLoadersAfterBatch() {
+        final IsolatingClassLoader.Batches batches = new IsolatingClassLoader.Batches(
+                getClass().getClassLoader(), null, ISOLATION_PACKAGE, null, 2);
+
+        final ClassLoader first = batches.next();
+        Assert.assertSame(first, batches.next());
+        final ClassLoader second = batches.next();
+        Assert.assertNotSame(first, second);
+        Assert.assertTrue(second instanceof IsolatingClassLoader);
+    }
+
+    @Test
+    public void shouldUseParentWithoutIsolation() {
+        final ClassLoader parent = getClass().getClassLoader();
+        final IsolatingClassLoader.Batches batches = new IsolatingClassLoader.Batches(parent, null, ISOLATION_PACKAGE, null, 0);
+
+        Assert.assertSame(parent, batches.next());
+    }
+
+    @Test
+    public void shouldNotLeakStaticStateOfVerifiedClasses() {
+        final int before = CountingUtil.INSTANCES.get();
+
+        final VerificationResult result = UtilsVerifier.forPackage(ISOLATION_PACKAGE)
+                .withIsolation(1)
+                .verify();
+
+        Assert.assertTrue(result.isSuccessful());
+        Assert.assertEquals(2, result.getVerifiedCount());
+        Assert.assertEquals(before, CountingUtil.INSTANCES.get());
+    }
+
+    @Test
+    public void shouldShareStaticStateWithoutIsolation() {
+        final int before = CountingUtil.INSTANCES.get();
+
+        UtilsVerifier.forPackage(ISOLATION_PACKAGE).verify().assertSuccessful();
+
+        Assert.assertEquals(before + 2, CountingUtil.INSTANCES.get());
+    }
+
+    @Test
+    public void shouldExpectConstructorExceptionOfIsolatedPackage() {
+        UtilsVerifier.forPackage(ThrowingUtil.class.getPackage().getName())
+                .withIsolation(1)
+                .withConstructorThrowing(ThrowingUtil.Failure.class)
+                .verify()
+                .assertSuccessful();
+    }
+
+    @Test
+    public void shouldRejectIsolationOfDefaultPackage() {
+        expectedException.expect(IllegalStateException.class);
+        expectedException.expectMessage("default package");
+
+        UtilsVerifier.forPackage("").withIsolation(1).verify();
+    }
+
+    @Test
+    public void shouldRejectNonPositiveBatchSize() {
+        expectedException.expect(IllegalArgumentException.class);
+
+        UtilsVerifier.forPackage(ISOLATION_PACKAGE).withIsolation(0);
+    }
+}
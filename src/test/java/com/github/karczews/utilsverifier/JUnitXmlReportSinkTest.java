@@ -0,0 +1,129 @@
+/**
+ * Copyright (c) 2017-present, UtilsVerifier Contributors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+package com.github.karczews.utilsverifier;
+
+import com.github.karczews.utilsverifier.subjects.bulk.BrokenUtil;
+import com.github.karczews.utilsverifier.subjects.bulk.FirstUtil;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import javax.xml.parsers.DocumentBuilderFactory;
+
+public class JUnitXmlReportSinkTest {
+
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void shouldWriteTestCases() throws Exception {
+        final File file = temporaryFolder.newFile("report.xml");
+        final JUnitXmlReportSink sink = JUnitXmlReportSink.open(file);
+        sink.classVerified(VerificationPolicy.defaultPolicy().verifyAll(FirstUtil.class), 1500000);
+        sink.classVerified(VerificationPolicy.defaultPolicy().verifyAll(BrokenUtil.class), 10);
+        sink.classFailed("com.acme.Missing<T>", new NoClassDefFoundError("com/acme/Missing & co"), 0);
+        sink.close();
+
+        final Element suite = parse(file);
+        Assert.assertEquals(3, Integer.parseInt(suite.getAttribute("tests")));
+        Assert.assertEquals(1, Integer.parseInt(suite.getAttribute("failures")));
+        Assert.assertEquals(1, Integer.parseInt(suite.getAttribute("errors")));
+
+        final NodeList testCases = suite.getElementsByTagName("testcase");
+        Assert.assertEquals(3, testCases.getLength());
+        final Element passed = (Element) testCases.item(0);
+        Assert.assertEquals(FirstUtil.class.getName(), passed.getAttribute("classname"));
+        Assert.assertEquals("0.001500", passed.getAttribute("time"));
+        Assert.assertEquals(0, passed.getChildNodes().getLength());
+
+        final Element failure = (Element) ((Element) testCases.item(1)).getElementsByTagName("failure").item(0);
+        Assert.assertEquals("INSTANCE_FIELDS", failure.getAttribute("type"));
+        Assert.assertTrue(failure.getTextContent().contains("has 1 violations"));
+
+        final Element error = (Element) ((Element) testCases.item(2)).getElementsByTagName("error").item(0);
+        Assert.assertEquals("com.acme.Missing<T>", ((Element) testCases.item(2)).getAttribute("classname"));
+        Assert.assertEquals("com/acme/Missing & co", error.getAttribute("message"));
+    }
+
+    @Test
+    public void shouldAcceptConcurrentWrites() throws Exception {
+        final File file = temporaryFolder.newFile("concurrent.xml");
+        final JUnitXmlReportSink sink = JUnitXmlReportSink.open(file);
+        final VerificationReport report = new VerificationReport("com.acme.Util",
+                Collections.<VerificationReport.Violation>emptyList());
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        for (int task = 0; task < 4; task++) {
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    for (int index = 0; index < 2500; index++) {
+                        sink.classVerified(report, index);
+                    }
+                }
+            });
+        }
+        executor.shutdown();
+        Assert.assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        sink.close();
+
+        final Element suite = parse(file);
+        Assert.assertEquals(10000, Integer.parseInt(suite.getAttribute("tests")));
+        Assert.assertEquals(10000, suite.getElementsByTagName("testcase").getLength());
+    }
+
+    @Test
+    public void shouldStreamBulkVerification() throws Exception {
+        final File file = temporaryFolder.newFile("bulk.xml");
+        final JUnitXmlReportSink sink = JUnitXmlReportSink.open(file);
+        try {
+            UtilsVerifier.forPackage("com.github.karczews.utilsverifier.subjects.bulk")
+                    .withReportSink(sink)
+                    .withThreads(2)
+                    .verify();
+        } finally {
+            sink.close();
+        }
+
+        final Element suite = parse(file);
+        Assert.assertEquals(3, Integer.parseInt(suite.getAttribute("tests")));
+        Assert.assertEquals(1, Integer.parseInt(suite.getAttribute("failures")));
+    }
+
+    @Test
+    public void shouldRejectWritesAfterClose() throws IOException {
+        final JUnitXmlReportSink sink = JUnitXmlReportSink.open(temporaryFolder.newFile("closed.xml"));
+        sink.close();
+
+        expectedException.expect(IllegalStateException.class);
+        sink.classFailed("com.acme.Util", new IllegalStateException(), 0);
+    }
+
+    private static Element parse(final File file) throws Exception {
+        final Document document = DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(file);
+        return document.getDocumentElement();
+    }
+}
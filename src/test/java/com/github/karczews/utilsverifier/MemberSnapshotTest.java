@@ -0,0 +1,118 @@
+/**
+ * Copyright (c) 2017-present, UtilsVerifier Contributors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+package com.github.karczews.utilsverifier;
+
+import com.github.karczews.utilsverifier.subjects.InstanceFields;
+import com.github.karczews.utilsverifier.subjects.InstanceMethods;
+import com.github.karczews.utilsverifier.subjects.MultipleConstructors;
+import com.github.karczews.utilsverifier.subjects.NoConstructor;
+import com.github.karczews.utilsverifier.subjects.NonPrivateConstructor;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.lang.reflect.Modifier;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class MemberSnapshotTest {
+
+    @Test
+    public void shouldCaptureClassDetails() {
+        final MemberSnapshot snapshot = MemberSnapshot.of(InstanceFields.class);
+
+        Assert.assertEquals(InstanceFields.class.getName(), snapshot.getClassName());
+        Assert.assertEquals("InstanceFields", snapshot.getSimpleName());
+        Assert.assertTrue(Modifier.isFinal(snapshot.getModifiers()));
+    }
+
+    @Test
+    public void shouldCaptureFields() {
+        final MemberSnapshot snapshot = MemberSnapshot.of(InstanceFields.class);
+
+        Assert.assertEquals(1, snapshot.getFieldCount());
+        Assert.assertEquals("instanceInt", snapshot.getFieldName(0));
+        Assert.assertFalse(Modifier.isStatic(snapshot.getFieldModifiers(0)));
+    }
+
+    @Test
+    public void shouldCaptureMethods() {
+        final MemberSnapshot snapshot = MemberSnapshot.of(InstanceMethods.class);
+
+        Assert.assertEquals(1, snapshot.getMethodCount());
+        Assert.assertEquals("instanceMethod", snapshot.getMethodName(0));
+        Assert.assertTrue(Modifier.isPrivate(snapshot.getMethodModifiers(0)));
+    }
+
+    @Test
+    public void shouldCaptureConstructors() {
+        final MemberSnapshot multiple = MemberSnapshot.of(MultipleConstructors.class);
+        final MemberSnapshot nonPrivate = MemberSnapshot.of(NonPrivateConstructor.class);
+
+        Assert.assertEquals(2, multiple.getConstructorCount());
+        Assert.assertTrue(Modifier.isPrivate(multiple.getDefaultConstructorModifiers()));
+        Assert.assertTrue(Modifier.isPublic(nonPrivate.getDefaultConstructorModifiers()));
+    }
+
+    @Test
+    public void shouldReportMissingConstructor() {
+        final MemberSnapshot snapshot = MemberSnapshot.of(NoConstructor.class);
+
+        Assert.assertEquals(0, snapshot.getConstructorCount());
+        Assert.assertEquals(MemberSnapshot.NO_CONSTRUCTOR, snapshot.getDefaultConstructorModifiers());
+    }
+
+    @Test
+    public void shouldMatchReflectionWhenTakenFromClassFile() throws IOException {
+        for (final Class<?> type : Arrays.asList(MultipleConstructors.class, InstanceMethods.class, String.class)) {
+            final MemberSnapshot expected = MemberSnapshot.of(type);
+            final MemberSnapshot actual = MemberSnapshot.of(
+                    ClassFile.parse(ByteBuffer.wrap(ClassFileVerifierTest.readClassBytes(type))));
+
+            Assert.assertEquals(expected.getClassName(), actual.getClassName());
+            Assert.assertEquals(expected.getSimpleName(), actual.getSimpleName());
+            Assert.assertEquals(expected.getConstructorCount(), actual.getConstructorCount());
+            Assert.assertEquals(expected.getDefaultConstructorModifiers(), actual.getDefaultConstructorModifiers());
+            Assert.assertEquals(expected.getFieldCount(), actual.getFieldCount());
+            Assert.assertEquals(expected.getMethodCount(), actual.getMethodCount());
+        }
+    }
+
+    @Test
+    public void shouldReturnCachedSnapshot() {
+        Assert.assertSame(MemberSnapshot.of(InstanceFields.class), MemberSnapshot.of(InstanceFields.class));
+    }
+
+    @Test
+    public void shouldShareSnapshotBetweenThreads() throws Exception {
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final Callable<MemberSnapshot> task = new Callable<MemberSnapshot>() {
+                @Override
+                public MemberSnapshot call() {
+                    return MemberSnapshot.of(MultipleConstructors.class);
+                }
+            };
+            final Future<MemberSnapshot> first = executor.submit(task);
+            final Future<MemberSnapshot> second = executor.submit(task);
+
+            Assert.assertSame(first.get(), second.get());
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,96 @@
+/**
+ * Copyright (c) 2017-present, UtilsVerifier Contributors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+package com.github.karczews.utilsverifier;
+
+import com.github.karczews.utilsverifier.subjects.LargeMethods;
+import com.github.karczews.utilsverifier.subjects.WellFormed;
+import static org.hamcrest.core.StringContains.containsString;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+public class MethodBytecodeSizeTest {
+
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+
+    @Test
+    public void shouldNotBeEnabledByDefault() {
+        Assert.assertFalse(VerificationPolicy.defaultPolicy().getChecks()
+                .contains(VerificationCheck.METHOD_BYTECODE_SIZE));
+    }
+
+    @Test
+    public void shouldReportLargeMethodsFromLargest() {
+        final VerificationReport report = VerificationPolicy.builder()
+                .withMaxMethodBytecodeSize(VerificationPolicy.MAX_INLINE_SIZE)
+                .build()
+                .verifyAll(LargeMethods.class);
+
+        Assert.assertEquals(1, report.getViolations().size());
+        final String message = report.getViolations().get(0).getMessage();
+        Assert.assertThat(message, containsString(LargeMethods.class.getName()
+                + " has 2 static methods over 35 bytes of bytecode:"));
+        Assert.assertTrue(message.indexOf("\n    huge ") < message.indexOf("\n    large "));
+        Assert.assertFalse(message.contains("small"));
+    }
+
+    @Test
+    public void shouldFailVerification() {
+        expectedException.expect(AssertionError.class);
+        expectedException.expectMessage(containsString("huge"));
+
+        UtilsVerifier.forClass(LargeMethods.class)
+                .withMaxMethodBytecodeSize(VerificationPolicy.MAX_INLINE_SIZE)
+                .verify();
+    }
+
+    @Test
+    public void shouldFailVerificationOfClassFile() throws Exception {
+        expectedException.expect(AssertionError.class);
+        expectedException.expectMessage(containsString("large"));
+
+        ClassFileVerifier.forBytes(ClassBytes.read(LargeMethods.class))
+                .withMaxMethodBytecodeSize(VerificationPolicy.MAX_INLINE_SIZE)
+                .verify();
+    }
+
+    @Test
+    public void shouldSkipAllowedMethods() {
+        final VerificationPolicy policy = VerificationPolicy.builder()
+                .withMaxMethodBytecodeSize(VerificationPolicy.MAX_INLINE_SIZE)
+                .allowLargeMethod("huge")
+                .allowLargeMethod("large")
+                .build();
+
+        UtilsVerifier.forClass(LargeMethods.class).withPolicy(policy).verify();
+    }
+
+    @Test
+    public void shouldPassBelowThreshold() {
+        UtilsVerifier.forClass(LargeMethods.class)
+                .withMaxMethodBytecodeSize(VerificationPolicy.FREQ_INLINE_SIZE)
+                .verify();
+        UtilsVerifier.forClass(WellFormed.class)
+                .withMaxMethodBytecodeSize(0)
+                .verify();
+    }
+
+    @Test
+    public void shouldRejectNegativeThreshold() {
+        expectedException.expect(IllegalArgumentException.class);
+
+        VerificationPolicy.builder().withMaxMethodBytecodeSize(-1);
+    }
+}
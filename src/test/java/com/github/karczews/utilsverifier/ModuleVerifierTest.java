@@ -0,0 +1,124 @@
+/**
+ * Copyright (c) 2017-present, UtilsVerifier Contributors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+package com.github.karczews.utilsverifier;
+
+import static org.hamcrest.core.StringContains.containsString;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+
+public class ModuleVerifierTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private File module;
+
+    @Before
+    public void setUp() throws IOException {
+        Assume.assumeTrue(MultiReleaseTest.isVersionedClassesExpected());
+        module = compileModule("com.acme",
+                "module-info", "module com.acme { exports com.acme.util; }",
+                "com/acme/util/Strings", "package com.acme.util;"
+                        + " public final class Strings { private Strings() {} public static int length() { return 0; } }",
+                "com/acme/internal/Hidden", "package com.acme.internal;"
+                        + " public final class Hidden { private Hidden() {} static int counter() { return 1; } }",
+                "com/acme/internal/NotFinal", "package com.acme.internal;"
+                        + " public class NotFinal { private NotFinal() {} static void run() {} }");
+    }
+
+    @Test
+    public void shouldSupportModulesOnJava9() {
+        Assert.assertTrue(ModuleVerifier.isSupported());
+    }
+
+    @Test
+    public void shouldVerifyAllPackagesOfModulePath() {
+        final VerificationResult result = ModuleVerifier.forModulePath(module).verify();
+
+        Assert.assertEquals(3, result.getVerifiedCount());
+        Assert.assertEquals(Collections.singleton("com.acme.internal.NotFinal"), result.getFailures().keySet());
+        Assert.assertThat(result.getFailures().get("com.acme.internal.NotFinal").getMessage(),
+                containsString("is not final"));
+    }
+
+    @Test
+    public void shouldVerifyOnlyExportedPackages() {
+        final VerificationResult result = ModuleVerifier.forModulePath(module)
+                .exportedPackagesOnly(true)
+                .verify();
+
+        Assert.assertEquals(1, result.getVerifiedCount());
+        Assert.assertTrue(result.isSuccessful());
+    }
+
+    @Test
+    public void shouldApplyPolicyToModuleClasses() {
+        ModuleVerifier.forModulePath(module)
+                .withPolicy(VerificationPolicy.builder().suppressFinalClassCheck(true).build())
+                .verify()
+                .assertSuccessful();
+    }
+
+    @Test
+    public void shouldVerifyModulesOfRuntimeImage() {
+        final VerificationResult result = ModuleVerifier.forCurrentRuntime()
+                .includeModules("java.base")
+                .exportedPackagesOnly(true)
+                .verify();
+
+        Assert.assertTrue(result.getVerifiedCount() > 10);
+        Assert.assertFalse(result.getFailures().containsKey("java.util.Objects"));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void shouldFailForMissingModule() {
+        ModuleVerifier.forCurrentRuntime().includeModules("com.acme.missing").verify();
+    }
+
+    private File compileModule(final String name, final String... sources) throws IOException {
+        final File sourceRoot = temporaryFolder.newFolder("src");
+        final List<String> arguments = new ArrayList<String>();
+        final File output = temporaryFolder.newFolder(name);
+        arguments.add("-d");
+        arguments.add(output.getPath());
+        for (int index = 0; index < sources.length; index += 2) {
+            final File source = new File(sourceRoot, sources[index] + ".java");
+            source.getParentFile().mkdirs();
+            final Writer writer = new OutputStreamWriter(new FileOutputStream(source), "UTF-8");
+            try {
+                writer.write(sources[index + 1]);
+            } finally {
+                writer.close();
+            }
+            arguments.add(source.getPath());
+        }
+        final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        Assert.assertEquals(0, compiler.run(null, null, null, arguments.toArray(new String[arguments.size()])));
+        return output;
+    }
+}
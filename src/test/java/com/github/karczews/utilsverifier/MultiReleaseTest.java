@@ -0,0 +1,184 @@
+/**
+ * Copyright (c) 2017-present, UtilsVerifier Contributors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+package com.github.karczews.utilsverifier;
+
+import com.github.karczews.utilsverifier.subjects.ThrowingConstructor;
+import com.github.karczews.utilsverifier.subjects.WellFormed;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Test;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.Arrays;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Covers internals with a separate Java 9 version in the multi-release jar.
+ * Runs against whichever version is first on the class path.
+ */
+public class MultiReleaseTest {
+
+    private static final int JAVA_9_CLASS_FILE = 53;
+
+    /**
+     * @return true if Java 9 versions of the classes are expected on the class
+     * path, as set by the build or derived from the current runtime
+     */
+    static boolean isVersionedClassesExpected() {
+        final String runtime = String.valueOf(!System.getProperty("java.specification.version").startsWith("1."));
+        return Boolean.parseBoolean(System.getProperty("utilsverifier.versionedClasses", runtime));
+    }
+
+    @Test
+    public void shouldLoadJava9ClassesOnJava9() throws IOException {
+        Assume.assumeTrue(isVersionedClassesExpected());
+        for (final Class<?> type : Arrays.asList(MemberCache.class, ConstructorInvoker.class,
+                Executors2.class, ModuleScanner.class)) {
+            Assert.assertTrue(type.getName(), classFileVersion(type) >= JAVA_9_CLASS_FILE);
+        }
+    }
+
+    @Test
+    public void shouldCacheMemberSnapshot() {
+        Assert.assertSame(MemberSnapshot.of(WellFormed.class), MemberSnapshot.of(WellFormed.class));
+    }
+
+    @Test
+    public void shouldInvokePrivateConstructor() throws Exception {
+        ConstructorInvoker.newInstance(WellFormed.class);
+    }
+
+    @Test
+    public void shouldInvokeConstructorOnEveryCall() throws Exception {
+        for (int i = 0; i < 2; i++) {
+            try {
+                ConstructorInvoker.newInstance(ThrowingConstructor.class);
+                Assert.fail();
+            } catch (final InvocationTargetException e) {
+                Assert.assertTrue(e.getTargetException() instanceof IllegalStateException);
+            }
+        }
+    }
+
+    @Test
+    public void shouldReportMissingConstructorOnEveryCall() throws Exception {
+        for (int i = 0; i < 2; i++) {
+            try {
+                ConstructorInvoker.newInstance(WithoutDefaultConstructor.class);
+                Assert.fail();
+            } catch (final NoSuchMethodException expected) {
+            }
+        }
+    }
+
+    @Test
+    public void shouldWrapExceptionThrownByConstructor() throws Exception {
+        try {
+            ConstructorInvoker.newInstance(ThrowingConstructor.class);
+            Assert.fail();
+        } catch (final InvocationTargetException e) {
+            Assert.assertTrue(e.getTargetException() instanceof IllegalStateException);
+        }
+    }
+
+    @Test
+    public void shouldPropagateFailedClassInitialization() throws Exception {
+        try {
+            ConstructorInvoker.newInstance(FailingInitialization.class);
+            Assert.fail();
+        } catch (final ExceptionInInitializerError e) {
+            Assert.assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+    }
+
+    @Test
+    public void shouldWrapInitializerErrorThrownByConstructor() throws Exception {
+        try {
+            ConstructorInvoker.newInstance(ThrowingInitializerError.class);
+            Assert.fail();
+        } catch (final InvocationTargetException e) {
+            Assert.assertTrue(e.getTargetException() instanceof ExceptionInInitializerError);
+        }
+    }
+
+    @Test
+    public void shouldPropagateContextClassLoaderToWorkers() throws Exception {
+        final Thread thread = Thread.currentThread();
+        final ClassLoader original = thread.getContextClassLoader();
+        final ClassLoader loader = new URLClassLoader(new URL[0], original);
+        thread.setContextClassLoader(loader);
+        final ExecutorService executor = Executors2.newWorkerPool(2);
+        try {
+            Assert.assertSame(loader, executor.submit(new Callable<ClassLoader>() {
+                @Override
+                public ClassLoader call() {
+                    return Thread.currentThread().getContextClassLoader();
+                }
+            }).get());
+        } finally {
+            executor.shutdownNow();
+            thread.setContextClassLoader(original);
+        }
+    }
+
+    @Test
+    public void shouldUseWorkStealingPoolOnJava9() {
+        Assume.assumeTrue(isVersionedClassesExpected());
+        final ExecutorService executor = Executors2.newWorkerPool(2);
+        try {
+            Assert.assertTrue(executor instanceof ForkJoinPool);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static int classFileVersion(final Class<?> type) throws IOException {
+        final DataInputStream in = new DataInputStream(
+                type.getResourceAsStream(type.getSimpleName() + ".class"));
+        try {
+            in.readInt(); // magic
+            in.readUnsignedShort(); // minor version
+            return in.readUnsignedShort();
+        } finally {
+            in.close();
+        }
+    }
+
+    private static final class WithoutDefaultConstructor {
+        WithoutDefaultConstructor(final int value) {
+        }
+    }
+
+    private static final class FailingInitialization {
+        static {
+            if (Boolean.TRUE) {
+                throw new IllegalStateException();
+            }
+        }
+
+        private FailingInitialization() {
+        }
+    }
+
+    private static final class ThrowingInitializerError {
+        private ThrowingInitializerError() {
+            throw new ExceptionInInitializerError();
+        }
+    }
+}
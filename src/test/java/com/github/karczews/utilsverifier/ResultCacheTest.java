@@ -0,0 +1,221 @@
+/**
+ * Copyright (c) 2017-present, UtilsVerifier Contributors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+package com.github.karczews.utilsverifier;
+
+import com.github.karczews.utilsverifier.subjects.InstanceFields;
+import com.github.karczews.utilsverifier.subjects.WellFormed;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+public class ResultCacheTest {
+
+    private static final String BULK_PACKAGE = "com.github.karczews.utilsverifier.subjects.bulk";
+
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private File indexFile;
+    private ResultCache cache;
+
+    @Before
+    public void setUp() throws IOException {
+        indexFile = new File(temporaryFolder.getRoot(), "results.idx");
+        cache = ResultCache.open(indexFile);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        cache.close();
+    }
+
+    @Test
+    public void shouldPersistPasses() throws IOException {
+        final ByteBuffer classBytes = classBytes(WellFormed.class);
+        final VerificationPolicy policy = VerificationPolicy.defaultPolicy();
+
+        cache.recordPassed(classBytes, policy, false);
+        cache.close();
+        cache = ResultCache.open(indexFile);
+
+        Assert.assertEquals(1, cache.size());
+        Assert.assertTrue(cache.isPassed(classBytes, policy, false));
+        Assert.assertEquals(8 + 16, indexFile.length());
+    }
+
+    @Test
+    public void shouldNotCacheStaticInitializerBudget() throws IOException {
+        assertNotCached(VerificationPolicy.builder()
+                .withMaxStaticInitTime(1, TimeUnit.SECONDS)
+                .build());
+        assertNotCached(VerificationPolicy.builder()
+                .withMaxStaticInitAllocation(1024)
+                .build());
+    }
+
+    @Test
+    public void shouldNotCacheStaticRetainedHeap() throws IOException {
+        assertNotCached(VerificationPolicy.builder()
+                .withMaxStaticRetainedBytes(1024)
+                .build());
+    }
+
+    @Test
+    public void shouldNotCacheDeepImmutability() throws IOException {
+        assertNotCached(VerificationPolicy.builder()
+                .checkDeepImmutability(true)
+                .build());
+    }
+
+    @Test
+    public void shouldNotCacheInheritedMembers() throws IOException {
+        assertNotCached(VerificationPolicy.builder()
+                .checkInheritedMembers(true)
+                .build());
+    }
+
+    @Test
+    public void shouldNotStoreDuplicates() throws IOException {
+        final ByteBuffer classBytes = classBytes(WellFormed.class);
+
+        cache.recordPassed(classBytes, VerificationPolicy.defaultPolicy(), false);
+        cache.recordPassed(classBytes, VerificationPolicy.defaultPolicy(), false);
+        cache.flush();
+
+        Assert.assertEquals(1, cache.size());
+        Assert.assertEquals(8 + 16, indexFile.length());
+    }
+
+    @Test
+    public void shouldMissForDifferentPolicy() throws IOException {
+        final ByteBuffer classBytes = classBytes(WellFormed.class);
+
+        cache.recordPassed(classBytes, VerificationPolicy.defaultPolicy(), false);
+
+        Assert.assertFalse(cache.isPassed(classBytes,
+                VerificationPolicy.builder().suppressFinalClassCheck(true).build(), false));
+        Assert.assertFalse(cache.isPassed(classBytes,
+                VerificationPolicy.builder().allowMutableStaticField("field").build(), false));
+        Assert.assertFalse(cache.isPassed(classBytes, VerificationPolicy.defaultPolicy(), true));
+    }
+
+    @Test
+    public void shouldMissForDifferentClass() throws IOException {
+        cache.recordPassed(classBytes(WellFormed.class), VerificationPolicy.defaultPolicy(), false);
+
+        Assert.assertFalse(cache.isPassed(classBytes(InstanceFields.class), VerificationPolicy.defaultPolicy(), false));
+    }
+
+    @Test
+    public void shouldGrowBeyondInitialCapacity() {
+        final VerificationPolicy policy = VerificationPolicy.defaultPolicy();
+        for (int index = 0; index < 1000; index++) {
+            cache.recordPassed(ByteBuffer.wrap(new byte[]{(byte) index, (byte) (index >> 8)}), policy, false);
+        }
+
+        Assert.assertEquals(1000, cache.size());
+        for (int index = 0; index < 1000; index++) {
+            Assert.assertTrue(cache.isPassed(ByteBuffer.wrap(new byte[]{(byte) index, (byte) (index >> 8)}), policy, false));
+        }
+    }
+
+    @Test
+    public void shouldResetIndexWithInvalidHeader() throws IOException {
+        cache.close();
+        final RandomAccessFile file = new RandomAccessFile(indexFile, "rw");
+        file.write(new byte[]{1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16, 17, 18, 19, 20, 21, 22, 23, 24});
+        file.close();
+
+        cache = ResultCache.open(indexFile);
+        Assert.assertEquals(0, cache.size());
+        cache.recordPassed(classBytes(WellFormed.class), VerificationPolicy.defaultPolicy(), false);
+        cache.flush();
+
+        Assert.assertEquals(8 + 16, indexFile.length());
+    }
+
+    @Test
+    public void shouldIgnorePartialRecord() throws IOException {
+        cache.recordPassed(classBytes(WellFormed.class), VerificationPolicy.defaultPolicy(), false);
+        cache.close();
+        final RandomAccessFile file = new RandomAccessFile(indexFile, "rw");
+        file.seek(file.length());
+        file.write(new byte[]{1, 2, 3});
+        file.close();
+
+        cache = ResultCache.open(indexFile);
+        Assert.assertEquals(1, cache.size());
+        cache.recordPassed(classBytes(InstanceFields.class), VerificationPolicy.defaultPolicy(), false);
+        cache.close();
+
+        Assert.assertEquals(8 + 2 * 16, indexFile.length());
+        cache = ResultCache.open(indexFile);
+        Assert.assertEquals(2, cache.size());
+    }
+
+    @Test
+    public void shouldSkipCachedClassesInBulkVerification() {
+        final VerificationResult first = UtilsVerifier.forPackage(BULK_PACKAGE).withResultCache(cache).verify();
+        final VerificationResult second = UtilsVerifier.forPackage(BULK_PACKAGE).withResultCache(cache).verify();
+
+        Assert.assertEquals(0, first.getCachedCount());
+        Assert.assertEquals(2, second.getCachedCount());
+        Assert.assertEquals(first.getFailures().keySet(), second.getFailures().keySet());
+        Assert.assertTrue(indexFile.length() > 8);
+    }
+
+    @Test
+    public void shouldRecordSingleClassVerification() {
+        UtilsVerifier.forClass(WellFormed.class).withResultCache(cache).verify();
+
+        Assert.assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void shouldNotRecordFailures() throws IOException {
+        expectedException.expect(AssertionError.class);
+        try {
+            ClassFileVerifier.forBytes(ClassFileVerifierTest.readClassBytes(InstanceFields.class))
+                    .withResultCache(cache)
+                    .verify();
+        } finally {
+            Assert.assertEquals(0, cache.size());
+        }
+    }
+
+    private static ByteBuffer classBytes(final Class<?> type) throws IOException {
+        return ByteBuffer.wrap(ClassFileVerifierTest.readClassBytes(type));
+    }
+
+    private void assertNotCached(final VerificationPolicy policy) throws IOException {
+        final ByteBuffer classBytes = classBytes(WellFormed.class);
+
+        cache.recordPassed(classBytes, policy, false);
+
+        Assert.assertEquals(0, cache.size());
+        Assert.assertFalse(cache.isPassed(classBytes, policy, false));
+    }
+}
@@ -0,0 +1,159 @@
+/**
+ * Copyright (c) 2017-present, UtilsVerifier Contributors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+package com.github.karczews.utilsverifier;
+
+import com.github.karczews.utilsverifier.subjects.ImmutableStaticFields;
+import com.github.karczews.utilsverifier.subjects.StaticCache;
+import static org.hamcrest.core.StringContains.containsString;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class RetainedHeapTest {
+
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+
+    @Test
+    public void shouldMeasurePrimitiveArray() {
+        Assert.assertEquals(RetainedHeap.ARRAY_HEADER + 16, new RetainedHeap().measure(new int[4], Long.MAX_VALUE));
+        Assert.assertEquals(RetainedHeap.ARRAY_HEADER + 8, new RetainedHeap().measure(new byte[3], Long.MAX_VALUE));
+    }
+
+    @Test
+    public void shouldMeasureNothingForNull() {
+        Assert.assertEquals(0, new RetainedHeap().measure(null, Long.MAX_VALUE));
+    }
+
+    @Test
+    public void shouldCountSharedObjectsOnce() {
+        final long[] shared = new long[100];
+        final RetainedHeap heap = new RetainedHeap();
+
+        final long first = heap.measure(new Object[]{shared, shared}, Long.MAX_VALUE);
+        final long second = heap.measure(shared, Long.MAX_VALUE);
+
+        Assert.assertEquals(RetainedHeap.ARRAY_HEADER + 8 + RetainedHeap.ARRAY_HEADER + 800, first);
+        Assert.assertEquals(0, second);
+    }
+
+    @Test
+    public void shouldHandleCycles() {
+        final Node first = new Node();
+        first.next = new Node();
+        first.next.next = first;
+
+        Assert.assertEquals(2 * RetainedHeap.align(RetainedHeap.OBJECT_HEADER + RetainedHeap.REFERENCE),
+                new RetainedHeap().measure(first, Long.MAX_VALUE));
+    }
+
+    @Test
+    public void shouldWalkDeepGraphsIteratively() {
+        final Node head = new Node();
+        Node tail = head;
+        for (int index = 0; index < 1000000; index++) {
+            tail.next = new Node();
+            tail = tail.next;
+        }
+
+        Assert.assertEquals(1000001 * RetainedHeap.align(RetainedHeap.OBJECT_HEADER + RetainedHeap.REFERENCE),
+                new RetainedHeap().measure(head, Long.MAX_VALUE));
+    }
+
+    @Test
+    public void shouldStopAfterLimit() {
+        final List<long[]> arrays = new ArrayList<long[]>();
+        for (int index = 0; index < 1000; index++) {
+            arrays.add(new long[1000]);
+        }
+
+        final long measured = new RetainedHeap().measure(arrays, 10000);
+
+        Assert.assertTrue(measured > 10000);
+        Assert.assertTrue(measured < 100000);
+    }
+
+    @Test
+    public void shouldCountObjectsSkippedAfterLimitInLaterRoots() {
+        final long[] skipped = new long[100];
+        final RetainedHeap heap = new RetainedHeap();
+
+        heap.measure(new Object[]{new long[1000], skipped}, 1000);
+
+        Assert.assertEquals(RetainedHeap.ARRAY_HEADER + 800, heap.measure(skipped, Long.MAX_VALUE));
+    }
+
+    @Test
+    public void shouldEstimateStringValue() {
+        final long latin1 = RetainedHeap.COMPACT_STRINGS ? 8 : 16;
+
+        Assert.assertEquals(RetainedHeap.ARRAY_HEADER + latin1, RetainedHeap.stringValueSize("abcdefgh"));
+        Assert.assertEquals(RetainedHeap.ARRAY_HEADER + 16, RetainedHeap.stringValueSize("\u0105bcdefgh"));
+    }
+
+    @Test
+    public void shouldReachMapContent() {
+        final Map<String, long[]> map = new HashMap<String, long[]>();
+        map.put("key", new long[1000]);
+
+        Assert.assertTrue(new RetainedHeap().measure(map, Long.MAX_VALUE) > 8000);
+    }
+
+    @Test
+    public void shouldFailWhenStaticFieldExceedsBudget() {
+        expectedException.expect(AssertionError.class);
+        expectedException.expectMessage(containsString(StaticCache.class.getName() + " static field CACHE retains"));
+        expectedException.expectMessage(containsString("budget is 65536 bytes"));
+
+        UtilsVerifier.forClass(StaticCache.class)
+                .withMaxStaticFieldRetainedBytes(64 * 1024)
+                .verify();
+    }
+
+    @Test
+    public void shouldFailWhenStaticFieldsExceedClassBudget() {
+        expectedException.expect(AssertionError.class);
+        expectedException.expectMessage(containsString(StaticCache.class.getName() + " static fields retain"));
+
+        UtilsVerifier.forClass(StaticCache.class)
+                .withMaxStaticRetainedBytes(64 * 1024)
+                .verify();
+    }
+
+    @Test
+    public void shouldPassWithinBudget() {
+        UtilsVerifier.forClass(StaticCache.class)
+                .withMaxStaticRetainedBytes(16 * 1024 * 1024)
+                .verify();
+        UtilsVerifier.forClass(ImmutableStaticFields.class)
+                .withMaxStaticFieldRetainedBytes(0)
+                .verify();
+    }
+
+    @Test
+    public void shouldRejectNegativeBudget() {
+        expectedException.expect(IllegalArgumentException.class);
+
+        VerificationPolicy.builder().withMaxStaticRetainedBytes(-1);
+    }
+
+    private static final class Node {
+        Node next;
+    }
+}
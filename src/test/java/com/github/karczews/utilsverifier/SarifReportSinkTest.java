@@ -0,0 +1,84 @@
+/**
+ * Copyright (c) 2017-present, UtilsVerifier Contributors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+package com.github.karczews.utilsverifier;
+
+import com.github.karczews.utilsverifier.subjects.MultipleViolations;
+import com.github.karczews.utilsverifier.subjects.WellFormed;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+public class SarifReportSinkTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void shouldWriteResultForEveryViolation() throws IOException {
+        final File file = temporaryFolder.newFile("report.sarif");
+        final SarifReportSink sink = SarifReportSink.open(file);
+        sink.classVerified(VerificationPolicy.defaultPolicy().verifyAll(WellFormed.class), 0);
+        sink.classVerified(VerificationPolicy.defaultPolicy().verifyAll(MultipleViolations.class), 0);
+        sink.classFailed("com.acme.Outer$Inner", new IllegalStateException("broken \"quoted\"\n"), 0);
+        sink.close();
+
+        final String report = read(file);
+        Assert.assertTrue(report.startsWith("{\"version\":\"2.1.0\""));
+        Assert.assertTrue(report.endsWith("]}]}\n"));
+        Assert.assertEquals(7, count(report, "\"ruleId\""));
+        Assert.assertEquals(0, count(report, WellFormed.class.getSimpleName()));
+        Assert.assertTrue(report.contains("{\"ruleId\":\"FINAL_CLASS\",\"level\":\"error\""));
+        Assert.assertTrue(report.contains("\"fullyQualifiedName\":\"" + MultipleViolations.class.getName()
+                + ".value\",\"kind\":\"member\""));
+        Assert.assertTrue(report.contains("\"uri\":\"com/acme/Outer.java\""));
+        Assert.assertTrue(report.contains("broken \\\"quoted\\\"\\n"));
+        Assert.assertEquals(count(report, "{"), count(report, "}"));
+        Assert.assertEquals(count(report, "["), count(report, "]"));
+    }
+
+    @Test
+    public void shouldWriteEmptyResultsWhenNothingReported() throws IOException {
+        final File file = temporaryFolder.newFile("empty.sarif");
+        SarifReportSink.open(file).close();
+
+        Assert.assertTrue(read(file).endsWith("\"results\":[\n]}]}\n"));
+    }
+
+    private static int count(final String text, final String token) {
+        int count = 0;
+        for (int index = text.indexOf(token); index >= 0; index = text.indexOf(token, index + 1)) {
+            count++;
+        }
+        return count;
+    }
+
+    private static String read(final File file) throws IOException {
+        final InputStream input = new FileInputStream(file);
+        try {
+            final byte[] bytes = new byte[(int) file.length()];
+            int offset = 0;
+            while (offset < bytes.length) {
+                offset += input.read(bytes, offset, bytes.length - offset);
+            }
+            return new String(bytes, "UTF-8");
+        } finally {
+            input.close();
+        }
+    }
+}
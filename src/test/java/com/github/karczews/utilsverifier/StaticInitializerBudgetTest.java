@@ -0,0 +1,133 @@
+/**
+ * Copyright (c) 2017-present, UtilsVerifier Contributors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+package com.github.karczews.utilsverifier;
+
+import com.github.karczews.utilsverifier.subjects.staticinit.SlowStaticInitializer;
+import static org.hamcrest.core.StringContains.containsString;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+public class StaticInitializerBudgetTest {
+
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+
+    @Test
+    public void shouldNotBeEnabledByDefault() {
+        Assert.assertFalse(VerificationCheck.STATIC_INITIALIZER_BUDGET.isEnabledByDefault());
+        Assert.assertFalse(VerificationPolicy.defaultPolicy().getChecks()
+                .contains(VerificationCheck.STATIC_INITIALIZER_BUDGET));
+    }
+
+    @Test
+    public void shouldBeEnabledWithBudget() {
+        final VerificationPolicy policy = VerificationPolicy.builder()
+                .withMaxStaticInitTime(1, TimeUnit.SECONDS)
+                .build();
+
+        Assert.assertTrue(policy.getChecks().contains(VerificationCheck.STATIC_INITIALIZER_BUDGET));
+        Assert.assertFalse(Arrays.equals(VerificationPolicy.defaultPolicy().getFingerprint(),
+                policy.getFingerprint()));
+    }
+
+    @Test
+    public void shouldFailWhenStaticInitializerExceedsTimeBudget() {
+        expectedException.expect(AssertionError.class);
+        expectedException.expectMessage(containsString(SlowStaticInitializer.class.getName()
+                + " static initializer took"));
+        expectedException.expectMessage(containsString("budget is 1.000 ms"));
+
+        UtilsVerifier.forClass(isolated())
+                .withMaxStaticInitTime(1, TimeUnit.MILLISECONDS)
+                .verify();
+    }
+
+    @Test
+    public void shouldFailWhenStaticInitializerExceedsAllocationBudget() {
+        Assume.assumeTrue(ThreadAllocation.isSupported());
+        expectedException.expect(AssertionError.class);
+        expectedException.expectMessage(containsString("budget is 1024 bytes"));
+
+        UtilsVerifier.forClass(isolated())
+                .withMaxStaticInitAllocation(1024)
+                .verify();
+    }
+
+    @Test
+    public void shouldPassWithinBudget() {
+        UtilsVerifier.forClass(isolated())
+                .withMaxStaticInitTime(1, TimeUnit.MINUTES)
+                .verify();
+    }
+
+    @Test
+    public void shouldPassForInitializedClass() throws ClassNotFoundException {
+        final Class<?> initialized = isolated();
+        Class.forName(initialized.getName(), true, initialized.getClassLoader());
+
+        UtilsVerifier.forClass(initialized)
+                .withMaxStaticInitTime(10, TimeUnit.MILLISECONDS)
+                .verify();
+    }
+
+    @Test
+    public void shouldReportSlowestStaticInitializers() {
+        final VerificationStatistics statistics = new VerificationStatistics();
+
+        UtilsVerifier.forClass(isolated())
+                .withMaxStaticInitTime(1, TimeUnit.MINUTES)
+                .withListener(statistics)
+                .verify();
+
+        final Long nanos = statistics.getSlowestStaticInitializers().get(SlowStaticInitializer.class.getName());
+        Assert.assertNotNull(nanos);
+        Assert.assertTrue(nanos >= TimeUnit.MILLISECONDS.toNanos(50));
+        Assert.assertEquals(nanos.longValue(), statistics.getStaticInitNanos());
+        Assert.assertThat(statistics.toString(), containsString("slow static initializer: "
+                + SlowStaticInitializer.class.getName()));
+    }
+
+    @Test
+    public void shouldRejectNegativeTime() {
+        expectedException.expect(IllegalArgumentException.class);
+
+        VerificationPolicy.builder().withMaxStaticInitTime(-1, TimeUnit.MILLISECONDS);
+    }
+
+    @Test
+    public void shouldRejectNegativeAllocation() {
+        expectedException.expect(IllegalArgumentException.class);
+
+        VerificationPolicy.builder().withMaxStaticInitAllocation(-1);
+    }
+
+    /**
+     * @return not yet initialized copy of the slow subject defined by a fresh class loader
+     */
+    private Class<?> isolated() {
+        final String packageName = SlowStaticInitializer.class.getPackage().getName();
+        final IsolatingClassLoader loader = new IsolatingClassLoader(getClass().getClassLoader(), null,
+                packageName + '.', null);
+        try {
+            return Class.forName(SlowStaticInitializer.class.getName(), false, loader);
+        } catch (final ClassNotFoundException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
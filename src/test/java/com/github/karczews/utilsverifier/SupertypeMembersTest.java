@@ -0,0 +1,141 @@
+/**
+ * Copyright (c) 2017-present, UtilsVerifier Contributors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+package com.github.karczews.utilsverifier;
+
+import com.github.karczews.utilsverifier.subjects.inheritance.DefaultMethodUtil;
+import com.github.karczews.utilsverifier.subjects.inheritance.Describable;
+import com.github.karczews.utilsverifier.subjects.inheritance.InheritingUtil;
+import com.github.karczews.utilsverifier.subjects.inheritance.StatefulBase;
+import com.github.karczews.utilsverifier.subjects.inheritance.StatelessInheritingUtil;
+import static org.hamcrest.core.StringContains.containsString;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+public class SupertypeMembersTest {
+
+    private static final String BASE = StatefulBase.class.getName();
+
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+
+    @Test
+    public void shouldSummarizeSupertype() {
+        final SupertypeMembers members = SupertypeMembers.of(StatefulBase.class);
+
+        Assert.assertEquals(1, members.getInstanceFieldCount());
+        Assert.assertEquals(BASE + ".count", members.getInstanceField(0));
+        Assert.assertEquals(1, members.getInstanceMethodCount());
+        Assert.assertEquals(BASE + ".reset", members.getInstanceMethod(0));
+        Assert.assertEquals(1, members.getStaticFieldCount());
+        Assert.assertEquals(BASE + ".cache", members.getStaticField(0));
+        Assert.assertEquals("cache", members.getStaticFieldName(0));
+    }
+
+    @Test
+    public void shouldIncludeMembersOfAllSupertypes() {
+        final SupertypeMembers members = SupertypeMembers.of(InheritingUtil.class);
+
+        Assert.assertEquals(BASE + ".count", members.getInstanceField(0));
+        Assert.assertEquals("cache", members.getStaticFieldName(0));
+    }
+
+    @Test
+    public void shouldMemoizeSupertypes() {
+        Assert.assertSame(SupertypeMembers.of(StatefulBase.class), SupertypeMembers.of(StatefulBase.class));
+        Assert.assertSame(SupertypeMembers.of(null), SupertypeMembers.of(Object.class));
+        Assert.assertEquals(0, SupertypeMembers.of(Object.class).getInstanceMethodCount());
+    }
+
+    @Test
+    public void shouldReportInheritedMembers() {
+        final VerificationReport report = VerificationPolicy.builder()
+                .suppressFinalClassCheck(true)
+                .checkInheritedMembers(true)
+                .build()
+                .verifyAll(InheritingUtil.class);
+
+        Assert.assertEquals(1, report.getViolations().size());
+        final String message = report.getViolations().get(0).getMessage();
+        Assert.assertThat(message, containsString(InheritingUtil.class.getName()
+                + " inherits members of its supertypes:"));
+        Assert.assertThat(message, containsString("instance field " + BASE + ".count"));
+        Assert.assertThat(message, containsString("instance method " + BASE + ".reset"));
+        Assert.assertThat(message, containsString("mutable static field " + BASE + ".cache"));
+    }
+
+    @Test
+    public void shouldFailOnInheritedMembers() {
+        expectedException.expect(AssertionError.class);
+        expectedException.expectMessage(containsString("instance field " + BASE + ".count"));
+
+        UtilsVerifier.forClass(InheritingUtil.class)
+                .suppressFinalClassCheck(true)
+                .checkInheritedMembers(true)
+                .verify();
+    }
+
+    @Test
+    public void shouldReportDefaultMethods() {
+        expectedException.expect(AssertionError.class);
+        expectedException.expectMessage(containsString("instance method " + Describable.class.getName()
+                + ".describe"));
+
+        UtilsVerifier.forClass(DefaultMethodUtil.class)
+                .checkInheritedMembers(true)
+                .verify();
+    }
+
+    @Test
+    public void shouldFollowSuppressedChecks() {
+        final VerificationReport report = VerificationPolicy.builder()
+                .suppressFinalClassCheck(true)
+                .suppressInstanceMethodCheck(true)
+                .allowMutableStaticField("cache")
+                .checkInheritedMembers(true)
+                .build()
+                .verifyAll(InheritingUtil.class);
+
+        final String message = report.getViolations().get(0).getMessage();
+        Assert.assertThat(message, containsString("instance field " + BASE + ".count"));
+        Assert.assertFalse(message.contains("reset"));
+        Assert.assertFalse(message.contains("cache"));
+    }
+
+    @Test
+    public void shouldPassForStatelessSupertypes() {
+        UtilsVerifier.forClass(StatelessInheritingUtil.class)
+                .checkInheritedMembers(true)
+                .verify();
+    }
+
+    @Test
+    public void shouldSkipClassFiles() throws Exception {
+        ClassFileVerifier.forBytes(ClassBytes.read(InheritingUtil.class))
+                .withPolicy(VerificationPolicy.builder()
+                        .suppressFinalClassCheck(true)
+                        .checkInheritedMembers(true)
+                        .build())
+                .verify();
+    }
+
+    @Test
+    public void shouldNotBeEnabledByDefault() {
+        UtilsVerifier.forClass(InheritingUtil.class)
+                .suppressFinalClassCheck(true)
+                .verify();
+        Assert.assertFalse(VerificationPolicy.defaultPolicy().getChecks()
+                .contains(VerificationCheck.INHERITED_MEMBERS));
+    }
+}
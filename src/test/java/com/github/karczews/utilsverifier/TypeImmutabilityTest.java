@@ -0,0 +1,156 @@
+/**
+ * Copyright (c) 2017-present, UtilsVerifier Contributors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+package com.github.karczews.utilsverifier;
+
+import com.github.karczews.utilsverifier.subjects.immutability.DefensiveCopies;
+import com.github.karczews.utilsverifier.subjects.immutability.HiddenState;
+import com.github.karczews.utilsverifier.subjects.immutability.ImmutableState;
+import static org.hamcrest.core.StringContains.containsString;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class TypeImmutabilityTest {
+
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+
+    @Test
+    public void shouldRecognizeImmutableTypes() {
+        Assert.assertTrue(TypeImmutability.isImmutableType(int.class));
+        Assert.assertTrue(TypeImmutability.isImmutableType(String.class));
+        Assert.assertTrue(TypeImmutability.isImmutableType(ImmutableState.Point.class));
+        Assert.assertTrue(TypeImmutability.isImmutableType(VerificationCheck.class));
+    }
+
+    @Test
+    public void shouldRecognizeMutableTypes() {
+        Assert.assertFalse(TypeImmutability.isImmutableType(int[].class));
+        Assert.assertFalse(TypeImmutability.isImmutableType(List.class));
+        Assert.assertFalse(TypeImmutability.isImmutableType(ArrayList.class));
+        Assert.assertFalse(TypeImmutability.isImmutableType(Object.class));
+        Assert.assertFalse(TypeImmutability.isImmutableType(MutableCycle.class));
+    }
+
+    @Test
+    public void shouldHandleCyclicTypes() {
+        Assert.assertTrue(TypeImmutability.isImmutableType(ImmutableState.Node.class));
+        Assert.assertTrue(TypeImmutability.isImmutableType(ImmutableCycle.class));
+        Assert.assertTrue(TypeImmutability.isImmutableType(ImmutableCycle.Other.class));
+    }
+
+    @Test
+    public void shouldRecognizeDescriptors() {
+        Assert.assertTrue(TypeImmutability.isImmutableDescriptor("J"));
+        Assert.assertTrue(TypeImmutability.isImmutableDescriptor("Ljava/lang/String;"));
+        Assert.assertFalse(TypeImmutability.isImmutableDescriptor("[I"));
+        Assert.assertFalse(TypeImmutability.isImmutableDescriptor("Ljava/util/List;"));
+    }
+
+    @Test
+    public void shouldAnalyseValues() {
+        Assert.assertTrue(TypeImmutability.isImmutableValue(null));
+        Assert.assertTrue(TypeImmutability.isImmutableValue(new String[0]));
+        Assert.assertTrue(TypeImmutability.isImmutableValue(Collections.unmodifiableList(Arrays.asList("a", "b"))));
+        Assert.assertTrue(TypeImmutability.isImmutableValue(Collections.emptyMap()));
+        Assert.assertFalse(TypeImmutability.isImmutableValue(new String[1]));
+        Assert.assertFalse(TypeImmutability.isImmutableValue(new ArrayList<String>()));
+        Assert.assertFalse(TypeImmutability.isImmutableValue(Collections.singletonList(new int[1])));
+    }
+
+    @Test
+    public void shouldReportHiddenMutableState() {
+        final VerificationReport report = VerificationPolicy.builder()
+                .suppressMutableStaticFieldsCheck(true)
+                .checkDeepImmutability(true)
+                .build()
+                .verifyAll(HiddenState.class);
+
+        Assert.assertEquals(1, report.getViolations().size());
+        final String message = report.getViolations().get(0).getMessage();
+        Assert.assertThat(message, containsString(HiddenState.class.getName() + " has mutable static state:"));
+        Assert.assertThat(message, containsString("static final field TABLE of mutable type [I"));
+        Assert.assertThat(message, containsString("static final field NAMES of mutable type java.util.List"));
+        Assert.assertThat(message, containsString("method register calls add on static field NAMES"));
+        Assert.assertThat(message, containsString("method count calls put on static field COUNTS"));
+        Assert.assertThat(message, containsString("method call writes static field "
+                + HiddenState.class.getName() + ".calls"));
+        Assert.assertFalse(message.contains("calls size"));
+    }
+
+    @Test
+    public void shouldReportHiddenMutableStateFromClassFile() throws Exception {
+        expectedException.expect(AssertionError.class);
+        expectedException.expectMessage(containsString("method register calls add on static field NAMES"));
+
+        ClassFileVerifier.forBytes(ClassBytes.read(HiddenState.class))
+                .suppressMutableStaticFieldsCheck(true)
+                .checkDeepImmutability(true)
+                .verify();
+    }
+
+    @Test
+    public void shouldPassForImmutableState() {
+        UtilsVerifier.forClass(ImmutableState.class)
+                .checkDeepImmutability(true)
+                .verify();
+    }
+
+    @Test
+    public void shouldPassForDefensiveCopiesOfStaticCollections() {
+        UtilsVerifier.forClass(DefensiveCopies.class)
+                .checkDeepImmutability(true)
+                .verify();
+    }
+
+    @Test
+    public void shouldSkipAllowedFields() {
+        final VerificationReport report = VerificationPolicy.builder()
+                .suppressMutableStaticFieldsCheck(true)
+                .allowMutableStaticField("calls")
+                .allowMutableStaticField("TABLE")
+                .checkDeepImmutability(true)
+                .build()
+                .verifyAll(HiddenState.class);
+
+        final String message = report.getViolations().get(0).getMessage();
+        Assert.assertFalse(message.contains("TABLE"));
+        Assert.assertFalse(message.contains(".calls"));
+    }
+
+    @Test
+    public void shouldNotBeEnabledByDefault() {
+        Assert.assertFalse(VerificationPolicy.defaultPolicy().getChecks()
+                .contains(VerificationCheck.DEEP_IMMUTABILITY));
+    }
+
+    private static final class MutableCycle {
+        final MutableCycle next = null;
+        int value;
+    }
+
+    private static final class ImmutableCycle {
+        final Other other = null;
+
+        private static final class Other {
+            final ImmutableCycle back = null;
+            final long value = 0;
+        }
+    }
+}
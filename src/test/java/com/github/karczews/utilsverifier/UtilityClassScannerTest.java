@@ -0,0 +1,149 @@
+/**
+ * Copyright (c) 2017-present, UtilsVerifier Contributors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+package com.github.karczews.utilsverifier;
+
+import com.github.karczews.utilsverifier.subjects.discovery.AnnotatedHelper;
+import com.github.karczews.utilsverifier.subjects.discovery.Helper;
+import com.github.karczews.utilsverifier.subjects.discovery.InstanceHelper;
+import com.github.karczews.utilsverifier.subjects.discovery.Marker;
+import com.github.karczews.utilsverifier.subjects.discovery.Mode;
+import com.github.karczews.utilsverifier.subjects.discovery.StaticHelper;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.regex.Pattern;
+
+public class UtilityClassScannerTest {
+
+    private static final List<Class<?>> SUBJECTS = Arrays.<Class<?>>asList(StaticHelper.class,
+            InstanceHelper.class, AnnotatedHelper.class, Helper.class, Marker.class, Mode.class);
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(2);
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void shouldDiscoverClassesWithOnlyStaticMembers() throws Exception {
+        final UtilityClassScanner scanner = new UtilityClassScanner(executor, 2, null,
+                Collections.<String>emptyList());
+
+        Assert.assertEquals(names(StaticHelper.class), scan(scanner, directoryRoot()));
+    }
+
+    @Test
+    public void shouldDiscoverAnnotatedClasses() throws Exception {
+        final UtilityClassScanner scanner = new UtilityClassScanner(executor, 2, null,
+                Collections.singletonList(Helper.class.getName()));
+
+        Assert.assertEquals(names(StaticHelper.class, AnnotatedHelper.class), scan(scanner, directoryRoot()));
+    }
+
+    @Test
+    public void shouldDiscoverClassesMatchingName() throws Exception {
+        final UtilityClassScanner scanner = new UtilityClassScanner(executor, 2, Pattern.compile(".*\\.Instance\\w+"),
+                Collections.<String>emptyList());
+
+        Assert.assertEquals(names(StaticHelper.class, InstanceHelper.class), scan(scanner, directoryRoot()));
+    }
+
+    @Test
+    public void shouldScanJar() throws Exception {
+        final UtilityClassScanner scanner = new UtilityClassScanner(executor, 1, null,
+                Collections.singletonList(Helper.class.getName()));
+
+        Assert.assertEquals(names(StaticHelper.class, AnnotatedHelper.class), scan(scanner, jarRoot(temporaryFolder)));
+    }
+
+    @Test
+    public void shouldReportInvalidClassFile() throws Exception {
+        final File root = temporaryFolder.newFolder("invalid");
+        BulkVerifierTest.copy(new byte[]{1, 2, 3, 4}, new File(root, "Invalid.class"));
+        final UtilityClassScanner scanner = new UtilityClassScanner(executor, 2, null,
+                Collections.<String>emptyList());
+
+        try {
+            scan(scanner, root);
+            Assert.fail("invalid class file accepted");
+        } catch (final IllegalArgumentException e) {
+            Assert.assertEquals("not a class file", e.getMessage());
+        }
+    }
+
+    private File directoryRoot() throws IOException {
+        final File root = temporaryFolder.newFolder("classes");
+        for (final Class<?> type : SUBJECTS) {
+            BulkVerifierTest.copyClassFile(type, root);
+        }
+        return root;
+    }
+
+    static File jarRoot(final TemporaryFolder temporaryFolder) throws IOException {
+        final File jar = temporaryFolder.newFile("classes.jar");
+        final JarOutputStream output = new JarOutputStream(new FileOutputStream(jar));
+        try {
+            for (final Class<?> type : SUBJECTS) {
+                final byte[] bytes = ClassFileVerifierTest.readClassBytes(type);
+                final String path = type.getName().replace('.', '/') + ".class";
+                output.putNextEntry(new JarEntry(path));
+                output.write(bytes);
+                // versioned copies are skipped by the scanner
+                output.putNextEntry(new JarEntry("META-INF/versions/9/" + path));
+                output.write(bytes);
+            }
+        } finally {
+            output.close();
+        }
+        return jar;
+    }
+
+    private static Set<String> scan(final UtilityClassScanner scanner, final File root) throws Exception {
+        final Set<String> names = Collections.synchronizedSet(new HashSet<String>());
+        scanner.scan(root, new UtilityClassScanner.Visitor() {
+            @Override
+            public void visit(final String className, final ByteBuffer classBytes) {
+                names.add(className);
+            }
+        });
+        return names;
+    }
+
+    private static Set<String> names(final Class<?>... types) {
+        final Set<String> names = new HashSet<String>();
+        for (final Class<?> type : types) {
+            names.add(type.getName());
+        }
+        return names;
+    }
+}
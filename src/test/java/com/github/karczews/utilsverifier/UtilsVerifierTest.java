@@ -31,6 +31,8 @@ import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
 
+import java.util.regex.Pattern;
+
 public class UtilsVerifierTest {
 
     @Rule
@@ -59,6 +61,22 @@ public class UtilsVerifierTest {
                 .verify();
     }
 
+    @Test
+    public void shouldPassOnAllowedMutableStaticFields() {
+        UtilsVerifier.forClass(MutableStaticFields.class)
+                .allowMutableStaticField("staticInt")
+                .verify();
+        UtilsVerifier.forClass(MutableStaticFields.class)
+                .allowMutableStaticFieldPrefix("static")
+                .verify();
+        UtilsVerifier.forClass(MutableStaticFields.class)
+                .allowMutableStaticFieldGlob("*Int")
+                .verify();
+        UtilsVerifier.forClass(MutableStaticFields.class)
+                .allowMutableStaticFieldPattern(Pattern.compile("static[A-Z]\\w+"))
+                .verify();
+    }
+
     @Test
     public void shouldFailOnNonFinalClassVerification() {
         expectedException.expect(AssertionError.class);
@@ -0,0 +1,126 @@
+/**
+ * Copyright (c) 2017-present, UtilsVerifier Contributors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+package com.github.karczews.utilsverifier;
+
+import com.github.karczews.utilsverifier.subjects.InstanceFields;
+import com.github.karczews.utilsverifier.subjects.WellFormed;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class VerificationListenerTest {
+
+    @Test
+    public void shouldReportEventsInOrder() {
+        final RecordingListener listener = new RecordingListener();
+
+        UtilsVerifier.forClass(WellFormed.class)
+                .suppressFinalClassCheck(true)
+                .suppressInstanceFieldCheck(true)
+                .withListener(listener)
+                .verify();
+
+        final String name = WellFormed.class.getName();
+        Assert.assertEquals(Arrays.asList(
+                "classStarted " + name,
+                "membersRead " + name,
+                "checkSkipped FINAL_CLASS",
+                "checkSkipped INSTANCE_FIELDS",
+                "checkStarted ONLY_ONE_CONSTRUCTOR",
+                "checkFinished ONLY_ONE_CONSTRUCTOR",
+                "checkStarted PRIVATE_CONSTRUCTOR",
+                "constructorInvoked " + name,
+                "checkFinished PRIVATE_CONSTRUCTOR",
+                "checkStarted INSTANCE_METHODS",
+                "checkFinished INSTANCE_METHODS",
+                "checkStarted MUTABLE_STATIC_FIELDS",
+                "checkFinished MUTABLE_STATIC_FIELDS",
+                "classFinished " + name + " true"), listener.events);
+    }
+
+    @Test
+    public void shouldReportViolation() {
+        final RecordingListener listener = new RecordingListener();
+
+        try {
+            VerificationPolicy.defaultPolicy().verify(InstanceFields.class, listener);
+            Assert.fail("violation not thrown");
+        } catch (final AssertionError expected) {
+            // expected
+        }
+
+        final List<String> events = listener.events;
+        Assert.assertEquals("violationFound INSTANCE_FIELDS", events.get(events.size() - 3));
+        Assert.assertEquals("checkFinished INSTANCE_FIELDS", events.get(events.size() - 2));
+        Assert.assertEquals("classFinished " + InstanceFields.class.getName() + " false", events.get(events.size() - 1));
+    }
+
+    @Test
+    public void shouldNotInvokeConstructorOfClassFile() throws Exception {
+        final RecordingListener listener = new RecordingListener();
+
+        ClassFileVerifier.forBytes(ClassFileVerifierTest.readClassBytes(WellFormed.class))
+                .withListener(listener)
+                .verify();
+
+        Assert.assertTrue(listener.events.contains("checkFinished PRIVATE_CONSTRUCTOR"));
+        Assert.assertFalse(listener.events.contains("constructorInvoked " + WellFormed.class.getName()));
+    }
+
+    private static final class RecordingListener extends VerificationListener {
+        private final List<String> events = new ArrayList<String>();
+
+        @Override
+        public void classStarted(final String className) {
+            events.add("classStarted " + className);
+        }
+
+        @Override
+        public void classFinished(final String className, final long durationNanos, final boolean passed) {
+            events.add("classFinished " + className + ' ' + passed);
+        }
+
+        @Override
+        public void membersRead(final String className, final long durationNanos) {
+            events.add("membersRead " + className);
+        }
+
+        @Override
+        public void checkStarted(final String className, final VerificationCheck check) {
+            events.add("checkStarted " + check);
+        }
+
+        @Override
+        public void checkFinished(final String className, final VerificationCheck check, final long durationNanos) {
+            events.add("checkFinished " + check);
+        }
+
+        @Override
+        public void checkSkipped(final String className, final VerificationCheck check) {
+            events.add("checkSkipped " + check);
+        }
+
+        @Override
+        public void violationFound(final String className, final VerificationCheck check, final Throwable violation) {
+            events.add("violationFound " + check);
+        }
+
+        @Override
+        public void constructorInvoked(final String className, final long durationNanos) {
+            events.add("constructorInvoked " + className);
+        }
+    }
+}
@@ -0,0 +1,224 @@
+/**
+ * Copyright (c) 2017-present, UtilsVerifier Contributors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+package com.github.karczews.utilsverifier;
+
+import com.github.karczews.utilsverifier.subjects.InstanceFields;
+import com.github.karczews.utilsverifier.subjects.InstrumentedStaticFields;
+import com.github.karczews.utilsverifier.subjects.MutableStaticFields;
+import com.github.karczews.utilsverifier.subjects.NonFinalClass;
+import com.github.karczews.utilsverifier.subjects.ThrowingConstructor;
+import com.github.karczews.utilsverifier.subjects.WellFormed;
+import static org.hamcrest.core.StringContains.containsString;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.Pattern;
+
+public class VerificationPolicyTest {
+
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+
+    @Test
+    public void shouldEnableAllChecksByDefault() {
+        final List<VerificationCheck> checks = new ArrayList<VerificationCheck>();
+        for (final VerificationCheck check : VerificationCheck.values()) {
+            if (check.isEnabledByDefault()) {
+                checks.add(check);
+            }
+        }
+        Assert.assertEquals(checks, VerificationPolicy.defaultPolicy().getChecks());
+    }
+
+    @Test
+    public void shouldSkipSuppressedChecks() {
+        final VerificationPolicy policy = VerificationPolicy.builder()
+                .suppressFinalClassCheck(true)
+                .suppressInstanceFieldCheck(true)
+                .build();
+
+        Assert.assertEquals(Arrays.asList(
+                VerificationCheck.ONLY_ONE_CONSTRUCTOR,
+                VerificationCheck.PRIVATE_CONSTRUCTOR,
+                VerificationCheck.INSTANCE_METHODS,
+                VerificationCheck.MUTABLE_STATIC_FIELDS), policy.getChecks());
+    }
+
+    @Test
+    public void shouldAlwaysVerifyConstructor() {
+        final VerificationPolicy policy = VerificationPolicy.builder()
+                .suppressPrivateConstructorCheck(true)
+                .build();
+
+        Assert.assertTrue(policy.getChecks().contains(VerificationCheck.PRIVATE_CONSTRUCTOR));
+    }
+
+    @Test
+    public void shouldPassForWellFormedUtil() {
+        VerificationPolicy.defaultPolicy().verify(WellFormed.class);
+    }
+
+    @Test
+    public void shouldFailOnViolation() {
+        expectedException.expect(AssertionError.class);
+        expectedException.expectMessage(containsString("instanceInt"));
+
+        VerificationPolicy.defaultPolicy().verify(InstanceFields.class);
+    }
+
+    @Test
+    public void shouldNotBeAffectedByBuilderChangesAfterBuild() {
+        final VerificationPolicy.Builder builder = VerificationPolicy.builder();
+        final VerificationPolicy policy = builder.build();
+
+        builder.suppressMutableStaticFieldsCheck(true);
+
+        Assert.assertTrue(policy.getChecks().contains(VerificationCheck.MUTABLE_STATIC_FIELDS));
+    }
+
+    @Test
+    public void shouldCopySettingsToBuilder() {
+        final VerificationPolicy policy = VerificationPolicy.builder()
+                .withConstructorThrowing(IllegalStateException.class)
+                .suppressOnlyOneConstructorCheck(true)
+                .build();
+
+        final VerificationPolicy copy = policy.toBuilder().build();
+
+        Assert.assertEquals(policy.getChecks(), copy.getChecks());
+        copy.verify(ThrowingConstructor.class);
+    }
+
+    @Test
+    public void shouldAllowJacocoDataFieldByDefault() {
+        expectedException.expect(AssertionError.class);
+        expectedException.expectMessage(containsString("$$delegatedProperties"));
+
+        VerificationPolicy.defaultPolicy().verify(InstrumentedStaticFields.class);
+    }
+
+    @Test
+    public void shouldAllowConfiguredMutableStaticFields() {
+        VerificationPolicy.builder()
+                .allowMutableStaticField("$$delegatedProperties")
+                .allowMutableStaticFieldPrefix("ajc$")
+                .build()
+                .verify(InstrumentedStaticFields.class);
+
+        VerificationPolicy.builder()
+                .allowMutableStaticFieldGlob("*$*")
+                .build()
+                .verify(InstrumentedStaticFields.class);
+
+        VerificationPolicy.builder()
+                .allowMutableStaticFieldPattern(Pattern.compile(".*\\$.*"))
+                .build()
+                .verify(InstrumentedStaticFields.class);
+    }
+
+    @Test
+    public void shouldCopyAllowlistToBuilder() {
+        final VerificationPolicy policy = VerificationPolicy.builder()
+                .allowMutableStaticFieldGlob("*$*")
+                .build();
+
+        policy.toBuilder().build().verify(InstrumentedStaticFields.class);
+    }
+
+    @Test
+    public void shouldVerifyConcurrently() throws Exception {
+        final VerificationPolicy policy = VerificationPolicy.builder()
+                .suppressMutableStaticFieldsCheck(true)
+                .build();
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final List<Future<Object>> results = new ArrayList<Future<Object>>();
+            for (int index = 0; index < 32; index++) {
+                final Class<?> type = index % 2 == 0 ? WellFormed.class : MutableStaticFields.class;
+                results.add(executor.submit(new Callable<Object>() {
+                    @Override
+                    public Object call() {
+                        policy.verify(type);
+                        return type;
+                    }
+                }));
+            }
+            for (final Future<Object> result : results) {
+                Assert.assertNotNull(result.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void shouldRecreatePolicyFromWrittenSettings() throws Exception {
+        final VerificationPolicy policy = VerificationPolicy.builder()
+                .withConstructorThrowing(IllegalStateException.class)
+                .suppressFinalClassCheck(true)
+                .allowMutableStaticFieldPattern(Pattern.compile("cache.*", Pattern.CASE_INSENSITIVE))
+                .withMaxMethodBytecodeSize(VerificationPolicy.MAX_INLINE_SIZE)
+                .checkDeepImmutability(true)
+                .checkInheritedMembers(true)
+                .build();
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        policy.writeTo(new DataOutputStream(bytes));
+
+        final VerificationPolicy read = VerificationPolicy.readFrom(
+                new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())), getClass().getClassLoader());
+
+        Assert.assertArrayEquals(policy.getFingerprint(), read.getFingerprint());
+        Assert.assertEquals(policy.getChecks(), read.getChecks());
+    }
+
+    @Test
+    public void shouldCollectViolationsWithoutThrowing() {
+        final List<ViolationRecord> violations = new ArrayList<ViolationRecord>();
+
+        Assert.assertFalse(VerificationPolicy.defaultPolicy().collectViolations(MutableStaticFields.class, violations));
+        Assert.assertTrue(VerificationPolicy.defaultPolicy().collectViolations(WellFormed.class, violations));
+
+        Assert.assertEquals(1, violations.size());
+        final ViolationRecord violation = violations.get(0);
+        Assert.assertEquals(VerificationCheck.MUTABLE_STATIC_FIELDS, violation.getCheck());
+        Assert.assertEquals(MutableStaticFields.class.getDeclaredFields()[violation.getMemberIndex()].getName(),
+                violation.getMemberName());
+        Assert.assertEquals(violation.getMessage(), violation.toViolation().getMessage());
+    }
+
+    @Test
+    public void shouldRenderClassViolationsOnRequest() {
+        final List<ViolationRecord> violations = new ArrayList<ViolationRecord>();
+
+        VerificationPolicy.defaultPolicy().collectViolations(NonFinalClass.class, violations);
+
+        Assert.assertEquals(1, violations.size());
+        final ViolationRecord violation = violations.get(0);
+        Assert.assertEquals(ViolationRecord.Target.CLASS, violation.getTarget());
+        Assert.assertEquals(-1, violation.getMemberIndex());
+        Assert.assertEquals(NonFinalClass.class.getName() + " is not final", violation.getMessage());
+    }
+}
@@ -0,0 +1,101 @@
+/**
+ * Copyright (c) 2017-present, UtilsVerifier Contributors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+package com.github.karczews.utilsverifier;
+
+import com.github.karczews.utilsverifier.subjects.MultipleViolations;
+import com.github.karczews.utilsverifier.subjects.WellFormed;
+import static org.hamcrest.core.AllOf.allOf;
+import static org.hamcrest.core.StringContains.containsString;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class VerificationReportTest {
+
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+
+    @Test
+    public void shouldReportAllViolations() {
+        final VerificationReport report = UtilsVerifier.forClass(MultipleViolations.class).verifyAll();
+
+        Assert.assertFalse(report.isSuccessful());
+        Assert.assertEquals(MultipleViolations.class.getName(), report.getClassName());
+        Assert.assertEquals(Arrays.asList(
+                VerificationCheck.FINAL_CLASS,
+                VerificationCheck.ONLY_ONE_CONSTRUCTOR,
+                VerificationCheck.PRIVATE_CONSTRUCTOR,
+                VerificationCheck.MUTABLE_STATIC_FIELDS,
+                VerificationCheck.INSTANCE_FIELDS,
+                VerificationCheck.INSTANCE_METHODS), checks(report));
+        final VerificationReport.Violation field = report.getViolations().get(4);
+        Assert.assertEquals("value", field.getMemberName());
+        Assert.assertEquals(MultipleViolations.class.getName() + " contains instance field value", field.getMessage());
+        Assert.assertNull(report.getViolations().get(0).getMemberName());
+    }
+
+    @Test
+    public void shouldSkipSuppressedChecks() {
+        final VerificationReport report = UtilsVerifier.forClass(MultipleViolations.class)
+                .suppressFinalClassCheck(true)
+                .suppressOnlyOneConstructorCheck(true)
+                .suppressPrivateConstructorCheck(true)
+                .suppressInstanceFieldCheck(true)
+                .suppressMutableStaticFieldsCheck(true)
+                .verifyAll();
+
+        Assert.assertEquals(Arrays.asList(VerificationCheck.INSTANCE_METHODS), checks(report));
+    }
+
+    @Test
+    public void shouldReportNoViolationsForWellFormedClass() throws IOException {
+        Assert.assertTrue(UtilsVerifier.forClass(WellFormed.class).verifyAll().isSuccessful());
+        Assert.assertTrue(ClassFileVerifier.forBytes(ClassFileVerifierTest.readClassBytes(WellFormed.class))
+                .verifyAll()
+                .isSuccessful());
+    }
+
+    @Test
+    public void shouldMatchClassFileReport() throws IOException {
+        final VerificationReport report = ClassFileVerifier
+                .forBytes(ClassFileVerifierTest.readClassBytes(MultipleViolations.class))
+                .verifyAll();
+
+        Assert.assertEquals(checks(UtilsVerifier.forClass(MultipleViolations.class).verifyAll()), checks(report));
+    }
+
+    @Test
+    public void shouldFailAssertionListingAllViolations() {
+        expectedException.expect(AssertionError.class);
+        expectedException.expectMessage(allOf(
+                containsString("has 6 violations"),
+                containsString("is not final"),
+                containsString("contains instance method getValue")));
+
+        UtilsVerifier.forClass(MultipleViolations.class).verifyAll().assertSuccessful();
+    }
+
+    private static List<VerificationCheck> checks(final VerificationReport report) {
+        final List<VerificationCheck> checks = new ArrayList<VerificationCheck>();
+        for (final VerificationReport.Violation violation : report.getViolations()) {
+            checks.add(violation.getCheck());
+        }
+        return checks;
+    }
+}
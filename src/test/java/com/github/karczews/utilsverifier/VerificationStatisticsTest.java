@@ -0,0 +1,102 @@
+/**
+ * Copyright (c) 2017-present, UtilsVerifier Contributors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+package com.github.karczews.utilsverifier;
+
+import com.github.karczews.utilsverifier.subjects.bulk.BrokenUtil;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+
+public class VerificationStatisticsTest {
+
+    @Test
+    public void shouldAggregateBulkVerification() {
+        final VerificationStatistics statistics = new VerificationStatistics();
+
+        UtilsVerifier.forPackage("com.github.karczews.utilsverifier.subjects.bulk")
+                .suppressFinalClassCheck(true)
+                .withListener(statistics)
+                .withThreads(2)
+                .verify();
+
+        Assert.assertEquals(3, statistics.getClassCount());
+        Assert.assertEquals(1, statistics.getFailedCount());
+        Assert.assertEquals(3, statistics.getSkippedCount(VerificationCheck.FINAL_CLASS));
+        Assert.assertEquals(0, statistics.getCheckCount(VerificationCheck.FINAL_CLASS));
+        Assert.assertEquals(3, statistics.getCheckCount(VerificationCheck.INSTANCE_FIELDS));
+        Assert.assertEquals(1, statistics.getViolationCount(VerificationCheck.INSTANCE_FIELDS));
+        // verification of the broken class stops at the first violation
+        Assert.assertEquals(2, statistics.getCheckCount(VerificationCheck.MUTABLE_STATIC_FIELDS));
+        Assert.assertTrue(statistics.getClassesPerSecond() > 0);
+        Assert.assertTrue(statistics.getConstructorNanos() > 0);
+        Assert.assertTrue(statistics.getReflectionNanos() > 0);
+    }
+
+    @Test
+    public void shouldBuildHistogram() {
+        final VerificationStatistics statistics = new VerificationStatistics();
+
+        statistics.checkFinished("A", VerificationCheck.FINAL_CLASS, 0);
+        statistics.checkFinished("A", VerificationCheck.FINAL_CLASS, 1);
+        statistics.checkFinished("A", VerificationCheck.FINAL_CLASS, 1000);
+        statistics.checkFinished("A", VerificationCheck.FINAL_CLASS, 1023);
+        statistics.checkFinished("A", VerificationCheck.FINAL_CLASS, 1024);
+
+        final long[] expected = new long[VerificationStatistics.HISTOGRAM_BUCKETS];
+        expected[0] = 2;
+        expected[9] = 2;
+        expected[10] = 1;
+        Assert.assertArrayEquals(expected, statistics.getCheckHistogram(VerificationCheck.FINAL_CLASS));
+        Assert.assertEquals(3048, statistics.getCheckNanos(VerificationCheck.FINAL_CLASS));
+        Assert.assertEquals(5, statistics.getCheckCount(VerificationCheck.FINAL_CLASS));
+    }
+
+    @Test
+    public void shouldKeepSlowestClasses() {
+        final VerificationStatistics statistics = new VerificationStatistics(2);
+
+        statistics.classFinished("fast", 10, true);
+        statistics.classFinished("slowest", 300, true);
+        statistics.classFinished("medium", 100, false);
+        statistics.classFinished(BrokenUtil.class.getName(), 200, false);
+
+        final Map<String, Long> slowest = statistics.getSlowestClasses();
+        Assert.assertEquals(Arrays.asList("slowest", BrokenUtil.class.getName()),
+                Arrays.asList(slowest.keySet().toArray()));
+        Assert.assertEquals(Long.valueOf(300), slowest.get("slowest"));
+        Assert.assertEquals(2, statistics.getFailedCount());
+    }
+
+    @Test
+    public void shouldFormatReportIndependentlyOfLocale() {
+        final Locale original = Locale.getDefault();
+        Locale.setDefault(Locale.GERMANY);
+        try {
+            final VerificationStatistics statistics = new VerificationStatistics();
+            statistics.classStarted("A");
+            statistics.classFinished("A", 10, true);
+
+            Assert.assertTrue(statistics.toString(), statistics.toString().matches("(?s).*classes/s: \\d+\\.\\d.*"));
+        } finally {
+            Locale.setDefault(original);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectNegativeSlowestClasses() {
+        new VerificationStatistics(-1);
+    }
+}
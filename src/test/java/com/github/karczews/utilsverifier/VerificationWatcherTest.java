@@ -0,0 +1,148 @@
+/**
+ * Copyright (c) 2017-present, UtilsVerifier Contributors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+package com.github.karczews.utilsverifier;
+
+import com.github.karczews.utilsverifier.subjects.InstanceFields;
+import com.github.karczews.utilsverifier.subjects.WellFormed;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+public class VerificationWatcherTest {
+
+    private static final long DEBOUNCE = TimeUnit.MILLISECONDS.toNanos(100);
+
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private final List<String> verified = new ArrayList<String>();
+    private File root;
+    private VerificationWatcher watcher;
+
+    @Before
+    public void setUp() throws IOException {
+        root = temporaryFolder.newFolder("classes");
+        BulkVerifierTest.copyClassFile(WellFormed.class, root);
+        BulkVerifierTest.copyClassFile(InstanceFields.class, root);
+        watcher = VerificationWatcher.forDirectories(root)
+                .includeClassesMatching(".*\\.subjects\\.(WellFormed|InstanceFields)")
+                .withDebounce(100, TimeUnit.MILLISECONDS)
+                .withReportSink(new ReportSink() {
+                    @Override
+                    public void classVerified(final VerificationReport report, final long durationNanos) {
+                        verified.add(report.getClassName());
+                    }
+
+                    @Override
+                    public void classFailed(final String className, final Throwable failure,
+                                            final long durationNanos) {
+                        verified.add("failed " + className);
+                    }
+
+                    @Override
+                    public void close() {
+                    }
+                });
+    }
+
+    @Test
+    public void shouldVerifyAllClassesOnceDirectoriesAreQuiet() {
+        Assert.assertEquals(0, watcher.poll(0));
+        Assert.assertEquals(2, watcher.poll(DEBOUNCE));
+
+        Assert.assertEquals(2, verified.size());
+        Assert.assertTrue(watcher.getResults().get(WellFormed.class.getName()).isSuccessful());
+        Assert.assertFalse(watcher.getResults().get(InstanceFields.class.getName()).isSuccessful());
+    }
+
+    @Test
+    public void shouldVerifyOnlyChangedClasses() {
+        watcher.poll(0);
+        watcher.poll(DEBOUNCE);
+        verified.clear();
+
+        Assert.assertEquals(0, watcher.poll(2 * DEBOUNCE));
+        touch(WellFormed.class);
+        watcher.poll(3 * DEBOUNCE);
+        Assert.assertEquals(1, watcher.poll(4 * DEBOUNCE));
+
+        Assert.assertEquals(Arrays.asList(WellFormed.class.getName()), verified);
+        Assert.assertEquals(2, watcher.getResults().size());
+    }
+
+    @Test
+    public void shouldDebounceChanges() {
+        watcher.poll(0);
+        watcher.poll(DEBOUNCE);
+        verified.clear();
+
+        touch(WellFormed.class);
+        Assert.assertEquals(0, watcher.poll(2 * DEBOUNCE));
+        touch(InstanceFields.class);
+        Assert.assertEquals(0, watcher.poll(3 * DEBOUNCE - 1));
+        Assert.assertEquals(0, watcher.poll(4 * DEBOUNCE - 2));
+        Assert.assertEquals(2, watcher.poll(4 * DEBOUNCE));
+    }
+
+    @Test
+    public void shouldForgetRemovedClasses() {
+        watcher.poll(0);
+        watcher.poll(DEBOUNCE);
+
+        Assert.assertTrue(classFile(InstanceFields.class).delete());
+        watcher.poll(2 * DEBOUNCE);
+
+        Assert.assertEquals(1, watcher.getResults().size());
+        Assert.assertTrue(watcher.getResults().containsKey(WellFormed.class.getName()));
+    }
+
+    @Test
+    public void shouldSkipNonUtilClasses() throws IOException {
+        BulkVerifierTest.copyClassFile(getClass(), root);
+
+        watcher.poll(0);
+        watcher.poll(DEBOUNCE);
+
+        Assert.assertEquals(2, verified.size());
+        Assert.assertFalse(watcher.getResults().containsKey(getClass().getName()));
+    }
+
+    @Test
+    public void shouldRejectNonPositivePollInterval() {
+        expectedException.expect(IllegalArgumentException.class);
+
+        watcher.withPollInterval(0, TimeUnit.MILLISECONDS);
+    }
+
+    private File classFile(final Class<?> type) {
+        return new File(root, type.getName().replace('.', '/') + ".class");
+    }
+
+    private void touch(final Class<?> type) {
+        final File file = classFile(type);
+        Assert.assertTrue(file.setLastModified(file.lastModified() + 2000));
+    }
+}
@@ -0,0 +1,49 @@
+/**
+ * Copyright (c) 2017-present, UtilsVerifier Contributors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+package com.github.karczews.utilsverifier.subjects;
+
+public final class ClassMonitors {
+    private static final Object LOCK = new Object();
+    private static final int[] COUNTER = new int[1];
+
+    private ClassMonitors() {
+    }
+
+    public static synchronized int next() {
+        return ++COUNTER[0];
+    }
+
+    public static void reset(final int mode) {
+        switch (mode) {
+            case 1:
+            case 2:
+            case 3:
+                COUNTER[0] = mode;
+                break;
+            case 1000:
+                COUNTER[0] = -1;
+                break;
+            default:
+                break;
+        }
+        synchronized (ClassMonitors.class) {
+            COUNTER[0] = 0;
+        }
+    }
+
+    public static int current() {
+        synchronized (LOCK) {
+            return COUNTER[0];
+        }
+    }
+}
@@ -0,0 +1,48 @@
+/**
+ * Copyright (c) 2017-present, UtilsVerifier Contributors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+package com.github.karczews.utilsverifier.subjects;
+
+public final class LargeMethods {
+    private LargeMethods() {
+    }
+
+    public static int small(final int value) {
+        return value + 1;
+    }
+
+    public static int large(final int value) {
+        int result = value;
+        for (int index = 0; index < 10; index++) {
+            result = result * 31 + index;
+            result ^= result >>> 7;
+            result += result << 3;
+            result ^= result >>> 11;
+        }
+        return result;
+    }
+
+    public static String huge(final int value) {
+        final StringBuilder builder = new StringBuilder();
+        for (int index = 0; index < value; index++) {
+            builder.append(index).append(',').append(index * 2).append(';');
+            if (index % 3 == 0) {
+                builder.append("fizz");
+            } else if (index % 5 == 0) {
+                builder.append("buzz");
+            } else {
+                builder.append(Integer.toHexString(index));
+            }
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,34 @@
+/**
+ * Copyright (c) 2017-present, UtilsVerifier Contributors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+package com.github.karczews.utilsverifier.subjects;
+
+import java.util.HashMap;
+import java.util.Map;
+
+public final class StaticCache {
+    private static final String NAME = "cache";
+    private static final Map<Integer, String> CACHE = new HashMap<Integer, String>();
+
+    static {
+        for (int index = 0; index < 10000; index++) {
+            CACHE.put(index, NAME + index);
+        }
+    }
+
+    private StaticCache() {
+    }
+
+    public static String get(final int index) {
+        return CACHE.get(index);
+    }
+}
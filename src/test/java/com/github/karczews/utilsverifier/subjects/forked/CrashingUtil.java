@@ -0,0 +1,29 @@
+/**
+ * Copyright (c) 2017-present, UtilsVerifier Contributors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+package com.github.karczews.utilsverifier.subjects.forked;
+
+/**
+ * Kills the JVM initializing it when {@code utilsverifier.test.crash}
+ * property is set.
+ */
+public final class CrashingUtil {
+
+    static {
+        if (Boolean.getBoolean("utilsverifier.test.crash")) {
+            Runtime.getRuntime().halt(3);
+        }
+    }
+
+    private CrashingUtil() {
+    }
+}
@@ -0,0 +1,46 @@
+/**
+ * Copyright (c) 2017-present, UtilsVerifier Contributors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+package com.github.karczews.utilsverifier.subjects.immutability;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public final class DefensiveCopies {
+    private static final List<String> DEFAULTS = Collections.unmodifiableList(Arrays.asList("first", "second"));
+
+    private DefensiveCopies() {
+    }
+
+    public static List<String> withDefaults(final String name) {
+        final List<String> copy = new ArrayList<String>();
+        copy.addAll(DEFAULTS);
+        copy.add(name);
+        return copy;
+    }
+
+    public static List<String> copyOf(final String name) {
+        final List<String> copy = new ArrayList<String>(DEFAULTS);
+        copy.add(name);
+        return copy;
+    }
+
+    public static Map<String, List<String>> index(final String key) {
+        final Map<String, List<String>> index = new HashMap<String, List<String>>();
+        index.put(key, DEFAULTS);
+        return index;
+    }
+}
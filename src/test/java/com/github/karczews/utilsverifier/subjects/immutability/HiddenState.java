@@ -0,0 +1,40 @@
+/**
+ * Copyright (c) 2017-present, UtilsVerifier Contributors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+package com.github.karczews.utilsverifier.subjects.immutability;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public final class HiddenState {
+    private static final int[] TABLE = {1, 2};
+    private static final List<String> NAMES = new ArrayList<String>();
+    private static final Map<String, Integer> COUNTS = new HashMap<String, Integer>();
+    private static int calls;
+
+    private HiddenState() {
+    }
+
+    public static void register(final String name) {
+        NAMES.add(name);
+    }
+
+    public static void count(final String key) {
+        COUNTS.put(key, COUNTS.size());
+    }
+
+    public static int call() {
+        return calls++ + TABLE[0];
+    }
+}
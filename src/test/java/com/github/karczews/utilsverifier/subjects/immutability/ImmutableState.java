@@ -0,0 +1,63 @@
+/**
+ * Copyright (c) 2017-present, UtilsVerifier Contributors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+package com.github.karczews.utilsverifier.subjects.immutability;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+public final class ImmutableState {
+    private static final String NAME = "state";
+    private static final String[] EMPTY = {};
+    private static final List<String> NAMES = Collections.unmodifiableList(Arrays.asList("first", "second"));
+    private static final Point ORIGIN = new Point(0, 0);
+    private static final Node CHAIN = new Node(new Node(null));
+    private static final Comparator<String> BY_LENGTH = new ByLength();
+
+    private ImmutableState() {
+    }
+
+    public static boolean contains(final String name) {
+        return NAMES.contains(name) || NAME.equals(name);
+    }
+
+    public static int size() {
+        return EMPTY.length + ORIGIN.x + (CHAIN.next == null ? 0 : 1) + BY_LENGTH.compare(NAME, NAME);
+    }
+
+    public static final class Point {
+        final int x;
+        final int y;
+
+        Point(final int x, final int y) {
+            this.x = x;
+            this.y = y;
+        }
+    }
+
+    public static final class Node {
+        final Node next;
+
+        Node(final Node next) {
+            this.next = next;
+        }
+    }
+
+    private static class ByLength implements Comparator<String> {
+        @Override
+        public int compare(final String first, final String second) {
+            return first.length() - second.length();
+        }
+    }
+}
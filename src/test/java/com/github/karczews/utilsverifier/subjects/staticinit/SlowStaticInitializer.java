@@ -0,0 +1,35 @@
+/**
+ * Copyright (c) 2017-present, UtilsVerifier Contributors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+package com.github.karczews.utilsverifier.subjects.staticinit;
+
+public final class SlowStaticInitializer {
+    private static final long[] TABLE = new long[128 * 1024];
+
+    static {
+        for (int index = 0; index < TABLE.length; index++) {
+            TABLE[index] = index * 31L;
+        }
+        try {
+            Thread.sleep(50);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private SlowStaticInitializer() {
+    }
+
+    public static long lookup(final int index) {
+        return TABLE[index];
+    }
+}
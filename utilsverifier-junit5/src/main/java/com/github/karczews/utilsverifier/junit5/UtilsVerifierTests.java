@@ -0,0 +1,164 @@
+/**
+ * Copyright (c) 2017-present, UtilsVerifier Contributors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+package com.github.karczews.utilsverifier.junit5;
+
+import com.github.karczews.utilsverifier.BulkVerifier;
+import com.github.karczews.utilsverifier.UtilsVerifier;
+import com.github.karczews.utilsverifier.VerificationPolicy;
+import org.junit.jupiter.api.DynamicTest;
+
+import java.io.File;
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * {@code UtilsVerifierTests} expands a package, a set of classpath roots or
+ * a set of classes into JUnit Jupiter dynamic tests, one per class, so each
+ * class is reported, filtered and re-run on its own.
+ * <p>
+ * Classes are listed when the stream is created but loaded and verified only
+ * when their test is executed. With parallel execution enabled in
+ * {@code junit-platform.properties}:
+ * <pre>
+ * junit.jupiter.execution.parallel.enabled=true
+ * junit.jupiter.execution.parallel.mode.default=concurrent
+ * </pre>
+ * dynamic tests are run concurrently on the JUnit Platform worker pool.
+ * <p>
+ * Basic usage:
+ * <pre>
+ * {@code @TestFactory
+ * Stream<DynamicTest> utilClasses() {
+ *     return UtilsVerifierTests.forPackage("com.acme.util").stream();
+ * }}
+ * </pre>
+ *
+ * @see UtilsVerifier
+ * @see BulkVerifier
+ */
+public final class UtilsVerifierTests {
+
+    private final List<String> classNames;
+    private final ClassLoader loader;
+    // null unless classes were provided directly
+    private final List<Class<?>> classes;
+
+    private VerificationPolicy policy = VerificationPolicy.defaultPolicy();
+
+    private UtilsVerifierTests(final List<String> classNames, final ClassLoader loader,
+                               final List<Class<?>> classes) {
+        this.classNames = classNames;
+        this.loader = loader;
+        this.classes = classes;
+    }
+
+    /**
+     * Creates dynamic tests for all classes in the provided package and its
+     * sub-packages visible to the context class loader.
+     *
+     * @param packageName name of the package to verify
+     * @return UtilsVerifierTests instance
+     * @throws IllegalStateException if classes could not be listed
+     */
+    public static UtilsVerifierTests forPackage(final String packageName) {
+        return new UtilsVerifierTests(BulkVerifier.forPackage(packageName).findClasses(), contextClassLoader(), null);
+    }
+
+    /**
+     * Creates dynamic tests for utility-shaped classes discovered under the
+     * provided classpath roots, the ones declaring only static members.
+     *
+     * @param roots directories or jar files to scan
+     * @return UtilsVerifierTests instance
+     * @throws IllegalStateException if classes could not be discovered
+     * @see BulkVerifier#discoverIn(File...)
+     */
+    public static UtilsVerifierTests discoverIn(final File... roots) {
+        final List<String> classNames = BulkVerifier.discoverIn(roots).findClasses();
+        final URL[] urls = new URL[roots.length];
+        try {
+            for (int index = 0; index < roots.length; index++) {
+                urls[index] = roots[index].toURI().toURL();
+            }
+        } catch (final MalformedURLException e) {
+            throw new IllegalStateException(e);
+        }
+        return new UtilsVerifierTests(classNames, new URLClassLoader(urls, contextClassLoader()), null);
+    }
+
+    /**
+     * Creates dynamic tests for the provided classes.
+     *
+     * @param classes classes to verify
+     * @return UtilsVerifierTests instance
+     */
+    public static UtilsVerifierTests forClasses(final Class<?>... classes) {
+        final List<String> classNames = new ArrayList<String>(classes.length);
+        for (final Class<?> type : classes) {
+            if (type == null) throw new NullPointerException("class");
+            classNames.add(type.getName());
+        }
+        return new UtilsVerifierTests(classNames, null, Arrays.<Class<?>>asList(classes.clone()));
+    }
+
+    /**
+     * Sets policy every class is verified with. Defaults to
+     * {@link VerificationPolicy#defaultPolicy()}.
+     *
+     * @param policy policy to verify classes with
+     * @return UtilsVerifierTests instance
+     */
+    public UtilsVerifierTests withPolicy(final VerificationPolicy policy) {
+        if (policy == null) throw new NullPointerException("policy");
+        this.policy = policy;
+        return this;
+    }
+
+    /**
+     * @return names of the classes a test is created for
+     */
+    public List<String> getClassNames() {
+        return Collections.unmodifiableList(classNames);
+    }
+
+    /**
+     * Creates one dynamic test per class. Test is named after the class and
+     * its source points to the class, so it can be navigated to from the IDE.
+     *
+     * @return stream of dynamic tests to return from a
+     * {@link org.junit.jupiter.api.TestFactory} method
+     */
+    public Stream<DynamicTest> stream() {
+        final VerificationPolicy policy = this.policy;
+        return IntStream.range(0, classNames.size()).mapToObj(index -> {
+            final String className = classNames.get(index);
+            return DynamicTest.dynamicTest(className, URI.create("class:" + className),
+                    () -> policy.verify(classes != null
+                            ? classes.get(index)
+                            : Class.forName(className, false, loader)));
+        });
+    }
+
+    private static ClassLoader contextClassLoader() {
+        final ClassLoader loader = Thread.currentThread().getContextClassLoader();
+        return loader != null ? loader : UtilsVerifierTests.class.getClassLoader();
+    }
+}
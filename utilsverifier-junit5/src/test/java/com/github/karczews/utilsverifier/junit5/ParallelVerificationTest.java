@@ -0,0 +1,33 @@
+/**
+ * Copyright (c) 2017-present, UtilsVerifier Contributors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+package com.github.karczews.utilsverifier.junit5;
+
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestFactory;
+import org.junit.platform.runner.JUnitPlatform;
+import org.junit.runner.RunWith;
+
+import java.util.stream.Stream;
+
+/**
+ * Runs dynamic tests on the JUnit Platform, in parallel as configured in
+ * {@code junit-platform.properties}.
+ */
+@RunWith(JUnitPlatform.class)
+public class ParallelVerificationTest {
+
+    @TestFactory
+    Stream<DynamicTest> utilClasses() {
+        return UtilsVerifierTests.forPackage("com.github.karczews.utilsverifier.junit5.subjects.valid").stream();
+    }
+}
@@ -0,0 +1,82 @@
+/**
+ * Copyright (c) 2017-present, UtilsVerifier Contributors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+package com.github.karczews.utilsverifier.junit5;
+
+import com.github.karczews.utilsverifier.VerificationPolicy;
+import com.github.karczews.utilsverifier.junit5.subjects.broken.BrokenUtil;
+import com.github.karczews.utilsverifier.junit5.subjects.valid.FirstUtil;
+import com.github.karczews.utilsverifier.junit5.subjects.valid.SecondUtil;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.rules.ExpectedException;
+
+import java.net.URI;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.core.StringContains.containsString;
+
+public class UtilsVerifierTestsTest {
+
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+
+    @Test
+    public void shouldCreateTestPerClassInPackage() {
+        final List<DynamicTest> tests = UtilsVerifierTests
+                .forPackage("com.github.karczews.utilsverifier.junit5.subjects")
+                .stream()
+                .collect(Collectors.toList());
+
+        Assert.assertEquals(Arrays.asList(BrokenUtil.class.getName(), FirstUtil.class.getName(),
+                SecondUtil.class.getName()),
+                tests.stream().map(DynamicTest::getDisplayName).collect(Collectors.toList()));
+        Assert.assertEquals(URI.create("class:" + FirstUtil.class.getName()),
+                tests.get(1).getTestSourceUri().get());
+    }
+
+    @Test
+    public void shouldPassForWellFormedClass() throws Throwable {
+        for (final DynamicTest test : UtilsVerifierTests.forClasses(FirstUtil.class, SecondUtil.class)
+                .stream().collect(Collectors.toList())) {
+            test.getExecutable().execute();
+        }
+    }
+
+    @Test
+    public void shouldFailOnlyTestOfBrokenClass() throws Throwable {
+        expectedException.expect(AssertionError.class);
+        expectedException.expectMessage(containsString("instanceInt"));
+
+        UtilsVerifierTests.forClasses(BrokenUtil.class).stream().findFirst().get().getExecutable().execute();
+    }
+
+    @Test
+    public void shouldVerifyWithProvidedPolicy() throws Throwable {
+        UtilsVerifierTests.forClasses(BrokenUtil.class)
+                .withPolicy(VerificationPolicy.builder().suppressInstanceFieldCheck(true).build())
+                .stream().findFirst().get().getExecutable().execute();
+    }
+
+    @Test
+    public void shouldListClassNamesOfPackage() {
+        final List<String> classNames = UtilsVerifierTests
+                .forPackage("com.github.karczews.utilsverifier.junit5.subjects.valid")
+                .getClassNames();
+
+        Assert.assertEquals(Arrays.asList(FirstUtil.class.getName(), SecondUtil.class.getName()), classNames);
+    }
+}
@@ -0,0 +1,83 @@
+/**
+ * Copyright (c) 2017-present, UtilsVerifier Contributors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+package com.github.karczews.utilsverifier.processor;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a class that has to be a well formed util class. Annotated classes are
+ * verified during compilation by {@link UtilityClassProcessor} with the same
+ * rules that {@code UtilsVerifier} enforces in tests.
+ * <p>
+ * Attributes mirror the {@code UtilsVerifier} builder methods and allow to
+ * suppress individual checks.
+ * <p>
+ * Example usage:
+ * <pre>
+ * {@code @UtilityClass(suppressFinalClassCheck = true)}
+ * {@code public class StringUtils {...}}
+ * </pre>
+ */
+@Documented
+@Retention(RetentionPolicy.CLASS)
+@Target(ElementType.TYPE)
+public @interface UtilityClass {
+
+    /**
+     * Exception type expected to be thrown by the constructor. The
+     * constructor is not executed during compilation, so this is verified
+     * only by {@code UtilsVerifier} at test time.
+     *
+     * @return expected exception type, {@link Throwable} if none is expected
+     */
+    Class<? extends Throwable> constructorThrowing() default Throwable.class;
+
+    /**
+     * @return true if non-final class is allowed
+     */
+    boolean suppressFinalClassCheck() default false;
+
+    /**
+     * @return true if more than one constructor is allowed
+     */
+    boolean suppressOnlyOneConstructorCheck() default false;
+
+    /**
+     * @return true if non private constructor is allowed
+     */
+    boolean suppressPrivateConstructorCheck() default false;
+
+    /**
+     * @return true if instance fields are allowed
+     */
+    boolean suppressInstanceFieldCheck() default false;
+
+    /**
+     * @return true if instance methods are allowed
+     */
+    boolean suppressInstanceMethodCheck() default false;
+
+    /**
+     * @return true if mutable static fields are allowed
+     */
+    boolean suppressMutableStaticFieldsCheck() default false;
+
+    /**
+     * @return names of mutable static fields that are allowed
+     */
+    String[] allowedMutableStaticFields() default {};
+}
@@ -0,0 +1,103 @@
+/**
+ * Copyright (c) 2017-present, UtilsVerifier Contributors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+package com.github.karczews.utilsverifier.processor;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic;
+
+/**
+ * Annotation processor that verifies classes annotated with
+ * {@link UtilityClass} during compilation.
+ * <p>
+ * Checks are performed on the {@code javax.lang.model} element tree, so no
+ * class is loaded and nothing runs at test time. Every violation is reported
+ * as a compilation error on the offending element.
+ */
+public final class UtilityClassProcessor extends AbstractProcessor {
+
+    @Override
+    public Set<String> getSupportedAnnotationTypes() {
+        return Collections.singleton(UtilityClass.class.getName());
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(final Set<? extends TypeElement> annotations, final RoundEnvironment roundEnv) {
+        for (final Element element : roundEnv.getElementsAnnotatedWith(UtilityClass.class)) {
+            verify((TypeElement) element, element.getAnnotation(UtilityClass.class));
+        }
+        return true;
+    }
+
+    private void verify(final TypeElement type, final UtilityClass settings) {
+        final String className = type.getQualifiedName().toString();
+        if (!settings.suppressFinalClassCheck() && !type.getModifiers().contains(Modifier.FINAL)) {
+            error(type, className + " is not final");
+        }
+
+        int constructors = 0;
+        ExecutableElement defaultConstructor = null;
+        final List<String> allowedFields = Arrays.asList(settings.allowedMutableStaticFields());
+        for (final Element member : type.getEnclosedElements()) {
+            final Set<Modifier> modifiers = member.getModifiers();
+            if (member.getKind() == ElementKind.CONSTRUCTOR) {
+                constructors++;
+                if (((ExecutableElement) member).getParameters().isEmpty()) {
+                    defaultConstructor = (ExecutableElement) member;
+                }
+            } else if (member.getKind() == ElementKind.FIELD) {
+                if (!settings.suppressInstanceFieldCheck() && !modifiers.contains(Modifier.STATIC)) {
+                    error(member, className + " contains instance field " + member.getSimpleName());
+                }
+                if (!settings.suppressMutableStaticFieldsCheck()
+                        && modifiers.contains(Modifier.STATIC) && !modifiers.contains(Modifier.FINAL)
+                        && !allowedFields.contains(member.getSimpleName().toString())) {
+                    error(member, className + " contains static mutable field " + member.getSimpleName());
+                }
+            } else if (member.getKind() == ElementKind.METHOD) {
+                if (!settings.suppressInstanceMethodCheck() && !modifiers.contains(Modifier.STATIC)) {
+                    error(member, className + " contains instance method " + member.getSimpleName());
+                }
+            }
+        }
+
+        if (!settings.suppressOnlyOneConstructorCheck() && constructors != 1) {
+            error(type, className + " has too many constructors");
+        }
+        if (defaultConstructor == null) {
+            error(type, type.getSimpleName() + " has no constructor");
+        } else if (!settings.suppressPrivateConstructorCheck()
+                && !defaultConstructor.getModifiers().contains(Modifier.PRIVATE)) {
+            error(defaultConstructor, "Constructor should be private");
+        }
+    }
+
+    private void error(final Element element, final String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+}
@@ -0,0 +1,147 @@
+/**
+ * Copyright (c) 2017-present, UtilsVerifier Contributors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ */
+package com.github.karczews.utilsverifier.processor;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.ToolProvider;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.assertEquals;
+
+public class UtilityClassProcessorTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void shouldAcceptWellFormedUtilityClass() throws IOException {
+        assertEquals(Collections.<String>emptyList(), compile("WellFormed",
+                "@UtilityClass public final class WellFormed {",
+                "  private static final int CONSTANT = 1;",
+                "  private WellFormed() {}",
+                "  public static int method() { return CONSTANT; }",
+                "}"));
+    }
+
+    @Test
+    public void shouldReportNonFinalClass() throws IOException {
+        assertEquals(Collections.singletonList("NonFinal is not final"), compile("NonFinal",
+                "@UtilityClass public class NonFinal {",
+                "  private NonFinal() {}",
+                "}"));
+    }
+
+    @Test
+    public void shouldReportTooManyConstructors() throws IOException {
+        assertEquals(Collections.singletonList("TooManyConstructors has too many constructors"),
+                compile("TooManyConstructors",
+                        "@UtilityClass public final class TooManyConstructors {",
+                        "  private TooManyConstructors() {}",
+                        "  private TooManyConstructors(int value) {}",
+                        "}"));
+    }
+
+    @Test
+    public void shouldReportNonPrivateConstructor() throws IOException {
+        assertEquals(Collections.singletonList("Constructor should be private"), compile("PublicConstructor",
+                "@UtilityClass public final class PublicConstructor {",
+                "  public PublicConstructor() {}",
+                "}"));
+    }
+
+    @Test
+    public void shouldReportInstanceMembers() throws IOException {
+        assertEquals(Arrays.asList(
+                "InstanceMembers contains instance field field",
+                "InstanceMembers contains instance method method"), compile("InstanceMembers",
+                "@UtilityClass public final class InstanceMembers {",
+                "  private final int field = 1;",
+                "  private InstanceMembers() {}",
+                "  public int method() { return field; }",
+                "}"));
+    }
+
+    @Test
+    public void shouldReportMutableStaticFieldNotOnAllowlist() throws IOException {
+        assertEquals(Collections.singletonList("MutableStatic contains static mutable field counter"),
+                compile("MutableStatic",
+                        "@UtilityClass(allowedMutableStaticFields = \"allowed\")",
+                        "public final class MutableStatic {",
+                        "  private static int allowed;",
+                        "  private static int counter;",
+                        "  private MutableStatic() {}",
+                        "}"));
+    }
+
+    @Test
+    public void shouldSkipSuppressedChecks() throws IOException {
+        assertEquals(Collections.<String>emptyList(), compile("Suppressed",
+                "@UtilityClass(suppressFinalClassCheck = true, suppressOnlyOneConstructorCheck = true,",
+                "    suppressPrivateConstructorCheck = true, suppressInstanceFieldCheck = true,",
+                "    suppressInstanceMethodCheck = true, suppressMutableStaticFieldsCheck = true)",
+                "public class Suppressed {",
+                "  private int field;",
+                "  private static int counter;",
+                "  public Suppressed() {}",
+                "  public Suppressed(int value) {}",
+                "  public int method() { return field; }",
+                "}"));
+    }
+
+    private List<String> compile(final String className, final String... lines) throws IOException {
+        final StringBuilder source = new StringBuilder("import ")
+                .append(UtilityClass.class.getName()).append(";\n");
+        for (final String line : lines) {
+            source.append(line).append('\n');
+        }
+        final JavaFileObject file = new SimpleJavaFileObject(
+                URI.create("string:///" + className + ".java"), JavaFileObject.Kind.SOURCE) {
+            @Override
+            public CharSequence getCharContent(final boolean ignoreEncodingErrors) {
+                return source;
+            }
+        };
+
+        final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        final DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<JavaFileObject>();
+        final File output = temporaryFolder.newFolder();
+        final JavaCompiler.CompilationTask task = compiler.getTask(null, null, diagnostics,
+                Arrays.asList("-d", output.getPath(), "-proc:only",
+                        "-classpath", System.getProperty("java.class.path")),
+                null, Collections.singletonList(file));
+        task.setProcessors(Collections.singletonList(new UtilityClassProcessor()));
+        task.call();
+
+        final List<String> errors = new ArrayList<String>();
+        for (final Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+            if (diagnostic.getKind() == Diagnostic.Kind.ERROR) {
+                errors.add(diagnostic.getMessage(null));
+            }
+        }
+        return errors;
+    }
+}